@@ -0,0 +1,102 @@
+package backend.analytics;
+
+/**
+ * Occupied days of each booking, keyed by booking ID, in parallel int arrays
+ * (open addressing with linear probing). A slot takes 16 bytes and the table
+ * is kept at most 70% full, so a booking costs 23 to 46 bytes, against about a
+ * hundred in a HashMap of int[] entries.
+ */
+final class BookingIntervals {
+    private static final int EMPTY = 0;  // booking IDs start at 1
+    private static final int MIN_CAPACITY = 64;
+
+    private int[] keys = new int[MIN_CAPACITY];
+    private int[] vehicleIds = new int[MIN_CAPACITY];
+    private int[] startDays = new int[MIN_CAPACITY];
+    private int[] endDays = new int[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Record the days [startDay, endDay) of a booking, replacing a previous entry
+     */
+    void put(int bookingId, int vehicleId, int startDay, int endDay) {
+        if ((size + 1) * 10 > keys.length * 7) {
+            resize(keys.length * 2);
+        }
+        int slot = slot(bookingId);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = bookingId;
+            size++;
+        }
+        vehicleIds[slot] = vehicleId;
+        startDays[slot] = startDay;
+        endDays[slot] = endDay;
+    }
+
+    /**
+     * Remove the entry of a booking
+     * @return {vehicleId, startDay, endDay}, or null if the booking has no entry
+     */
+    int[] remove(int bookingId) {
+        int slot = slot(bookingId);
+        if (keys[slot] == EMPTY) {
+            return null;
+        }
+        int[] removed = {vehicleIds[slot], startDays[slot], endDays[slot]};
+        keys[slot] = EMPTY;
+        size--;
+
+        // Shift back the following entries of the probe sequence so lookups do not stop at the hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(int bookingId) {
+        int mask = keys.length - 1;
+        int slot = hash(bookingId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != bookingId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        vehicleIds[to] = vehicleIds[from];
+        startDays[to] = startDays[from];
+        endDays[to] = endDays[from];
+        keys[from] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys, oldVehicles = vehicleIds, oldStarts = startDays, oldEnds = endDays;
+        keys = new int[capacity];
+        vehicleIds = new int[capacity];
+        startDays = new int[capacity];
+        endDays = new int[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldVehicles[i], oldStarts[i], oldEnds[i]);
+            }
+        }
+    }
+
+    // Sequential IDs would cluster in neighbouring slots; spread them first
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,64 @@
+package backend.analytics;
+
+/**
+ * Counter per epoch day over a growable range of days
+ */
+final class DailyCounts {
+    private static final int MIN_CAPACITY = 64;
+
+    private int firstDay;
+    private int[] counts = new int[0];
+
+    /**
+     * Add delta to every day in [fromDay, toDay)
+     */
+    void add(int fromDay, int toDay, int delta) {
+        if (fromDay >= toDay) {
+            return;
+        }
+        ensureRange(fromDay, toDay);
+        for (int day = fromDay - firstDay, end = toDay - firstDay; day < end; day++) {
+            counts[day] += delta;
+        }
+    }
+
+    /**
+     * Sum of the counts of the days in [fromDay, toDay)
+     */
+    long sum(int fromDay, int toDay) {
+        int from = Math.max(fromDay, firstDay) - firstDay;
+        int to = Math.min(toDay, firstDay + counts.length) - firstDay;
+        long sum = 0;
+        for (int day = from; day < to; day++) {
+            sum += counts[day];
+        }
+        return sum;
+    }
+
+    /**
+     * Count of a single day
+     */
+    int get(int day) {
+        int index = day - firstDay;
+        return index >= 0 && index < counts.length ? counts[index] : 0;
+    }
+
+    private void ensureRange(int fromDay, int toDay) {
+        if (counts.length == 0) {
+            firstDay = fromDay;
+            counts = new int[Math.max(MIN_CAPACITY, toDay - fromDay)];
+            return;
+        }
+        int lastDay = firstDay + counts.length;
+        if (fromDay >= firstDay && toDay <= lastDay) {
+            return;
+        }
+        // Grow geometrically in the direction(s) needed
+        int newFirst = fromDay < firstDay ? Math.min(fromDay, firstDay - counts.length) : firstDay;
+        int newLast = toDay > lastDay ? Math.max(toDay, lastDay + counts.length) : lastDay;
+        int[] grown = new int[newLast - newFirst];
+        System.arraycopy(counts, 0, grown, firstDay - newFirst, counts.length);
+        firstDay = newFirst;
+        counts = grown;
+    }
+}
@@ -0,0 +1,122 @@
+package backend.analytics;
+
+import backend.models.Pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Piecewise-linear curve mapping a value (occupancy, lead time in days) to a
+ * price multiplier in basis points. Between two points the multiplier is
+ * interpolated linearly; outside the first and last point it is held
+ * constant.
+ *
+ * A curve is written as comma-separated x:multiplier points in increasing x
+ * order, e.g. "0:0.90,0.5:1.00,0.85:1.30,1:1.60".
+ */
+public final class DemandCurve {
+    /**
+     * Curve that leaves prices unchanged
+     */
+    public static final DemandCurve FLAT = new DemandCurve(new double[]{0}, new long[]{Pricing.BASIS_POINTS});
+
+    private final double[] xs;
+    private final long[] multipliers;
+
+    private DemandCurve(double[] xs, long[] multipliers) {
+        this.xs = xs;
+        this.multipliers = multipliers;
+    }
+
+    /**
+     * Parse a curve definition
+     * @param spec comma-separated x:multiplier points, x strictly increasing
+     * @return parsed curve
+     * @throws IllegalArgumentException if the definition is malformed
+     */
+    public static DemandCurve parse(String spec) {
+        String[] points = spec.trim().split("\\s*,\\s*");
+        double[] xs = new double[points.length];
+        long[] multipliers = new long[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] parts = points[i].split("\\s*:\\s*");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid curve point: " + points[i]);
+            }
+            try {
+                xs[i] = Double.parseDouble(parts[0]);
+                multipliers[i] = new BigDecimal(parts[1]).movePointRight(4).setScale(0, RoundingMode.HALF_UP)
+                        .longValueExact();
+            } catch (NumberFormatException | ArithmeticException e) {
+                throw new IllegalArgumentException("Invalid curve point: " + points[i], e);
+            }
+            if (multipliers[i] <= 0) {
+                throw new IllegalArgumentException("Curve multiplier must be positive: " + points[i]);
+            }
+            if (i > 0 && xs[i] <= xs[i - 1]) {
+                throw new IllegalArgumentException("Curve points must be in increasing order: " + spec);
+            }
+        }
+        return new DemandCurve(xs, multipliers);
+    }
+
+    /**
+     * Parse the curve in a system property, falling back to a default
+     * definition if the property is not set or malformed
+     */
+    static DemandCurve fromProperty(String property, String defaultSpec) {
+        String spec = System.getProperty(property);
+        if (spec != null) {
+            try {
+                return parse(spec);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error parsing " + property + ", using default curve: " + e.getMessage());
+            }
+        }
+        return parse(defaultSpec);
+    }
+
+    /**
+     * Multiplier at a value, in basis points (10,000 = 1.0)
+     */
+    public long basisPointsAt(double x) {
+        if (x <= xs[0]) {
+            return multipliers[0];
+        }
+        int last = xs.length - 1;
+        if (x >= xs[last]) {
+            return multipliers[last];
+        }
+        int i = 1;
+        while (xs[i] < x) {
+            i++;
+        }
+        double t = (x - xs[i - 1]) / (xs[i] - xs[i - 1]);
+        return Math.round(multipliers[i - 1] + t * (multipliers[i] - multipliers[i - 1]));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < xs.length; i++) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(BigDecimal.valueOf(xs[i]).stripTrailingZeros().toPlainString()).append(':')
+                    .append(BigDecimal.valueOf(multipliers[i], 4).stripTrailingZeros().toPlainString());
+        }
+        return text.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DemandCurve && Arrays.equals(xs, ((DemandCurve) o).xs)
+                && Arrays.equals(multipliers, ((DemandCurve) o).multipliers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(xs) + Arrays.hashCode(multipliers);
+    }
+}
@@ -0,0 +1,123 @@
+package backend.analytics;
+
+import backend.models.Money;
+import backend.models.Pricing;
+import backend.models.Vehicle;
+
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Demand-based adjustment of the daily rate per vehicle type and day.
+ *
+ * The multiplier of a day is the product of two configurable curves: one of
+ * the share of the type's fleet already booked on that day, read from the
+ * per-day counters of FleetOccupancy, and one of the lead time in days
+ * between today and that day. It applies on top of the static weekend and
+ * holiday multipliers of the pricing rule. No SQL is run while quoting.
+ *
+ * The curves are read from the system properties
+ * {@value #OCCUPANCY_CURVE_PROPERTY} and {@value #LEAD_TIME_CURVE_PROPERTY}
+ * (see {@link DemandCurve} for the format) and can be replaced at runtime.
+ */
+public final class DemandPricing {
+    public static final String OCCUPANCY_CURVE_PROPERTY = "vehiclerental.pricing.occupancyCurve";
+    public static final String LEAD_TIME_CURVE_PROPERTY = "vehiclerental.pricing.leadTimeCurve";
+
+    // Discount an empty fleet, charge more as it fills up
+    static final String DEFAULT_OCCUPANCY_CURVE = "0:0.90,0.5:1.00,0.8:1.20,1:1.50";
+    // Charge more for last-minute rentals, reward early bookings
+    static final String DEFAULT_LEAD_TIME_CURVE = "0:1.15,3:1.05,14:1.00,60:0.95";
+
+    private static final DemandPricing INSTANCE = new DemandPricing(FleetOccupancy.getInstance(),
+            DemandCurve.fromProperty(OCCUPANCY_CURVE_PROPERTY, DEFAULT_OCCUPANCY_CURVE),
+            DemandCurve.fromProperty(LEAD_TIME_CURVE_PROPERTY, DEFAULT_LEAD_TIME_CURVE),
+            Clock.systemDefaultZone());
+
+    private final FleetOccupancy occupancy;
+    private final Clock clock;
+    private volatile DemandCurve occupancyCurve;
+    private volatile DemandCurve leadTimeCurve;
+
+    public DemandPricing(FleetOccupancy occupancy, DemandCurve occupancyCurve, DemandCurve leadTimeCurve,
+                         Clock clock) {
+        this.occupancy = occupancy;
+        this.occupancyCurve = occupancyCurve;
+        this.leadTimeCurve = leadTimeCurve;
+        this.clock = clock;
+    }
+
+    /**
+     * Shared instance configured from the system properties
+     */
+    public static DemandPricing getInstance() {
+        return INSTANCE;
+    }
+
+    public DemandCurve getOccupancyCurve() {
+        return occupancyCurve;
+    }
+
+    public DemandCurve getLeadTimeCurve() {
+        return leadTimeCurve;
+    }
+
+    /**
+     * Replace the curves; quotes computed afterwards use the new ones
+     */
+    public void setCurves(DemandCurve occupancyCurve, DemandCurve leadTimeCurve) {
+        this.occupancyCurve = occupancyCurve;
+        this.leadTimeCurve = leadTimeCurve;
+    }
+
+    /**
+     * Demand multiplier of each day of a period
+     * @param type vehicle type
+     * @param start first day
+     * @param days number of days
+     * @return multipliers in basis points, indexed by day from start
+     */
+    public long[] getDailyMultipliers(Vehicle.VehicleType type, LocalDate start, int days) {
+        double[] utilization = occupancy.getDailyTypeUtilization(type, start, start.plusDays(days));
+        DemandCurve occupancyCurve = this.occupancyCurve;
+        DemandCurve leadTimeCurve = this.leadTimeCurve;
+        long leadTime = start.toEpochDay() - LocalDate.now(clock).toEpochDay();
+
+        long[] multipliers = new long[days];
+        for (int i = 0; i < days; i++) {
+            long product = occupancyCurve.basisPointsAt(utilization[i])
+                    * leadTimeCurve.basisPointsAt(Math.max(0, leadTime + i));
+            multipliers[i] = Money.divide(product, Pricing.BASIS_POINTS, RoundingMode.HALF_UP);
+        }
+        return multipliers;
+    }
+
+    /**
+     * Demand multiplier of a single day, in basis points
+     */
+    public long getMultiplier(Vehicle.VehicleType type, LocalDate day) {
+        return getDailyMultipliers(type, day, 1)[0];
+    }
+
+    /**
+     * Sum of the day multipliers of a rental period with demand applied: for
+     * every day the static multiplier of the pricing rule times the demand
+     * multiplier. Drop-in replacement for
+     * {@link Pricing#dayFactorBasisPoints} in {@link Pricing#quoteRange}.
+     * @param pricing pricing rule of the vehicle type
+     * @param start first day of the rental
+     * @param days number of rental days
+     * @param holidays holiday dates (may be empty)
+     * @return sum of the multipliers times 10,000
+     */
+    public long dayFactorBasisPoints(Pricing pricing, LocalDate start, int days, Set<LocalDate> holidays) {
+        long[] demand = getDailyMultipliers(pricing.getVehicleType(), start, days);
+        long product = 0;
+        for (int i = 0; i < days; i++) {
+            product = Math.addExact(product, pricing.dayBasisPoints(start.plusDays(i), holidays) * demand[i]);
+        }
+        return Money.divide(product, Pricing.BASIS_POINTS, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,406 @@
+package backend.analytics;
+
+import backend.dao.BookingDAO;
+import backend.dao.OccupancyDAO;
+import backend.dao.RentalHistoryDAO;
+import backend.dao.VehicleDAO;
+import backend.models.Booking;
+import backend.models.Vehicle;
+import backend.models.VehicleSummary;
+import backend.util.MetricsRegistry;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Materialized daily occupancy of the fleet, per vehicle and per vehicle type.
+ *
+ * A vehicle is occupied on every day from the start date of a confirmed,
+ * active or completed booking up to its end date (or actual return date once
+ * returned), with a minimum of one day. The counts are kept per day, so a
+ * query over any window sums the buckets of that window instead of expanding
+ * the bookings again.
+ *
+ * Only a rolling window of days is kept: from vehiclerental.occupancy.historyDays
+ * (default 400) days before today on, with bookings that ended earlier left
+ * out entirely, so memory follows the recent and future bookings rather than
+ * the whole history. Days before the window count as unoccupied. The window
+ * moves forward with a rebuild once it is a month behind.
+ *
+ * The aggregates follow BookingDAO, RentalHistoryDAO and VehicleDAO writes
+ * through their change listeners: changed bookings are queued, including
+ * those of set-based updates, while fleet changes trigger a full rebuild.
+ * Only the first query builds the aggregates itself. Afterwards every change
+ * schedules the reload on a background thread, which runs its SQL without
+ * holding the lock of the aggregates and then applies the result (or swaps
+ * in a rebuilt copy) in one short step. Queries, the pricing that reads
+ * them and the change listeners on the event dispatch thread therefore
+ * never wait for SQL; a query may see the counters a few milliseconds
+ * before a change is applied.
+ */
+public final class FleetOccupancy {
+    private static final FleetOccupancy INSTANCE = new FleetOccupancy(new OccupancyDAO(), new VehicleDAO());
+    private static final MetricsRegistry.Timer REBUILDS = MetricsRegistry.getInstance().timer("cache.occupancy.rebuild");
+    private static final String HISTORY_DAYS_PROPERTY = "vehiclerental.occupancy.historyDays";
+    private static final int WINDOW_SLACK_DAYS = 31;
+
+    /**
+     * Day counts of one build, covering the days from firstDay on
+     */
+    private static final class Aggregates {
+        final int firstDay;
+        // Counted days of each occupying booking, clipped to the window
+        final BookingIntervals intervals = new BookingIntervals();
+        final Map<Integer, DailyCounts> byVehicle = new HashMap<>();
+        final DailyCounts[] byType = new DailyCounts[RentalHistoryColumns.TYPE_COUNT + 1];
+        final Map<Integer, Integer> vehicleTypes = new HashMap<>();
+        final int[] fleetSizes = new int[RentalHistoryColumns.TYPE_COUNT + 1];
+
+        Aggregates(int firstDay) {
+            this.firstDay = firstDay;
+            for (int type = 0; type < byType.length; type++) {
+                byType[type] = new DailyCounts();
+            }
+        }
+
+        void addVehicle(VehicleSummary vehicle) {
+            int type = vehicle.getVehicleType().ordinal();
+            vehicleTypes.put(vehicle.getVehicleId(), type);
+            fleetSizes[type]++;
+        }
+
+        /**
+         * Counted days of a booking
+         * @return {bookingId, vehicleId, fromDay, toDay}, or null if the booking occupies no day of the window
+         */
+        int[] interval(int bookingId, int vehicleId, int startDay, int endDay, int returnDay,
+                       Booking.BookingStatus status) {
+            if (status != Booking.BookingStatus.CONFIRMED && status != Booking.BookingStatus.ACTIVE
+                    && status != Booking.BookingStatus.COMPLETED) {
+                return null;
+            }
+            int end = status == Booking.BookingStatus.COMPLETED && returnDay != OccupancyDAO.NO_DATE
+                    ? returnDay : endDay;
+            int to = Math.max(end, startDay + 1);
+            int from = Math.max(startDay, firstDay);
+            return from < to ? new int[]{bookingId, vehicleId, from, to} : null;
+        }
+
+        void addBooking(int bookingId, int vehicleId, int startDay, int endDay, int returnDay,
+                        Booking.BookingStatus status) {
+            int[] interval = interval(bookingId, vehicleId, startDay, endDay, returnDay, status);
+            if (interval != null) {
+                add(interval);
+            }
+        }
+
+        void add(int[] interval) {
+            intervals.put(interval[0], interval[1], interval[2], interval[3]);
+            count(interval[1], interval[2], interval[3], 1);
+        }
+
+        void remove(int bookingId) {
+            int[] interval = intervals.remove(bookingId);
+            if (interval != null) {
+                count(interval[0], interval[1], interval[2], -1);
+            }
+        }
+
+        private void count(int vehicleId, int fromDay, int toDay, int delta) {
+            byVehicle.computeIfAbsent(vehicleId, id -> new DailyCounts()).add(fromDay, toDay, delta);
+            byType[vehicleTypes.getOrDefault(vehicleId, RentalHistoryColumns.UNKNOWN_TYPE)]
+                    .add(fromDay, toDay, delta);
+        }
+    }
+
+    private final OccupancyDAO occupancyDAO;
+    private final VehicleDAO vehicleDAO;
+    private final int historyDays;
+    // Held while loading from the database; the monitor of this object guards the aggregates
+    private final Object refreshLock = new Object();
+
+    private Aggregates aggregates;
+    private final Set<Integer> pendingBookings = new HashSet<>();
+    private boolean stale = true;
+    private volatile boolean built;
+    private boolean refreshScheduled;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fleet-occupancy-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    FleetOccupancy(OccupancyDAO occupancyDAO, VehicleDAO vehicleDAO) {
+        this.occupancyDAO = occupancyDAO;
+        this.vehicleDAO = vehicleDAO;
+        this.historyDays = Integer.getInteger(HISTORY_DAYS_PROPERTY, 400);
+        BookingDAO.addChangeListener(this::bookingsChanged);
+        RentalHistoryDAO.addChangeListener(this::bookingsChanged);
+        VehicleDAO.addChangeListener(ids -> invalidate());
+    }
+
+    /**
+     * Shared instance used by the reports and pricing
+     */
+    public static FleetOccupancy getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Register a listener run after a change has been applied to the
+     * counters. Caches of values derived from the occupancy invalidate here
+     * rather than on the DAO notifications, which arrive before the counters
+     * have caught up.
+     * @param listener listener to add
+     */
+    public void addChangeListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Drop the aggregates; they are rebuilt in the background (or by the
+     * first query if they have not been built yet)
+     */
+    public synchronized void invalidate() {
+        stale = true;
+        pendingBookings.clear();
+        scheduleRefresh();
+    }
+
+    private synchronized void bookingsChanged(int[] bookingIds) {
+        if (bookingIds == null) {
+            invalidate();
+        } else if (!stale) {
+            for (int bookingId : bookingIds) {
+                pendingBookings.add(bookingId);
+            }
+            scheduleRefresh();
+        }
+    }
+
+    // Apply queued changes in the background, once the aggregates are in use
+    private synchronized void scheduleRefresh() {
+        if (built && !refreshScheduled) {
+            refreshScheduled = true;
+            refresher.execute(() -> {
+                synchronized (this) {
+                    refreshScheduled = false;
+                }
+                synchronized (refreshLock) {
+                    refresh();
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of vehicles of a type in the fleet
+     */
+    public int getFleetSize(Vehicle.VehicleType type) {
+        ensureBuilt();
+        synchronized (this) {
+            return aggregates.fleetSizes[type.ordinal()];
+        }
+    }
+
+    /**
+     * Number of vehicles of a type occupied on a day
+     */
+    public int getOccupiedVehicles(Vehicle.VehicleType type, LocalDate day) {
+        ensureBuilt();
+        synchronized (this) {
+            return Math.min(aggregates.byType[type.ordinal()].get((int) day.toEpochDay()),
+                    aggregates.fleetSizes[type.ordinal()]);
+        }
+    }
+
+    /**
+     * Share of days in [from, to) on which a vehicle was occupied
+     * @return utilization between 0 and 1
+     */
+    public double getVehicleUtilization(int vehicleId, LocalDate from, LocalDate to) {
+        ensureBuilt();
+        long days = to.toEpochDay() - from.toEpochDay();
+        synchronized (this) {
+            DailyCounts counts = aggregates.byVehicle.get(vehicleId);
+            if (days <= 0 || counts == null) {
+                return 0.0;
+            }
+            return Math.min(1.0, counts.sum((int) from.toEpochDay(), (int) to.toEpochDay()) / (double) days);
+        }
+    }
+
+    /**
+     * IDs of the vehicles occupied on at least one day in [from, to)
+     */
+    public Set<Integer> getOccupiedVehicleIds(LocalDate from, LocalDate to) {
+        ensureBuilt();
+        int first = (int) from.toEpochDay();
+        int last = (int) to.toEpochDay();
+        Set<Integer> occupied = new HashSet<>();
+        synchronized (this) {
+            for (Map.Entry<Integer, DailyCounts> vehicle : aggregates.byVehicle.entrySet()) {
+                if (vehicle.getValue().sum(first, last) > 0) {
+                    occupied.add(vehicle.getKey());
+                }
+            }
+        }
+        return occupied;
+    }
+
+    /**
+     * Share of fleet days of a vehicle type occupied in [from, to)
+     * @return utilization between 0 and 1
+     */
+    public double getTypeUtilization(Vehicle.VehicleType type, LocalDate from, LocalDate to) {
+        ensureBuilt();
+        synchronized (this) {
+            long fleetDays = (to.toEpochDay() - from.toEpochDay()) * aggregates.fleetSizes[type.ordinal()];
+            if (fleetDays <= 0) {
+                return 0.0;
+            }
+            long occupied = aggregates.byType[type.ordinal()].sum((int) from.toEpochDay(), (int) to.toEpochDay());
+            return Math.min(1.0, occupied / (double) fleetDays);
+        }
+    }
+
+    /**
+     * Daily utilization of a vehicle type for every day in [from, to)
+     * @return utilization between 0 and 1, indexed by day from the start of the window
+     */
+    public double[] getDailyTypeUtilization(Vehicle.VehicleType type, LocalDate from, LocalDate to) {
+        ensureBuilt();
+        int first = (int) from.toEpochDay();
+        double[] utilization = new double[Math.max(0, (int) (to.toEpochDay() - first))];
+        synchronized (this) {
+            int fleet = aggregates.fleetSizes[type.ordinal()];
+            if (fleet > 0) {
+                DailyCounts counts = aggregates.byType[type.ordinal()];
+                for (int i = 0; i < utilization.length; i++) {
+                    utilization[i] = Math.min(1.0, counts.get(first + i) / (double) fleet);
+                }
+            }
+        }
+        return utilization;
+    }
+
+    // The first query builds the aggregates; later ones only make sure a pending rebuild is scheduled
+    private void ensureBuilt() {
+        if (!built) {
+            synchronized (refreshLock) {
+                if (!built) {
+                    refresh();
+                }
+            }
+        }
+        synchronized (this) {
+            if (stale || windowExpired()) {
+                scheduleRefresh();
+            }
+        }
+    }
+
+    private boolean windowExpired() {
+        return aggregates != null
+                && aggregates.firstDay < LocalDate.now().toEpochDay() - historyDays - WINDOW_SLACK_DAYS;
+    }
+
+    // Runs with refreshLock held and takes the monitor only to read the queue and to apply the result
+    private void refresh() {
+        boolean rebuild;
+        int[] bookingIds;
+        synchronized (this) {
+            rebuild = stale || !built || windowExpired();
+            bookingIds = new int[rebuild ? 0 : pendingBookings.size()];
+            if (!rebuild) {
+                int i = 0;
+                for (int bookingId : pendingBookings) {
+                    bookingIds[i++] = bookingId;
+                }
+            }
+            pendingBookings.clear();
+            stale = false;
+        }
+
+        if (rebuild) {
+            rebuild();
+        } else if (bookingIds.length > 0) {
+            reload(bookingIds);
+        }
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        Aggregates rebuilt = new Aggregates((int) LocalDate.now().toEpochDay() - historyDays);
+        for (VehicleSummary vehicle : vehicleDAO.getVehicleSummaries()) {
+            rebuilt.addVehicle(vehicle);
+        }
+        boolean loaded = occupancyDAO.loadAllIntervals(rebuilt.firstDay, rebuilt::addBooking);
+        boolean replaced;
+        synchronized (this) {
+            replaced = aggregates != null;
+            aggregates = rebuilt;
+            built = true;
+            if (!loaded) {
+                stale = true;
+            }
+        }
+        REBUILDS.record(System.nanoTime() - start);
+        // Nothing can have been derived from the counters before the first build
+        if (replaced) {
+            notifyListeners();
+        }
+    }
+
+    private void reload(int[] bookingIds) {
+        // Only this thread replaces the aggregates, so the window cannot move while loading
+        Aggregates current;
+        synchronized (this) {
+            current = aggregates;
+        }
+        List<int[]> loaded = new ArrayList<>();
+        boolean complete = occupancyDAO.loadIntervals(bookingIds, (bookingId, vehicleId, startDay, endDay,
+                                                                     returnDay, status) -> {
+            int[] interval = current.interval(bookingId, vehicleId, startDay, endDay, returnDay, status);
+            if (interval != null) {
+                loaded.add(interval);
+            }
+        });
+        synchronized (this) {
+            for (int bookingId : bookingIds) {
+                current.remove(bookingId);
+            }
+            for (int[] interval : loaded) {
+                current.add(interval);
+            }
+            if (!complete) {
+                stale = true;
+                scheduleRefresh();
+            }
+        }
+        notifyListeners();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying occupancy listener: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package backend.analytics;
+
+import backend.models.RentalHistory;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.stream.IntStream;
+
+/**
+ * Analytics over a {@link RentalHistoryColumns} snapshot.
+ *
+ * Queries split the rows into fixed-size chunks that are scanned in parallel
+ * on the common fork/join pool. Each chunk accumulates into its own long[]
+ * and the partial arrays are summed at the end, so the inner loops are plain
+ * branch-free passes over primitive arrays that the JIT can vectorize.
+ * Revenue and duration figures count completed rentals only, like the SQL
+ * aggregates in RentalHistoryDAO.
+ */
+public final class RentalAnalytics {
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final byte COMPLETED = (byte) RentalHistory.RentalStatus.COMPLETED.ordinal();
+
+    /**
+     * Accumulates rows [from, to) into a chunk-local accumulator
+     */
+    @FunctionalInterface
+    private interface ChunkKernel {
+        void accumulate(int from, int to, long[] acc);
+    }
+
+    private final RentalHistoryColumns columns;
+    private final int firstDay;
+    private final YearMonth firstMonth;
+    private final int monthCount;
+    // Month index (relative to firstMonth) of every epoch day from firstDay on
+    private final int[] monthOfDay;
+
+    public RentalAnalytics(RentalHistoryColumns columns) {
+        this.columns = columns;
+
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+        for (int i = 0; i < columns.size; i++) {
+            minDay = Math.min(minDay, columns.startDays[i]);
+            maxDay = Math.max(maxDay, columns.startDays[i]);
+        }
+        if (columns.size == 0) {
+            minDay = maxDay = (int) LocalDate.now().toEpochDay();
+        }
+
+        this.firstDay = minDay;
+        this.firstMonth = YearMonth.from(LocalDate.ofEpochDay(minDay));
+        YearMonth lastMonth = YearMonth.from(LocalDate.ofEpochDay(maxDay));
+        this.monthCount = (int) (lastMonth.getYear() * 12L + lastMonth.getMonthValue()
+                - firstMonth.getYear() * 12L - firstMonth.getMonthValue()) + 1;
+
+        this.monthOfDay = new int[maxDay - minDay + 1];
+        LocalDate day = LocalDate.ofEpochDay(minDay);
+        for (int i = 0; i < monthOfDay.length; i++, day = day.plusDays(1)) {
+            monthOfDay[i] = (day.getYear() - firstMonth.getYear()) * 12
+                    + day.getMonthValue() - firstMonth.getMonthValue();
+        }
+    }
+
+    /**
+     * Number of rows analysed
+     */
+    public int getRowCount() {
+        return columns.size;
+    }
+
+    /**
+     * Total revenue of completed rentals
+     * @return revenue in cents
+     */
+    public long getTotalRevenueCents() {
+        final long[] amounts = columns.amountCents;
+        final byte[] statuses = columns.statuses;
+        return parallelSum(1, (from, to, acc) -> {
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += statuses[i] == COMPLETED ? amounts[i] : 0;
+            }
+            acc[0] += sum;
+        })[0];
+    }
+
+    /**
+     * Average planned duration of completed rentals
+     * @return average duration in days
+     */
+    public double getAverageDurationDays() {
+        final int[] starts = columns.startDays;
+        final int[] ends = columns.endDays;
+        final byte[] statuses = columns.statuses;
+        long[] totals = parallelSum(2, (from, to, acc) -> {
+            long count = 0;
+            long days = 0;
+            for (int i = from; i < to; i++) {
+                int completed = statuses[i] == COMPLETED ? 1 : 0;
+                count += completed;
+                days += completed * (ends[i] - starts[i]);
+            }
+            acc[0] += count;
+            acc[1] += days;
+        });
+        return totals[0] > 0 ? totals[1] / (double) totals[0] : 0.0;
+    }
+
+    /**
+     * Revenue of completed rentals by vehicle type and month of the start date
+     */
+    public MonthlyRevenue getRevenueByVehicleTypeAndMonth() {
+        final int typeSlots = RentalHistoryColumns.TYPE_COUNT + 1;
+        final int months = monthCount;
+        final int dayOffset = firstDay;
+        final int[] monthIndex = monthOfDay;
+        final int[] starts = columns.startDays;
+        final long[] amounts = columns.amountCents;
+        final byte[] statuses = columns.statuses;
+        final byte[] types = columns.vehicleTypes;
+        long[] cents = parallelSum(typeSlots * months, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int slot = types[i] * months + monthIndex[starts[i] - dayOffset];
+                acc[slot] += statuses[i] == COMPLETED ? amounts[i] : 0;
+            }
+        });
+        return new MonthlyRevenue(firstMonth, months, cents);
+    }
+
+    /**
+     * Histogram of planned durations of completed rentals
+     * @param maxDays last bucket; longer rentals are counted in it as well
+     * @return counts indexed by duration in days (0..maxDays)
+     */
+    public long[] getDurationHistogram(int maxDays) {
+        final int[] starts = columns.startDays;
+        final int[] ends = columns.endDays;
+        final byte[] statuses = columns.statuses;
+        return parallelSum(maxDays + 1, (from, to, acc) -> {
+            for (int i = from; i < to; i++) {
+                int bucket = Math.max(0, Math.min(ends[i] - starts[i], maxDays));
+                acc[bucket] += statuses[i] == COMPLETED ? 1 : 0;
+            }
+        });
+    }
+
+    private long[] parallelSum(int width, ChunkKernel kernel) {
+        int rows = columns.size;
+        int chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream chunkIds = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            chunkIds = chunkIds.parallel();
+        }
+        return chunkIds.mapToObj(chunk -> {
+            long[] acc = new long[width];
+            kernel.accumulate(chunk * CHUNK_SIZE, Math.min(rows, (chunk + 1) * CHUNK_SIZE), acc);
+            return acc;
+        }).reduce(RentalAnalytics::add).orElseGet(() -> new long[width]);
+    }
+
+    private static long[] add(long[] left, long[] right) {
+        for (int i = 0; i < left.length; i++) {
+            left[i] += right[i];
+        }
+        return left;
+    }
+
+    /**
+     * Revenue matrix by vehicle type and month
+     */
+    public static final class MonthlyRevenue {
+        private final YearMonth firstMonth;
+        private final int monthCount;
+        private final long[] cents;
+
+        MonthlyRevenue(YearMonth firstMonth, int monthCount, long[] cents) {
+            this.firstMonth = firstMonth;
+            this.monthCount = monthCount;
+            this.cents = cents;
+        }
+
+        public int getMonthCount() {
+            return monthCount;
+        }
+
+        public YearMonth getMonth(int monthIndex) {
+            return firstMonth.plusMonths(monthIndex);
+        }
+
+        /**
+         * Revenue of a vehicle type in a month
+         * @param typeIndex VehicleType ordinal or {@link RentalHistoryColumns#UNKNOWN_TYPE}
+         * @param monthIndex month relative to the first month
+         * @return revenue in cents
+         */
+        public long getCents(int typeIndex, int monthIndex) {
+            return cents[typeIndex * monthCount + monthIndex];
+        }
+
+        /**
+         * Revenue of all vehicle types in a month
+         */
+        public long getMonthTotalCents(int monthIndex) {
+            long total = 0;
+            for (int type = 0; type <= RentalHistoryColumns.TYPE_COUNT; type++) {
+                total += getCents(type, monthIndex);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package backend.analytics;
+
+/**
+ * Revenue each rental adds to the rollups, keyed by booking ID, in parallel
+ * primitive arrays (open addressing with linear probing, like
+ * BookingIntervals). A slot takes 20 bytes and the table is kept at most 70%
+ * full, against well over a hundred bytes in a HashMap of long[] entries.
+ */
+final class RentalContributions {
+    private static final int EMPTY = 0;  // booking IDs start at 1
+    private static final int MIN_CAPACITY = 64;
+
+    private int[] keys = new int[MIN_CAPACITY];
+    private int[] startDays = new int[MIN_CAPACITY];
+    private int[] cells = new int[MIN_CAPACITY];
+    private long[] cents = new long[MIN_CAPACITY];
+    private int size;
+
+    /**
+     * Record the contribution of a rental, replacing a previous entry
+     */
+    void put(int bookingId, int startDay, int cell, long amountCents) {
+        if ((size + 1) * 10 > keys.length * 7) {
+            resize(keys.length * 2);
+        }
+        int slot = slot(bookingId);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = bookingId;
+            size++;
+        }
+        startDays[slot] = startDay;
+        cells[slot] = cell;
+        cents[slot] = amountCents;
+    }
+
+    boolean contains(int bookingId) {
+        return keys[slot(bookingId)] != EMPTY;
+    }
+
+    /**
+     * Remove the entry of a rental
+     * @return {startDay, cell, cents}, or null if the booking has no entry
+     */
+    long[] remove(int bookingId) {
+        int slot = slot(bookingId);
+        if (keys[slot] == EMPTY) {
+            return null;
+        }
+        long[] removed = {startDays[slot], cells[slot], cents[slot]};
+        keys[slot] = EMPTY;
+        size--;
+
+        // Shift back the following entries of the probe sequence so lookups do not stop at the hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (slot + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int home = hash(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+        }
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int slot(int bookingId) {
+        int mask = keys.length - 1;
+        int slot = hash(bookingId) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != bookingId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        startDays[to] = startDays[from];
+        cells[to] = cells[from];
+        cents[to] = cents[from];
+        keys[from] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys, oldDays = startDays, oldCells = cells;
+        long[] oldCents = cents;
+        keys = new int[capacity];
+        startDays = new int[capacity];
+        cells = new int[capacity];
+        cents = new long[capacity];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldDays[i], oldCells[i], oldCents[i]);
+            }
+        }
+    }
+
+    // Sequential IDs would cluster in neighbouring slots; spread them first
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
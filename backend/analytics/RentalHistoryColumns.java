@@ -0,0 +1,117 @@
+package backend.analytics;
+
+import backend.models.Vehicle;
+
+import java.util.Arrays;
+
+/**
+ * Immutable column-oriented snapshot of rental_history for analytics.
+ *
+ * Every column is a primitive array indexed by row: dates are epoch days,
+ * amounts are cents, status is the RentalStatus ordinal and the vehicle type
+ * is the VehicleType ordinal of the rented vehicle ({@link #UNKNOWN_TYPE} if
+ * the vehicle no longer exists).
+ */
+public final class RentalHistoryColumns {
+    public static final int TYPE_COUNT = Vehicle.VehicleType.values().length;
+    public static final int UNKNOWN_TYPE = TYPE_COUNT;
+
+    final int size;
+    final int[] vehicleIds;
+    final int[] userIds;
+    final int[] startDays;
+    final int[] endDays;
+    final long[] amountCents;
+    final byte[] statuses;
+    final byte[] vehicleTypes;
+
+    private RentalHistoryColumns(Builder builder) {
+        this.size = builder.size;
+        this.vehicleIds = Arrays.copyOf(builder.vehicleIds, size);
+        this.userIds = Arrays.copyOf(builder.userIds, size);
+        this.startDays = Arrays.copyOf(builder.startDays, size);
+        this.endDays = Arrays.copyOf(builder.endDays, size);
+        this.amountCents = Arrays.copyOf(builder.amountCents, size);
+        this.statuses = Arrays.copyOf(builder.statuses, size);
+        this.vehicleTypes = Arrays.copyOf(builder.vehicleTypes, size);
+    }
+
+    /**
+     * Number of rows in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Appends rows into growing column arrays
+     */
+    public static final class Builder {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private int size;
+        private int[] vehicleIds = new int[INITIAL_CAPACITY];
+        private int[] userIds = new int[INITIAL_CAPACITY];
+        private int[] startDays = new int[INITIAL_CAPACITY];
+        private int[] endDays = new int[INITIAL_CAPACITY];
+        private long[] amountCents = new long[INITIAL_CAPACITY];
+        private byte[] statuses = new byte[INITIAL_CAPACITY];
+        private byte[] vehicleTypes = new byte[INITIAL_CAPACITY];
+        private byte[] typeByVehicleId = new byte[0];
+
+        private Builder() {
+        }
+
+        /**
+         * Register a vehicle of the fleet so that its rows can be typed
+         */
+        public Builder addVehicle(int vehicleId, Vehicle.VehicleType type) {
+            if (vehicleId >= typeByVehicleId.length) {
+                int oldLength = typeByVehicleId.length;
+                typeByVehicleId = Arrays.copyOf(typeByVehicleId, Math.max(vehicleId + 1, oldLength * 2));
+                Arrays.fill(typeByVehicleId, oldLength, typeByVehicleId.length, (byte) UNKNOWN_TYPE);
+            }
+            typeByVehicleId[vehicleId] = (byte) type.ordinal();
+            return this;
+        }
+
+        /**
+         * Append one rental
+         * @param status RentalStatus ordinal
+         */
+        public Builder addRow(int vehicleId, int userId, int startDay, int endDay, long cents, int status) {
+            if (size == vehicleIds.length) {
+                grow();
+            }
+            vehicleIds[size] = vehicleId;
+            userIds[size] = userId;
+            startDays[size] = startDay;
+            endDays[size] = endDay;
+            amountCents[size] = cents;
+            statuses[size] = (byte) status;
+            vehicleTypes[size] = vehicleId >= 0 && vehicleId < typeByVehicleId.length
+                    ? typeByVehicleId[vehicleId] : (byte) UNKNOWN_TYPE;
+            size++;
+            return this;
+        }
+
+        private void grow() {
+            int capacity = vehicleIds.length * 2;
+            vehicleIds = Arrays.copyOf(vehicleIds, capacity);
+            userIds = Arrays.copyOf(userIds, capacity);
+            startDays = Arrays.copyOf(startDays, capacity);
+            endDays = Arrays.copyOf(endDays, capacity);
+            amountCents = Arrays.copyOf(amountCents, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            vehicleTypes = Arrays.copyOf(vehicleTypes, capacity);
+        }
+
+        public RentalHistoryColumns build() {
+            return new RentalHistoryColumns(this);
+        }
+    }
+}
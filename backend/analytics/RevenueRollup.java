@@ -0,0 +1,339 @@
+package backend.analytics;
+
+import backend.dao.BookingDAO;
+import backend.dao.RentalHistoryDAO;
+import backend.dao.VehicleDAO;
+import backend.models.RentalHistory;
+import backend.models.Vehicle;
+import backend.models.VehicleSummary;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-aggregated revenue of the rental history at day, week and month
+ * granularity. Every period holds one cell per (vehicle type, rental status),
+ * so a quarter is answered from three month cells per type instead of a scan
+ * over rental_history. Rentals are attributed to the period of their start
+ * date, like the monthly revenue of RentalAnalytics.
+ *
+ * The rollups follow RentalHistoryDAO writes through its change listener:
+ * changed bookings are queued and reloaded on the next query, including
+ * those of set-based inserts, while fleet changes trigger a full rebuild.
+ * BookingDAO changes are queued too, since deleting a booking cascades to
+ * its rental_history rows without a history change.
+ * Only rentals of the MySQL tier keep their individual contribution, which a
+ * reload subtracts first; archived rentals are read-only and are only
+ * counted in the cells. A query loads from the database under a separate
+ * refresh lock and applies the result (or swaps in a rebuilt copy) in one
+ * short synchronized step, so the change listeners never wait for SQL.
+ */
+public final class RevenueRollup {
+    private static final RevenueRollup INSTANCE = new RevenueRollup(new RentalHistoryDAO(), new VehicleDAO());
+    private static final int STATUS_COUNT = RentalHistory.RentalStatus.values().length;
+    private static final int CELL_COUNT = (RentalHistoryColumns.TYPE_COUNT + 1) * STATUS_COUNT;
+    private static final int RELOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Period length of a rollup
+     */
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        /**
+         * Period index of an epoch day (weeks start on Monday)
+         */
+        int periodOf(int epochDay) {
+            switch (this) {
+                case DAY: return epochDay;
+                case WEEK: return Math.floorDiv(epochDay + 3, 7);
+                default:
+                    LocalDate date = LocalDate.ofEpochDay(epochDay);
+                    return date.getYear() * 12 + date.getMonthValue() - 1;
+            }
+        }
+
+        /**
+         * First day of a period
+         */
+        public LocalDate startOf(int period) {
+            switch (this) {
+                case DAY: return LocalDate.ofEpochDay(period);
+                case WEEK: return LocalDate.ofEpochDay(period * 7L - 3);
+                default: return LocalDate.of(Math.floorDiv(period, 12), Math.floorMod(period, 12) + 1, 1);
+            }
+        }
+    }
+
+    /**
+     * Cells of one build
+     */
+    private static final class Rollups {
+        final Map<Granularity, Map<Integer, long[]>> cells = new EnumMap<>(Granularity.class);
+        // Contributions of the MySQL-tier rentals, the only ones that can change
+        final RentalContributions contributions = new RentalContributions();
+        final Map<Integer, Integer> vehicleTypes = new HashMap<>();
+
+        Rollups() {
+            for (Granularity granularity : Granularity.values()) {
+                cells.put(granularity, new HashMap<>());
+            }
+        }
+
+        /**
+         * Contribution of a rental
+         * @return {bookingId, startDay, cell, cents}
+         */
+        long[] contribution(int bookingId, int vehicleId, int startDay, long amountCents,
+                            RentalHistory.RentalStatus status) {
+            int type = vehicleTypes.getOrDefault(vehicleId, RentalHistoryColumns.UNKNOWN_TYPE);
+            return new long[]{bookingId, startDay, type * STATUS_COUNT + status.ordinal(), amountCents};
+        }
+
+        void addRental(int bookingId, int vehicleId, int startDay, long amountCents,
+                       RentalHistory.RentalStatus status) {
+            add(contribution(bookingId, vehicleId, startDay, amountCents, status));
+        }
+
+        void addArchivedRental(int bookingId, int vehicleId, int startDay, long amountCents,
+                               RentalHistory.RentalStatus status) {
+            int type = vehicleTypes.getOrDefault(vehicleId, RentalHistoryColumns.UNKNOWN_TYPE);
+            apply(startDay, type * STATUS_COUNT + status.ordinal(), amountCents);
+        }
+
+        void add(long[] contribution) {
+            int bookingId = (int) contribution[0];
+            remove(bookingId);
+            contributions.put(bookingId, (int) contribution[1], (int) contribution[2], contribution[3]);
+            apply((int) contribution[1], (int) contribution[2], contribution[3]);
+        }
+
+        void remove(int bookingId) {
+            long[] previous = contributions.remove(bookingId);
+            if (previous != null) {
+                apply((int) previous[0], (int) previous[1], -previous[2]);
+            }
+        }
+
+        private void apply(int day, int cell, long cents) {
+            for (Granularity granularity : Granularity.values()) {
+                cells.get(granularity).computeIfAbsent(granularity.periodOf(day), p -> new long[CELL_COUNT])[cell]
+                        += cents;
+            }
+        }
+    }
+
+    private final RentalHistoryDAO rentalHistoryDAO;
+    private final VehicleDAO vehicleDAO;
+    // Held while loading from the database; the monitor of this object guards the rollups
+    private final Object refreshLock = new Object();
+
+    private Rollups rollups = new Rollups();
+    private final Set<Integer> pendingBookings = new HashSet<>();
+    private boolean stale = true;
+
+    RevenueRollup(RentalHistoryDAO rentalHistoryDAO, VehicleDAO vehicleDAO) {
+        this.rentalHistoryDAO = rentalHistoryDAO;
+        this.vehicleDAO = vehicleDAO;
+        BookingDAO.addChangeListener(this::rentalsChanged);
+        RentalHistoryDAO.addChangeListener(this::rentalsChanged);
+        VehicleDAO.addChangeListener(ids -> invalidate());
+    }
+
+    /**
+     * Shared instance used by the reports
+     */
+    public static RevenueRollup getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Drop the rollups; they are rebuilt on the next query
+     */
+    public synchronized void invalidate() {
+        stale = true;
+        pendingBookings.clear();
+    }
+
+    private synchronized void rentalsChanged(int[] bookingIds) {
+        if (bookingIds == null) {
+            invalidate();
+        } else if (!stale) {
+            for (int bookingId : bookingIds) {
+                pendingBookings.add(bookingId);
+            }
+        }
+    }
+
+    /**
+     * Revenue of rentals starting in [from, to), summed from month cells for
+     * whole months and day cells for the remaining days
+     * @param type vehicle type, or null for all types
+     * @param status rental status, or null for all statuses
+     * @return revenue in cents
+     */
+    public long getRevenueCents(LocalDate from, LocalDate to, Vehicle.VehicleType type,
+                                RentalHistory.RentalStatus status) {
+        refresh();
+        synchronized (this) {
+            Map<Integer, long[]> months = rollups.cells.get(Granularity.MONTH);
+            Map<Integer, long[]> days = rollups.cells.get(Granularity.DAY);
+            long total = 0;
+            LocalDate day = from;
+            while (day.isBefore(to)) {
+                LocalDate nextMonth = day.withDayOfMonth(1).plusMonths(1);
+                if (day.getDayOfMonth() == 1 && !nextMonth.isAfter(to)) {
+                    total += sum(months.get(Granularity.MONTH.periodOf((int) day.toEpochDay())), type, status);
+                    day = nextMonth;
+                } else {
+                    total += sum(days.get((int) day.toEpochDay()), type, status);
+                    day = day.plusDays(1);
+                }
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Revenue per vehicle type of rentals starting in [from, to)
+     * @param status rental status, or null for all statuses
+     * @return revenue in cents indexed by VehicleType ordinal
+     */
+    public long[] getRevenueCentsByType(LocalDate from, LocalDate to, RentalHistory.RentalStatus status) {
+        Vehicle.VehicleType[] types = Vehicle.VehicleType.values();
+        long[] revenue = new long[types.length];
+        for (Vehicle.VehicleType type : types) {
+            revenue[type.ordinal()] = getRevenueCents(from, to, type, status);
+        }
+        return revenue;
+    }
+
+    /**
+     * Revenue per period for a trend chart
+     * @param granularity period length
+     * @param from first day of the range; the series starts with the period containing it
+     * @param to end of the range (exclusive)
+     * @param type vehicle type, or null for all types
+     * @param status rental status, or null for all statuses
+     * @return revenue in cents per period, starting at the period of {@code from}
+     */
+    public long[] getRevenueSeries(Granularity granularity, LocalDate from, LocalDate to,
+                                   Vehicle.VehicleType type, RentalHistory.RentalStatus status) {
+        refresh();
+        if (!from.isBefore(to)) {
+            return new long[0];
+        }
+        int first = granularity.periodOf((int) from.toEpochDay());
+        int last = granularity.periodOf((int) to.toEpochDay() - 1);
+        long[] series = new long[last - first + 1];
+        synchronized (this) {
+            Map<Integer, long[]> rollup = rollups.cells.get(granularity);
+            for (int period = first; period <= last; period++) {
+                series[period - first] = sum(rollup.get(period), type, status);
+            }
+        }
+        return series;
+    }
+
+    private static long sum(long[] cells, Vehicle.VehicleType type, RentalHistory.RentalStatus status) {
+        if (cells == null) {
+            return 0;
+        }
+        long total = 0;
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            boolean typeMatches = type == null || cell / STATUS_COUNT == type.ordinal();
+            boolean statusMatches = status == null || cell % STATUS_COUNT == status.ordinal();
+            if (typeMatches && statusMatches) {
+                total += cells[cell];
+            }
+        }
+        return total;
+    }
+
+    // Takes the monitor only to read the queue and to apply the result
+    private void refresh() {
+        synchronized (refreshLock) {
+            boolean rebuild;
+            int[] bookingIds;
+            synchronized (this) {
+                rebuild = stale;
+                bookingIds = new int[rebuild ? 0 : pendingBookings.size()];
+                if (!rebuild) {
+                    int i = 0;
+                    for (int bookingId : pendingBookings) {
+                        bookingIds[i++] = bookingId;
+                    }
+                }
+                pendingBookings.clear();
+                stale = false;
+            }
+
+            if (rebuild) {
+                rebuild();
+            } else if (bookingIds.length > 0) {
+                reload(bookingIds);
+            }
+        }
+    }
+
+    private void rebuild() {
+        Rollups rebuilt = new Rollups();
+        for (VehicleSummary vehicle : vehicleDAO.getVehicleSummaries()) {
+            rebuilt.vehicleTypes.put(vehicle.getVehicleId(), vehicle.getVehicleType().ordinal());
+        }
+        boolean loaded = rentalHistoryDAO.loadAllRevenueRows(rebuilt::addRental, rebuilt::addArchivedRental);
+        synchronized (this) {
+            rollups = rebuilt;
+            if (!loaded) {
+                stale = true;
+            }
+        }
+    }
+
+    private void reload(int[] bookingIds) {
+        // Only the holder of refreshLock changes the rollups, so they can be read here without the monitor
+        Rollups current = rollups;
+        List<long[]> loaded = new ArrayList<>();
+        Set<Integer> found = new HashSet<>();
+        boolean complete = true;
+        for (int from = 0; from < bookingIds.length && complete; from += RELOAD_BATCH_SIZE) {
+            int[] batch = Arrays.copyOfRange(bookingIds, from, Math.min(bookingIds.length, from + RELOAD_BATCH_SIZE));
+            complete = rentalHistoryDAO.loadRevenueRows(batch, (bookingId, vehicleId, startDay, amountCents, status) -> {
+                loaded.add(current.contribution(bookingId, vehicleId, startDay, amountCents, status));
+                found.add(bookingId);
+            });
+        }
+
+        // A counted MySQL row that is gone was deleted or moved to the archive; the archive tells which
+        List<long[]> archived = new ArrayList<>();
+        int[] vanished = Arrays.stream(bookingIds)
+                .filter(id -> !found.contains(id) && current.contributions.contains(id)).toArray();
+        if (complete && vanished.length > 0) {
+            rentalHistoryDAO.loadArchivedRevenueRows(vanished, (bookingId, vehicleId, startDay, amountCents, status) ->
+                    archived.add(current.contribution(bookingId, vehicleId, startDay, amountCents, status)));
+        }
+
+        synchronized (this) {
+            if (!complete) {
+                stale = true;
+                return;
+            }
+            for (int bookingId : bookingIds) {
+                current.remove(bookingId);
+            }
+            for (long[] contribution : loaded) {
+                current.add(contribution);
+            }
+            for (long[] contribution : archived) {
+                current.apply((int) contribution[1], (int) contribution[2], contribution[3]);
+            }
+        }
+    }
+}
@@ -2,20 +2,35 @@ package backend.dao;
 
 import backend.db.DBConnection;
 import backend.models.Booking;
+import backend.models.BookingRow;
 import backend.models.Vehicle;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class BookingDAO {
 
+    private static final ChangeNotifier CHANGES = new ChangeNotifier("bookings");
+    private static final String COLUMNS = String.join(", ", BookingRowMapper.COLUMNS);
+
     private VehicleDAO vehicleDAO;
 
     public BookingDAO(VehicleDAO vehicleDAO) {
         this.vehicleDAO = vehicleDAO;
     }
 
+    // Register a listener notified with the IDs of bookings changed by any BookingDAO
+    public static void addChangeListener(ChangeListener listener) {
+        CHANGES.add(listener);
+    }
+
+    public static void removeChangeListener(ChangeListener listener) {
+        CHANGES.remove(listener);
+    }
+
     // Add a new booking
     public boolean addBooking(Booking booking) {
         String sql = "INSERT INTO bookings (user_id, vehicle_id, start_date, end_date, pickup_location, dropoff_location, total_amount, status, payment_status) " +
@@ -40,6 +55,7 @@ public class BookingDAO {
                         booking.setBookingId(rs.getInt(1));
                     }
                 }
+                CHANGES.fire(booking.getBookingId());
                 return true;
             }
         } catch (SQLException e) {
@@ -66,7 +82,7 @@ public class BookingDAO {
             stmt.setString(9, booking.getPaymentStatus().name().toLowerCase());
             stmt.setInt(10, booking.getBookingId());
 
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), booking.getBookingId());
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -81,7 +97,7 @@ public class BookingDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), bookingId);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -91,14 +107,14 @@ public class BookingDAO {
 
     // Get booking by ID
     public Booking getBookingById(int bookingId) {
-        String sql = "SELECT * FROM bookings WHERE booking_id=?";
+        String sql = "SELECT " + COLUMNS + " FROM bookings WHERE booking_id=?";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, bookingId);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToBooking(rs);
+                    return new BookingRowMapper(rs).map(rs);
                 }
             }
 
@@ -111,13 +127,14 @@ public class BookingDAO {
     // Get all bookings
     public List<Booking> getAllBookings() {
         List<Booking> bookings = new ArrayList<>();
-        String sql = "SELECT * FROM bookings ORDER BY booking_id DESC";
+        String sql = "SELECT " + COLUMNS + " FROM bookings ORDER BY booking_id DESC";
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            BookingRowMapper mapper = new BookingRowMapper(rs);
             while (rs.next()) {
-                bookings.add(mapRowToBooking(rs));
+                bookings.add(mapper.map(rs));
             }
 
         } catch (SQLException e) {
@@ -126,6 +143,53 @@ public class BookingDAO {
         return bookings;
     }
 
+    // Stream all bookings through a server-side cursor (same order as getAllBookings); close the stream when done
+    public Stream<Booking> streamAllBookings(int fetchSize) throws SQLException {
+        return StreamingQuery.stream("SELECT " + COLUMNS + " FROM bookings ORDER BY booking_id DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, BookingRowMapper::new);
+    }
+
+    // Pass every booking to a callback, reading through a server-side cursor; returns the number of bookings
+    public long forEachBooking(int fetchSize, Consumer<? super Booking> callback) throws SQLException {
+        return StreamingQuery.forEach("SELECT " + COLUMNS + " FROM bookings ORDER BY booking_id DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, BookingRowMapper::new, callback);
+    }
+
+    // Get the rows of the booking table: bookings joined with the customer and vehicle names, newest first
+    public List<BookingRow> getBookingRows() {
+        List<BookingRow> rows = new ArrayList<>();
+        String sql = "SELECT b.booking_id, b.user_id, CONCAT(u.first_name, ' ', u.last_name), b.vehicle_id, " +
+                "CONCAT(v.year, ' ', v.make, ' ', v.model), b.start_date, b.end_date, b.pickup_location, " +
+                "b.dropoff_location, b.total_amount, b.status, b.payment_status " +
+                "FROM bookings b LEFT JOIN users u ON u.user_id = b.user_id " +
+                "LEFT JOIN vehicles v ON v.vehicle_id = b.vehicle_id ORDER BY b.booking_id DESC";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                rows.add(new BookingRow(
+                        rs.getInt(1),
+                        rs.getInt(2),
+                        rs.getString(3),
+                        rs.getInt(4),
+                        rs.getString(5),
+                        rs.getDate(6).toLocalDate(),
+                        rs.getDate(7).toLocalDate(),
+                        rs.getString(8),
+                        rs.getString(9),
+                        rs.getBigDecimal(10),
+                        Booking.BookingStatus.fromString(rs.getString(11)),
+                        Booking.PaymentStatus.fromString(rs.getString(12))
+                ));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
     // Confirm booking
     public boolean confirmBooking(int bookingId) {
         String sql = "UPDATE bookings SET status='confirmed' WHERE booking_id=? AND status='pending'";
@@ -133,7 +197,7 @@ public class BookingDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), bookingId);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -148,7 +212,7 @@ public class BookingDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, bookingId);
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), bookingId);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -156,21 +220,47 @@ public class BookingDAO {
         return false;
     }
 
-    // Map a ResultSet row to Booking object (handle enums correctly)
-    private Booking mapRowToBooking(ResultSet rs) throws SQLException {
-        return new Booking(
-                rs.getInt("booking_id"),
-                rs.getInt("user_id"),
-                rs.getInt("vehicle_id"),
-                rs.getDate("start_date").toLocalDate(),
-                rs.getDate("end_date").toLocalDate(),
-                rs.getString("pickup_location"),
-                rs.getString("dropoff_location"),
-                rs.getBigDecimal("total_amount"),
-                Booking.BookingStatus.valueOf(rs.getString("status").toUpperCase()),
-                Booking.PaymentStatus.valueOf(rs.getString("payment_status").toUpperCase()),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
+    // Move every selected booking to a new status in one statement (used inside a UnitOfWork)
+    public int updateStatus(BookingSelection selection, Booking.BookingStatus status) throws SQLException {
+        String sql = "UPDATE bookings b SET b.status=? WHERE " + selection.getWhereClause();
+        try (Connection conn = DBConnection.getConnection()) {
+            // Collect the IDs first: the bookings no longer match the selection once their status changed
+            int[] bookingIds = selection.getBookingId() != null ? new int[]{selection.getBookingId()}
+                    : CHANGES.hasListeners() ? selection.selectIds(conn) : null;
+            int updated;
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, status.getValue());
+                selection.bind(stmt, 2);
+                updated = stmt.executeUpdate();
+            }
+            if (updated > 0) {
+                CHANGES.fire(bookingIds);
+            }
+            return updated;
+        }
+    }
+
+    // Highest booking ID of the next chunk of at most chunkSize selected bookings after afterId (0 when exhausted)
+    public int findChunkUpperBound(BookingSelection selection, int afterId, int chunkSize) throws SQLException {
+        String sql = "SELECT MAX(booking_id) FROM (SELECT b.booking_id FROM bookings b WHERE (" +
+                selection.getWhereClause() + ") AND b.booking_id > ? ORDER BY b.booking_id LIMIT ?) chunk";
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = selection.bind(stmt, 1);
+            stmt.setInt(index++, afterId);
+            stmt.setInt(index, chunkSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    private static boolean changed(int rows, int bookingId) {
+        if (rows > 0) {
+            CHANGES.fire(bookingId);
+            return true;
+        }
+        return false;
     }
 }
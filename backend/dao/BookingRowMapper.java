@@ -0,0 +1,46 @@
+package backend.dao;
+
+import backend.models.Booking;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the bookings table to Booking objects by column index
+ */
+public final class BookingRowMapper extends IndexedRowMapper<Booking> {
+    static final String[] COLUMNS = {
+            "booking_id", "user_id", "vehicle_id", "start_date", "end_date", "pickup_location", "dropoff_location",
+            "total_amount", "status", "payment_status", "created_at", "updated_at"
+    };
+    private static final int BOOKING_ID = 0, USER_ID = 1, VEHICLE_ID = 2, START_DATE = 3, END_DATE = 4,
+            PICKUP_LOCATION = 5, DROPOFF_LOCATION = 6, TOTAL_AMOUNT = 7, STATUS = 8, PAYMENT_STATUS = 9,
+            CREATED_AT = 10, UPDATED_AT = 11;
+
+    /**
+     * Create a mapper for a result set over the bookings table
+     * @param rs result set, before or on its first row
+     * @throws SQLException if the metadata cannot be read
+     */
+    public BookingRowMapper(ResultSet rs) throws SQLException {
+        super(rs, COLUMNS);
+    }
+
+    @Override
+    public Booking map(ResultSet rs) throws SQLException {
+        return new Booking(
+                getInt(rs, BOOKING_ID),
+                getInt(rs, USER_ID),
+                getInt(rs, VEHICLE_ID),
+                getLocalDate(rs, START_DATE),
+                getLocalDate(rs, END_DATE),
+                getString(rs, PICKUP_LOCATION),
+                getString(rs, DROPOFF_LOCATION),
+                getBigDecimal(rs, TOTAL_AMOUNT),
+                has(STATUS) ? Booking.BookingStatus.fromString(getString(rs, STATUS)) : null,
+                has(PAYMENT_STATUS) ? Booking.PaymentStatus.fromString(getString(rs, PAYMENT_STATUS)) : null,
+                getLocalDateTime(rs, CREATED_AT),
+                getLocalDateTime(rs, UPDATED_AT)
+        );
+    }
+}
@@ -0,0 +1,149 @@
+package backend.dao;
+
+import backend.models.Booking;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of bookings selected by a WHERE predicate over the bookings table
+ * (aliased as {@code b}). Shared by the set-based updates in BookingDAO,
+ * VehicleDAO and RentalHistoryDAO so that all statements of one bulk
+ * operation touch exactly the same rows.
+ */
+public final class BookingSelection {
+    private final String where;
+    private final Object[] params;
+    private final Integer bookingId;
+
+    private BookingSelection(String where, Object... params) {
+        this(null, where, params);
+    }
+
+    private BookingSelection(Integer bookingId, String where, Object... params) {
+        this.bookingId = bookingId;
+        this.where = where;
+        this.params = params;
+    }
+
+    /**
+     * Select a single booking if it is in the given status
+     */
+    public static BookingSelection byId(int bookingId, Booking.BookingStatus status) {
+        return new BookingSelection(bookingId, "b.booking_id = ? AND b.status = ?", bookingId, status.getValue());
+    }
+
+    /**
+     * Select bookings in the given status starting on a date
+     */
+    public static BookingSelection byStatusAndStartDate(Booking.BookingStatus status, LocalDate date) {
+        return new BookingSelection("b.status = ? AND b.start_date = ?", status.getValue(), Date.valueOf(date));
+    }
+
+    /**
+     * Select bookings in the given status ending on a date
+     */
+    public static BookingSelection byStatusAndEndDate(Booking.BookingStatus status, LocalDate date) {
+        return new BookingSelection("b.status = ? AND b.end_date = ?", status.getValue(), Date.valueOf(date));
+    }
+
+    /**
+     * Select bookings in the given status that started before a date
+     */
+    public static BookingSelection byStatusStartingBefore(Booking.BookingStatus status, LocalDate date) {
+        return new BookingSelection("b.status = ? AND b.start_date < ?", status.getValue(), Date.valueOf(date));
+    }
+
+    /**
+     * Select bookings in the given status whose end date has already passed
+     */
+    public static BookingSelection byStatusEndingBefore(Booking.BookingStatus status, LocalDate date) {
+        return new BookingSelection("b.status = ? AND b.end_date < ?", status.getValue(), Date.valueOf(date));
+    }
+
+    /**
+     * Select bookings in any of the given statuses last updated in [from, to)
+     */
+    public static BookingSelection byStatusesUpdatedBetween(LocalDateTime from, LocalDateTime to,
+                                                            Booking.BookingStatus... statuses) {
+        StringBuilder where = new StringBuilder("b.status IN (");
+        Object[] params = new Object[statuses.length + 2];
+        for (int i = 0; i < statuses.length; i++) {
+            where.append(i == 0 ? "?" : ", ?");
+            params[i] = statuses[i].getValue();
+        }
+        where.append(") AND b.updated_at >= ? AND b.updated_at < ?");
+        params[statuses.length] = Timestamp.valueOf(from);
+        params[statuses.length + 1] = Timestamp.valueOf(to);
+        return new BookingSelection(where.toString(), params);
+    }
+
+    /**
+     * Restrict this selection to booking IDs in (afterId, lastId]
+     */
+    public BookingSelection withIdRange(int afterId, int lastId) {
+        Object[] rangeParams = Arrays.copyOf(params, params.length + 2);
+        rangeParams[params.length] = afterId;
+        rangeParams[params.length + 1] = lastId;
+        return new BookingSelection("(" + where + ") AND b.booking_id > ? AND b.booking_id <= ?", rangeParams);
+    }
+
+    /**
+     * ID of the booking if this selection targets a single booking, otherwise null
+     */
+    Integer getBookingId() {
+        return bookingId;
+    }
+
+    /**
+     * SQL predicate over the bookings alias {@code b}
+     */
+    String getWhereClause() {
+        return where;
+    }
+
+    /**
+     * IDs of the selected bookings, locked until the current transaction ends
+     */
+    int[] selectIds(Connection conn) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT b.booking_id FROM bookings b WHERE " + where + " FOR UPDATE")) {
+            bind(stmt, 1);
+            List<Integer> ids = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            return ids.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    /**
+     * Bind the predicate parameters
+     * @param stmt statement to bind
+     * @param firstIndex index of the first predicate placeholder
+     * @return index following the last bound placeholder
+     */
+    int bind(PreparedStatement stmt, int firstIndex) throws SQLException {
+        int index = firstIndex;
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingSelection{" + where + "}";
+    }
+}
@@ -0,0 +1,16 @@
+package backend.dao;
+
+/**
+ * Callback notified after a DAO write has been committed. Used by in-memory
+ * aggregates that must follow the tables they summarize.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    /**
+     * Rows changed
+     * @param ids keys of the changed rows (see the registering DAO for which key),
+     *            or null if an unknown set of rows changed and everything must be reloaded
+     */
+    void changed(int[] ids);
+}
@@ -0,0 +1,64 @@
+package backend.dao;
+
+import backend.db.UnitOfWork;
+import backend.util.MetricsRegistry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener list of one DAO. Notifications are deferred until the current
+ * UnitOfWork commits (and dropped if it rolls back); outside a unit of work
+ * they are delivered immediately. Changes are counted in the
+ * {@link MetricsRegistry} as dao.&lt;name&gt;.changes.
+ */
+final class ChangeNotifier {
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final MetricsRegistry.Counter changes;
+
+    /**
+     * @param name name of the changed rows in the metrics (e.g. "vehicles")
+     */
+    ChangeNotifier(String name) {
+        this.changes = MetricsRegistry.getInstance().counter("dao." + name + ".changes");
+    }
+
+    void add(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    void remove(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    boolean hasListeners() {
+        return !listeners.isEmpty();
+    }
+
+    /**
+     * Notify that the rows with the given keys changed
+     */
+    void fire(int... ids) {
+        changes.increment();
+        if (!listeners.isEmpty()) {
+            UnitOfWork.afterCommit(() -> deliver(ids));
+        }
+    }
+
+    /**
+     * Notify that an unknown set of rows changed
+     */
+    void fireUnknown() {
+        fire((int[]) null);
+    }
+
+    private void deliver(int[] ids) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.changed(ids);
+            } catch (RuntimeException e) {
+                System.err.println("Error notifying change listener: " + e.getMessage());
+            }
+        }
+    }
+}
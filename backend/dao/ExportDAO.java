@@ -0,0 +1,226 @@
+package backend.dao;
+
+import backend.db.DBConnection;
+import backend.models.Money;
+import backend.models.RentalHistory;
+import backend.storage.ColumnarFileReader;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.*;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Data Access Object for full-table exports. Rows are read forward-only
+ * through a server-side cursor and handed to a sink one at a time in a
+ * reused {@link ExportRow}, so memory use does not depend on the table size.
+ */
+public class ExportDAO {
+    public static final int DEFAULT_FETCH_SIZE = StreamingQuery.DEFAULT_FETCH_SIZE;
+
+    /**
+     * Value kinds of exported columns. INT, DATE (epoch day), DECIMAL (cents)
+     * and TIMESTAMP (epoch second, UTC) values are numbers; STRING values are text.
+     */
+    public enum ColumnKind {
+        INT, DATE, DECIMAL, TIMESTAMP, STRING
+    }
+
+    /**
+     * Exportable tables
+     */
+    public enum Table {
+        BOOKINGS("bookings", "booking_id",
+                new String[]{"booking_id", "user_id", "vehicle_id", "start_date", "end_date", "pickup_location",
+                        "dropoff_location", "total_amount", "status", "payment_status", "created_at"},
+                new ColumnKind[]{ColumnKind.INT, ColumnKind.INT, ColumnKind.INT, ColumnKind.DATE, ColumnKind.DATE,
+                        ColumnKind.STRING, ColumnKind.STRING, ColumnKind.DECIMAL, ColumnKind.STRING,
+                        ColumnKind.STRING, ColumnKind.TIMESTAMP}),
+        RENTAL_HISTORY("rental_history", "history_id",
+                new String[]{"history_id", "booking_id", "user_id", "vehicle_id", "start_date", "end_date",
+                        "actual_return_date", "total_amount", "status", "notes", "created_at"},
+                new ColumnKind[]{ColumnKind.INT, ColumnKind.INT, ColumnKind.INT, ColumnKind.INT, ColumnKind.DATE,
+                        ColumnKind.DATE, ColumnKind.DATE, ColumnKind.DECIMAL, ColumnKind.STRING,
+                        ColumnKind.STRING, ColumnKind.TIMESTAMP});
+
+        private final String tableName;
+        private final String keyColumn;
+        private final String[] columnNames;
+        private final ColumnKind[] columnKinds;
+
+        Table(String tableName, String keyColumn, String[] columnNames, ColumnKind[] columnKinds) {
+            this.tableName = tableName;
+            this.keyColumn = keyColumn;
+            this.columnNames = columnNames;
+            this.columnKinds = columnKinds;
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public String[] getColumnNames() {
+            return columnNames.clone();
+        }
+
+        public ColumnKind[] getColumnKinds() {
+            return columnKinds.clone();
+        }
+    }
+
+    /**
+     * Current row of an export; the same instance is reused for every row
+     */
+    public static final class ExportRow {
+        private final long[] numbers;
+        private final String[] strings;
+        private final boolean[] nulls;
+
+        ExportRow(int columns) {
+            numbers = new long[columns];
+            strings = new String[columns];
+            nulls = new boolean[columns];
+        }
+
+        public boolean isNull(int column) {
+            return nulls[column];
+        }
+
+        public long getNumber(int column) {
+            return numbers[column];
+        }
+
+        public String getString(int column) {
+            return strings[column];
+        }
+
+        void setNumber(int column, long value) {
+            numbers[column] = value;
+            nulls[column] = false;
+        }
+
+        void setString(int column, String value) {
+            strings[column] = value;
+            nulls[column] = value == null;
+        }
+
+        void setNull(int column) {
+            strings[column] = null;
+            nulls[column] = true;
+        }
+    }
+
+    /**
+     * Receives exported rows
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(ExportRow row) throws IOException;
+    }
+
+    private final RentalHistoryArchive archive;
+
+    public ExportDAO() {
+        this(RentalHistoryArchive.getInstance());
+    }
+
+    public ExportDAO(RentalHistoryArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Stream every row of a table to a sink. Rental history includes the
+     * archived months after the MySQL rows.
+     * @param table table to export
+     * @param fetchSize rows per cursor fetch
+     * @param sink receives the rows
+     * @return number of rows exported
+     * @throws SQLException if database error occurs
+     * @throws IOException if the sink fails
+     */
+    public long export(Table table, int fetchSize, RowSink sink) throws SQLException, IOException {
+        String sql = "SELECT " + String.join(", ", table.columnNames) + " FROM " + table.tableName +
+                " ORDER BY " + table.keyColumn;
+        ExportRow row = new ExportRow(table.columnNames.length);
+        long rows = 0;
+
+        try (Connection conn = DBConnection.openStreamingConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(fetchSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    readRow(rs, table.columnKinds, row);
+                    sink.accept(row);
+                    rows++;
+                }
+            }
+        }
+
+        if (table == Table.RENTAL_HISTORY) {
+            rows += exportArchive(row, sink);
+        }
+        return rows;
+    }
+
+    private static void readRow(ResultSet rs, ColumnKind[] kinds, ExportRow row) throws SQLException {
+        for (int i = 0; i < kinds.length; i++) {
+            int index = i + 1;
+            switch (kinds[i]) {
+                case INT:
+                    row.setNumber(i, rs.getInt(index));
+                    break;
+                case DATE:
+                    Date date = rs.getDate(index);
+                    if (date != null) row.setNumber(i, date.toLocalDate().toEpochDay());
+                    else row.setNull(i);
+                    break;
+                case DECIMAL:
+                    BigDecimal amount = rs.getBigDecimal(index);
+                    if (amount != null) row.setNumber(i, Money.centsOf(amount, RoundingMode.HALF_UP));
+                    else row.setNull(i);
+                    break;
+                case TIMESTAMP:
+                    Timestamp timestamp = rs.getTimestamp(index);
+                    if (timestamp != null) row.setNumber(i, timestamp.toLocalDateTime().toEpochSecond(ZoneOffset.UTC));
+                    else row.setNull(i);
+                    break;
+                default:
+                    row.setString(i, rs.getString(index));
+                    break;
+            }
+        }
+    }
+
+    private long exportArchive(ExportRow row, RowSink sink) throws IOException {
+        RentalHistory.RentalStatus[] statuses = RentalHistory.RentalStatus.values();
+        int[] numericColumns = {
+                RentalHistoryArchive.HISTORY_ID, RentalHistoryArchive.BOOKING_ID, RentalHistoryArchive.USER_ID,
+                RentalHistoryArchive.VEHICLE_ID, RentalHistoryArchive.START_DATE, RentalHistoryArchive.END_DATE,
+                RentalHistoryArchive.ACTUAL_RETURN_DATE, RentalHistoryArchive.TOTAL_AMOUNT
+        };
+        long rows = 0;
+        for (YearMonth month : archive.getArchivedMonths()) {
+            ColumnarFileReader reader = archive.reader(month);
+            if (reader == null) continue;
+            for (int r = 0; r < reader.getRowCount(); r++) {
+                // The archive stores the columns in export order
+                for (int column : numericColumns) {
+                    if (reader.isNull(column, r)) row.setNull(column);
+                    else row.setNumber(column, reader.getLong(column, r));
+                }
+                row.setString(RentalHistoryArchive.STATUS,
+                        statuses[reader.getInt(RentalHistoryArchive.STATUS, r)].getValue());
+                row.setString(RentalHistoryArchive.NOTES, reader.getString(RentalHistoryArchive.NOTES, r));
+                if (reader.isNull(RentalHistoryArchive.CREATED_AT, r)) row.setNull(RentalHistoryArchive.CREATED_AT);
+                else row.setNumber(RentalHistoryArchive.CREATED_AT, reader.getLong(RentalHistoryArchive.CREATED_AT, r));
+                sink.accept(row);
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,88 @@
+package backend.dao;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Base class of the row mappers. The positions of the mapped columns are
+ * resolved from the result set metadata once, when the mapper is created,
+ * and every row is then read by index instead of by column name.
+ *
+ * A query may select only some of the columns (a list view leaving out
+ * large text columns, for example): missing columns read as 0 or null.
+ *
+ * @param <T> mapped type
+ */
+public abstract class IndexedRowMapper<T> implements StreamingQuery.RowMapper<T> {
+    private final int[] positions;
+
+    /**
+     * Resolve the columns of a result set
+     * @param rs result set to map
+     * @param columns column names; subclasses refer to them by their array index
+     * @throws SQLException if the metadata cannot be read
+     */
+    protected IndexedRowMapper(ResultSet rs, String[] columns) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        Map<String, Integer> labels = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            labels.put(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        positions = new int[columns.length];
+        for (int column = 0; column < columns.length; column++) {
+            positions[column] = labels.getOrDefault(columns[column], 0);
+        }
+    }
+
+    /**
+     * Map the current row
+     * @param rs result set positioned on a row
+     * @return mapped object
+     * @throws SQLException if a column cannot be read
+     */
+    @Override
+    public abstract T map(ResultSet rs) throws SQLException;
+
+    /**
+     * Whether the result set contains a column
+     */
+    protected final boolean has(int column) {
+        return positions[column] != 0;
+    }
+
+    protected final int getInt(ResultSet rs, int column) throws SQLException {
+        int position = positions[column];
+        return position == 0 ? 0 : rs.getInt(position);
+    }
+
+    protected final String getString(ResultSet rs, int column) throws SQLException {
+        int position = positions[column];
+        return position == 0 ? null : rs.getString(position);
+    }
+
+    protected final BigDecimal getBigDecimal(ResultSet rs, int column) throws SQLException {
+        int position = positions[column];
+        return position == 0 ? null : rs.getBigDecimal(position);
+    }
+
+    protected final LocalDate getLocalDate(ResultSet rs, int column) throws SQLException {
+        int position = positions[column];
+        Date date = position == 0 ? null : rs.getDate(position);
+        return date == null ? null : date.toLocalDate();
+    }
+
+    protected final LocalDateTime getLocalDateTime(ResultSet rs, int column) throws SQLException {
+        int position = positions[column];
+        Timestamp timestamp = position == 0 ? null : rs.getTimestamp(position);
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
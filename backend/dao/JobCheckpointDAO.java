@@ -0,0 +1,80 @@
+package backend.dao;
+
+import backend.db.DBConnection;
+import backend.models.JobCheckpoint;
+
+import java.sql.*;
+
+/**
+ * Data Access Object for batch job checkpoints
+ */
+public class JobCheckpointDAO {
+
+    /**
+     * Get the checkpoint of a job
+     * @param jobName job name
+     * @return JobCheckpoint object or null if the job never ran
+     */
+    public JobCheckpoint getCheckpoint(String jobName) {
+        String sql = "SELECT * FROM job_checkpoints WHERE job_name = ?";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, jobName);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapResultSetToCheckpoint(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting job checkpoint: " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Insert or update a checkpoint. Call it inside the UnitOfWork that
+     * writes the chunk so progress and data commit together.
+     * @param checkpoint checkpoint to save
+     * @return true if successful, false otherwise
+     */
+    public boolean saveCheckpoint(JobCheckpoint checkpoint) {
+        String sql = "INSERT INTO job_checkpoints (job_name, window_start, window_end, last_key, rows_processed) " +
+                "VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE window_start = VALUES(window_start), " +
+                "window_end = VALUES(window_end), last_key = VALUES(last_key), rows_processed = VALUES(rows_processed)";
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, checkpoint.getJobName());
+            stmt.setTimestamp(2, checkpoint.getWindowStart() != null ? Timestamp.valueOf(checkpoint.getWindowStart()) : null);
+            stmt.setTimestamp(3, checkpoint.getWindowEnd() != null ? Timestamp.valueOf(checkpoint.getWindowEnd()) : null);
+            stmt.setInt(4, checkpoint.getLastKey());
+            stmt.setLong(5, checkpoint.getRowsProcessed());
+
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error saving job checkpoint: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private JobCheckpoint mapResultSetToCheckpoint(ResultSet rs) throws SQLException {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setJobName(rs.getString("job_name"));
+
+        Timestamp windowStart = rs.getTimestamp("window_start");
+        if (windowStart != null) checkpoint.setWindowStart(windowStart.toLocalDateTime());
+        Timestamp windowEnd = rs.getTimestamp("window_end");
+        if (windowEnd != null) checkpoint.setWindowEnd(windowEnd.toLocalDateTime());
+
+        checkpoint.setLastKey(rs.getInt("last_key"));
+        checkpoint.setRowsProcessed(rs.getLong("rows_processed"));
+
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) checkpoint.setUpdatedAt(updatedAt.toLocalDateTime());
+        return checkpoint;
+    }
+}
@@ -0,0 +1,132 @@
+package backend.dao;
+
+import backend.db.DBConnection;
+import backend.models.Booking;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Data Access Object that reads booking date ranges for the fleet occupancy
+ * aggregates, together with the actual return date recorded in either tier
+ * of the rental history.
+ */
+public class OccupancyDAO {
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int IN_LIST_SIZE = 1000;
+
+    /**
+     * Receives one booking per call; dates are epoch days
+     */
+    @FunctionalInterface
+    public interface IntervalConsumer {
+        void accept(int bookingId, int vehicleId, int startDay, int endDay, int returnDay,
+                    Booking.BookingStatus status);
+    }
+
+    private final RentalHistoryArchive archive;
+
+    public OccupancyDAO() {
+        this(RentalHistoryArchive.getInstance());
+    }
+
+    public OccupancyDAO(RentalHistoryArchive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Load every booking that ends, or was returned, on or after a day
+     * @param fromDay first epoch day of interest
+     * @param consumer receives the bookings
+     * @return true if successful, false otherwise
+     */
+    public boolean loadAllIntervals(int fromDay, IntervalConsumer consumer) {
+        Map<Integer, Integer> archivedReturns = new HashMap<>();
+        archive.forEachActualReturn(fromDay, archivedReturns::put);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(intervalQuery(null) +
+                     " WHERE b.end_date >= ? OR rh.actual_return_date >= ?")) {
+
+            Date from = Date.valueOf(LocalDate.ofEpochDay(fromDay));
+            stmt.setDate(1, from);
+            stmt.setDate(2, from);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    accept(rs, consumer, archivedReturns);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error loading occupancy intervals: " + e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Load the given bookings; bookings that no longer exist are not reported
+     * @param bookingIds bookings to load
+     * @param consumer receives the bookings
+     * @return true if successful, false otherwise
+     */
+    public boolean loadIntervals(int[] bookingIds, IntervalConsumer consumer) {
+        Set<Integer> ids = new HashSet<>();
+        for (int bookingId : bookingIds) {
+            ids.add(bookingId);
+        }
+        Map<Integer, Integer> archivedReturns = new HashMap<>();
+        archive.forEachActualReturn(ids, archivedReturns::put);
+
+        try (Connection conn = DBConnection.getConnection()) {
+            for (int from = 0; from < bookingIds.length; from += IN_LIST_SIZE) {
+                int count = Math.min(IN_LIST_SIZE, bookingIds.length - from);
+                try (PreparedStatement stmt = conn.prepareStatement(intervalQuery(count))) {
+                    for (int i = 0; i < count; i++) {
+                        stmt.setInt(i + 1, bookingIds[from + i]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            accept(rs, consumer, archivedReturns);
+                        }
+                    }
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error loading occupancy intervals: " + e.getMessage());
+        }
+        return false;
+    }
+
+    private static String intervalQuery(Integer idCount) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.booking_id, b.vehicle_id, b.start_date, b.end_date, b.status, rh.actual_return_date " +
+                "FROM bookings b LEFT JOIN rental_history rh ON rh.booking_id = b.booking_id");
+        if (idCount != null) {
+            sql.append(" WHERE b.booking_id IN (?");
+            for (int i = 1; i < idCount; i++) {
+                sql.append(", ?");
+            }
+            sql.append(')');
+        }
+        return sql.toString();
+    }
+
+    // The return date comes from MySQL, or from the archive once the history row was moved there
+    private static void accept(ResultSet rs, IntervalConsumer consumer, Map<Integer, Integer> archivedReturns)
+            throws SQLException {
+        int bookingId = rs.getInt(1);
+        Date returnDate = rs.getDate(6);
+        Integer archivedReturn = archivedReturns.get(bookingId);
+        consumer.accept(bookingId, rs.getInt(2),
+                (int) rs.getDate(3).toLocalDate().toEpochDay(),
+                (int) rs.getDate(4).toLocalDate().toEpochDay(),
+                returnDate != null ? (int) returnDate.toLocalDate().toEpochDay()
+                        : archivedReturn != null ? archivedReturn : NO_DATE,
+                Booking.BookingStatus.fromString(rs.getString(5)));
+    }
+}
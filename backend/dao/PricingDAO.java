@@ -1,6 +1,7 @@
 package backend.dao;
 
 import backend.db.DBConnection;
+import backend.models.Money;
 import backend.models.Pricing;
 import backend.models.Vehicle;
 
@@ -15,6 +16,23 @@ import java.util.List;
  */
 public class PricingDAO {
     
+    private static final ChangeNotifier CHANGES = new ChangeNotifier("pricing");
+    private static final String COLUMNS = String.join(", ", PricingRowMapper.COLUMNS);
+    
+    /**
+     * Register a listener notified with the IDs of pricing rules created,
+     * updated or deleted by any PricingDAO. Updates by vehicle type report
+     * an unknown set (null IDs).
+     * @param listener listener to add
+     */
+    public static void addChangeListener(ChangeListener listener) {
+        CHANGES.add(listener);
+    }
+    
+    public static void removeChangeListener(ChangeListener listener) {
+        CHANGES.remove(listener);
+    }
+    
     /**
      * Create a new pricing rule
      * @param pricing Pricing object to create
@@ -43,6 +61,7 @@ public class PricingDAO {
                         pricing.setPricingId(generatedKeys.getInt(1));
                     }
                 }
+                CHANGES.fire(pricing.getPricingId());
                 return true;
             }
         } catch (SQLException e) {
@@ -57,7 +76,7 @@ public class PricingDAO {
      * @return Pricing object or null if not found
      */
     public Pricing getPricingById(int pricingId) {
-        String sql = "SELECT * FROM pricing WHERE pricing_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM pricing WHERE pricing_id = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -66,7 +85,7 @@ public class PricingDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToPricing(rs);
+                    return new PricingRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -81,7 +100,7 @@ public class PricingDAO {
      * @return Pricing object or null if not found
      */
     public Pricing getPricingByVehicleType(Vehicle.VehicleType vehicleType) {
-        String sql = "SELECT * FROM pricing WHERE vehicle_type = ?";
+        String sql = "SELECT " + COLUMNS + " FROM pricing WHERE vehicle_type = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -90,7 +109,7 @@ public class PricingDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToPricing(rs);
+                    return new PricingRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -103,16 +122,17 @@ public class PricingDAO {
      * Get all pricing rules
      * @return List of all pricing rules
      */
-    public List getAllPricing() {
-        String sql = "SELECT * FROM pricing ORDER BY vehicle_type";
-        List pricingList = new ArrayList();
+    public List<Pricing> getAllPricing() {
+        String sql = "SELECT " + COLUMNS + " FROM pricing ORDER BY vehicle_type";
+        List<Pricing> pricingList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            PricingRowMapper mapper = new PricingRowMapper(rs);
             while (rs.next()) {
-                pricingList.add(mapResultSetToPricing(rs));
+                pricingList.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting all pricing: " + e.getMessage());
@@ -141,7 +161,7 @@ public class PricingDAO {
             stmt.setBigDecimal(6, pricing.getInsuranceDailyRate());
             stmt.setInt(7, pricing.getPricingId());
             
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), pricing.getPricingId());
         } catch (SQLException e) {
             System.err.println("Error updating pricing: " + e.getMessage());
         }
@@ -163,7 +183,7 @@ public class PricingDAO {
             stmt.setBigDecimal(1, newRate);
             stmt.setString(2, vehicleType.getValue());
             
-            return stmt.executeUpdate() > 0;
+            return changedByType(stmt.executeUpdate());
         } catch (SQLException e) {
             System.err.println("Error updating base daily rate: " + e.getMessage());
         }
@@ -185,7 +205,7 @@ public class PricingDAO {
             stmt.setBigDecimal(1, multiplier);
             stmt.setString(2, vehicleType.getValue());
             
-            return stmt.executeUpdate() > 0;
+            return changedByType(stmt.executeUpdate());
         } catch (SQLException e) {
             System.err.println("Error updating weekend multiplier: " + e.getMessage());
         }
@@ -207,7 +227,7 @@ public class PricingDAO {
             stmt.setBigDecimal(1, multiplier);
             stmt.setString(2, vehicleType.getValue());
             
-            return stmt.executeUpdate() > 0;
+            return changedByType(stmt.executeUpdate());
         } catch (SQLException e) {
             System.err.println("Error updating holiday multiplier: " + e.getMessage());
         }
@@ -229,7 +249,7 @@ public class PricingDAO {
             stmt.setBigDecimal(1, discount);
             stmt.setString(2, vehicleType.getValue());
             
-            return stmt.executeUpdate() > 0;
+            return changedByType(stmt.executeUpdate());
         } catch (SQLException e) {
             System.err.println("Error updating long term discount: " + e.getMessage());
         }
@@ -251,7 +271,7 @@ public class PricingDAO {
             stmt.setBigDecimal(1, rate);
             stmt.setString(2, vehicleType.getValue());
             
-            return stmt.executeUpdate() > 0;
+            return changedByType(stmt.executeUpdate());
         } catch (SQLException e) {
             System.err.println("Error updating insurance daily rate: " + e.getMessage());
         }
@@ -271,7 +291,7 @@ public class PricingDAO {
             
             stmt.setInt(1, pricingId);
             
-            return stmt.executeUpdate() > 0;
+            return changed(stmt.executeUpdate(), pricingId);
         } catch (SQLException e) {
             System.err.println("Error deleting pricing: " + e.getMessage());
         }
@@ -333,47 +353,47 @@ public class PricingDAO {
      */
     public BigDecimal calculateTotalCost(Vehicle.VehicleType vehicleType, int days, 
                                        boolean isWeekend, boolean isHoliday, boolean includeInsurance) {
+        return quoteTotalCost(vehicleType, days, isWeekend, isHoliday, includeInsurance).toBigDecimal();
+    }
+    
+    /**
+     * Quote the total cost for a booking in cents
+     * @param vehicleType vehicle type
+     * @param days number of days
+     * @param isWeekend whether it's weekend
+     * @param isHoliday whether it's holiday
+     * @param includeInsurance whether to include insurance
+     * @return total cost, or zero if the vehicle type has no pricing rule
+     */
+    public Money quoteTotalCost(Vehicle.VehicleType vehicleType, int days,
+                                boolean isWeekend, boolean isHoliday, boolean includeInsurance) {
         Pricing pricing = getPricingByVehicleType(vehicleType);
         if (pricing == null) {
-            return BigDecimal.ZERO;
+            return Money.ZERO;
         }
         
-        BigDecimal baseCost = pricing.calculateTotalRate(days, isWeekend, isHoliday, pricing.isLongTermRental(days));
+        Money cost = pricing.quoteRate(days, isWeekend, isHoliday, pricing.isLongTermRental(days));
         
         if (includeInsurance) {
-            BigDecimal insuranceCost = pricing.calculateTotalInsuranceRate(days);
-            baseCost = baseCost.add(insuranceCost);
+            cost = cost.plus(pricing.quoteInsurance(days));
         }
         
-        return baseCost;
+        return cost;
     }
     
-    /**
-     * Map ResultSet to Pricing object
-     * @param rs ResultSet
-     * @return Pricing object
-     * @throws SQLException if database error occurs
-     */
-    private Pricing mapResultSetToPricing(ResultSet rs) throws SQLException {
-        Pricing pricing = new Pricing();
-        pricing.setPricingId(rs.getInt("pricing_id"));
-        pricing.setVehicleType(Vehicle.VehicleType.fromString(rs.getString("vehicle_type")));
-        pricing.setBaseDailyRate(rs.getBigDecimal("base_daily_rate"));
-        pricing.setWeekendMultiplier(rs.getBigDecimal("weekend_multiplier"));
-        pricing.setHolidayMultiplier(rs.getBigDecimal("holiday_multiplier"));
-        pricing.setLongTermDiscount(rs.getBigDecimal("long_term_discount"));
-        pricing.setInsuranceDailyRate(rs.getBigDecimal("insurance_daily_rate"));
-        
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            pricing.setCreatedAt(createdAt.toLocalDateTime());
+    private static boolean changed(int rows, int pricingId) {
+        if (rows > 0) {
+            CHANGES.fire(pricingId);
+            return true;
         }
-        
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) {
-            pricing.setUpdatedAt(updatedAt.toLocalDateTime());
+        return false;
+    }
+    
+    private static boolean changedByType(int rows) {
+        if (rows > 0) {
+            CHANGES.fireUnknown();
+            return true;
         }
-        
-        return pricing;
+        return false;
     }
 }
@@ -0,0 +1,45 @@
+package backend.dao;
+
+import backend.models.Pricing;
+import backend.models.Vehicle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the pricing table to Pricing objects by column index
+ */
+public final class PricingRowMapper extends IndexedRowMapper<Pricing> {
+    static final String[] COLUMNS = {
+            "pricing_id", "vehicle_type", "base_daily_rate", "weekend_multiplier", "holiday_multiplier",
+            "long_term_discount", "insurance_daily_rate", "created_at", "updated_at"
+    };
+    private static final int PRICING_ID = 0, VEHICLE_TYPE = 1, BASE_DAILY_RATE = 2, WEEKEND_MULTIPLIER = 3,
+            HOLIDAY_MULTIPLIER = 4, LONG_TERM_DISCOUNT = 5, INSURANCE_DAILY_RATE = 6, CREATED_AT = 7, UPDATED_AT = 8;
+
+    /**
+     * Create a mapper for a result set over the pricing table
+     * @param rs result set, before or on its first row
+     * @throws SQLException if the metadata cannot be read
+     */
+    public PricingRowMapper(ResultSet rs) throws SQLException {
+        super(rs, COLUMNS);
+    }
+
+    @Override
+    public Pricing map(ResultSet rs) throws SQLException {
+        Pricing pricing = new Pricing();
+        pricing.setPricingId(getInt(rs, PRICING_ID));
+        if (has(VEHICLE_TYPE)) {
+            pricing.setVehicleType(Vehicle.VehicleType.fromString(getString(rs, VEHICLE_TYPE)));
+        }
+        pricing.setBaseDailyRate(getBigDecimal(rs, BASE_DAILY_RATE));
+        pricing.setWeekendMultiplier(getBigDecimal(rs, WEEKEND_MULTIPLIER));
+        pricing.setHolidayMultiplier(getBigDecimal(rs, HOLIDAY_MULTIPLIER));
+        pricing.setLongTermDiscount(getBigDecimal(rs, LONG_TERM_DISCOUNT));
+        pricing.setInsuranceDailyRate(getBigDecimal(rs, INSURANCE_DAILY_RATE));
+        pricing.setCreatedAt(getLocalDateTime(rs, CREATED_AT));
+        pricing.setUpdatedAt(getLocalDateTime(rs, UPDATED_AT));
+        return pricing;
+    }
+}
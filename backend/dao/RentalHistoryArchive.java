@@ -0,0 +1,528 @@
+package backend.dao;
+
+import backend.analytics.RentalHistoryColumns;
+import backend.models.Money;
+import backend.models.RentalHistory;
+import backend.storage.ColumnarFileReader;
+import backend.storage.ColumnarFileWriter;
+import backend.storage.ColumnarFileWriter.ColumnType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Cold tier of the rental history: one read-only columnar file per month of
+ * created_at, memory-mapped on first use. Rows are moved here from MySQL by
+ * the RentalHistoryArchiver and read back through RentalHistoryDAO, which
+ * merges them with the hot rows.
+ *
+ * The DAOs and the archiver share one instance, so a month rewritten by the
+ * archiver replaces the cached reader for every user. A month file replaced
+ * by another process (the archiver run from cron) is noticed by its file
+ * attributes and reopened on the next read.
+ */
+public class RentalHistoryArchive {
+    private static final String DEFAULT_DIRECTORY =
+            System.getProperty("vehiclerental.archive.dir", "archive/rental_history");
+    private static final String FILE_PREFIX = "rental_history-";
+    private static final String FILE_SUFFIX = ".col";
+
+    // Column layout of an archive file
+    static final int HISTORY_ID = 0;
+    static final int BOOKING_ID = 1;
+    static final int USER_ID = 2;
+    static final int VEHICLE_ID = 3;
+    static final int START_DATE = 4;          // epoch day
+    static final int END_DATE = 5;            // epoch day
+    static final int ACTUAL_RETURN_DATE = 6;  // epoch day, nullable
+    static final int TOTAL_AMOUNT = 7;        // cents
+    static final int STATUS = 8;              // RentalStatus ordinal
+    static final int NOTES = 9;
+    static final int CREATED_AT = 10;         // epoch second (UTC), nullable
+
+    private static final String[] COLUMN_NAMES = {
+            "history_id", "booking_id", "user_id", "vehicle_id", "start_date", "end_date",
+            "actual_return_date", "total_amount", "status", "notes", "created_at"
+    };
+    private static final ColumnType[] COLUMN_TYPES = {
+            ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.INT, ColumnType.INT,
+            ColumnType.INT, ColumnType.LONG, ColumnType.INT, ColumnType.STRING, ColumnType.LONG
+    };
+    private static final RentalHistory.RentalStatus[] STATUSES = RentalHistory.RentalStatus.values();
+
+    /**
+     * Row predicate evaluated directly against the archived columns
+     */
+    interface RowFilter {
+        boolean matches(ColumnarFileReader reader, int row);
+    }
+
+    private static final RentalHistoryArchive INSTANCE = new RentalHistoryArchive(Paths.get(DEFAULT_DIRECTORY));
+
+    /**
+     * Open reader of a month file with the ID ranges of its rows, so that
+     * point lookups can skip months that cannot contain an ID
+     */
+    private static final class MonthFile {
+        final ColumnarFileReader reader;
+        final FileTime modified;
+        final Object fileKey;
+        final int minHistoryId;
+        final int maxHistoryId;
+        final int minBookingId;
+        final int maxBookingId;
+
+        MonthFile(ColumnarFileReader reader, BasicFileAttributes attributes) {
+            this.reader = reader;
+            this.modified = attributes.lastModifiedTime();
+            this.fileKey = attributes.fileKey();
+            int minHistory = Integer.MAX_VALUE, maxHistory = Integer.MIN_VALUE;
+            int minBooking = Integer.MAX_VALUE, maxBooking = Integer.MIN_VALUE;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                int historyId = reader.getInt(HISTORY_ID, row);
+                int bookingId = reader.getInt(BOOKING_ID, row);
+                minHistory = Math.min(minHistory, historyId);
+                maxHistory = Math.max(maxHistory, historyId);
+                minBooking = Math.min(minBooking, bookingId);
+                maxBooking = Math.max(maxBooking, bookingId);
+            }
+            this.minHistoryId = minHistory;
+            this.maxHistoryId = maxHistory;
+            this.minBookingId = minBooking;
+            this.maxBookingId = maxBooking;
+        }
+
+        boolean isCurrent(BasicFileAttributes attributes) {
+            return modified.equals(attributes.lastModifiedTime()) && Objects.equals(fileKey, attributes.fileKey());
+        }
+
+        boolean overlapsBookingIds(int from, int to) {
+            return from <= maxBookingId && to >= minBookingId;
+        }
+
+        boolean mayContain(int column, int id) {
+            return column == HISTORY_ID ? id >= minHistoryId && id <= maxHistoryId
+                    : id >= minBookingId && id <= maxBookingId;
+        }
+    }
+
+    private final Path directory;
+    private final Map<YearMonth, MonthFile> readers = new ConcurrentHashMap<>();
+
+    public RentalHistoryArchive(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Shared archive in the configured directory
+     */
+    public static RentalHistoryArchive getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get the directory holding the archive files
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Get archived months, newest first
+     * @return list of archived months
+     */
+    public List<YearMonth> getArchivedMonths() {
+        List<YearMonth> months = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return months;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    months.add(YearMonth.parse(name.substring(FILE_PREFIX.length(),
+                            name.length() - FILE_SUFFIX.length())));
+                } catch (DateTimeParseException e) {
+                    System.err.println("Ignoring unexpected archive file: " + name);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listing rental history archive: " + e.getMessage());
+        }
+        months.sort(Comparator.reverseOrder());
+        return months;
+    }
+
+    /**
+     * Write (or extend) the archive file of a month. Rows already archived
+     * with the same history ID are replaced, so re-running an interrupted
+     * archive step does not create duplicates.
+     * @param month month of created_at
+     * @param rows rows to archive
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized void writeMonth(YearMonth month, Collection<RentalHistory> rows) throws IOException {
+        Map<Integer, RentalHistory> merged = new LinkedHashMap<>();
+        for (RentalHistory existing : readMonth(month, (reader, row) -> true)) {
+            merged.put(existing.getHistoryId(), existing);
+        }
+        for (RentalHistory row : rows) {
+            merged.put(row.getHistoryId(), row);
+        }
+
+        List<RentalHistory> sorted = new ArrayList<>(merged.values());
+        sorted.sort(Comparator.comparing(RentalHistory::getCreatedAt,
+                Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+                .thenComparing(Comparator.comparingInt(RentalHistory::getHistoryId).reversed()));
+
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(fileFor(month), COLUMN_NAMES, COLUMN_TYPES)) {
+            for (RentalHistory rh : sorted) {
+                writer.writeInt(HISTORY_ID, rh.getHistoryId());
+                writer.writeInt(BOOKING_ID, rh.getBookingId());
+                writer.writeInt(USER_ID, rh.getUserId());
+                writer.writeInt(VEHICLE_ID, rh.getVehicleId());
+                writer.writeInt(START_DATE, (int) rh.getStartDate().toEpochDay());
+                writer.writeInt(END_DATE, (int) rh.getEndDate().toEpochDay());
+                if (rh.getActualReturnDate() != null) {
+                    writer.writeInt(ACTUAL_RETURN_DATE, (int) rh.getActualReturnDate().toEpochDay());
+                } else {
+                    writer.writeNull(ACTUAL_RETURN_DATE);
+                }
+                writer.writeLong(TOTAL_AMOUNT, Money.centsOf(rh.getTotalAmount(), RoundingMode.UNNECESSARY));
+                writer.writeInt(STATUS, rh.getStatus().ordinal());
+                writer.writeString(NOTES, rh.getNotes());
+                if (rh.getCreatedAt() != null) {
+                    writer.writeLong(CREATED_AT, rh.getCreatedAt().toEpochSecond(ZoneOffset.UTC));
+                } else {
+                    writer.writeNull(CREATED_AT);
+                }
+                writer.endRow();
+            }
+
+            close(readers.remove(month));
+            writer.finish();
+        }
+    }
+
+    /**
+     * Find archived rows matching a filter, newest first
+     */
+    List<RentalHistory> find(RowFilter filter) {
+        List<RentalHistory> result = new ArrayList<>();
+        for (YearMonth month : getArchivedMonths()) {
+            result.addAll(readMonth(month, filter));
+        }
+        return result;
+    }
+
+    /**
+     * Lazily stream archived rows matching a filter, newest month first
+     */
+    Stream<RentalHistory> stream(RowFilter filter) {
+        return getArchivedMonths().stream().flatMap(month -> {
+            ColumnarFileReader reader = reader(month);
+            if (reader == null) {
+                return Stream.empty();
+            }
+            return IntStream.range(0, reader.getRowCount())
+                    .filter(row -> filter.matches(reader, row))
+                    .mapToObj(row -> toRentalHistory(reader, row));
+        });
+    }
+
+    /**
+     * Find the archived row with a history ID or booking ID, reading only
+     * the months whose ID range contains it
+     * @param column HISTORY_ID or BOOKING_ID
+     * @param id ID to find
+     * @return the row, or null if it is not archived
+     */
+    RentalHistory findById(int column, int id) {
+        for (YearMonth month : getArchivedMonths()) {
+            MonthFile file = monthFile(month);
+            if (file == null || !file.mayContain(column, id)) continue;
+            ColumnarFileReader reader = file.reader;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                if (reader.getInt(column, row) == id) {
+                    return toRentalHistory(reader, row);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aggregate archived rows of a status
+     * @return {count, sum of total_amount in cents, sum of planned duration in days}
+     */
+    long[] aggregate(RentalHistory.RentalStatus status) {
+        long count = 0;
+        long amountCents = 0;
+        long durationDays = 0;
+        for (YearMonth month : getArchivedMonths()) {
+            ColumnarFileReader reader = reader(month);
+            if (reader == null) continue;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                if (reader.getInt(STATUS, row) == status.ordinal()) {
+                    count++;
+                    amountCents += reader.getLong(TOTAL_AMOUNT, row);
+                    durationDays += reader.getInt(END_DATE, row) - reader.getInt(START_DATE, row);
+                }
+            }
+        }
+        return new long[]{count, amountCents, durationDays};
+    }
+
+    /**
+     * Append every archived row to an analytics snapshot, reading the
+     * columns directly without creating RentalHistory objects
+     */
+    void appendColumns(RentalHistoryColumns.Builder builder) {
+        for (YearMonth month : getArchivedMonths()) {
+            ColumnarFileReader reader = reader(month);
+            if (reader == null) continue;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                builder.addRow(reader.getInt(VEHICLE_ID, row), reader.getInt(USER_ID, row),
+                        reader.getInt(START_DATE, row), reader.getInt(END_DATE, row),
+                        reader.getLong(TOTAL_AMOUNT, row), reader.getInt(STATUS, row));
+            }
+        }
+    }
+
+    /**
+     * Report every archived rental to a revenue row consumer
+     */
+    void forEachRevenueRow(RentalHistoryDAO.RevenueRowConsumer consumer) {
+        for (YearMonth month : getArchivedMonths()) {
+            ColumnarFileReader reader = reader(month);
+            if (reader == null) continue;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                consumer.accept(reader.getInt(BOOKING_ID, row), reader.getInt(VEHICLE_ID, row),
+                        reader.getInt(START_DATE, row), reader.getLong(TOTAL_AMOUNT, row),
+                        STATUSES[reader.getInt(STATUS, row)]);
+            }
+        }
+    }
+
+    /**
+     * Report the archived rentals of the given bookings to a revenue row
+     * consumer, reading only the months whose booking ID range overlaps them
+     */
+    void forEachRevenueRow(Set<Integer> bookingIds, RentalHistoryDAO.RevenueRowConsumer consumer) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        int from = Collections.min(bookingIds);
+        int to = Collections.max(bookingIds);
+        for (YearMonth month : getArchivedMonths()) {
+            MonthFile file = monthFile(month);
+            if (file == null || !file.overlapsBookingIds(from, to)) continue;
+            ColumnarFileReader reader = file.reader;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                int bookingId = reader.getInt(BOOKING_ID, row);
+                if (bookingIds.contains(bookingId)) {
+                    consumer.accept(bookingId, reader.getInt(VEHICLE_ID, row), reader.getInt(START_DATE, row),
+                            reader.getLong(TOTAL_AMOUNT, row), STATUSES[reader.getInt(STATUS, row)]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the booking ID and actual return epoch day of an archived rental
+     */
+    interface ReturnDateConsumer {
+        void accept(int bookingId, int returnDay);
+    }
+
+    /**
+     * Report every archived rental with an actual return date that ends or
+     * was returned on or after a day
+     * @param fromDay first epoch day of interest
+     */
+    void forEachActualReturn(int fromDay, ReturnDateConsumer consumer) {
+        for (YearMonth month : getArchivedMonths()) {
+            ColumnarFileReader reader = reader(month);
+            if (reader == null) continue;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                if (!reader.isNull(ACTUAL_RETURN_DATE, row)) {
+                    int returnDay = reader.getInt(ACTUAL_RETURN_DATE, row);
+                    if (returnDay >= fromDay || reader.getInt(END_DATE, row) >= fromDay) {
+                        consumer.accept(reader.getInt(BOOKING_ID, row), returnDay);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Report the archived rentals of the given bookings that have an actual
+     * return date, reading only the months whose booking ID range overlaps them
+     */
+    void forEachActualReturn(Set<Integer> bookingIds, ReturnDateConsumer consumer) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        int from = Collections.min(bookingIds);
+        int to = Collections.max(bookingIds);
+        for (YearMonth month : getArchivedMonths()) {
+            MonthFile file = monthFile(month);
+            if (file == null || !file.overlapsBookingIds(from, to)) continue;
+            ColumnarFileReader reader = file.reader;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                int bookingId = reader.getInt(BOOKING_ID, row);
+                if (bookingIds.contains(bookingId) && !reader.isNull(ACTUAL_RETURN_DATE, row)) {
+                    consumer.accept(bookingId, reader.getInt(ACTUAL_RETURN_DATE, row));
+                }
+            }
+        }
+    }
+
+    static RowFilter byIntColumn(int column, int value) {
+        return (reader, row) -> reader.getInt(column, row) == value;
+    }
+
+    static RowFilter byStatus(RentalHistory.RentalStatus status) {
+        return byIntColumn(STATUS, status.ordinal());
+    }
+
+    static RowFilter byDateRange(LocalDate startDate, LocalDate endDate) {
+        int from = (int) startDate.toEpochDay();
+        int to = (int) endDate.toEpochDay();
+        return (reader, row) -> reader.getInt(START_DATE, row) >= from && reader.getInt(END_DATE, row) <= to;
+    }
+
+    /**
+     * Find which of the given bookings already have an archived history
+     * row, reading only the months whose booking ID range overlaps them
+     * @param bookingIds booking IDs to check
+     * @return the archived subset of the IDs
+     */
+    Set<Integer> findArchivedBookingIds(Set<Integer> bookingIds) {
+        Set<Integer> archived = new HashSet<>();
+        if (bookingIds.isEmpty()) {
+            return archived;
+        }
+        int from = Collections.min(bookingIds);
+        int to = Collections.max(bookingIds);
+        for (YearMonth month : getArchivedMonths()) {
+            MonthFile file = monthFile(month);
+            if (file == null || !file.overlapsBookingIds(from, to)) continue;
+            ColumnarFileReader reader = file.reader;
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                int bookingId = reader.getInt(BOOKING_ID, row);
+                if (bookingIds.contains(bookingId)) {
+                    archived.add(bookingId);
+                }
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Open (and cache) the memory-mapped reader of a month
+     */
+    ColumnarFileReader reader(YearMonth month) {
+        MonthFile file = monthFile(month);
+        return file != null ? file.reader : null;
+    }
+
+    private MonthFile monthFile(YearMonth month) {
+        Path file = fileFor(month);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            close(readers.remove(month));
+            return null;
+        }
+        MonthFile cached = readers.get(month);
+        if (cached != null && cached.isCurrent(attributes)) {
+            return cached;
+        }
+        return readers.compute(month, (m, current) -> {
+            if (current != null && current.isCurrent(attributes)) {
+                return current;
+            }
+            close(current);
+            try {
+                return new MonthFile(new ColumnarFileReader(file), attributes);
+            } catch (IOException e) {
+                System.err.println("Error opening rental history archive " + file + ": " + e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    // Readers still in use keep working: closing the channel does not unmap their buffers
+    private static void close(MonthFile file) {
+        if (file == null) return;
+        try {
+            file.reader.close();
+        } catch (IOException e) {
+            System.err.println("Error closing rental history archive reader: " + e.getMessage());
+        }
+    }
+
+    private List<RentalHistory> readMonth(YearMonth month, RowFilter filter) {
+        List<RentalHistory> result = new ArrayList<>();
+        ColumnarFileReader reader = reader(month);
+        if (reader != null) {
+            for (int row = 0; row < reader.getRowCount(); row++) {
+                if (filter.matches(reader, row)) {
+                    result.add(toRentalHistory(reader, row));
+                }
+            }
+        }
+        return result;
+    }
+
+    private Path fileFor(YearMonth month) {
+        return directory.resolve(FILE_PREFIX + month + FILE_SUFFIX);
+    }
+
+    private static RentalHistory toRentalHistory(ColumnarFileReader reader, int row) {
+        RentalHistory rh = new RentalHistory();
+        rh.setHistoryId(reader.getInt(HISTORY_ID, row));
+        rh.setBookingId(reader.getInt(BOOKING_ID, row));
+        rh.setUserId(reader.getInt(USER_ID, row));
+        rh.setVehicleId(reader.getInt(VEHICLE_ID, row));
+        rh.setStartDate(LocalDate.ofEpochDay(reader.getInt(START_DATE, row)));
+        rh.setEndDate(LocalDate.ofEpochDay(reader.getInt(END_DATE, row)));
+        if (!reader.isNull(ACTUAL_RETURN_DATE, row)) {
+            rh.setActualReturnDate(LocalDate.ofEpochDay(reader.getInt(ACTUAL_RETURN_DATE, row)));
+        }
+        rh.setTotalAmount(BigDecimal.valueOf(reader.getLong(TOTAL_AMOUNT, row), 2));
+        rh.setStatus(STATUSES[reader.getInt(STATUS, row)]);
+        rh.setNotes(reader.getString(NOTES, row));
+        if (!reader.isNull(CREATED_AT, row)) {
+            rh.setCreatedAt(LocalDateTime.ofEpochSecond(reader.getLong(CREATED_AT, row), 0, ZoneOffset.UTC));
+        }
+        return rh;
+    }
+}
@@ -1,20 +1,67 @@
 package backend.dao;
 
+import backend.analytics.RentalHistoryColumns;
 import backend.db.DBConnection;
+import backend.models.Money;
 import backend.models.RentalHistory;
+import backend.models.Vehicle;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
- * Data Access Object for RentalHistory operations
+ * Data Access Object for RentalHistory operations.
+ * Queries span both tiers of the history: recent rows in MySQL and older
+ * months compacted into the {@link RentalHistoryArchive}. Archived rows are
+ * read-only; update and delete methods only affect the MySQL tier.
  */
 public class RentalHistoryDAO {
     
+    private static final ChangeNotifier CHANGES = new ChangeNotifier("rentalHistory");
+    private static final String COLUMNS = String.join(", ", RentalHistoryRowMapper.COLUMNS);
+    
+    private final RentalHistoryArchive archive;
+    
+    /**
+     * Receives the revenue-relevant fields of one rental; the start date is an epoch day
+     */
+    @FunctionalInterface
+    public interface RevenueRowConsumer {
+        void accept(int bookingId, int vehicleId, int startDay, long amountCents, RentalHistory.RentalStatus status);
+    }
+    
+    public RentalHistoryDAO() {
+        this(RentalHistoryArchive.getInstance());
+    }
+    
+    public RentalHistoryDAO(RentalHistoryArchive archive) {
+        this.archive = archive;
+    }
+    
+    /**
+     * Register a listener notified with the booking IDs of rental history
+     * entries changed by any RentalHistoryDAO. Moving rows to the archive is
+     * not reported since the DAO keeps returning them.
+     * @param listener listener to add
+     */
+    public static void addChangeListener(ChangeListener listener) {
+        CHANGES.add(listener);
+    }
+    
+    public static void removeChangeListener(ChangeListener listener) {
+        CHANGES.remove(listener);
+    }
+    
     /**
      * Create a new rental history entry
      * @param rentalHistory RentalHistory object to create
@@ -51,6 +98,7 @@ public class RentalHistoryDAO {
                         rentalHistory.setHistoryId(generatedKeys.getInt(1));
                     }
                 }
+                CHANGES.fire(rentalHistory.getBookingId());
                 return true;
             }
         } catch (SQLException e) {
@@ -59,13 +107,103 @@ public class RentalHistoryDAO {
         return false;
     }
     
+    /**
+     * Create rental history entries for the selected bookings with a single
+     * INSERT ... SELECT. Bookings that already have a history entry, in MySQL
+     * or in the archive, are skipped.
+     * Intended to run inside a UnitOfWork, so errors are propagated.
+     * @param selection bookings to record
+     * @param status rental status to record
+     * @param actualReturnDate actual return date, or null if the vehicle was not returned
+     * @return number of history entries created
+     * @throws SQLException if database error occurs
+     */
+    public int createRentalHistoryFromBookings(BookingSelection selection, RentalHistory.RentalStatus status,
+                                               LocalDate actualReturnDate) throws SQLException {
+        return insertFromBookings(selection, "?", "?", stmt -> {
+            if (actualReturnDate != null) {
+                stmt.setDate(1, Date.valueOf(actualReturnDate));
+            } else {
+                stmt.setNull(1, Types.DATE);
+            }
+            stmt.setString(2, status.getValue());
+            return 3;
+        });
+    }
+    
+    /**
+     * Create rental history entries for selected completed or cancelled
+     * bookings, copying the booking status. Completed bookings are recorded
+     * as returned on their end date.
+     * @param selection completed or cancelled bookings to record
+     * @return number of history entries created
+     * @throws SQLException if database error occurs
+     */
+    public int createRentalHistoryFromBookings(BookingSelection selection) throws SQLException {
+        return insertFromBookings(selection, "CASE WHEN b.status = 'completed' THEN b.end_date END", "b.status",
+                stmt -> 1);
+    }
+    
+    private interface ParameterBinder {
+        int bind(PreparedStatement stmt) throws SQLException;
+    }
+    
+    private int insertFromBookings(BookingSelection selection, String returnDateExpr, String statusExpr,
+                                   ParameterBinder binder) throws SQLException {
+        String unrecorded = "FROM bookings b WHERE (" + selection.getWhereClause() + ")" +
+                    " AND NOT EXISTS (SELECT 1 FROM rental_history rh WHERE rh.booking_id = b.booking_id)";
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            // The archive is not visible to SQL: bookings edited after their history was archived are excluded by ID
+            Set<Integer> candidates = new HashSet<>();
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT b.booking_id " + unrecorded)) {
+                selection.bind(stmt, 1);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        candidates.add(rs.getInt(1));
+                    }
+                }
+            }
+            Set<Integer> archived = archive.findArchivedBookingIds(candidates);
+            if (archived.size() == candidates.size()) {
+                return 0;
+            }
+            
+            StringBuilder sql = new StringBuilder("INSERT INTO rental_history (booking_id, user_id, vehicle_id, " +
+                    "start_date, end_date, actual_return_date, total_amount, status) " +
+                    "SELECT b.booking_id, b.user_id, b.vehicle_id, b.start_date, b.end_date, " +
+                    returnDateExpr + ", b.total_amount, " + statusExpr + " " + unrecorded);
+            if (!archived.isEmpty()) {
+                sql.append(" AND b.booking_id NOT IN (");
+                for (int i = 0; i < archived.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                sql.append(")");
+            }
+            
+            int created;
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = selection.bind(stmt, binder.bind(stmt));
+                for (int bookingId : archived) {
+                    stmt.setInt(index++, bookingId);
+                }
+                created = stmt.executeUpdate();
+            }
+            if (created > 0) {
+                candidates.removeAll(archived);
+                CHANGES.fire(candidates.stream().mapToInt(Integer::intValue).toArray());
+            }
+            return created;
+        }
+    }
+    
     /**
      * Get rental history by ID
      * @param historyId history ID
      * @return RentalHistory object or null if not found
      */
     public RentalHistory getRentalHistoryById(int historyId) {
-        String sql = "SELECT * FROM rental_history WHERE history_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE history_id = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -74,13 +212,13 @@ public class RentalHistoryDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToRentalHistory(rs);
+                    return new RentalHistoryRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by ID: " + e.getMessage());
         }
-        return null;
+        return archive.findById(RentalHistoryArchive.HISTORY_ID, historyId);
     }
     
     /**
@@ -89,7 +227,7 @@ public class RentalHistoryDAO {
      * @return RentalHistory object or null if not found
      */
     public RentalHistory getRentalHistoryByBookingId(int bookingId) {
-        String sql = "SELECT * FROM rental_history WHERE booking_id = ?";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE booking_id = ?";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -98,13 +236,13 @@ public class RentalHistoryDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToRentalHistory(rs);
+                    return new RentalHistoryRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by booking ID: " + e.getMessage());
         }
-        return null;
+        return archive.findById(RentalHistoryArchive.BOOKING_ID, bookingId);
     }
     
     /**
@@ -113,7 +251,7 @@ public class RentalHistoryDAO {
      * @return List of rental history for the user
      */
     public List<RentalHistory> getRentalHistoryByUserId(int userId) {
-        String sql = "SELECT * FROM rental_history WHERE user_id = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE user_id = ? ORDER BY created_at DESC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
@@ -122,13 +260,15 @@ public class RentalHistoryDAO {
             stmt.setInt(1, userId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
                 while (rs.next()) {
-                    historyList.add(mapResultSetToRentalHistory(rs));
+                    historyList.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by user ID: " + e.getMessage());
         }
+        historyList.addAll(archive.find(RentalHistoryArchive.byIntColumn(RentalHistoryArchive.USER_ID, userId)));
         return historyList;
     }
     
@@ -138,7 +278,7 @@ public class RentalHistoryDAO {
      * @return List of rental history for the vehicle
      */
     public List<RentalHistory> getRentalHistoryByVehicleId(int vehicleId) {
-        String sql = "SELECT * FROM rental_history WHERE vehicle_id = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE vehicle_id = ? ORDER BY created_at DESC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
@@ -147,13 +287,15 @@ public class RentalHistoryDAO {
             stmt.setInt(1, vehicleId);
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
                 while (rs.next()) {
-                    historyList.add(mapResultSetToRentalHistory(rs));
+                    historyList.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by vehicle ID: " + e.getMessage());
         }
+        historyList.addAll(archive.find(RentalHistoryArchive.byIntColumn(RentalHistoryArchive.VEHICLE_ID, vehicleId)));
         return historyList;
     }
     
@@ -162,19 +304,22 @@ public class RentalHistoryDAO {
      * @return List of all rental history
      */
     public List<RentalHistory> getAllRentalHistory() {
-        String sql = "SELECT * FROM rental_history ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history ORDER BY created_at DESC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
+            
             while (rs.next()) {
-                historyList.add(mapResultSetToRentalHistory(rs));
+                historyList.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting all rental history: " + e.getMessage());
         }
+        historyList.addAll(archive.find((reader, row) -> true));
         return historyList;
     }
     
@@ -184,7 +329,7 @@ public class RentalHistoryDAO {
      * @return List of rental history with specified status
      */
     public List<RentalHistory> getRentalHistoryByStatus(RentalHistory.RentalStatus status) {
-        String sql = "SELECT * FROM rental_history WHERE status = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE status = ? ORDER BY created_at DESC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
@@ -193,13 +338,15 @@ public class RentalHistoryDAO {
             stmt.setString(1, status.getValue());
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
                 while (rs.next()) {
-                    historyList.add(mapResultSetToRentalHistory(rs));
+                    historyList.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by status: " + e.getMessage());
         }
+        historyList.addAll(archive.find(RentalHistoryArchive.byStatus(status)));
         return historyList;
     }
     
@@ -218,7 +365,7 @@ public class RentalHistoryDAO {
      * @return List of rental history in the date range
      */
     public List<RentalHistory> getRentalHistoryByDateRange(LocalDate startDate, LocalDate endDate) {
-        String sql = "SELECT * FROM rental_history WHERE start_date >= ? AND end_date <= ? ORDER BY start_date ASC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE start_date >= ? AND end_date <= ? ORDER BY start_date ASC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
@@ -228,13 +375,19 @@ public class RentalHistoryDAO {
             stmt.setDate(2, Date.valueOf(endDate));
             
             try (ResultSet rs = stmt.executeQuery()) {
+                RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
                 while (rs.next()) {
-                    historyList.add(mapResultSetToRentalHistory(rs));
+                    historyList.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
             System.err.println("Error getting rental history by date range: " + e.getMessage());
         }
+        List<RentalHistory> archived = archive.find(RentalHistoryArchive.byDateRange(startDate, endDate));
+        if (!archived.isEmpty()) {
+            historyList.addAll(archived);
+            historyList.sort(Comparator.comparing(RentalHistory::getStartDate));
+        }
         return historyList;
     }
     
@@ -243,15 +396,17 @@ public class RentalHistoryDAO {
      * @return List of recent rental history
      */
     public List<RentalHistory> getRecentRentalHistory() {
-        String sql = "SELECT * FROM rental_history WHERE created_at >= DATE_SUB(NOW(), INTERVAL 30 DAY) ORDER BY created_at DESC";
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE created_at >= DATE_SUB(NOW(), INTERVAL 30 DAY) ORDER BY created_at DESC";
         List<RentalHistory> historyList = new ArrayList<>();
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
+            RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
+            
             while (rs.next()) {
-                historyList.add(mapResultSetToRentalHistory(rs));
+                historyList.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting recent rental history: " + e.getMessage());
@@ -259,6 +414,99 @@ public class RentalHistoryDAO {
         return historyList;
     }
     
+    /**
+     * Stream all rental history through a server-side cursor: MySQL rows in
+     * the order of getAllRentalHistory, followed by the archived rows. The
+     * stream holds a connection until it is closed.
+     * @param fetchSize rows fetched per round trip
+     * @return stream of rental history
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<RentalHistory> streamAllRentalHistory(int fetchSize) throws SQLException {
+        return streamBothTiers("SELECT " + COLUMNS + " FROM rental_history ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, (reader, row) -> true);
+    }
+    
+    /**
+     * Pass all rental history (both tiers) to a callback, reading MySQL rows
+     * through a server-side cursor
+     * @param fetchSize rows fetched per round trip
+     * @param callback receives the rental history
+     * @return number of rows
+     * @throws SQLException if database error occurs
+     */
+    public long forEachRentalHistory(int fetchSize, Consumer<? super RentalHistory> callback) throws SQLException {
+        long rows = StreamingQuery.forEach("SELECT " + COLUMNS + " FROM rental_history ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, RentalHistoryRowMapper::new, callback);
+        try (Stream<RentalHistory> archived = archive.stream((reader, row) -> true)) {
+            rows += archived.peek(callback).count();
+        }
+        return rows;
+    }
+    
+    /**
+     * Stream the rental history of a user (both tiers)
+     * @param userId user ID
+     * @param fetchSize rows fetched per round trip
+     * @return stream of rental history
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<RentalHistory> streamRentalHistoryByUserId(int userId, int fetchSize) throws SQLException {
+        return streamBothTiers("SELECT " + COLUMNS + " FROM rental_history WHERE user_id = ? ORDER BY created_at DESC", fetchSize,
+                stmt -> stmt.setInt(1, userId),
+                RentalHistoryArchive.byIntColumn(RentalHistoryArchive.USER_ID, userId));
+    }
+    
+    /**
+     * Stream the rental history of a vehicle (both tiers)
+     * @param vehicleId vehicle ID
+     * @param fetchSize rows fetched per round trip
+     * @return stream of rental history
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<RentalHistory> streamRentalHistoryByVehicleId(int vehicleId, int fetchSize) throws SQLException {
+        return streamBothTiers("SELECT " + COLUMNS + " FROM rental_history WHERE vehicle_id = ? ORDER BY created_at DESC", fetchSize,
+                stmt -> stmt.setInt(1, vehicleId),
+                RentalHistoryArchive.byIntColumn(RentalHistoryArchive.VEHICLE_ID, vehicleId));
+    }
+    
+    /**
+     * Stream the rental history in a status (both tiers)
+     * @param status rental status
+     * @param fetchSize rows fetched per round trip
+     * @return stream of rental history
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<RentalHistory> streamRentalHistoryByStatus(RentalHistory.RentalStatus status, int fetchSize)
+            throws SQLException {
+        return streamBothTiers("SELECT " + COLUMNS + " FROM rental_history WHERE status = ? ORDER BY created_at DESC", fetchSize,
+                stmt -> stmt.setString(1, status.getValue()), RentalHistoryArchive.byStatus(status));
+    }
+    
+    /**
+     * Stream the rental history within a date range (both tiers). MySQL rows
+     * are ordered by start date; archived rows follow them unsorted.
+     * @param startDate start date
+     * @param endDate end date
+     * @param fetchSize rows fetched per round trip
+     * @return stream of rental history
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<RentalHistory> streamRentalHistoryByDateRange(LocalDate startDate, LocalDate endDate, int fetchSize)
+            throws SQLException {
+        return streamBothTiers("SELECT " + COLUMNS + " FROM rental_history WHERE start_date >= ? AND end_date <= ? ORDER BY start_date ASC",
+                fetchSize, stmt -> {
+                    stmt.setDate(1, Date.valueOf(startDate));
+                    stmt.setDate(2, Date.valueOf(endDate));
+                }, RentalHistoryArchive.byDateRange(startDate, endDate));
+    }
+    
+    private Stream<RentalHistory> streamBothTiers(String sql, int fetchSize, StreamingQuery.Binder binder,
+                                                  RentalHistoryArchive.RowFilter archiveFilter) throws SQLException {
+        Stream<RentalHistory> hot = StreamingQuery.stream(sql, fetchSize, binder, RentalHistoryRowMapper::new);
+        return Stream.concat(hot, archive.stream(archiveFilter));
+    }
+    
     /**
      * Update rental history information
      * @param rentalHistory RentalHistory object with updated information
@@ -289,7 +537,10 @@ public class RentalHistoryDAO {
             stmt.setString(9, rentalHistory.getNotes());
             stmt.setInt(10, rentalHistory.getHistoryId());
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(rentalHistory.getBookingId());
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating rental history: " + e.getMessage());
         }
@@ -305,13 +556,18 @@ public class RentalHistoryDAO {
     public boolean updateActualReturnDate(int historyId, LocalDate actualReturnDate) {
         String sql = "UPDATE rental_history SET actual_return_date = ? WHERE history_id = ?";
         
+        int bookingId = CHANGES.hasListeners() ? getBookingIdOf(historyId) : 0;
+        
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setDate(1, Date.valueOf(actualReturnDate));
             stmt.setInt(2, historyId);
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(bookingId);
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating actual return date: " + e.getMessage());
         }
@@ -327,13 +583,18 @@ public class RentalHistoryDAO {
     public boolean updateRentalStatus(int historyId, RentalHistory.RentalStatus status) {
         String sql = "UPDATE rental_history SET status = ? WHERE history_id = ?";
         
+        int bookingId = CHANGES.hasListeners() ? getBookingIdOf(historyId) : 0;
+        
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, status.getValue());
             stmt.setInt(2, historyId);
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(bookingId);
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating rental status: " + e.getMessage());
         }
@@ -370,18 +631,28 @@ public class RentalHistoryDAO {
     public boolean deleteRentalHistory(int historyId) {
         String sql = "DELETE FROM rental_history WHERE history_id = ?";
         
+        int bookingId = CHANGES.hasListeners() ? getBookingIdOf(historyId) : 0;
+        
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, historyId);
             
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(bookingId);
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting rental history: " + e.getMessage());
         }
         return false;
     }
     
+    private int getBookingIdOf(int historyId) {
+        RentalHistory rentalHistory = getRentalHistoryById(historyId);
+        return rentalHistory != null ? rentalHistory.getBookingId() : 0;
+    }
+    
     /**
      * Get rental history count by status
      * @param status rental status
@@ -397,7 +668,7 @@ public class RentalHistoryDAO {
             
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    return rs.getInt(1) + (int) archive.aggregate(status)[0];
                 }
             }
         } catch (SQLException e) {
@@ -419,7 +690,8 @@ public class RentalHistoryDAO {
             
             if (rs.next()) {
                 BigDecimal total = rs.getBigDecimal(1);
-                return total != null ? total : BigDecimal.ZERO;
+                BigDecimal archived = BigDecimal.valueOf(archive.aggregate(RentalHistory.RentalStatus.COMPLETED)[1], 2);
+                return total != null ? total.add(archived) : archived;
             }
         } catch (SQLException e) {
             System.err.println("Error getting total revenue: " + e.getMessage());
@@ -432,14 +704,16 @@ public class RentalHistoryDAO {
      * @return average rental duration in days
      */
     public double getAverageRentalDuration() {
-        String sql = "SELECT AVG(DATEDIFF(end_date, start_date)) FROM rental_history WHERE status = 'completed'";
+        String sql = "SELECT COUNT(*), COALESCE(SUM(DATEDIFF(end_date, start_date)), 0) FROM rental_history WHERE status = 'completed'";
         
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
             
             if (rs.next()) {
-                return rs.getDouble(1);
+                long[] archived = archive.aggregate(RentalHistory.RentalStatus.COMPLETED);
+                long count = rs.getLong(1) + archived[0];
+                return count > 0 ? (rs.getLong(2) + archived[2]) / (double) count : 0.0;
             }
         } catch (SQLException e) {
             System.err.println("Error getting average rental duration: " + e.getMessage());
@@ -448,34 +722,197 @@ public class RentalHistoryDAO {
     }
     
     /**
-     * Map ResultSet to RentalHistory object
-     * @param rs ResultSet
-     * @return RentalHistory object
-     * @throws SQLException if database error occurs
+     * Load both tiers of the rental history into a column snapshot for analytics
+     * @return snapshot or null if loading failed
      */
-    private RentalHistory mapResultSetToRentalHistory(ResultSet rs) throws SQLException {
-        RentalHistory rentalHistory = new RentalHistory();
-        rentalHistory.setHistoryId(rs.getInt("history_id"));
-        rentalHistory.setBookingId(rs.getInt("booking_id"));
-        rentalHistory.setUserId(rs.getInt("user_id"));
-        rentalHistory.setVehicleId(rs.getInt("vehicle_id"));
-        rentalHistory.setStartDate(rs.getDate("start_date").toLocalDate());
-        rentalHistory.setEndDate(rs.getDate("end_date").toLocalDate());
+    public RentalHistoryColumns loadColumns() {
+        String vehicleSql = "SELECT vehicle_id, vehicle_type FROM vehicles";
+        String historySql = "SELECT vehicle_id, user_id, start_date, end_date, total_amount, status " +
+                           "FROM rental_history";
+        RentalHistoryColumns.Builder builder = RentalHistoryColumns.builder();
+        
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement stmt = conn.prepareStatement(vehicleSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.addVehicle(rs.getInt(1), Vehicle.VehicleType.fromString(rs.getString(2)));
+                }
+            }
+            
+            try (PreparedStatement stmt = conn.prepareStatement(historySql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.addRow(rs.getInt(1), rs.getInt(2),
+                            (int) rs.getDate(3).toLocalDate().toEpochDay(),
+                            (int) rs.getDate(4).toLocalDate().toEpochDay(),
+                            Money.centsOf(rs.getBigDecimal(5), RoundingMode.HALF_UP),
+                            RentalHistory.RentalStatus.fromString(rs.getString(6)).ordinal());
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading rental history columns: " + e.getMessage());
+            return null;
+        }
         
-        Date actualReturnDate = rs.getDate("actual_return_date");
-        if (actualReturnDate != null) {
-            rentalHistory.setActualReturnDate(actualReturnDate.toLocalDate());
+        archive.appendColumns(builder);
+        return builder.build();
+    }
+    
+    /**
+     * Load the revenue fields of every rental in both tiers
+     * @param mysqlConsumer receives the rentals of the MySQL tier, which can still change
+     * @param archivedConsumer receives the archived rentals, which are read-only
+     * @return true if successful, false otherwise
+     */
+    public boolean loadAllRevenueRows(RevenueRowConsumer mysqlConsumer, RevenueRowConsumer archivedConsumer) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(revenueRowQuery(0));
+             ResultSet rs = stmt.executeQuery()) {
+            
+            while (rs.next()) {
+                acceptRevenueRow(rs, mysqlConsumer);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading revenue rows: " + e.getMessage());
+            return false;
+        }
+        archive.forEachRevenueRow(archivedConsumer);
+        return true;
+    }
+    
+    /**
+     * Load the revenue fields of the archived rentals of the given bookings
+     * @param bookingIds bookings to look up
+     * @param consumer receives the rentals
+     */
+    public void loadArchivedRevenueRows(int[] bookingIds, RevenueRowConsumer consumer) {
+        Set<Integer> ids = new HashSet<>();
+        for (int bookingId : bookingIds) {
+            ids.add(bookingId);
+        }
+        archive.forEachRevenueRow(ids, consumer);
+    }
+    
+    /**
+     * Load the revenue fields of the MySQL-tier rentals of the given bookings;
+     * bookings without a history entry are not reported
+     * @param bookingIds bookings to load
+     * @param consumer receives the rentals
+     * @return true if successful, false otherwise
+     */
+    public boolean loadRevenueRows(int[] bookingIds, RevenueRowConsumer consumer) {
+        if (bookingIds.length == 0) {
+            return true;
+        }
+        
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(revenueRowQuery(bookingIds.length))) {
+            
+            for (int i = 0; i < bookingIds.length; i++) {
+                stmt.setInt(i + 1, bookingIds[i]);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    acceptRevenueRow(rs, consumer);
+                }
+            }
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error loading revenue rows: " + e.getMessage());
+        }
+        return false;
+    }
+    
+    private static String revenueRowQuery(int idCount) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT booking_id, vehicle_id, start_date, total_amount, status FROM rental_history");
+        if (idCount > 0) {
+            sql.append(" WHERE booking_id IN (?");
+            for (int i = 1; i < idCount; i++) {
+                sql.append(", ?");
+            }
+            sql.append(')');
         }
+        return sql.toString();
+    }
+    
+    private static void acceptRevenueRow(ResultSet rs, RevenueRowConsumer consumer) throws SQLException {
+        consumer.accept(rs.getInt(1), rs.getInt(2), (int) rs.getDate(3).toLocalDate().toEpochDay(),
+                Money.centsOf(rs.getBigDecimal(4), RoundingMode.HALF_UP),
+                RentalHistory.RentalStatus.fromString(rs.getString(5)));
+    }
+    
+    /**
+     * Get the oldest created_at in the MySQL tier
+     * @return oldest creation time or null if the table is empty
+     */
+    public LocalDateTime getOldestCreatedAt() {
+        String sql = "SELECT MIN(created_at) FROM rental_history";
         
-        rentalHistory.setTotalAmount(rs.getBigDecimal("total_amount"));
-        rentalHistory.setStatus(RentalHistory.RentalStatus.fromString(rs.getString("status")));
-        rentalHistory.setNotes(rs.getString("notes"));
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            
+            if (rs.next()) {
+                Timestamp oldest = rs.getTimestamp(1);
+                return oldest != null ? oldest.toLocalDateTime() : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting oldest rental history: " + e.getMessage());
+        }
+        return null;
+    }
+    
+    /**
+     * Get the MySQL-tier rows created in [from, to)
+     * @param from inclusive lower bound of created_at
+     * @param to exclusive upper bound of created_at
+     * @return List of rental history created in the interval
+     * @throws SQLException if database error occurs
+     */
+    public List<RentalHistory> getHotRentalHistoryCreatedBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        String sql = "SELECT " + COLUMNS + " FROM rental_history WHERE created_at >= ? AND created_at < ? ORDER BY created_at DESC";
+        List<RentalHistory> historyList = new ArrayList<>();
         
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) {
-            rentalHistory.setCreatedAt(createdAt.toLocalDateTime());
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            
+            try (ResultSet rs = stmt.executeQuery()) {
+                RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
+                while (rs.next()) {
+                    historyList.add(mapper.map(rs));
+                }
+            }
         }
+        return historyList;
+    }
+    
+    /**
+     * Delete the MySQL-tier rows created in [from, to), in batches
+     * @param from inclusive lower bound of created_at
+     * @param to exclusive upper bound of created_at
+     * @return number of rows deleted
+     * @throws SQLException if database error occurs
+     */
+    public int deleteHotRentalHistoryCreatedBetween(LocalDateTime from, LocalDateTime to) throws SQLException {
+        String sql = "DELETE FROM rental_history WHERE created_at >= ? AND created_at < ? LIMIT 10000";
+        int total = 0;
         
-        return rentalHistory;
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+            stmt.setTimestamp(1, Timestamp.valueOf(from));
+            stmt.setTimestamp(2, Timestamp.valueOf(to));
+            
+            int deleted;
+            do {
+                deleted = stmt.executeUpdate();
+                total += deleted;
+            } while (deleted > 0);
+        }
+        return total;
     }
 }
@@ -0,0 +1,46 @@
+package backend.dao;
+
+import backend.models.RentalHistory;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the rental_history table to RentalHistory objects by column index
+ */
+public final class RentalHistoryRowMapper extends IndexedRowMapper<RentalHistory> {
+    static final String[] COLUMNS = {
+            "history_id", "booking_id", "user_id", "vehicle_id", "start_date", "end_date", "actual_return_date",
+            "total_amount", "status", "notes", "created_at"
+    };
+    private static final int HISTORY_ID = 0, BOOKING_ID = 1, USER_ID = 2, VEHICLE_ID = 3, START_DATE = 4,
+            END_DATE = 5, ACTUAL_RETURN_DATE = 6, TOTAL_AMOUNT = 7, STATUS = 8, NOTES = 9, CREATED_AT = 10;
+
+    /**
+     * Create a mapper for a result set over the rental_history table
+     * @param rs result set, before or on its first row
+     * @throws SQLException if the metadata cannot be read
+     */
+    public RentalHistoryRowMapper(ResultSet rs) throws SQLException {
+        super(rs, COLUMNS);
+    }
+
+    @Override
+    public RentalHistory map(ResultSet rs) throws SQLException {
+        RentalHistory rentalHistory = new RentalHistory();
+        rentalHistory.setHistoryId(getInt(rs, HISTORY_ID));
+        rentalHistory.setBookingId(getInt(rs, BOOKING_ID));
+        rentalHistory.setUserId(getInt(rs, USER_ID));
+        rentalHistory.setVehicleId(getInt(rs, VEHICLE_ID));
+        rentalHistory.setStartDate(getLocalDate(rs, START_DATE));
+        rentalHistory.setEndDate(getLocalDate(rs, END_DATE));
+        rentalHistory.setActualReturnDate(getLocalDate(rs, ACTUAL_RETURN_DATE));
+        rentalHistory.setTotalAmount(getBigDecimal(rs, TOTAL_AMOUNT));
+        if (has(STATUS)) {
+            rentalHistory.setStatus(RentalHistory.RentalStatus.fromString(getString(rs, STATUS)));
+        }
+        rentalHistory.setNotes(getString(rs, NOTES));
+        rentalHistory.setCreatedAt(getLocalDateTime(rs, CREATED_AT));
+        return rentalHistory;
+    }
+}
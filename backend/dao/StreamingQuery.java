@@ -0,0 +1,149 @@
+package backend.dao;
+
+import backend.db.DBConnection;
+import backend.db.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only query execution shared by the streaming DAO methods.
+ *
+ * Outside a UnitOfWork each query runs on its own connection opened with
+ * useCursorFetch, so the server keeps the result and hands out fetchSize rows
+ * at a time. Inside a UnitOfWork the transaction's connection is used (the
+ * fetch size is then only a hint) so the rows reflect uncommitted changes.
+ */
+final class StreamingQuery {
+    static final int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Maps the current row of a result set
+     */
+    @FunctionalInterface
+    interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Creates the row mapper of a result set, so that column positions can
+     * be resolved once per query
+     */
+    @FunctionalInterface
+    interface MapperFactory<T> {
+        RowMapper<T> forResultSet(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Binds the query parameters
+     */
+    @FunctionalInterface
+    interface Binder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    static final Binder NO_PARAMETERS = stmt -> { };
+
+    private StreamingQuery() {
+    }
+
+    /**
+     * Run a query and pass every mapped row to a callback
+     * @return number of rows
+     * @throws SQLException if database error occurs
+     */
+    static <T> long forEach(String sql, int fetchSize, Binder binder, MapperFactory<T> mappers,
+                            Consumer<? super T> callback) throws SQLException {
+        boolean ownConnection = !UnitOfWork.isActive();
+        Connection conn = ownConnection ? DBConnection.openStreamingConnection() : DBConnection.getConnection();
+        try (PreparedStatement stmt = prepare(conn, sql, fetchSize, binder);
+             ResultSet rs = stmt.executeQuery()) {
+            RowMapper<T> mapper = mappers.forResultSet(rs);
+            long rows = 0;
+            while (rs.next()) {
+                callback.accept(mapper.map(rs));
+                rows++;
+            }
+            return rows;
+        } finally {
+            if (ownConnection) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Run a query and return its rows as a lazily consumed stream. The
+     * stream holds the connection until it is closed, so use it in a
+     * try-with-resources block. Errors while reading are rethrown as
+     * {@link UncheckedSQLException}.
+     * @throws SQLException if the query cannot be started
+     */
+    static <T> Stream<T> stream(String sql, int fetchSize, Binder binder, MapperFactory<T> mappers)
+            throws SQLException {
+        boolean ownConnection = !UnitOfWork.isActive();
+        Connection conn = ownConnection ? DBConnection.openStreamingConnection() : DBConnection.getConnection();
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        RowMapper<T> mapper;
+        try {
+            stmt = prepare(conn, sql, fetchSize, binder);
+            rs = stmt.executeQuery();
+            mapper = mappers.forResultSet(rs);
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(rs, stmt, ownConnection ? conn : null);
+            throw e;
+        }
+
+        final ResultSet resultSet = rs;
+        final PreparedStatement statement = stmt;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!resultSet.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(resultSet));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+                .onClose(() -> closeQuietly(resultSet, statement, ownConnection ? conn : null));
+    }
+
+    private static PreparedStatement prepare(Connection conn, String sql, int fetchSize, Binder binder)
+            throws SQLException {
+        PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            stmt.setFetchSize(fetchSize);
+            binder.bind(stmt);
+            return stmt;
+        } catch (SQLException | RuntimeException e) {
+            stmt.close();
+            throw e;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable... resources) {
+        for (AutoCloseable resource : resources) {
+            if (resource == null) continue;
+            try {
+                resource.close();
+            } catch (Exception e) {
+                System.err.println("Error closing streamed query: " + e.getMessage());
+            }
+        }
+    }
+}
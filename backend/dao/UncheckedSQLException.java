@@ -0,0 +1,20 @@
+package backend.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps an SQLException raised while a streamed result set is consumed
+ * through a {@link java.util.stream.Stream}, which cannot throw checked exceptions
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
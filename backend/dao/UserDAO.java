@@ -7,6 +7,8 @@ import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object for User operations
@@ -230,6 +232,30 @@ stmt.setDate(8, new java.sql.Date(user.getDateOfBirth().getTime()));
         return users;
     }
 
+    /**
+     * Stream all users through a server-side cursor (same order as
+     * getAllUsers). The stream holds a connection until it is closed.
+     * @param fetchSize rows fetched per round trip
+     * @return stream of users
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<User> streamAllUsers(int fetchSize) throws SQLException {
+        return StreamingQuery.stream("SELECT * FROM users ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, rs -> this::mapResultSetToUser);
+    }
+
+    /**
+     * Pass every user to a callback, reading through a server-side cursor
+     * @param fetchSize rows fetched per round trip
+     * @param callback receives the users
+     * @return number of users
+     * @throws SQLException if database error occurs
+     */
+    public long forEachUser(int fetchSize, Consumer<? super User> callback) throws SQLException {
+        return StreamingQuery.forEach("SELECT * FROM users ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, rs -> this::mapResultSetToUser, callback);
+    }
+
     /**
      * Check if username exists
      * @param username username to check
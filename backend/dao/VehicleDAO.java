@@ -2,21 +2,48 @@ package backend.dao;
 
 import backend.db.DBConnection;
 import backend.models.Vehicle;
+import backend.models.VehicleSummary;
 
 import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
- * Data Access Object for Vehicle operations
+ * Data Access Object for Vehicle operations.
+ * List queries leave out the description column; getVehicleById and
+ * getVehicleByLicensePlate load the full record.
  */
 public class VehicleDAO {
 
+    private static final ChangeNotifier CHANGES = new ChangeNotifier("vehicles");
+
+    // A single vehicle is loaded in full; list views leave out the description text
+    private static final String DETAIL_COLUMNS = String.join(", ", VehicleRowMapper.COLUMNS);
+    private static final String LIST_COLUMNS = "vehicle_id, make, model, year, color, license_plate, vehicle_type, " +
+            "fuel_type, transmission, seating_capacity, mileage, status, daily_rate, image_path, created_at, updated_at";
+    private static final String SUMMARY_COLUMNS = "vehicle_id, make, model, year, color, license_plate, vehicle_type, " +
+            "fuel_type, transmission, seating_capacity, mileage, status, daily_rate";
+
     // ✅ Optional constructor (for dependency injection if needed)
     public VehicleDAO() {}
 
+    /**
+     * Register a listener notified with the IDs of vehicles created, edited
+     * or deleted by any VehicleDAO (status and mileage updates are not reported)
+     * @param listener listener to add
+     */
+    public static void addChangeListener(ChangeListener listener) {
+        CHANGES.add(listener);
+    }
+
+    public static void removeChangeListener(ChangeListener listener) {
+        CHANGES.remove(listener);
+    }
+
     /**
      * Create a new vehicle
      * @param vehicle Vehicle object to create
@@ -53,6 +80,7 @@ public class VehicleDAO {
                         vehicle.setVehicleId(generatedKeys.getInt(1));
                     }
                 }
+                CHANGES.fire(vehicle.getVehicleId());
                 return true;
             }
         } catch (SQLException e) {
@@ -67,7 +95,7 @@ public class VehicleDAO {
      * @return Vehicle object or null if not found
      */
     public Vehicle getVehicleById(int vehicleId) {
-        String sql = "SELECT * FROM vehicles WHERE vehicle_id = ?";
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM vehicles WHERE vehicle_id = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -76,7 +104,7 @@ public class VehicleDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToVehicle(rs);
+                    return new VehicleRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -89,7 +117,7 @@ public class VehicleDAO {
      * Get vehicle by license plate
      */
     public Vehicle getVehicleByLicensePlate(String licensePlate) {
-        String sql = "SELECT * FROM vehicles WHERE license_plate = ?";
+        String sql = "SELECT " + DETAIL_COLUMNS + " FROM vehicles WHERE license_plate = ?";
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -98,7 +126,7 @@ public class VehicleDAO {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToVehicle(rs);
+                    return new VehicleRowMapper(rs).map(rs);
                 }
             }
         } catch (SQLException e) {
@@ -126,19 +154,39 @@ public class VehicleDAO {
         return false;
     }
 
+    /**
+     * Update the status of every vehicle referenced by the selected bookings.
+     * Intended to run inside a UnitOfWork, so errors are propagated.
+     * @param selection bookings whose vehicles are updated
+     * @param status new status
+     * @return number of vehicles updated
+     * @throws SQLException if database error occurs
+     */
+    public int updateVehicleStatusForBookings(BookingSelection selection, Vehicle.VehicleStatus status) throws SQLException {
+        String sql = "UPDATE vehicles v JOIN bookings b ON b.vehicle_id = v.vehicle_id " +
+                "SET v.status = ?, v.updated_at = CURRENT_TIMESTAMP WHERE " + selection.getWhereClause();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, status.getValue());
+            selection.bind(stmt, 2);
+            return stmt.executeUpdate();
+        }
+    }
+
     /**
      * Get all vehicles
      */
     public List<Vehicle> getAllVehicles() {
-        String sql = "SELECT * FROM vehicles ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM vehicles ORDER BY created_at DESC";
         List<Vehicle> vehicles = new ArrayList<>();
 
         try (Connection conn = DBConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            VehicleRowMapper mapper = new VehicleRowMapper(rs);
             while (rs.next()) {
-                vehicles.add(mapResultSetToVehicle(rs));
+                vehicles.add(mapper.map(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error getting all vehicles: " + e.getMessage());
@@ -146,8 +194,106 @@ public class VehicleDAO {
         return vehicles;
     }
 
+    /**
+     * Stream all vehicles through a server-side cursor (same order as
+     * getAllVehicles). The stream holds a connection until it is closed.
+     * @param fetchSize rows fetched per round trip
+     * @return stream of vehicles
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Vehicle> streamAllVehicles(int fetchSize) throws SQLException {
+        return StreamingQuery.stream("SELECT " + LIST_COLUMNS + " FROM vehicles ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, VehicleRowMapper::new);
+    }
+
+    /**
+     * Pass every vehicle to a callback, reading through a server-side cursor
+     * @param fetchSize rows fetched per round trip
+     * @param callback receives the vehicles
+     * @return number of vehicles
+     * @throws SQLException if database error occurs
+     */
+    public long forEachVehicle(int fetchSize, Consumer<? super Vehicle> callback) throws SQLException {
+        return StreamingQuery.forEach("SELECT " + LIST_COLUMNS + " FROM vehicles ORDER BY created_at DESC", fetchSize,
+                StreamingQuery.NO_PARAMETERS, VehicleRowMapper::new, callback);
+    }
+
+    /**
+     * Stream the vehicles in a status through a server-side cursor
+     * @param status vehicle status
+     * @param fetchSize rows fetched per round trip
+     * @return stream of vehicles
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Vehicle> streamVehiclesByStatus(Vehicle.VehicleStatus status, int fetchSize) throws SQLException {
+        return StreamingQuery.stream("SELECT " + LIST_COLUMNS + " FROM vehicles WHERE status = ? ORDER BY created_at DESC", fetchSize,
+                stmt -> stmt.setString(1, status.getValue()), VehicleRowMapper::new);
+    }
+
+    /**
+     * Stream the vehicles of a type through a server-side cursor
+     * @param vehicleType vehicle type
+     * @param fetchSize rows fetched per round trip
+     * @return stream of vehicles
+     * @throws SQLException if the query cannot be started
+     */
+    public Stream<Vehicle> streamVehiclesByType(Vehicle.VehicleType vehicleType, int fetchSize) throws SQLException {
+        return StreamingQuery.stream("SELECT " + LIST_COLUMNS + " FROM vehicles WHERE vehicle_type = ? ORDER BY created_at DESC", fetchSize,
+                stmt -> stmt.setString(1, vehicleType.getValue()), VehicleRowMapper::new);
+    }
+
+    /**
+     * Get a summary of every vehicle (same order as getAllVehicles)
+     * @return vehicle summaries
+     */
+    public List<VehicleSummary> getVehicleSummaries() {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM vehicles ORDER BY created_at DESC";
+        List<VehicleSummary> vehicles = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                vehicles.add(mapSummary(rs));
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting vehicle summaries: " + e.getMessage());
+        }
+        return vehicles;
+    }
+
+    /**
+     * Get a summary of the vehicles in a status
+     * @param status vehicle status
+     * @return vehicle summaries
+     */
+    public List<VehicleSummary> getVehicleSummariesByStatus(Vehicle.VehicleStatus status) {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM vehicles WHERE status = ? ORDER BY created_at DESC";
+        List<VehicleSummary> vehicles = new ArrayList<>();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, status.getValue());
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    vehicles.add(mapSummary(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error getting vehicle summaries by status: " + e.getMessage());
+        }
+        return vehicles;
+    }
+
+    public List<VehicleSummary> getAvailableVehicleSummaries() {
+        return getVehicleSummariesByStatus(Vehicle.VehicleStatus.AVAILABLE);
+    }
+
     public List<Vehicle> getVehiclesByStatus(Vehicle.VehicleStatus status) {
-        String sql = "SELECT * FROM vehicles WHERE status = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM vehicles WHERE status = ? ORDER BY created_at DESC";
         List<Vehicle> vehicles = new ArrayList<>();
 
         try (Connection conn = DBConnection.getConnection();
@@ -156,8 +302,9 @@ public class VehicleDAO {
             stmt.setString(1, status.getValue());
 
             try (ResultSet rs = stmt.executeQuery()) {
+                VehicleRowMapper mapper = new VehicleRowMapper(rs);
                 while (rs.next()) {
-                    vehicles.add(mapResultSetToVehicle(rs));
+                    vehicles.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -171,7 +318,7 @@ public class VehicleDAO {
     }
 
     public List<Vehicle> getVehiclesByType(Vehicle.VehicleType vehicleType) {
-        String sql = "SELECT * FROM vehicles WHERE vehicle_type = ? ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM vehicles WHERE vehicle_type = ? ORDER BY created_at DESC";
         List<Vehicle> vehicles = new ArrayList<>();
 
         try (Connection conn = DBConnection.getConnection();
@@ -180,8 +327,9 @@ public class VehicleDAO {
             stmt.setString(1, vehicleType.getValue());
 
             try (ResultSet rs = stmt.executeQuery()) {
+                VehicleRowMapper mapper = new VehicleRowMapper(rs);
                 while (rs.next()) {
-                    vehicles.add(mapResultSetToVehicle(rs));
+                    vehicles.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -191,7 +339,7 @@ public class VehicleDAO {
     }
 
     public List<Vehicle> getAvailableVehiclesByType(Vehicle.VehicleType vehicleType) {
-        String sql = "SELECT * FROM vehicles WHERE vehicle_type = ? AND status = 'available' ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM vehicles WHERE vehicle_type = ? AND status = 'available' ORDER BY created_at DESC";
         List<Vehicle> vehicles = new ArrayList<>();
 
         try (Connection conn = DBConnection.getConnection();
@@ -200,8 +348,9 @@ public class VehicleDAO {
             stmt.setString(1, vehicleType.getValue());
 
             try (ResultSet rs = stmt.executeQuery()) {
+                VehicleRowMapper mapper = new VehicleRowMapper(rs);
                 while (rs.next()) {
-                    vehicles.add(mapResultSetToVehicle(rs));
+                    vehicles.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -211,7 +360,7 @@ public class VehicleDAO {
     }
 
     public List<Vehicle> searchVehicles(String searchTerm) {
-        String sql = "SELECT * FROM vehicles WHERE make LIKE ? OR model LIKE ? ORDER BY created_at DESC";
+        String sql = "SELECT " + LIST_COLUMNS + " FROM vehicles WHERE make LIKE ? OR model LIKE ? ORDER BY created_at DESC";
         List<Vehicle> vehicles = new ArrayList<>();
 
         try (Connection conn = DBConnection.getConnection();
@@ -222,8 +371,9 @@ public class VehicleDAO {
             stmt.setString(2, pattern);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                VehicleRowMapper mapper = new VehicleRowMapper(rs);
                 while (rs.next()) {
-                    vehicles.add(mapResultSetToVehicle(rs));
+                    vehicles.add(mapper.map(rs));
                 }
             }
         } catch (SQLException e) {
@@ -258,7 +408,10 @@ public class VehicleDAO {
             stmt.setString(14, vehicle.getDescription());
             stmt.setInt(15, vehicle.getVehicleId());
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(vehicle.getVehicleId());
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error updating vehicle: " + e.getMessage());
         }
@@ -287,7 +440,10 @@ public class VehicleDAO {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, vehicleId);
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                CHANGES.fire(vehicleId);
+                return true;
+            }
         } catch (SQLException e) {
             System.err.println("Error deleting vehicle: " + e.getMessage());
         }
@@ -328,29 +484,22 @@ public class VehicleDAO {
         return 0;
     }
 
-    private Vehicle mapResultSetToVehicle(ResultSet rs) throws SQLException {
-        Vehicle v = new Vehicle();
-        v.setVehicleId(rs.getInt("vehicle_id"));
-        v.setMake(rs.getString("make"));
-        v.setModel(rs.getString("model"));
-        v.setYear(rs.getInt("year"));
-        v.setColor(rs.getString("color"));
-        v.setLicensePlate(rs.getString("license_plate"));
-        v.setVehicleType(Vehicle.VehicleType.fromString(rs.getString("vehicle_type")));
-        v.setFuelType(Vehicle.FuelType.fromString(rs.getString("fuel_type")));
-        v.setTransmission(Vehicle.Transmission.fromString(rs.getString("transmission")));
-        v.setSeatingCapacity(rs.getInt("seating_capacity"));
-        v.setMileage(rs.getInt("mileage"));
-        v.setStatus(Vehicle.VehicleStatus.fromString(rs.getString("status")));
-        v.setDailyRate(rs.getBigDecimal("daily_rate"));
-        v.setImagePath(rs.getString("image_path"));
-        v.setDescription(rs.getString("description"));
-
-        Timestamp createdAt = rs.getTimestamp("created_at");
-        if (createdAt != null) v.setCreatedAt(createdAt.toLocalDateTime());
-        Timestamp updatedAt = rs.getTimestamp("updated_at");
-        if (updatedAt != null) v.setUpdatedAt(updatedAt.toLocalDateTime());
-
-        return v;
+    // Columns in the order of SUMMARY_COLUMNS
+    private static VehicleSummary mapSummary(ResultSet rs) throws SQLException {
+        return new VehicleSummary(
+                rs.getInt(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getInt(4),
+                rs.getString(5),
+                rs.getString(6),
+                Vehicle.VehicleType.fromString(rs.getString(7)),
+                Vehicle.FuelType.fromString(rs.getString(8)),
+                Vehicle.Transmission.fromString(rs.getString(9)),
+                rs.getInt(10),
+                rs.getInt(11),
+                Vehicle.VehicleStatus.fromString(rs.getString(12)),
+                rs.getBigDecimal(13)
+        );
     }
 }
@@ -0,0 +1,52 @@
+package backend.dao;
+
+import backend.models.Vehicle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps rows of the vehicles table to Vehicle objects by column index
+ */
+public final class VehicleRowMapper extends IndexedRowMapper<Vehicle> {
+    static final String[] COLUMNS = {
+            "vehicle_id", "make", "model", "year", "color", "license_plate", "vehicle_type", "fuel_type",
+            "transmission", "seating_capacity", "mileage", "status", "daily_rate", "image_path", "description",
+            "created_at", "updated_at"
+    };
+    private static final int VEHICLE_ID = 0, MAKE = 1, MODEL = 2, YEAR = 3, COLOR = 4, LICENSE_PLATE = 5,
+            VEHICLE_TYPE = 6, FUEL_TYPE = 7, TRANSMISSION = 8, SEATING_CAPACITY = 9, MILEAGE = 10, STATUS = 11,
+            DAILY_RATE = 12, IMAGE_PATH = 13, DESCRIPTION = 14, CREATED_AT = 15, UPDATED_AT = 16;
+
+    /**
+     * Create a mapper for a result set over the vehicles table
+     * @param rs result set, before or on its first row
+     * @throws SQLException if the metadata cannot be read
+     */
+    public VehicleRowMapper(ResultSet rs) throws SQLException {
+        super(rs, COLUMNS);
+    }
+
+    @Override
+    public Vehicle map(ResultSet rs) throws SQLException {
+        Vehicle v = new Vehicle();
+        v.setVehicleId(getInt(rs, VEHICLE_ID));
+        v.setMake(getString(rs, MAKE));
+        v.setModel(getString(rs, MODEL));
+        v.setYear(getInt(rs, YEAR));
+        v.setColor(getString(rs, COLOR));
+        v.setLicensePlate(getString(rs, LICENSE_PLATE));
+        if (has(VEHICLE_TYPE)) v.setVehicleType(Vehicle.VehicleType.fromString(getString(rs, VEHICLE_TYPE)));
+        if (has(FUEL_TYPE)) v.setFuelType(Vehicle.FuelType.fromString(getString(rs, FUEL_TYPE)));
+        if (has(TRANSMISSION)) v.setTransmission(Vehicle.Transmission.fromString(getString(rs, TRANSMISSION)));
+        v.setSeatingCapacity(getInt(rs, SEATING_CAPACITY));
+        v.setMileage(getInt(rs, MILEAGE));
+        if (has(STATUS)) v.setStatus(Vehicle.VehicleStatus.fromString(getString(rs, STATUS)));
+        v.setDailyRate(getBigDecimal(rs, DAILY_RATE));
+        v.setImagePath(getString(rs, IMAGE_PATH));
+        v.setDescription(getString(rs, DESCRIPTION));
+        v.setCreatedAt(getLocalDateTime(rs, CREATED_AT));
+        v.setUpdatedAt(getLocalDateTime(rs, UPDATED_AT));
+        return v;
+    }
+}
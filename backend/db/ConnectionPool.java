@@ -0,0 +1,302 @@
+package backend.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bounded pool of physical connections. Borrowed connections are handles
+ * whose close() returns the physical connection to the pool, so the
+ * try-with-resources blocks of the DAOs release them as before.
+ *
+ * The pool remembers the SQL of the statements prepared through it (up to
+ * MAX_HOT_STATEMENTS), so that {@link #prepareHotStatements()} can prepare
+ * them ahead of time on every idle connection.
+ */
+final class ConnectionPool {
+
+    /**
+     * Opens a new physical connection
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private static final int MAX_HOT_STATEMENTS = 64;
+    // Idle connections older than this are validated before they are handed out
+    private static final long VALIDATE_AFTER_MILLIS = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Set<String> hotStatements = new LinkedHashSet<>();
+    private int open;
+    private int borrowed;
+
+    ConnectionPool(ConnectionFactory factory, int maxSize, long acquireTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1: " + maxSize);
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    /**
+     * Borrow a connection, opening a new one if none is idle and the pool
+     * is not full, or waiting for one to be returned otherwise
+     * @throws SQLException if no connection becomes available in time or opening one fails
+     */
+    Connection borrow() throws SQLException {
+        while (true) {
+            PooledConnection pooled = takeIdleOrReserve();
+            if (pooled == null) {
+                try {
+                    pooled = new PooledConnection(factory.open());
+                } catch (SQLException | RuntimeException e) {
+                    discard(null);
+                    throw e;
+                }
+            } else if (!isUsable(pooled)) {
+                discard(pooled);
+                continue;
+            }
+            return pooled.newHandle();
+        }
+    }
+
+    /**
+     * Open physical connections until at least the given number are open
+     * @return number of connections opened
+     * @throws SQLException if a connection cannot be opened
+     */
+    int warmUp(int connections) throws SQLException {
+        int target = Math.min(connections, maxSize);
+        List<Connection> handles = new ArrayList<>();
+        int opened;
+        synchronized (this) {
+            opened = Math.max(0, target - open);
+        }
+        try {
+            // Borrowing them all at once forces the pool to open new ones
+            while (handles.size() < target) {
+                handles.add(borrow());
+            }
+        } finally {
+            for (Connection handle : handles) {
+                handle.close();
+            }
+        }
+        return opened;
+    }
+
+    /**
+     * Prepare the remembered statements on every idle connection that has
+     * not prepared them yet. With statement caching enabled in the driver,
+     * later prepareStatement calls for the same SQL reuse them.
+     * @return number of statements prepared
+     */
+    int prepareHotStatements() {
+        List<PooledConnection> connections;
+        List<String> statements;
+        synchronized (this) {
+            connections = new ArrayList<>(idle);
+            idle.removeAll(connections);
+            borrowed += connections.size();
+            statements = new ArrayList<>(hotStatements);
+        }
+
+        int prepared = 0;
+        for (PooledConnection pooled : connections) {
+            for (String sql : statements) {
+                if (pooled.prepared.add(sql)) {
+                    try {
+                        pooled.physical.prepareStatement(sql).close();
+                        prepared++;
+                    } catch (SQLException e) {
+                        System.err.println("Error preparing statement: " + e.getMessage());
+                    }
+                }
+            }
+            release(pooled);
+        }
+        return prepared;
+    }
+
+    /**
+     * Close the idle connections. Borrowed ones return to the pool as usual,
+     * and new ones are opened on demand, so the pool stays usable.
+     */
+    void closeIdle() {
+        List<PooledConnection> connections;
+        synchronized (this) {
+            connections = new ArrayList<>(idle);
+            idle.clear();
+            open -= connections.size();
+            notifyAll();
+        }
+        for (PooledConnection pooled : connections) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized int getOpenCount() {
+        return open;
+    }
+
+    synchronized int getBorrowedCount() {
+        return borrowed;
+    }
+
+    synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    // Take an idle connection, or reserve a slot for a new one (null); waits while the pool is exhausted
+    private synchronized PooledConnection takeIdleOrReserve() throws SQLException {
+        long deadline = System.currentTimeMillis() + acquireTimeoutMillis;
+        while (idle.isEmpty() && open >= maxSize) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + maxSize + ")");
+            }
+            try {
+                wait(remaining);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+        }
+        borrowed++;
+        if (!idle.isEmpty()) {
+            return idle.pollFirst();
+        }
+        open++;
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            return System.currentTimeMillis() - pooled.idleSince < VALIDATE_AFTER_MILLIS
+                    || pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Give up a borrowed connection (or a reserved slot if null) instead of returning it
+    private void discard(PooledConnection pooled) {
+        synchronized (this) {
+            borrowed--;
+            open--;
+            notifyAll();
+        }
+        if (pooled != null) {
+            closeQuietly(pooled.physical);
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        Connection physical = pooled.physical;
+        try {
+            // Leave no transaction or read-only mode behind for the next borrower
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+            return;
+        }
+        synchronized (this) {
+            borrowed--;
+            pooled.idleSince = System.currentTimeMillis();
+            idle.addFirst(pooled);
+            notifyAll();
+        }
+    }
+
+    private synchronized void rememberStatement(String sql) {
+        if (hotStatements.size() < MAX_HOT_STATEMENTS) {
+            hotStatements.add(sql);
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Physical connection and the SQL already prepared on it
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final Set<String> prepared = new HashSet<>();
+        private long idleSince = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            boolean[] released = {false};
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        boolean noArgs = args == null || args.length == 0;
+                        if (name.equals("close") && noArgs) {
+                            if (!released[0]) {
+                                released[0] = true;
+                                release(this);
+                            }
+                            return null;
+                        }
+                        if (name.equals("isClosed") && noArgs) {
+                            return released[0] || physical.isClosed();
+                        }
+                        if (released[0]) {
+                            throw new SQLException("Connection is closed");
+                        }
+                        if (name.equals("prepareStatement") && args.length == 1) {
+                            String sql = (String) args[0];
+                            if (prepared.add(sql)) {
+                                rememberStatement(sql);
+                            }
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package backend.db;
 
+import backend.util.MetricsRegistry;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -8,6 +10,12 @@ import java.util.Properties;
 /**
  * Database connection utility class
  * Handles connection to MySQL database
+ *
+ * Connections handed out by {@link #getConnection()} come from a bounded
+ * pool (size {@value #POOL_SIZE_PROPERTY}, default 8) and return to it when
+ * closed. Pooled connections cache prepared statements in the driver.
+ * Connections are instrumented by {@link JdbcMetrics}; the pool's state is
+ * published as db.pool.* gauges of the {@link MetricsRegistry}.
  */
 public class DBConnection {
     private static final String DB_URL = "jdbc:mysql://localhost:3306/vehiclerentaldb";
@@ -15,53 +23,125 @@ public class DBConnection {
     private static final String DB_PASSWORD = "Ria@martin_03"; // Change this to your MySQL password
     private static final String DB_DRIVER = "com.mysql.cj.jdbc.Driver";
 
-    private static Connection connection = null;
+    public static final String POOL_SIZE_PROPERTY = "vehiclerental.db.poolSize";
+    public static final String ACQUIRE_TIMEOUT_PROPERTY = "vehiclerental.db.acquireTimeoutMillis";
+
+    private static final ConnectionPool POOL = new ConnectionPool(DBConnection::openPooledConnection,
+            Integer.getInteger(POOL_SIZE_PROPERTY, 8), Long.getLong(ACQUIRE_TIMEOUT_PROPERTY, 10_000L));
+    private static final JdbcMetrics METRICS = JdbcMetrics.getInstance();
+
+    static {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("db.pool.max", POOL::getMaxSize);
+        registry.gauge("db.pool.open", POOL::getOpenCount);
+        registry.gauge("db.pool.borrowed", POOL::getBorrowedCount);
+        registry.gauge("db.pool.idle", POOL::getIdleCount);
+        registry.gauge("db.pool.utilization", () -> POOL.getBorrowedCount() / (double) POOL.getMaxSize());
+    }
 
     /**
-     * Get database connection
+     * Get database connection. Inside a {@link UnitOfWork} this returns the
+     * connection bound to the current transaction; otherwise a pooled
+     * connection that the caller must close to return it to the pool.
      * @return Connection object
-     * @throws SQLException if connection fails
+     * @throws SQLException if connection fails or none is available in time
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Explicitly load the MySQL JDBC driver
-                Class.forName(DB_DRIVER);
-
-                Properties props = new Properties();
-                props.setProperty("user", DB_USER);
-                props.setProperty("password", DB_PASSWORD);
-                props.setProperty("useSSL", "false");
-                props.setProperty("serverTimezone", "UTC");
-                props.setProperty("allowPublicKeyRetrieval", "true");
-
-                connection = DriverManager.getConnection(DB_URL, props);
-                System.out.println("Database connection established successfully.");
-            } catch (ClassNotFoundException e) {
-                System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
-                throw new SQLException("Database driver not found", e);
-            } catch (SQLException e) {
-                System.err.println("Database connection failed: " + e.getMessage());
-                throw e;
-            }
+        Connection transactional = UnitOfWork.currentConnection();
+        if (transactional != null) {
+            return transactional;
         }
-        return connection;
+        long start = System.nanoTime();
+        Connection conn = POOL.borrow();
+        METRICS.recordAcquire(System.nanoTime() - start);
+        return METRICS.instrument(conn);
     }
 
     /**
-     * Close database connection
+     * Open pooled connections ahead of use
+     * @param connections number of connections that should be open
+     * @return number of connections opened
+     * @throws SQLException if a connection cannot be opened
      */
-    public static void closeConnection() {
+    public static int warmUpPool(int connections) throws SQLException {
+        return POOL.warmUp(connections);
+    }
+
+    /**
+     * Prepare the statements already used by the application on every idle
+     * pooled connection, so the first use on each connection finds them
+     * in the driver's statement cache
+     * @return number of statements prepared
+     */
+    public static int prepareHotStatements() {
+        return POOL.prepareHotStatements();
+    }
+
+    /**
+     * Open a new connection that is not shared with other callers
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection openConnection() throws SQLException {
+        return openConnection(new Properties());
+    }
+
+    /**
+     * Open a connection for reading large result sets. Statements created on
+     * it with a positive fetch size read through a server-side cursor
+     * (useCursorFetch), so only one fetch of rows is held in memory.
+     * The caller must close the connection.
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection openStreamingConnection() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("useCursorFetch", "true");
+        Connection conn = openConnection(props);
+        conn.setReadOnly(true);
+        return METRICS.instrument(conn);
+    }
+
+    private static Connection openPooledConnection() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("useServerPrepStmts", "true");
+        props.setProperty("cachePrepStmts", "true");
+        props.setProperty("prepStmtCacheSize", "250");
+        props.setProperty("prepStmtCacheSqlLimit", "2048");
+        return openConnection(props);
+    }
+
+    private static Connection openConnection(Properties props) throws SQLException {
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
+            // Explicitly load the MySQL JDBC driver
+            Class.forName(DB_DRIVER);
+
+            props.setProperty("user", DB_USER);
+            props.setProperty("password", DB_PASSWORD);
+            props.setProperty("useSSL", "false");
+            props.setProperty("serverTimezone", "UTC");
+            props.setProperty("allowPublicKeyRetrieval", "true");
+
+            Connection conn = DriverManager.getConnection(DB_URL, props);
+            System.out.println("Database connection established successfully.");
+            return conn;
+        } catch (ClassNotFoundException e) {
+            System.err.println("MySQL JDBC Driver not found: " + e.getMessage());
+            throw new SQLException("Database driver not found", e);
         } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            System.err.println("Database connection failed: " + e.getMessage());
+            throw e;
         }
     }
 
+    /**
+     * Close the idle pooled connections
+     */
+    public static void closeConnection() {
+        POOL.closeIdle();
+        System.out.println("Database connections closed.");
+    }
+
     /**
      * Test database connection
      * @return true if connection is successful, false otherwise
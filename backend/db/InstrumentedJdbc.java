@@ -0,0 +1,165 @@
+package backend.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxies that feed {@link JdbcMetrics}: statements created by a wrapped
+ * connection time their executions, and result sets of queries count the
+ * rows read. Executions slower than the {@link SlowQueryLog} threshold are
+ * logged; prepared statements keep their bind values for that while the
+ * log is enabled.
+ */
+final class InstrumentedJdbc {
+
+    private InstrumentedJdbc() {
+    }
+
+    static Connection wrap(Connection connection, JdbcMetrics metrics, SlowQueryLog slowLog) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    String name = method.getName();
+                    if (name.equals("prepareStatement") || name.equals("prepareCall")) {
+                        return wrapStatement((Statement) result, (String) args[0], metrics, slowLog);
+                    }
+                    if (name.equals("createStatement")) {
+                        return wrapStatement((Statement) result, null, metrics, slowLog);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * @param preparedSql SQL of a prepared statement, or null for a plain statement (SQL passed to execute)
+     */
+    private static Statement wrapStatement(Statement statement, String preparedSql, JdbcMetrics metrics,
+                                           SlowQueryLog slowLog) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        JdbcMetrics.TemplateStats prepared = preparedSql != null ? metrics.statsFor(preparedSql) : null;
+        Bindings bindings = preparedSql != null && slowLog.isEnabled() ? new Bindings() : null;
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                if (bindings != null) {
+                    bindings.capture(name, args);
+                }
+                return invoke(statement, method, args);
+            }
+            boolean direct = args != null && args.length > 0 && args[0] instanceof String;
+            String sql = direct ? (String) args[0] : preparedSql;
+            JdbcMetrics.TemplateStats stats = direct ? metrics.statsFor(sql) : prepared;
+            if (stats == null) {
+                return invoke(statement, method, args);
+            }
+
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(statement, method, args);
+            } catch (Throwable e) {
+                long elapsed = System.nanoTime() - start;
+                stats.recordExecution(elapsed, 0, true);
+                logIfSlow(slowLog, sql, direct ? null : bindings, name, elapsed, true);
+                throw e;
+            }
+            long elapsed = System.nanoTime() - start;
+            logIfSlow(slowLog, sql, direct ? null : bindings, name, elapsed, false);
+            if (result instanceof ResultSet) {
+                stats.recordExecution(elapsed, 0, false);
+                return countRows((ResultSet) result, stats);
+            }
+            stats.recordExecution(elapsed, updatedRows(result), false);
+            return result;
+        };
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static void logIfSlow(SlowQueryLog slowLog, String sql, Bindings bindings, String method,
+                                  long elapsed, boolean failed) {
+        boolean batch = method.equals("executeBatch") || method.equals("executeLargeBatch");
+        if (slowLog.isSlow(elapsed)) {
+            slowLog.log(sql, bindings != null ? bindings.values : null,
+                    batch && bindings != null ? bindings.batchSize : 0, elapsed, failed);
+        }
+        if (batch && bindings != null) {
+            bindings.batchSize = 0;
+        }
+    }
+
+    /**
+     * Bind values set on a prepared statement, by parameter index
+     */
+    private static final class Bindings {
+        Object[] values = new Object[1];
+        int batchSize;
+
+        void capture(String method, Object[] args) {
+            if (method.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                if (index < 1) {
+                    return;
+                }
+                if (index >= values.length) {
+                    values = Arrays.copyOf(values, index + 1);
+                }
+                values[index] = method.equals("setNull") ? null : args[1];
+            } else if (method.equals("clearParameters")) {
+                Arrays.fill(values, null);
+            } else if (method.equals("addBatch") && args == null) {
+                batchSize++;
+            } else if (method.equals("clearBatch")) {
+                batchSize = 0;
+            }
+        }
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, JdbcMetrics.TemplateStats stats) {
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(resultSet, method, args);
+                    if (result == Boolean.TRUE && method.getName().equals("next")) {
+                        stats.addRow();
+                    }
+                    return result;
+                });
+    }
+
+    private static long updatedRows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
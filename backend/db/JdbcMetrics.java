@@ -0,0 +1,289 @@
+package backend.db;
+
+import backend.util.LatencyHistogram;
+import backend.util.MetricsRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Statistics of the JDBC statements run through {@link DBConnection}, per
+ * SQL template: a latency histogram of the executions, the rows read or
+ * updated and the errors (which the DAOs otherwise only print). The time of
+ * a query covers its execution, not the reading of its rows. Connection
+ * acquire times are kept in a separate histogram.
+ *
+ * Literals in the SQL are replaced by ? and lists of parameters are folded,
+ * so statements that differ only in their values share a template. Beyond
+ * MAX_TEMPLATES templates, further statements are counted together.
+ *
+ * The statistics are exposed through JMX as {@value #OBJECT_NAME} and as a
+ * text table ({@link #dump()}), which is also printed at exit when the
+ * system property {@value #DUMP_ON_EXIT_PROPERTY} is true. Instrumentation
+ * is on unless {@value #ENABLED_PROPERTY} is false; the
+ * {@link SlowQueryLog} depends on it. Totals over all statements are also
+ * kept in the {@link MetricsRegistry} (db.statements, db.rows, db.errors,
+ * db.pool.acquire).
+ */
+public final class JdbcMetrics implements JdbcMetricsMXBean {
+    public static final String OBJECT_NAME = "backend.db:type=JdbcMetrics";
+    public static final String ENABLED_PROPERTY = "vehiclerental.jdbc.instrumentation";
+    public static final String DUMP_ON_EXIT_PROPERTY = "vehiclerental.jdbc.dumpOnExit";
+
+    static final String OTHER_STATEMENTS = "(other statements)";
+
+    private static final int MAX_TEMPLATES = 500;
+    private static final int MAX_CACHED_SQL = 2000;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+
+    private static final MetricsRegistry.Timer STATEMENTS = MetricsRegistry.getInstance().timer("db.statements");
+    private static final MetricsRegistry.Counter ROWS = MetricsRegistry.getInstance().counter("db.rows");
+    private static final MetricsRegistry.Counter ERRORS = MetricsRegistry.getInstance().counter("db.errors");
+
+    private static final JdbcMetrics INSTANCE = new JdbcMetrics();
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            System.err.println("Error registering JDBC metrics MBean: " + e.getMessage());
+        }
+        if (Boolean.getBoolean(DUMP_ON_EXIT_PROPERTY)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(INSTANCE.dump()),
+                    "jdbc-metrics-dump"));
+        }
+    }
+
+    private final boolean enabled = !"false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY));
+    private final Map<String, TemplateStats> templates = new ConcurrentHashMap<>();
+    // Raw SQL -> stats of its template, so that the SQL is normalized once
+    private final Map<String, TemplateStats> bySql = new ConcurrentHashMap<>();
+    private final LatencyHistogram acquireTimes =
+            MetricsRegistry.getInstance().timer("db.pool.acquire").getHistogram();
+
+    private JdbcMetrics() {
+    }
+
+    public static JdbcMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Statistics of one SQL template
+     */
+    public static final class TemplateStats {
+        private final String template;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        TemplateStats(String template) {
+            this.template = template;
+        }
+
+        public String getTemplate() {
+            return template;
+        }
+
+        /**
+         * Execution times in nanoseconds (failed executions included)
+         */
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getExecutions() {
+            return latency.getCount();
+        }
+
+        /**
+         * Rows read by queries plus rows changed by updates
+         */
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        void recordExecution(long nanos, long rowCount, boolean failed) {
+            latency.record(nanos);
+            STATEMENTS.record(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+                ROWS.add(rowCount);
+            }
+            if (failed) {
+                errors.increment();
+                ERRORS.increment();
+            }
+        }
+
+        void addRow() {
+            rows.increment();
+            ROWS.increment();
+        }
+    }
+
+    /**
+     * Wrap a connection so that its statements are measured and slow ones
+     * logged (returned unchanged if instrumentation is disabled)
+     */
+    Connection instrument(Connection connection) {
+        return enabled ? InstrumentedJdbc.wrap(connection, this, SlowQueryLog.getInstance()) : connection;
+    }
+
+    void recordAcquire(long nanos) {
+        acquireTimes.record(nanos);
+    }
+
+    TemplateStats statsFor(String sql) {
+        TemplateStats stats = bySql.get(sql);
+        if (stats != null) {
+            return stats;
+        }
+        String template = templateOf(sql);
+        stats = templates.get(template);
+        if (stats == null) {
+            if (templates.size() >= MAX_TEMPLATES) {
+                template = OTHER_STATEMENTS;
+            }
+            stats = templates.computeIfAbsent(template, TemplateStats::new);
+        }
+        if (bySql.size() < MAX_CACHED_SQL) {
+            bySql.put(sql, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * SQL with literals replaced by ? and parameter lists folded into "?, ..."
+     */
+    static String templateOf(String sql) {
+        String template = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        template = STRING_LITERAL.matcher(template).replaceAll("?");
+        template = NUMBER_LITERAL.matcher(template).replaceAll("?");
+        return PARAMETER_LIST.matcher(template).replaceAll("?, ...");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Statistics of every template, slowest total time first
+     */
+    public List<TemplateStats> getTemplateStats() {
+        List<TemplateStats> stats = new ArrayList<>(templates.values());
+        stats.sort(Comparator.comparingLong((TemplateStats s) -> s.getLatency().getTotal()).reversed());
+        return stats;
+    }
+
+    /**
+     * Time to obtain a connection from the pool, in nanoseconds
+     */
+    public LatencyHistogram getAcquireTimes() {
+        return acquireTimes;
+    }
+
+    @Override
+    public long getStatementCount() {
+        long count = 0;
+        for (TemplateStats stats : templates.values()) {
+            count += stats.getExecutions();
+        }
+        return count;
+    }
+
+    @Override
+    public long getErrorCount() {
+        long count = 0;
+        for (TemplateStats stats : templates.values()) {
+            count += stats.getErrors();
+        }
+        return count;
+    }
+
+    @Override
+    public long getRowCount() {
+        long count = 0;
+        for (TemplateStats stats : templates.values()) {
+            count += stats.getRows();
+        }
+        return count;
+    }
+
+    @Override
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+    @Override
+    public long getConnectionAcquireCount() {
+        return acquireTimes.getCount();
+    }
+
+    @Override
+    public double getConnectionAcquireMeanMillis() {
+        return acquireTimes.getMean() / 1e6;
+    }
+
+    @Override
+    public double getConnectionAcquireP99Millis() {
+        return acquireTimes.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public String[] getTemplateSummaries() {
+        List<TemplateStats> stats = getTemplateStats();
+        String[] summaries = new String[stats.size()];
+        for (int i = 0; i < summaries.length; i++) {
+            summaries[i] = formatRow(stats.get(i));
+        }
+        return summaries;
+    }
+
+    @Override
+    public String dump() {
+        StringBuilder text = new StringBuilder();
+        text.append("JDBC statements by total time\n");
+        text.append(String.format("%8s %7s %10s %9s %9s %9s %9s %10s  %s%n",
+                "count", "errors", "rows", "mean ms", "p50 ms", "p99 ms", "max ms", "total ms", "sql"));
+        for (TemplateStats stats : getTemplateStats()) {
+            text.append(formatRow(stats)).append('\n');
+        }
+        text.append(String.format("Connection acquire: %d, mean %.3f ms, p50 %.3f ms, p99 %.3f ms, max %.3f ms%n",
+                acquireTimes.getCount(), acquireTimes.getMean() / 1e6,
+                acquireTimes.getValueAtPercentile(50) / 1e6, acquireTimes.getValueAtPercentile(99) / 1e6,
+                acquireTimes.getMax() / 1e6));
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        templates.clear();
+        bySql.clear();
+        acquireTimes.reset();
+    }
+
+    private static String formatRow(TemplateStats stats) {
+        LatencyHistogram latency = stats.getLatency();
+        return String.format("%8d %7d %10d %9.3f %9.3f %9.3f %9.3f %10.1f  %s",
+                stats.getExecutions(), stats.getErrors(), stats.getRows(), latency.getMean() / 1e6,
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6, latency.getTotal() / 1e6, stats.getTemplate());
+    }
+}
@@ -0,0 +1,37 @@
+package backend.db;
+
+/**
+ * JMX view of the JDBC statistics, registered as
+ * {@value JdbcMetrics#OBJECT_NAME}
+ */
+public interface JdbcMetricsMXBean {
+
+    long getStatementCount();
+
+    long getErrorCount();
+
+    long getRowCount();
+
+    int getTemplateCount();
+
+    long getConnectionAcquireCount();
+
+    double getConnectionAcquireMeanMillis();
+
+    double getConnectionAcquireP99Millis();
+
+    /**
+     * One line per SQL template, slowest total time first
+     */
+    String[] getTemplateSummaries();
+
+    /**
+     * Statistics as a text table
+     */
+    String dump();
+
+    /**
+     * Clear all statistics
+     */
+    void reset();
+}
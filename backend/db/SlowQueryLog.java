@@ -0,0 +1,311 @@
+package backend.db;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Log of the statements that take longer than a threshold (system property
+ * {@value #THRESHOLD_PROPERTY} in milliseconds, default 500, negative to
+ * disable). Each entry holds the SQL, its bind values, the elapsed time and
+ * where the statement came from: the first frontend method on the stack and
+ * the DAO or service method that ran it.
+ *
+ * Values bound to sensitive columns (password_hash) are written as
+ * [redacted]. The log rotates over LOG_FILES files of at most
+ * LOG_FILE_BYTES bytes, named after {@value #FILE_PROPERTY} (a
+ * {@link FileHandler} pattern, default logs/slow-queries.%g.log), and is
+ * opened on the first slow statement.
+ */
+public final class SlowQueryLog {
+    public static final String THRESHOLD_PROPERTY = "vehiclerental.jdbc.slowQueryMillis";
+    public static final String FILE_PROPERTY = "vehiclerental.jdbc.slowQueryLog";
+
+    private static final String DEFAULT_FILE = "logs/slow-queries.%g.log";
+    private static final int LOG_FILE_BYTES = 5 * 1024 * 1024;
+    private static final int LOG_FILES = 5;
+    private static final int MAX_VALUE_LENGTH = 100;
+    private static final int MAX_CACHED_SQL = 2000;
+    private static final String[] SENSITIVE_COLUMNS = {"password_hash"};
+
+    private static final Pattern INSERT_COLUMNS = Pattern.compile(
+            "^\\s*(?:INSERT|REPLACE)\\s+(?:INTO\\s+)?[\\w.`]+\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPARED_COLUMN = Pattern.compile(
+            "([\\w.`]+)\\s*(?:=|<>|!=|<=|>=|<|>|\\bLIKE)\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final boolean[] NOTHING_SENSITIVE = new boolean[0];
+
+    private static final SlowQueryLog INSTANCE = new SlowQueryLog(
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(THRESHOLD_PROPERTY, 500L)), null);
+
+    private final long thresholdNanos;
+    private final Logger logger;
+    // Raw SQL -> which parameters bind sensitive columns, so that the SQL is parsed once
+    private final Map<String, boolean[]> sensitiveBySql = new ConcurrentHashMap<>();
+    private volatile boolean opened;
+
+    /**
+     * @param thresholdNanos statements taking longer are logged; negative disables the log
+     * @param handler where to write the entries, or null for the rotating file
+     */
+    SlowQueryLog(long thresholdNanos, Handler handler) {
+        this.thresholdNanos = thresholdNanos;
+        this.logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        if (handler != null) {
+            logger.addHandler(handler);
+            opened = true;
+        }
+    }
+
+    public static SlowQueryLog getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return thresholdNanos >= 0;
+    }
+
+    /**
+     * @return threshold in milliseconds, negative if the log is disabled
+     */
+    public long getThresholdMillis() {
+        return thresholdNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    boolean isSlow(long nanos) {
+        return thresholdNanos >= 0 && nanos > thresholdNanos;
+    }
+
+    /**
+     * Write an entry for a slow statement. Called on the thread that ran the
+     * statement, so the stack still shows where it came from.
+     * @param sql statement as prepared or executed
+     * @param parameters bind values by index (index 0 unused), or null
+     * @param batchSize number of batched parameter sets, 0 if not a batch
+     * @param nanos elapsed time
+     * @param failed whether the statement threw
+     */
+    void log(String sql, Object[] parameters, int batchSize, long nanos, boolean failed) {
+        StringBuilder entry = new StringBuilder();
+        entry.append(String.format(Locale.ROOT, "slow statement: %.1f ms", nanos / 1e6));
+        if (failed) {
+            entry.append(" (failed)");
+        }
+        if (batchSize > 0) {
+            entry.append(" (batch of ").append(batchSize).append(')');
+        }
+        entry.append("\n  sql: ").append(sql.trim().replaceAll("\\s+", " "));
+        if (parameters != null && parameters.length > 1) {
+            entry.append(batchSize > 0 ? "\n  last parameters: " : "\n  parameters: ");
+            appendParameters(entry, sql, parameters);
+        }
+        appendOrigin(entry, new Throwable().getStackTrace());
+
+        if (!opened) {
+            open();
+        }
+        logger.log(Level.WARNING, entry.toString());
+    }
+
+    private synchronized void open() {
+        if (opened) {
+            return;
+        }
+        opened = true;
+        String pattern = System.getProperty(FILE_PROPERTY, DEFAULT_FILE);
+        try {
+            File parent = new File(pattern).getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Cannot create directory " + parent);
+            }
+            FileHandler handler = new FileHandler(pattern, LOG_FILE_BYTES, LOG_FILES, true);
+            handler.setEncoding("UTF-8");
+            handler.setFormatter(new EntryFormatter());
+            logger.addHandler(handler);
+            System.out.println("Slow statements (over " + getThresholdMillis() + " ms) are logged to " + pattern);
+        } catch (IOException e) {
+            System.err.println("Error opening slow query log: " + e.getMessage());
+        }
+    }
+
+    private void appendParameters(StringBuilder entry, String sql, Object[] parameters) {
+        boolean[] sensitive = sensitiveParameters(sql);
+        for (int i = 1; i < parameters.length; i++) {
+            if (i > 1) {
+                entry.append(", ");
+            }
+            entry.append('[').append(i).append("] ");
+            if (i < sensitive.length && sensitive[i]) {
+                entry.append("[redacted]");
+            } else {
+                entry.append(formatValue(parameters[i]));
+            }
+        }
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof CharSequence || value instanceof Date || value instanceof Enum
+                || value instanceof java.time.temporal.Temporal) {
+            String text = value.toString();
+            if (text.length() > MAX_VALUE_LENGTH) {
+                text = text.substring(0, MAX_VALUE_LENGTH) + "...";
+            }
+            return "'" + text + "'";
+        }
+        // Streams, blobs and the like
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    /**
+     * First frontend frame, and the last application frame before the JDBC
+     * layer (the DAO or service method that ran the statement)
+     */
+    private static void appendOrigin(StringBuilder entry, StackTraceElement[] stack) {
+        StackTraceElement caller = null;
+        StackTraceElement frontend = null;
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (caller == null) {
+                if (isApplicationClass(className) && !className.startsWith("backend.db.")) {
+                    caller = frame;
+                }
+                if (className.startsWith("frontend.")) {
+                    frontend = frame;
+                    break;
+                }
+            } else if (className.startsWith("frontend.")) {
+                frontend = frame;
+                break;
+            }
+        }
+        entry.append("\n  origin: ").append(frontend != null ? frontend : "(no frontend caller, thread "
+                + Thread.currentThread().getName() + ")");
+        if (caller != null && caller != frontend) {
+            entry.append("\n  via: ").append(caller);
+        }
+    }
+
+    private static boolean isApplicationClass(String className) {
+        return className.startsWith("backend.") || className.startsWith("frontend.");
+    }
+
+    /**
+     * @return for each parameter index (from 1), whether it binds a sensitive column
+     */
+    boolean[] sensitiveParameters(String sql) {
+        boolean[] sensitive = sensitiveBySql.get(sql);
+        if (sensitive == null) {
+            sensitive = findSensitiveParameters(sql);
+            if (sensitiveBySql.size() < MAX_CACHED_SQL) {
+                sensitiveBySql.put(sql, sensitive);
+            }
+        }
+        return sensitive;
+    }
+
+    private static boolean[] findSensitiveParameters(String sql) {
+        String lower = sql.toLowerCase(Locale.ROOT);
+        boolean mentioned = false;
+        for (String column : SENSITIVE_COLUMNS) {
+            mentioned |= lower.contains(column);
+        }
+        if (!mentioned) {
+            return NOTHING_SENSITIVE;
+        }
+
+        List<Integer> placeholders = placeholderPositions(sql);
+        boolean[] sensitive = new boolean[placeholders.size() + 1];
+        for (int i = 0; i < placeholders.size(); i++) {
+            Matcher compared = COMPARED_COLUMN.matcher(sql.substring(0, placeholders.get(i)));
+            sensitive[i + 1] = compared.find() && isSensitive(compared.group(1));
+        }
+
+        // INSERT INTO t (a, b, ...) VALUES (x, ?, ...): match values to columns by position
+        Matcher insert = INSERT_COLUMNS.matcher(sql);
+        if (insert.find()) {
+            String[] columns = insert.group(1).split(",");
+            int column = 0;
+            int depth = 0;
+            int parameter = 0;
+            for (int i = insert.end(); i < sql.length() && depth >= 0; i++) {
+                char c = sql.charAt(i);
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')') {
+                    depth--;
+                } else if (c == ',' && depth == 0) {
+                    column++;
+                } else if (c == '?' && parameter < placeholders.size() && placeholders.get(parameter) == i) {
+                    parameter++;
+                    if (column < columns.length && isSensitive(columns[column])) {
+                        sensitive[parameter] = true;
+                    }
+                } else if (c == '\'') {
+                    i = sql.indexOf('\'', i + 1);
+                    if (i < 0) {
+                        break;
+                    }
+                }
+            }
+        }
+        return sensitive;
+    }
+
+    private static boolean isSensitive(String column) {
+        String name = column.trim().replace("`", "").toLowerCase(Locale.ROOT);
+        name = name.substring(name.lastIndexOf('.') + 1);
+        for (String sensitive : SENSITIVE_COLUMNS) {
+            if (name.equals(sensitive)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Positions of the ? placeholders outside string literals
+    private static List<Integer> placeholderPositions(String sql) {
+        List<Integer> positions = new ArrayList<>();
+        boolean quoted = false;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (c == '?' && !quoted) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    private static final class EntryFormatter extends Formatter {
+        private final SimpleDateFormat timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+
+        @Override
+        public synchronized String format(LogRecord record) {
+            return timestamp.format(new Date(record.getMillis())) + " " + record.getMessage()
+                    + System.lineSeparator();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package backend.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit of work (transaction template) that binds one database connection
+ * to the current thread. Every DAO call made inside the scope obtains that
+ * connection from {@link DBConnection#getConnection()}, so the whole scope
+ * runs as a single transaction and commits once at the end.
+ *
+ * DAO methods report failures by returning false/null instead of throwing,
+ * so work running inside a scope must check those results (see
+ * {@link #require(boolean, String)}) to make the scope roll back.
+ */
+public final class UnitOfWork {
+
+    /**
+     * Work executed inside a unit of work
+     * @param <T> result type
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(Connection connection) throws SQLException;
+    }
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Connection sharedHandle;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    private boolean rollbackOnly;
+
+    private UnitOfWork(Connection connection) {
+        this.sharedHandle = createSharedHandle(connection);
+    }
+
+    /**
+     * Run work in a transaction. If a unit of work is already active on this
+     * thread the work joins it instead of starting a new one.
+     * @param work work to execute
+     * @return result of the work
+     * @throws SQLException if the work fails or the commit fails
+     */
+    public static <T> T execute(Work<T> work) throws SQLException {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            try {
+                return work.execute(current.sharedHandle);
+            } catch (SQLException | RuntimeException e) {
+                current.rollbackOnly = true;
+                throw e;
+            }
+        }
+
+        Connection conn = DBConnection.getConnection();
+        UnitOfWork unitOfWork = new UnitOfWork(conn);
+        T result;
+        try {
+            conn.setAutoCommit(false);
+            CURRENT.set(unitOfWork);
+            result = work.execute(unitOfWork.sharedHandle);
+            if (unitOfWork.rollbackOnly) {
+                throw new SQLException("Transaction marked rollback-only");
+            }
+            conn.commit();
+        } catch (SQLException | RuntimeException e) {
+            rollbackQuietly(conn);
+            throw e;
+        } finally {
+            CURRENT.remove();
+            closeQuietly(conn);
+        }
+
+        for (Runnable action : unitOfWork.afterCommitActions) {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error running after-commit action: " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check whether a unit of work is active on the current thread
+     * @return true if a transaction is bound to this thread
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Fail the current unit of work when a DAO call reports failure
+     * @param succeeded result returned by the DAO call
+     * @param message error message used if the call failed
+     * @throws SQLException if the call failed
+     */
+    public static void require(boolean succeeded, String message) throws SQLException {
+        if (!succeeded) {
+            throw new SQLException(message);
+        }
+    }
+
+    /**
+     * Mark the current unit of work so that it rolls back instead of committing
+     */
+    public static void setRollbackOnly() {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            current.rollbackOnly = true;
+        }
+    }
+
+    /**
+     * Run an action once the current unit of work has committed. Without an
+     * active unit of work the action runs immediately (autocommit already
+     * made the change durable). Actions are discarded on rollback.
+     * @param action action to run
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            current.afterCommitActions.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Connection handle for DAOs running inside the current unit of work
+     * @return shared connection handle or null if no unit of work is active
+     */
+    static Connection currentConnection() {
+        UnitOfWork current = CURRENT.get();
+        return current != null ? current.sharedHandle : null;
+    }
+
+    /**
+     * Wrap the bound connection so that the try-with-resources blocks in the
+     * DAOs do not close it, and so that they cannot end the transaction early.
+     */
+    private Connection createSharedHandle(Connection target) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    boolean noArgs = args == null || args.length == 0;
+                    if ((name.equals("close") || name.equals("commit")) && noArgs) {
+                        return null;
+                    }
+                    if (name.equals("setAutoCommit")) {
+                        return null;
+                    }
+                    if (name.equals("rollback") && noArgs) {
+                        rollbackOnly = true;
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            System.err.println("Error rolling back transaction: " + e.getMessage());
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.setAutoCommit(true);
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing transaction connection: " + e.getMessage());
+        }
+    }
+}
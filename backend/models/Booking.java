@@ -3,6 +3,9 @@ package backend.models;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 public class Booking {
     private int bookingId;
@@ -27,6 +30,27 @@ public class Booking {
         BookingStatus(String value) { this.value = value; }
         public String getValue() { return value; }
         @Override public String toString() { return value; }
+
+        private static final Map<String, BookingStatus> BY_VALUE = new HashMap<>();
+        static { for (BookingStatus s : values()) BY_VALUE.put(s.value, s); }
+
+        // Parse a database value (case-insensitive)
+        public static BookingStatus fromString(String value) {
+            BookingStatus s = value == null ? null : BY_VALUE.get(value);
+            if (s == null && value != null) s = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            if (s == null) throw new IllegalArgumentException("Invalid booking status: " + value);
+            return s;
+        }
+
+        // Lifecycle: pending -> confirmed -> active -> completed, cancellable until pickup
+        public boolean canTransitionTo(BookingStatus target) {
+            switch (this) {
+                case PENDING: return target == CONFIRMED || target == CANCELLED;
+                case CONFIRMED: return target == ACTIVE || target == CANCELLED;
+                case ACTIVE: return target == COMPLETED;
+                default: return false;
+            }
+        }
     }
 
     public enum PaymentStatus {
@@ -36,6 +60,17 @@ public class Booking {
         PaymentStatus(String value) { this.value = value; }
         public String getValue() { return value; }
         @Override public String toString() { return value; }
+
+        private static final Map<String, PaymentStatus> BY_VALUE = new HashMap<>();
+        static { for (PaymentStatus s : values()) BY_VALUE.put(s.value, s); }
+
+        // Parse a database value (case-insensitive)
+        public static PaymentStatus fromString(String value) {
+            PaymentStatus s = value == null ? null : BY_VALUE.get(value);
+            if (s == null && value != null) s = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            if (s == null) throw new IllegalArgumentException("Invalid payment status: " + value);
+            return s;
+        }
     }
 
     // Constructors
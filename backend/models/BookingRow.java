@@ -0,0 +1,103 @@
+package backend.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of a booking for the booking tables: the booking
+ * columns shown in a list together with the customer and vehicle names,
+ * loaded by a single join instead of one user and one vehicle query per row
+ */
+public final class BookingRow {
+    private final int bookingId;
+    private final int userId;
+    private final String userName;
+    private final int vehicleId;
+    private final String vehicleName;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String pickupLocation;
+    private final String dropoffLocation;
+    private final BigDecimal totalAmount;
+    private final Booking.BookingStatus status;
+    private final Booking.PaymentStatus paymentStatus;
+
+    public BookingRow(int bookingId, int userId, String userName, int vehicleId, String vehicleName,
+                      LocalDate startDate, LocalDate endDate, String pickupLocation, String dropoffLocation,
+                      BigDecimal totalAmount, Booking.BookingStatus status, Booking.PaymentStatus paymentStatus) {
+        this.bookingId = bookingId;
+        this.userId = userId;
+        this.userName = userName;
+        this.vehicleId = vehicleId;
+        this.vehicleName = vehicleName;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.pickupLocation = pickupLocation;
+        this.dropoffLocation = dropoffLocation;
+        this.totalAmount = totalAmount;
+        this.status = status;
+        this.paymentStatus = paymentStatus;
+    }
+
+    public int getBookingId() {
+        return bookingId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    // Customer full name, or null if the user no longer exists
+    public String getUserName() {
+        return userName;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    // "year make model", or null if the vehicle no longer exists
+    public String getVehicleName() {
+        return vehicleName;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public String getPickupLocation() {
+        return pickupLocation;
+    }
+
+    public String getDropoffLocation() {
+        return dropoffLocation;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public Booking.BookingStatus getStatus() {
+        return status;
+    }
+
+    public Booking.PaymentStatus getPaymentStatus() {
+        return paymentStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "BookingRow{" +
+                "bookingId=" + bookingId +
+                ", userName='" + userName + '\'' +
+                ", vehicleName='" + vehicleName + '\'' +
+                ", startDate=" + startDate +
+                ", endDate=" + endDate +
+                ", status=" + status +
+                '}';
+    }
+}
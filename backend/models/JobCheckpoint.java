@@ -0,0 +1,92 @@
+package backend.models;
+
+import java.time.LocalDateTime;
+
+/**
+ * JobCheckpoint model class recording the progress of a resumable batch job.
+ * A run processes the rows changed in [windowStart, windowEnd) in ascending
+ * key order; lastKey is the last key committed for that window.
+ */
+public class JobCheckpoint {
+    private String jobName;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+    private int lastKey;
+    private long rowsProcessed;
+    private LocalDateTime updatedAt;
+
+    // Default constructor
+    public JobCheckpoint() {}
+
+    // Constructor for a new checkpoint
+    public JobCheckpoint(String jobName, LocalDateTime windowStart, LocalDateTime windowEnd) {
+        this.jobName = jobName;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    // Getters and Setters
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public LocalDateTime getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(LocalDateTime windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public LocalDateTime getWindowEnd() {
+        return windowEnd;
+    }
+
+    public void setWindowEnd(LocalDateTime windowEnd) {
+        this.windowEnd = windowEnd;
+    }
+
+    public int getLastKey() {
+        return lastKey;
+    }
+
+    public void setLastKey(int lastKey) {
+        this.lastKey = lastKey;
+    }
+
+    public long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    // Utility methods
+    public boolean isWindowOpen() {
+        return windowEnd != null;
+    }
+
+    @Override
+    public String toString() {
+        return "JobCheckpoint{" +
+                "jobName='" + jobName + '\'' +
+                ", windowStart=" + windowStart +
+                ", windowEnd=" + windowEnd +
+                ", lastKey=" + lastKey +
+                ", rowsProcessed=" + rowsProcessed +
+                '}';
+    }
+}
@@ -0,0 +1,173 @@
+package backend.models;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Immutable amount of money in cents, for arithmetic on hot paths (quotes,
+ * in-memory aggregation) without the allocations of BigDecimal. Amounts are
+ * converted from and to BigDecimal only where they enter or leave the
+ * application: JDBC parameters and columns, and text fields.
+ *
+ * Addition and multiplication by whole numbers are exact and throw
+ * ArithmeticException on overflow. Multiplication by a fraction takes an
+ * explicit rounding mode.
+ */
+public final class Money implements Comparable<Money> {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * Convert an amount with at most two fraction digits
+     * @throws ArithmeticException if the amount has more fraction digits or does not fit
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(centsOf(amount, RoundingMode.UNNECESSARY));
+    }
+
+    /**
+     * Convert an amount, rounding it to cents
+     */
+    public static Money of(BigDecimal amount, RoundingMode rounding) {
+        return ofCents(centsOf(amount, rounding));
+    }
+
+    /**
+     * Parse a decimal amount such as "49.99", rounding half up to cents
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Money parse(String text) {
+        return of(new BigDecimal(text.trim()), RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Cents of a BigDecimal amount, for code that aggregates raw longs
+     */
+    public static long centsOf(BigDecimal amount, RoundingMode rounding) {
+        return amount.setScale(SCALE, rounding).unscaledValue().longValueExact();
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(Math.negateExact(cents));
+    }
+
+    public Money times(long factor) {
+        return ofCents(Math.multiplyExact(cents, factor));
+    }
+
+    /**
+     * Multiply by numerator / denominator, rounding the result to cents
+     */
+    public Money times(long numerator, long denominator, RoundingMode rounding) {
+        return ofCents(divide(Math.multiplyExact(cents, numerator), denominator, rounding));
+    }
+
+    public boolean isZero() {
+        return cents == 0;
+    }
+
+    public boolean isNegative() {
+        return cents < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    /**
+     * Divide two longs, rounding the quotient like BigDecimal would
+     * @throws ArithmeticException if rounding is UNNECESSARY but needed, or the divisor is 0
+     */
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        // Sign of the exact quotient; the truncated quotient is rounded away from zero by adding it
+        int signum = ((dividend ^ divisor) >> 63) == 0 ? 1 : -1;
+        boolean increment;
+        switch (rounding) {
+            case UNNECESSARY:
+                throw new ArithmeticException("Rounding necessary");
+            case DOWN:
+                increment = false;
+                break;
+            case UP:
+                increment = true;
+                break;
+            case FLOOR:
+                increment = signum < 0;
+                break;
+            case CEILING:
+                increment = signum > 0;
+                break;
+            default:
+                long absRemainder = Math.abs(remainder);
+                int half = Long.compare(absRemainder, Math.abs(divisor) - absRemainder);
+                if (half != 0) {
+                    increment = half > 0;
+                } else {
+                    increment = rounding == RoundingMode.HALF_UP
+                            || (rounding == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+                }
+                break;
+        }
+        return increment ? quotient + signum : quotient;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money && ((Money) o).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    /**
+     * Plain decimal form with two fraction digits, e.g. "-12.05"
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(24);
+        if (cents < 0) {
+            text.append('-');
+        }
+        long abs = Math.abs(cents);
+        text.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+}
@@ -1,7 +1,11 @@
 package backend.models;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Set;
 
 /**
  * Pricing model class representing pricing rules for different vehicle types
@@ -17,6 +21,15 @@ public class Pricing {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    // Rates in cents and multipliers in basis points, kept in step with the
+    // BigDecimal fields so that quotes are computed on longs
+    public static final long BASIS_POINTS = 10_000;
+    private long baseDailyRateCents;
+    private long insuranceDailyRateCents;
+    private long weekendBasisPoints = BASIS_POINTS;
+    private long holidayBasisPoints = BASIS_POINTS;
+    private long longTermBasisPoints = BASIS_POINTS;
+    
     // Default constructor
     public Pricing() {}
     
@@ -25,11 +38,11 @@ public class Pricing {
                    BigDecimal weekendMultiplier, BigDecimal holidayMultiplier,
                    BigDecimal longTermDiscount, BigDecimal insuranceDailyRate) {
         this.vehicleType = vehicleType;
-        this.baseDailyRate = baseDailyRate;
-        this.weekendMultiplier = weekendMultiplier;
-        this.holidayMultiplier = holidayMultiplier;
-        this.longTermDiscount = longTermDiscount;
-        this.insuranceDailyRate = insuranceDailyRate;
+        setBaseDailyRate(baseDailyRate);
+        setWeekendMultiplier(weekendMultiplier);
+        setHolidayMultiplier(holidayMultiplier);
+        setLongTermDiscount(longTermDiscount);
+        setInsuranceDailyRate(insuranceDailyRate);
     }
     
     // Full constructor
@@ -39,11 +52,11 @@ public class Pricing {
                    LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.pricingId = pricingId;
         this.vehicleType = vehicleType;
-        this.baseDailyRate = baseDailyRate;
-        this.weekendMultiplier = weekendMultiplier;
-        this.holidayMultiplier = holidayMultiplier;
-        this.longTermDiscount = longTermDiscount;
-        this.insuranceDailyRate = insuranceDailyRate;
+        setBaseDailyRate(baseDailyRate);
+        setWeekendMultiplier(weekendMultiplier);
+        setHolidayMultiplier(holidayMultiplier);
+        setLongTermDiscount(longTermDiscount);
+        setInsuranceDailyRate(insuranceDailyRate);
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
@@ -71,6 +84,7 @@ public class Pricing {
     
     public void setBaseDailyRate(BigDecimal baseDailyRate) {
         this.baseDailyRate = baseDailyRate;
+        this.baseDailyRateCents = baseDailyRate == null ? 0 : Money.centsOf(baseDailyRate, RoundingMode.HALF_UP);
     }
     
     public BigDecimal getWeekendMultiplier() {
@@ -79,6 +93,7 @@ public class Pricing {
     
     public void setWeekendMultiplier(BigDecimal weekendMultiplier) {
         this.weekendMultiplier = weekendMultiplier;
+        this.weekendBasisPoints = basisPoints(weekendMultiplier);
     }
     
     public BigDecimal getHolidayMultiplier() {
@@ -87,6 +102,7 @@ public class Pricing {
     
     public void setHolidayMultiplier(BigDecimal holidayMultiplier) {
         this.holidayMultiplier = holidayMultiplier;
+        this.holidayBasisPoints = basisPoints(holidayMultiplier);
     }
     
     public BigDecimal getLongTermDiscount() {
@@ -95,6 +111,7 @@ public class Pricing {
     
     public void setLongTermDiscount(BigDecimal longTermDiscount) {
         this.longTermDiscount = longTermDiscount;
+        this.longTermBasisPoints = basisPoints(longTermDiscount);
     }
     
     public BigDecimal getInsuranceDailyRate() {
@@ -103,6 +120,7 @@ public class Pricing {
     
     public void setInsuranceDailyRate(BigDecimal insuranceDailyRate) {
         this.insuranceDailyRate = insuranceDailyRate;
+        this.insuranceDailyRateCents = insuranceDailyRate == null ? 0 : Money.centsOf(insuranceDailyRate, RoundingMode.HALF_UP);
     }
     
     public LocalDateTime getCreatedAt() {
@@ -135,23 +153,11 @@ public class Pricing {
     }
     
     public BigDecimal calculateTotalInsuranceRate(int days) {
-        return insuranceDailyRate.multiply(BigDecimal.valueOf(days));
+        return quoteInsurance(days).toBigDecimal();
     }
     
     public BigDecimal calculateTotalRate(int days, boolean isWeekend, boolean isHoliday, boolean isLongTerm) {
-        BigDecimal dailyRate = baseDailyRate;
-        
-        if (isHoliday) {
-            dailyRate = calculateHolidayRate();
-        } else if (isWeekend) {
-            dailyRate = calculateWeekendRate();
-        }
-        
-        if (isLongTerm && days >= 7) {
-            dailyRate = dailyRate.multiply(longTermDiscount);
-        }
-        
-        return dailyRate.multiply(BigDecimal.valueOf(days));
+        return quoteRate(days, isWeekend, isHoliday, isLongTerm).toBigDecimal();
     }
     
     public boolean isLongTermRental(int days) {
@@ -159,12 +165,114 @@ public class Pricing {
     }
     
     public BigDecimal getDiscountAmount(int days) {
+        return quoteDiscount(days).toBigDecimal();
+    }
+    
+    /**
+     * Rental charge (without insurance), rounded half up to cents
+     * @param days number of days
+     * @param isWeekend whether the weekend multiplier applies
+     * @param isHoliday whether the holiday multiplier applies (takes precedence)
+     * @param isLongTerm whether the long-term discount applies (from 7 days)
+     * @return rental charge
+     */
+    public Money quoteRate(int days, boolean isWeekend, boolean isHoliday, boolean isLongTerm) {
+        return quoteRate(days, isWeekend, isHoliday, isLongTerm, RoundingMode.HALF_UP);
+    }
+    
+    /**
+     * Rental charge (without insurance). The multipliers are applied to the
+     * exact amount and the result is rounded once.
+     * @param rounding rounding of the result to cents
+     * @return rental charge
+     */
+    public Money quoteRate(int days, boolean isWeekend, boolean isHoliday, boolean isLongTerm, RoundingMode rounding) {
+        long numerator = isHoliday ? holidayBasisPoints : isWeekend ? weekendBasisPoints : BASIS_POINTS;
+        long denominator = BASIS_POINTS;
+        if (isLongTerm && isLongTermRental(days)) {
+            numerator *= longTermBasisPoints;
+            denominator *= BASIS_POINTS;
+        }
+        long exact = Math.multiplyExact(Math.multiplyExact(baseDailyRateCents, numerator), days);
+        return Money.ofCents(Money.divide(exact, denominator, rounding));
+    }
+    
+    /**
+     * Insurance charge for a number of days
+     */
+    public Money quoteInsurance(int days) {
+        return Money.ofCents(Math.multiplyExact(insuranceDailyRateCents, days));
+    }
+    
+    /**
+     * Amount saved by the long-term discount, rounded half up to cents
+     */
+    public Money quoteDiscount(int days) {
+        if (!isLongTermRental(days)) {
+            return Money.ZERO;
+        }
+        long original = Math.multiplyExact(baseDailyRateCents, days);
+        long discounted = Money.divide(Math.multiplyExact(original, longTermBasisPoints), BASIS_POINTS,
+                RoundingMode.HALF_UP);
+        return Money.ofCents(original - discounted);
+    }
+    
+    /**
+     * Multiplier of a single rental day, in basis points: the holiday
+     * multiplier on a holiday, the weekend multiplier on a Saturday or Sunday
+     * and 1 on any other day
+     * @param day rental day
+     * @param holidays holiday dates (may be empty)
+     * @return multiplier times 10,000
+     */
+    public long dayBasisPoints(LocalDate day, Set<LocalDate> holidays) {
+        if (!holidays.isEmpty() && holidays.contains(day)) {
+            return holidayBasisPoints;
+        }
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY ? weekendBasisPoints : BASIS_POINTS;
+    }
+    
+    /**
+     * Sum of the day multipliers of a rental period, in basis points
+     * (see {@link #dayBasisPoints})
+     * @param start first day of the rental
+     * @param days number of rental days
+     * @param holidays holiday dates (may be empty)
+     * @return sum of the multipliers times 10,000
+     */
+    public long dayFactorBasisPoints(LocalDate start, int days, Set<LocalDate> holidays) {
+        long factor = 0;
+        for (int i = 0; i < days; i++) {
+            factor += dayBasisPoints(start.plusDays(i), holidays);
+        }
+        return factor;
+    }
+    
+    /**
+     * Rental charge (without insurance) of a vehicle priced by this rule,
+     * applying the long-term discount from 7 days and rounding once, half up
+     * @param dailyRateCents daily rate of the vehicle
+     * @param dayFactorBasisPoints day multipliers of the period (see {@link #dayFactorBasisPoints})
+     * @param days number of rental days
+     * @return rental charge
+     */
+    public Money quoteRange(long dailyRateCents, long dayFactorBasisPoints, int days) {
+        long numerator = dayFactorBasisPoints;
+        long denominator = BASIS_POINTS;
         if (isLongTermRental(days)) {
-            BigDecimal originalAmount = baseDailyRate.multiply(BigDecimal.valueOf(days));
-            BigDecimal discountedAmount = calculateLongTermRate().multiply(BigDecimal.valueOf(days));
-            return originalAmount.subtract(discountedAmount);
+            numerator = Math.multiplyExact(numerator, longTermBasisPoints);
+            denominator *= BASIS_POINTS;
+        }
+        return Money.ofCents(Money.divide(Math.multiplyExact(dailyRateCents, numerator), denominator,
+                RoundingMode.HALF_UP));
+    }
+    
+    private static long basisPoints(BigDecimal multiplier) {
+        if (multiplier == null) {
+            return BASIS_POINTS;
         }
-        return BigDecimal.ZERO;
+        return multiplier.movePointRight(4).setScale(0, RoundingMode.HALF_UP).longValueExact();
     }
     
     public String getVehicleTypeDisplayName() {
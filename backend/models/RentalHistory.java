@@ -3,6 +3,9 @@ package backend.models;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * RentalHistory model class representing completed rental transactions
@@ -36,13 +39,23 @@ public class RentalHistory {
             return value;
         }
         
+        private static final Map<String, RentalStatus> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (RentalStatus status : values()) {
+                BY_VALUE.put(status.value, status);
+            }
+        }
+        
         public static RentalStatus fromString(String value) {
-            for (RentalStatus status : RentalStatus.values()) {
-                if (status.value.equalsIgnoreCase(value)) {
-                    return status;
-                }
+            RentalStatus status = value == null ? null : BY_VALUE.get(value);
+            if (status == null && value != null) {
+                status = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            }
+            if (status == null) {
+                throw new IllegalArgumentException("Invalid rental status: " + value);
             }
-            throw new IllegalArgumentException("Invalid rental status: " + value);
+            return status;
         }
     }
     
@@ -2,6 +2,9 @@ package backend.models;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * Vehicle model class representing a vehicle in the rental system
@@ -44,13 +47,23 @@ public class Vehicle {
             return value;
         }
         
+        private static final Map<String, VehicleType> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (VehicleType type : values()) {
+                BY_VALUE.put(type.value, type);
+            }
+        }
+        
         public static VehicleType fromString(String value) {
-            for (VehicleType type : VehicleType.values()) {
-                if (type.value.equalsIgnoreCase(value)) {
-                    return type;
-                }
+            VehicleType type = value == null ? null : BY_VALUE.get(value);
+            if (type == null && value != null) {
+                type = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Invalid vehicle type: " + value);
             }
-            throw new IllegalArgumentException("Invalid vehicle type: " + value);
+            return type;
         }
     }
     
@@ -70,13 +83,23 @@ public class Vehicle {
             return value;
         }
         
+        private static final Map<String, FuelType> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (FuelType type : values()) {
+                BY_VALUE.put(type.value, type);
+            }
+        }
+        
         public static FuelType fromString(String value) {
-            for (FuelType type : FuelType.values()) {
-                if (type.value.equalsIgnoreCase(value)) {
-                    return type;
-                }
+            FuelType type = value == null ? null : BY_VALUE.get(value);
+            if (type == null && value != null) {
+                type = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Invalid fuel type: " + value);
             }
-            throw new IllegalArgumentException("Invalid fuel type: " + value);
+            return type;
         }
     }
     
@@ -94,13 +117,23 @@ public class Vehicle {
             return value;
         }
         
+        private static final Map<String, Transmission> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (Transmission type : values()) {
+                BY_VALUE.put(type.value, type);
+            }
+        }
+        
         public static Transmission fromString(String value) {
-            for (Transmission type : Transmission.values()) {
-                if (type.value.equalsIgnoreCase(value)) {
-                    return type;
-                }
+            Transmission type = value == null ? null : BY_VALUE.get(value);
+            if (type == null && value != null) {
+                type = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("Invalid transmission type: " + value);
             }
-            throw new IllegalArgumentException("Invalid transmission type: " + value);
+            return type;
         }
     }
     
@@ -120,13 +153,23 @@ public class Vehicle {
             return value;
         }
         
+        private static final Map<String, VehicleStatus> BY_VALUE = new HashMap<>();
+        
+        static {
+            for (VehicleStatus status : values()) {
+                BY_VALUE.put(status.value, status);
+            }
+        }
+        
         public static VehicleStatus fromString(String value) {
-            for (VehicleStatus status : VehicleStatus.values()) {
-                if (status.value.equalsIgnoreCase(value)) {
-                    return status;
-                }
+            VehicleStatus status = value == null ? null : BY_VALUE.get(value);
+            if (status == null && value != null) {
+                status = BY_VALUE.get(value.toLowerCase(Locale.ROOT));
+            }
+            if (status == null) {
+                throw new IllegalArgumentException("Invalid vehicle status: " + value);
             }
-            throw new IllegalArgumentException("Invalid vehicle status: " + value);
+            return status;
         }
     }
     
@@ -0,0 +1,109 @@
+package backend.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Read-only projection of a vehicle for list views and background jobs.
+ * Carries the columns shown in the vehicle tables, without the description,
+ * image path and timestamps of a full Vehicle.
+ */
+public final class VehicleSummary {
+    private final int vehicleId;
+    private final String make;
+    private final String model;
+    private final int year;
+    private final String color;
+    private final String licensePlate;
+    private final Vehicle.VehicleType vehicleType;
+    private final Vehicle.FuelType fuelType;
+    private final Vehicle.Transmission transmission;
+    private final int seatingCapacity;
+    private final int mileage;
+    private final Vehicle.VehicleStatus status;
+    private final BigDecimal dailyRate;
+
+    public VehicleSummary(int vehicleId, String make, String model, int year, String color, String licensePlate,
+                          Vehicle.VehicleType vehicleType, Vehicle.FuelType fuelType,
+                          Vehicle.Transmission transmission, int seatingCapacity, int mileage,
+                          Vehicle.VehicleStatus status, BigDecimal dailyRate) {
+        this.vehicleId = vehicleId;
+        this.make = make;
+        this.model = model;
+        this.year = year;
+        this.color = color;
+        this.licensePlate = licensePlate;
+        this.vehicleType = vehicleType;
+        this.fuelType = fuelType;
+        this.transmission = transmission;
+        this.seatingCapacity = seatingCapacity;
+        this.mileage = mileage;
+        this.status = status;
+        this.dailyRate = dailyRate;
+    }
+
+    public int getVehicleId() {
+        return vehicleId;
+    }
+
+    public String getMake() {
+        return make;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public String getColor() {
+        return color;
+    }
+
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    public Vehicle.VehicleType getVehicleType() {
+        return vehicleType;
+    }
+
+    public Vehicle.FuelType getFuelType() {
+        return fuelType;
+    }
+
+    public Vehicle.Transmission getTransmission() {
+        return transmission;
+    }
+
+    public int getSeatingCapacity() {
+        return seatingCapacity;
+    }
+
+    public int getMileage() {
+        return mileage;
+    }
+
+    public Vehicle.VehicleStatus getStatus() {
+        return status;
+    }
+
+    public BigDecimal getDailyRate() {
+        return dailyRate;
+    }
+
+    public String getFullName() {
+        return year + " " + make + " " + model;
+    }
+
+    @Override
+    public String toString() {
+        return "VehicleSummary{" +
+                "vehicleId=" + vehicleId +
+                ", name='" + getFullName() + '\'' +
+                ", licensePlate='" + licensePlate + '\'' +
+                ", status=" + status +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+package backend.service;
+
+import backend.dao.BookingDAO;
+import backend.dao.BookingSelection;
+import backend.dao.RentalHistoryDAO;
+import backend.dao.VehicleDAO;
+import backend.db.UnitOfWork;
+import backend.models.Booking;
+import backend.models.Booking.BookingStatus;
+import backend.models.RentalHistory;
+import backend.models.Vehicle;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Booking lifecycle service.
+ * Validates status transitions (see {@link BookingStatus#canTransitionTo}) and
+ * applies each one together with its vehicle status and rental history
+ * changes in a single transaction. Bulk transitions run as set-based updates
+ * instead of one round trip per booking.
+ */
+public class BookingLifecycleService {
+    private final BookingDAO bookingDAO;
+    private final VehicleDAO vehicleDAO;
+    private final RentalHistoryDAO rentalHistoryDAO;
+
+    public BookingLifecycleService(BookingDAO bookingDAO, VehicleDAO vehicleDAO, RentalHistoryDAO rentalHistoryDAO) {
+        this.bookingDAO = bookingDAO;
+        this.vehicleDAO = vehicleDAO;
+        this.rentalHistoryDAO = rentalHistoryDAO;
+    }
+
+    /**
+     * Confirm a pending booking
+     * @param bookingId booking ID
+     * @return true if successful, false otherwise
+     */
+    public boolean confirm(int bookingId) {
+        return transition(bookingId, BookingStatus.CONFIRMED, null);
+    }
+
+    /**
+     * Hand the vehicle over for a confirmed booking (vehicle becomes rented)
+     * @param bookingId booking ID
+     * @return true if successful, false otherwise
+     */
+    public boolean activate(int bookingId) {
+        return transition(bookingId, BookingStatus.ACTIVE, null);
+    }
+
+    /**
+     * Complete an active booking (vehicle becomes available, history is recorded)
+     * @param bookingId booking ID
+     * @param returnDate actual return date
+     * @return true if successful, false otherwise
+     */
+    public boolean complete(int bookingId, LocalDate returnDate) {
+        return transition(bookingId, BookingStatus.COMPLETED, returnDate);
+    }
+
+    /**
+     * Cancel a pending or confirmed booking (cancellation is recorded in history)
+     * @param bookingId booking ID
+     * @return true if successful, false otherwise
+     */
+    public boolean cancel(int bookingId) {
+        return transition(bookingId, BookingStatus.CANCELLED, null);
+    }
+
+    /**
+     * Move a single booking to a new status
+     * @param bookingId booking ID
+     * @param target target status
+     * @param returnDate actual return date (only used when completing)
+     * @return true if successful, false otherwise
+     */
+    public boolean transition(int bookingId, BookingStatus target, LocalDate returnDate) {
+        Booking booking = bookingDAO.getBookingById(bookingId);
+        if (booking == null) {
+            System.err.println("Booking not found: " + bookingId);
+            return false;
+        }
+
+        BookingStatus current = booking.getStatus();
+        if (!current.canTransitionTo(target)) {
+            System.err.println("Invalid booking transition for booking " + bookingId + ": " + current + " -> " + target);
+            return false;
+        }
+        return apply(BookingSelection.byId(bookingId, current), target, returnDate) > 0;
+    }
+
+    /**
+     * Confirm all pending bookings starting on a date
+     * @param date start date
+     * @return number of bookings confirmed
+     */
+    public int confirmPendingStartingOn(LocalDate date) {
+        return transitionAll(BookingStatus.PENDING, BookingStatus.CONFIRMED,
+                BookingSelection.byStatusAndStartDate(BookingStatus.PENDING, date), null);
+    }
+
+    /**
+     * Activate all confirmed bookings starting on a date
+     * @param date start date
+     * @return number of bookings activated
+     */
+    public int activateConfirmedStartingOn(LocalDate date) {
+        return transitionAll(BookingStatus.CONFIRMED, BookingStatus.ACTIVE,
+                BookingSelection.byStatusAndStartDate(BookingStatus.CONFIRMED, date), null);
+    }
+
+    /**
+     * Complete all active bookings ending on a date, recording that date as the return date
+     * @param date end date
+     * @return number of bookings completed
+     */
+    public int completeActiveEndingOn(LocalDate date) {
+        return transitionAll(BookingStatus.ACTIVE, BookingStatus.COMPLETED,
+                BookingSelection.byStatusAndEndDate(BookingStatus.ACTIVE, date), date);
+    }
+
+    /**
+     * Cancel all pending bookings whose start date has already passed
+     * @param date reference date (usually today)
+     * @return number of bookings cancelled
+     */
+    public int cancelPendingStartingBefore(LocalDate date) {
+        return transitionAll(BookingStatus.PENDING, BookingStatus.CANCELLED,
+                BookingSelection.byStatusStartingBefore(BookingStatus.PENDING, date), null);
+    }
+
+    private int transitionAll(BookingStatus from, BookingStatus target, BookingSelection selection, LocalDate returnDate) {
+        if (!from.canTransitionTo(target)) {
+            throw new IllegalStateException("Invalid booking transition: " + from + " -> " + target);
+        }
+        return apply(selection, target, returnDate);
+    }
+
+    /**
+     * Apply a transition to the selected bookings. Side effects are written
+     * first, while the selection predicate still matches the old status, and
+     * the status flip runs last in the same transaction.
+     */
+    private int apply(BookingSelection selection, BookingStatus target, LocalDate returnDate) {
+        try {
+            return UnitOfWork.execute(conn -> {
+                switch (target) {
+                    case ACTIVE:
+                        vehicleDAO.updateVehicleStatusForBookings(selection, Vehicle.VehicleStatus.RENTED);
+                        break;
+                    case COMPLETED:
+                        vehicleDAO.updateVehicleStatusForBookings(selection, Vehicle.VehicleStatus.AVAILABLE);
+                        rentalHistoryDAO.createRentalHistoryFromBookings(selection,
+                                RentalHistory.RentalStatus.COMPLETED,
+                                returnDate != null ? returnDate : LocalDate.now());
+                        break;
+                    case CANCELLED:
+                        rentalHistoryDAO.createRentalHistoryFromBookings(selection,
+                                RentalHistory.RentalStatus.CANCELLED, null);
+                        break;
+                    default:
+                        break;
+                }
+                return bookingDAO.updateStatus(selection, target);
+            });
+        } catch (SQLException e) {
+            System.err.println("Error applying booking transition to " + target + ": " + e.getMessage());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,103 @@
+package backend.service;
+
+import backend.analytics.FleetOccupancy;
+import backend.dao.BookingDAO;
+import backend.dao.VehicleDAO;
+import backend.db.DBConnection;
+import backend.models.Vehicle;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background warm-up started once someone has logged in, while the
+ * dashboard is being shown. In order, and as long as the time budget
+ * lasts, it:
+ * <ol>
+ * <li>opens pooled connections (loading the driver on the way),</li>
+ * <li>runs the list queries of the dashboards and primes the fleet
+ * occupancy and the quote cache for the booking dialog's default dates,</li>
+ * <li>prepares the statements used so far on every idle pooled
+ * connection.</li>
+ * </ol>
+ * A stage that starts within the budget runs to completion; the remaining
+ * stages are skipped once the budget is used up. Each stage logs its time.
+ *
+ * Configured with the system properties {@value #BUDGET_PROPERTY}
+ * (milliseconds, default 3000, 0 disables the warm-up) and
+ * {@value #CONNECTIONS_PROPERTY} (default 3).
+ */
+public final class PostLoginWarmup {
+    public static final String BUDGET_PROPERTY = "vehiclerental.warmup.budgetMillis";
+    public static final String CONNECTIONS_PROPERTY = "vehiclerental.warmup.connections";
+
+    private static final AtomicBoolean STARTED = new AtomicBoolean();
+
+    private final long budgetMillis;
+    private final int connections;
+    private long deadline;
+
+    PostLoginWarmup(long budgetMillis, int connections) {
+        this.budgetMillis = budgetMillis;
+        this.connections = connections;
+    }
+
+    /**
+     * Start the warm-up on a background thread, once per application run
+     */
+    public static void start() {
+        long budgetMillis = Long.getLong(BUDGET_PROPERTY, 3000L);
+        if (budgetMillis <= 0 || !STARTED.compareAndSet(false, true)) {
+            return;
+        }
+        PostLoginWarmup warmup = new PostLoginWarmup(budgetMillis, Integer.getInteger(CONNECTIONS_PROPERTY, 3));
+        Thread thread = new Thread(warmup::run, "post-login-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        deadline = start + budgetMillis * 1_000_000;
+
+        stage("open pool connections", () ->
+                System.out.println("Warm-up: opened " + DBConnection.warmUpPool(connections) + " connections"));
+        stage("load vehicle and booking lists", () -> {
+            VehicleDAO vehicleDAO = new VehicleDAO();
+            vehicleDAO.getVehicleSummaries();
+            vehicleDAO.getAvailableVehicleSummaries();
+            new BookingDAO(vehicleDAO).getBookingRows();
+        });
+        stage("prime occupancy and quote caches", () -> {
+            FleetOccupancy.getInstance().getFleetSize(Vehicle.VehicleType.SEDAN);
+            LocalDate today = LocalDate.now();
+            QuoteCache.getInstance().quoteAll(today, today.plusDays(1),
+                    QuoteService.QuoteOptions.DEFAULT.withUnavailable(true));
+        });
+        stage("prepare hot statements", () ->
+                System.out.println("Warm-up: prepared " + DBConnection.prepareHotStatements() + " statements"));
+
+        System.out.println("Warm-up: finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    @FunctionalInterface
+    private interface Stage {
+        void run() throws SQLException;
+    }
+
+    private void stage(String name, Stage stage) {
+        long start = System.nanoTime();
+        if (start >= deadline) {
+            System.out.println("Warm-up: skipped " + name + " (budget of " + budgetMillis + " ms used up)");
+            return;
+        }
+        try {
+            stage.run();
+            System.out.println("Warm-up: " + name + " took " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Error during warm-up (" + name + "): " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package backend.service;
+
+import backend.dao.PricingDAO;
+import backend.dao.VehicleDAO;
+import backend.util.MetricsRegistry;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded LRU cache of fleet quotes, keyed by the quoted dates, the quote
+ * options (vehicle type, insurance, ...) and a pricing version.
+ *
+ * The version is bumped, and the cached quotes dropped, whenever a pricing
+ * rule or a vehicle changes, since rules and vehicle rates set the price,
+ * and whenever the FleetOccupancy has applied a booking change, since the
+ * occupancy sets the availability and the demand multipliers. Bookings are
+ * followed through the occupancy rather than BookingDAO: the occupancy
+ * applies a change on its own thread a little after the commit, and a quote
+ * computed in between would otherwise be cached with the old occupancy. A
+ * quote computed while the version changed is stored under the old version
+ * and never returned. The day of the quote is part of the key as well,
+ * since the lead time of the demand pricing counts from today.
+ */
+public final class QuoteCache {
+    static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final QuoteCache INSTANCE =
+            new QuoteCache(new QuoteService(), DEFAULT_MAX_ENTRIES, Clock.systemDefaultZone());
+
+    static {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        registry.gauge("cache.quotes.size", INSTANCE::size);
+        registry.gauge("cache.quotes.hits", () -> INSTANCE.getStats().getHits());
+        registry.gauge("cache.quotes.misses", () -> INSTANCE.getStats().getMisses());
+        registry.gauge("cache.quotes.hitRatio", () -> INSTANCE.getStats().getHitRatio());
+    }
+
+    private final QuoteService quoteService;
+    private final Clock clock;
+    private final Map<Key, List<QuoteService.VehicleQuote>> entries;
+    private long pricingVersion;
+
+    private long hits;
+    private long misses;
+    private long hitNanos;
+    private long missNanos;
+
+    QuoteCache(QuoteService quoteService, int maxEntries, Clock clock) {
+        this.quoteService = quoteService;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<Key, List<QuoteService.VehicleQuote>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<QuoteService.VehicleQuote>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        PricingDAO.addChangeListener(ids -> invalidate());
+        VehicleDAO.addChangeListener(ids -> invalidate());
+        quoteService.getOccupancy().addChangeListener(this::invalidate);
+    }
+
+    /**
+     * Shared cache used by the booking dialog
+     */
+    public static QuoteCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Cached {@link QuoteService#quoteAll}
+     * @return unmodifiable list of quotes
+     */
+    public List<QuoteService.VehicleQuote> quoteAll(LocalDate startDate, LocalDate endDate,
+                                                     QuoteService.QuoteOptions options) {
+        long start = System.nanoTime();
+        Key key;
+        synchronized (this) {
+            key = new Key(LocalDate.now(clock), startDate, endDate, options, pricingVersion);
+            List<QuoteService.VehicleQuote> quotes = entries.get(key);
+            if (quotes != null) {
+                hits++;
+                hitNanos += System.nanoTime() - start;
+                return quotes;
+            }
+        }
+
+        List<QuoteService.VehicleQuote> quotes =
+                Collections.unmodifiableList(quoteService.quoteAll(startDate, endDate, options));
+        synchronized (this) {
+            if (key.pricingVersion == pricingVersion) {
+                entries.put(key, quotes);
+            }
+            misses++;
+            missNanos += System.nanoTime() - start;
+        }
+        return quotes;
+    }
+
+    /**
+     * Drop every cached quote
+     */
+    public synchronized void invalidate() {
+        pricingVersion++;
+        entries.clear();
+    }
+
+    public synchronized long getPricingVersion() {
+        return pricingVersion;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, misses, hitNanos, missNanos);
+    }
+
+    /**
+     * Hit and latency counters of the cache since it was created
+     */
+    public static final class Stats {
+        private final long hits;
+        private final long misses;
+        private final long hitNanos;
+        private final long missNanos;
+
+        Stats(long hits, long misses, long hitNanos, long missNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.hitNanos = hitNanos;
+            this.missNanos = missNanos;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Share of lookups answered from the cache, between 0 and 1
+         */
+        public double getHitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : hits / (double) lookups;
+        }
+
+        /**
+         * Average time of a lookup that computed the quotes
+         */
+        public long getAverageMissNanos() {
+            return misses == 0 ? 0 : missNanos / misses;
+        }
+
+        /**
+         * Average time of a lookup answered from the cache
+         */
+        public long getAverageHitNanos() {
+            return hits == 0 ? 0 : hitNanos / hits;
+        }
+
+        /**
+         * Estimated time saved by the hits: what they would have cost at the
+         * average miss latency, minus what they actually took
+         */
+        public long getLatencySavedNanos() {
+            return Math.max(0, hits * getAverageMissNanos() - hitNanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d hits, %d misses (%.1f%% hit ratio), avg miss %.3f ms, avg hit %.3f ms, "
+                            + "saved %.1f ms", hits, misses, getHitRatio() * 100, getAverageMissNanos() / 1e6,
+                    getAverageHitNanos() / 1e6, getLatencySavedNanos() / 1e6);
+        }
+    }
+
+    private static final class Key {
+        private final LocalDate quoteDay;
+        private final LocalDate startDate;
+        private final LocalDate endDate;
+        private final QuoteService.QuoteOptions options;
+        private final long pricingVersion;
+
+        Key(LocalDate quoteDay, LocalDate startDate, LocalDate endDate, QuoteService.QuoteOptions options,
+            long pricingVersion) {
+            this.quoteDay = quoteDay;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.options = options;
+            this.pricingVersion = pricingVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return pricingVersion == other.pricingVersion && quoteDay.equals(other.quoteDay)
+                    && startDate.equals(other.startDate) && endDate.equals(other.endDate)
+                    && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(quoteDay, startDate, endDate, options, pricingVersion);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package backend.service;
+
+import backend.analytics.DemandPricing;
+import backend.analytics.FleetOccupancy;
+import backend.dao.PricingDAO;
+import backend.dao.VehicleDAO;
+import backend.models.Money;
+import backend.models.Pricing;
+import backend.models.Vehicle;
+import backend.models.VehicleSummary;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prices a rental period for the whole fleet at once.
+ *
+ * One call loads the vehicles and the pricing rules with one query each and
+ * takes availability from the in-memory FleetOccupancy. The day multipliers
+ * of the period, including the demand adjustment of DemandPricing, are
+ * computed once per vehicle type, so pricing a vehicle is a few long
+ * operations. Large fleets are priced in parallel.
+ */
+public class QuoteService {
+    // Below this fleet size the fork/join overhead outweighs the parallel speed-up
+    private static final int PARALLEL_THRESHOLD = 2048;
+
+    /**
+     * Options of a fleet quote. Instances are immutable; the with-methods
+     * return modified copies.
+     */
+    public static final class QuoteOptions {
+        public static final QuoteOptions DEFAULT =
+                new QuoteOptions(false, null, false, true, Collections.<LocalDate>emptySet());
+
+        private final boolean includeInsurance;
+        private final Vehicle.VehicleType vehicleType;
+        private final boolean includeUnavailable;
+        private final boolean demandPricing;
+        private final Set<LocalDate> holidays;
+
+        private QuoteOptions(boolean includeInsurance, Vehicle.VehicleType vehicleType, boolean includeUnavailable,
+                             boolean demandPricing, Set<LocalDate> holidays) {
+            this.includeInsurance = includeInsurance;
+            this.vehicleType = vehicleType;
+            this.includeUnavailable = includeUnavailable;
+            this.demandPricing = demandPricing;
+            this.holidays = holidays;
+        }
+
+        /**
+         * Add the insurance charge to the totals
+         */
+        public QuoteOptions withInsurance(boolean includeInsurance) {
+            return new QuoteOptions(includeInsurance, vehicleType, includeUnavailable, demandPricing, holidays);
+        }
+
+        /**
+         * Quote only one vehicle type (null for all types)
+         */
+        public QuoteOptions withVehicleType(Vehicle.VehicleType vehicleType) {
+            return new QuoteOptions(includeInsurance, vehicleType, includeUnavailable, demandPricing, holidays);
+        }
+
+        /**
+         * Also list vehicles that are not available, after the available ones
+         */
+        public QuoteOptions withUnavailable(boolean includeUnavailable) {
+            return new QuoteOptions(includeInsurance, vehicleType, includeUnavailable, demandPricing, holidays);
+        }
+
+        /**
+         * Dates charged with the holiday multiplier
+         */
+        public QuoteOptions withHolidays(Set<LocalDate> holidays) {
+            return new QuoteOptions(includeInsurance, vehicleType, includeUnavailable, demandPricing,
+                    Collections.unmodifiableSet(new HashSet<>(holidays)));
+        }
+
+        /**
+         * Adjust the daily rates to occupancy and lead time (on by default)
+         */
+        public QuoteOptions withDemandPricing(boolean demandPricing) {
+            return new QuoteOptions(includeInsurance, vehicleType, includeUnavailable, demandPricing, holidays);
+        }
+
+        public boolean isIncludeInsurance() {
+            return includeInsurance;
+        }
+
+        public Vehicle.VehicleType getVehicleType() {
+            return vehicleType;
+        }
+
+        public boolean isIncludeUnavailable() {
+            return includeUnavailable;
+        }
+
+        public boolean isDemandPricing() {
+            return demandPricing;
+        }
+
+        public Set<LocalDate> getHolidays() {
+            return holidays;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof QuoteOptions)) {
+                return false;
+            }
+            QuoteOptions other = (QuoteOptions) o;
+            return includeInsurance == other.includeInsurance && vehicleType == other.vehicleType
+                    && includeUnavailable == other.includeUnavailable && demandPricing == other.demandPricing
+                    && holidays.equals(other.holidays);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(includeInsurance, vehicleType, includeUnavailable, demandPricing, holidays);
+        }
+    }
+
+    /**
+     * Price of one vehicle for the quoted period
+     */
+    public static final class VehicleQuote {
+        private final VehicleSummary vehicle;
+        private final boolean available;
+        private final Money rentalCharge;
+        private final Money discount;
+        private final Money insurance;
+        private final Money total;
+
+        VehicleQuote(VehicleSummary vehicle, boolean available, Money rentalCharge, Money discount,
+                     Money insurance) {
+            this.vehicle = vehicle;
+            this.available = available;
+            this.rentalCharge = rentalCharge;
+            this.discount = discount;
+            this.insurance = insurance;
+            this.total = rentalCharge.plus(insurance);
+        }
+
+        public VehicleSummary getVehicle() {
+            return vehicle;
+        }
+
+        /**
+         * Whether the vehicle is in service and not booked during the period
+         */
+        public boolean isAvailable() {
+            return available;
+        }
+
+        /**
+         * Rental charge after the day multipliers and the long-term discount
+         */
+        public Money getRentalCharge() {
+            return rentalCharge;
+        }
+
+        /**
+         * Amount saved by the long-term discount (included in the rental charge)
+         */
+        public Money getDiscount() {
+            return discount;
+        }
+
+        /**
+         * Insurance charge, zero unless requested
+         */
+        public Money getInsurance() {
+            return insurance;
+        }
+
+        public Money getTotal() {
+            return total;
+        }
+    }
+
+    private final VehicleDAO vehicleDAO;
+    private final PricingDAO pricingDAO;
+    private final FleetOccupancy occupancy;
+    private final DemandPricing demandPricing;
+
+    public QuoteService() {
+        this(new VehicleDAO(), new PricingDAO(), FleetOccupancy.getInstance(), DemandPricing.getInstance());
+    }
+
+    public QuoteService(VehicleDAO vehicleDAO, PricingDAO pricingDAO, FleetOccupancy occupancy,
+                        DemandPricing demandPricing) {
+        this.vehicleDAO = vehicleDAO;
+        this.pricingDAO = pricingDAO;
+        this.occupancy = occupancy;
+        this.demandPricing = demandPricing;
+    }
+
+    /**
+     * Occupancy the quotes take availability and demand from
+     */
+    FleetOccupancy getOccupancy() {
+        return occupancy;
+    }
+
+    /**
+     * Number of charged days of a rental (at least one)
+     */
+    public static int rentalDays(LocalDate startDate, LocalDate endDate) {
+        return (int) Math.max(1, ChronoUnit.DAYS.between(startDate, endDate));
+    }
+
+    /**
+     * Price every vehicle of the fleet for a rental period. A vehicle is
+     * available if it is not in maintenance or out of service and no
+     * confirmed, active or completed booking occupies it during the period.
+     * Vehicles of a type without a pricing rule are charged their daily rate
+     * for every day.
+     * <p>
+     * The multipliers, discount and insurance come from the rule of the
+     * vehicle's type, but the rate they apply to is the vehicle's own daily
+     * rate, not the rule's base_daily_rate: one type spans cars of very
+     * different value, and bookings have always been charged per vehicle.
+     * The base rate only prices a type as a whole (Pricing.quoteRate).
+     * @param startDate first day of the rental
+     * @param endDate return day
+     * @param options quote options
+     * @return quotes sorted by availability, then total, then vehicle ID
+     */
+    public List<VehicleQuote> quoteAll(LocalDate startDate, LocalDate endDate, QuoteOptions options) {
+        int days = rentalDays(startDate, endDate);
+        List<VehicleSummary> vehicles = vehicleDAO.getVehicleSummaries();
+        Set<Integer> occupied = occupancy.getOccupiedVehicleIds(startDate, startDate.plusDays(days));
+
+        Map<Vehicle.VehicleType, Pricing> rules = new EnumMap<>(Vehicle.VehicleType.class);
+        Map<Vehicle.VehicleType, Long> dayFactors = new EnumMap<>(Vehicle.VehicleType.class);
+        for (Pricing pricing : pricingDAO.getAllPricing()) {
+            rules.put(pricing.getVehicleType(), pricing);
+            dayFactors.put(pricing.getVehicleType(), options.isDemandPricing()
+                    ? demandPricing.dayFactorBasisPoints(pricing, startDate, days, options.getHolidays())
+                    : pricing.dayFactorBasisPoints(startDate, days, options.getHolidays()));
+        }
+
+        Stream<VehicleSummary> fleet = vehicles.size() >= PARALLEL_THRESHOLD
+                ? vehicles.parallelStream() : vehicles.stream();
+        return fleet
+                .filter(v -> options.getVehicleType() == null || v.getVehicleType() == options.getVehicleType())
+                .map(v -> quote(v, days, occupied, rules.get(v.getVehicleType()), dayFactors.get(v.getVehicleType()),
+                        options.isIncludeInsurance()))
+                .filter(q -> q.isAvailable() || options.isIncludeUnavailable())
+                .sorted(Comparator.comparing(VehicleQuote::isAvailable).reversed()
+                        .thenComparing(VehicleQuote::getTotal)
+                        .thenComparingInt(q -> q.getVehicle().getVehicleId()))
+                .collect(Collectors.toList());
+    }
+
+    private static VehicleQuote quote(VehicleSummary vehicle, int days, Set<Integer> occupied, Pricing pricing,
+                                      Long dayFactor, boolean includeInsurance) {
+        boolean available = vehicle.getStatus() != Vehicle.VehicleStatus.MAINTENANCE
+                && vehicle.getStatus() != Vehicle.VehicleStatus.OUT_OF_SERVICE
+                && !occupied.contains(vehicle.getVehicleId());
+        long dailyRateCents = Money.centsOf(vehicle.getDailyRate(), RoundingMode.HALF_UP);
+        Money undiscounted = Money.ofCents(Math.multiplyExact(dailyRateCents, days));
+        if (pricing == null) {
+            return new VehicleQuote(vehicle, available, undiscounted, Money.ZERO, Money.ZERO);
+        }
+
+        Money rentalCharge = pricing.quoteRange(dailyRateCents, dayFactor, days);
+        Money discount = Money.ZERO;
+        if (pricing.isLongTermRental(days)) {
+            long beforeDiscount = Money.divide(Math.multiplyExact(dailyRateCents, dayFactor), Pricing.BASIS_POINTS,
+                    RoundingMode.HALF_UP);
+            discount = Money.ofCents(beforeDiscount).minus(rentalCharge);
+        }
+        Money insurance = includeInsurance ? pricing.quoteInsurance(days) : Money.ZERO;
+        return new VehicleQuote(vehicle, available, rentalCharge, discount, insurance);
+    }
+}
@@ -0,0 +1,97 @@
+package backend.service;
+
+import backend.dao.RentalHistoryArchive;
+import backend.dao.RentalHistoryDAO;
+import backend.models.RentalHistory;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Moves old months of rental_history from MySQL into the columnar archive.
+ *
+ * A month is archived once it is older than the configured number of hot
+ * months: its rows are written to the month file first and only then deleted
+ * from MySQL. If a run stops between the two steps the next run writes the
+ * same rows again, which replaces them in the file by history ID.
+ */
+public class RentalHistoryArchiver {
+    // Keeps getRecentRentalHistory (last 30 days) entirely in MySQL
+    private static final int MIN_HOT_MONTHS = 2;
+    private static final int DEFAULT_HOT_MONTHS = 12;
+
+    private final RentalHistoryDAO rentalHistoryDAO;
+    private final RentalHistoryArchive archive;
+    private final int hotMonths;
+
+    public RentalHistoryArchiver() {
+        this(DEFAULT_HOT_MONTHS);
+    }
+
+    public RentalHistoryArchiver(int hotMonths) {
+        if (hotMonths < MIN_HOT_MONTHS) {
+            throw new IllegalArgumentException("At least " + MIN_HOT_MONTHS + " months must stay in MySQL");
+        }
+        this.archive = RentalHistoryArchive.getInstance();
+        this.rentalHistoryDAO = new RentalHistoryDAO(archive);
+        this.hotMonths = hotMonths;
+    }
+
+    /**
+     * Archive every month older than the hot months
+     * @return number of rows moved to the archive
+     * @throws SQLException if reading or deleting MySQL rows fails
+     * @throws IOException if writing an archive file fails
+     */
+    public long run() throws SQLException, IOException {
+        LocalDateTime oldest = rentalHistoryDAO.getOldestCreatedAt();
+        YearMonth firstHotMonth = YearMonth.from(LocalDate.now()).minusMonths(hotMonths - 1);
+        if (oldest == null) {
+            return 0;
+        }
+
+        long moved = 0;
+        for (YearMonth month = YearMonth.from(oldest); month.isBefore(firstHotMonth); month = month.plusMonths(1)) {
+            moved += archiveMonth(month);
+        }
+        return moved;
+    }
+
+    /**
+     * Move one month of rows from MySQL to its archive file
+     * @param month month of created_at to archive
+     * @return number of rows moved
+     */
+    public int archiveMonth(YearMonth month) throws SQLException, IOException {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        List<RentalHistory> rows = rentalHistoryDAO.getHotRentalHistoryCreatedBetween(from, to);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        archive.writeMonth(month, rows);
+        int deleted = rentalHistoryDAO.deleteHotRentalHistoryCreatedBetween(from, to);
+        System.out.println("Archived " + rows.size() + " rental history rows of " + month
+                + " (" + deleted + " deleted from MySQL)");
+        return rows.size();
+    }
+
+    /**
+     * Run the archiver once from the command line (e.g. from cron)
+     */
+    public static void main(String[] args) {
+        int hotMonths = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_HOT_MONTHS;
+        try {
+            long moved = new RentalHistoryArchiver(hotMonths).run();
+            System.out.println("Rental history archiving finished: " + moved + " rows archived");
+        } catch (SQLException | IOException e) {
+            System.err.println("Rental history archiving failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
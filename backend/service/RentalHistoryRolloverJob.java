@@ -0,0 +1,201 @@
+package backend.service;
+
+import backend.dao.BookingDAO;
+import backend.dao.BookingSelection;
+import backend.dao.JobCheckpointDAO;
+import backend.dao.RentalHistoryDAO;
+import backend.dao.VehicleDAO;
+import backend.db.UnitOfWork;
+import backend.models.Booking.BookingStatus;
+import backend.models.JobCheckpoint;
+import backend.models.RentalHistory;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nightly rollover job that records finished bookings in rental_history.
+ *
+ * Each run covers the bookings that became completed or cancelled since the
+ * previous run (a window over bookings.updated_at) and copies them with
+ * chunked INSERT ... SELECT statements. The checkpoint is saved in the same
+ * transaction as every chunk, so a crashed run resumes after the last
+ * committed chunk. Confirmed bookings whose end date has passed without a
+ * pickup are recorded as no-shows and cancelled.
+ *
+ * Finished bookings stay in the bookings table: rental_history references
+ * them with ON DELETE CASCADE, so deleting them would delete their history.
+ */
+public class RentalHistoryRolloverJob {
+    public static final String JOB_NAME = "rental_history_rollover";
+
+    private static final int DEFAULT_CHUNK_SIZE = 5000;
+    // Overlap with the previous window so that rows committed late are still picked up
+    private static final Duration WINDOW_OVERLAP = Duration.ofMinutes(5);
+
+    private final BookingDAO bookingDAO;
+    private final RentalHistoryDAO rentalHistoryDAO;
+    private final JobCheckpointDAO checkpointDAO;
+    private final int chunkSize;
+
+    public RentalHistoryRolloverJob() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public RentalHistoryRolloverJob(int chunkSize) {
+        this.bookingDAO = new BookingDAO(new VehicleDAO());
+        this.rentalHistoryDAO = new RentalHistoryDAO();
+        this.checkpointDAO = new JobCheckpointDAO();
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Result of one rollover run
+     */
+    public static class RolloverReport {
+        private final long rowsWritten;
+        private final int chunks;
+        private final long elapsedMillis;
+
+        public RolloverReport(long rowsWritten, int chunks, long elapsedMillis) {
+            this.rowsWritten = rowsWritten;
+            this.chunks = chunks;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRowsWritten() {
+            return rowsWritten;
+        }
+
+        public int getChunks() {
+            return chunks;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? rowsWritten * 1000.0 / elapsedMillis : rowsWritten;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows in %d chunks, %d ms (%.0f rows/s)",
+                    rowsWritten, chunks, elapsedMillis, getRowsPerSecond());
+        }
+    }
+
+    /**
+     * Run the rollover once, resuming an interrupted run if there is one
+     * @return run report
+     * @throws SQLException if a chunk fails (committed chunks are kept)
+     */
+    public RolloverReport run() throws SQLException {
+        long started = System.nanoTime();
+        int chunks = 0;
+        long rows = 0;
+
+        // No-shows first: they are cancelled here and must not be recorded as plain cancellations
+        BookingSelection noShows = BookingSelection.byStatusEndingBefore(BookingStatus.CONFIRMED, LocalDate.now());
+        int afterId = 0;
+        int upperId;
+        while ((upperId = bookingDAO.findChunkUpperBound(noShows, afterId, chunkSize)) > 0) {
+            BookingSelection chunk = noShows.withIdRange(afterId, upperId);
+            rows += UnitOfWork.execute(conn -> {
+                int written = rentalHistoryDAO.createRentalHistoryFromBookings(chunk, RentalHistory.RentalStatus.NO_SHOW, null);
+                bookingDAO.updateStatus(chunk, BookingStatus.CANCELLED);
+                return written;
+            });
+            afterId = upperId;
+            chunks++;
+        }
+
+        JobCheckpoint checkpoint = checkpointDAO.getCheckpoint(JOB_NAME);
+        if (checkpoint == null) {
+            checkpoint = new JobCheckpoint(JOB_NAME, LocalDateTime.of(1970, 1, 2, 0, 0), null);
+        }
+        if (!checkpoint.isWindowOpen()) {
+            checkpoint.setWindowEnd(LocalDateTime.now());
+            checkpoint.setLastKey(0);
+        }
+
+        BookingSelection finished = BookingSelection.byStatusesUpdatedBetween(
+                checkpoint.getWindowStart(), checkpoint.getWindowEnd(),
+                BookingStatus.COMPLETED, BookingStatus.CANCELLED);
+        final JobCheckpoint progress = checkpoint;
+        while ((upperId = bookingDAO.findChunkUpperBound(finished, progress.getLastKey(), chunkSize)) > 0) {
+            BookingSelection chunk = finished.withIdRange(progress.getLastKey(), upperId);
+            int lastKey = upperId;
+            rows += UnitOfWork.execute(conn -> {
+                int written = rentalHistoryDAO.createRentalHistoryFromBookings(chunk);
+                progress.setLastKey(lastKey);
+                progress.setRowsProcessed(progress.getRowsProcessed() + written);
+                UnitOfWork.require(checkpointDAO.saveCheckpoint(progress), "Could not save rollover checkpoint");
+                return written;
+            });
+            chunks++;
+        }
+
+        // Close the window; the next run starts where this one ended
+        progress.setWindowStart(progress.getWindowEnd().minus(WINDOW_OVERLAP));
+        progress.setWindowEnd(null);
+        progress.setLastKey(0);
+        if (!checkpointDAO.saveCheckpoint(progress)) {
+            throw new SQLException("Could not close rollover window");
+        }
+
+        RolloverReport report = new RolloverReport(rows, chunks,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        System.out.println("Rental history rollover: " + report);
+        return report;
+    }
+
+    /**
+     * Schedule the job to run every night at the given local time
+     * @param runAt time of day to run
+     * @return scheduler running the job (shut it down to stop the job)
+     */
+    public ScheduledExecutorService scheduleNightly(LocalTime runAt) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rental-history-rollover");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime firstRun = now.toLocalDate().atTime(runAt);
+        if (!firstRun.isAfter(now)) {
+            firstRun = firstRun.plusDays(1);
+        }
+        long initialDelay = Duration.between(now, firstRun).toMillis();
+
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                run();
+            } catch (SQLException | RuntimeException e) {
+                System.err.println("Error running rental history rollover: " + e.getMessage());
+            }
+        }, initialDelay, TimeUnit.DAYS.toMillis(1), TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    /**
+     * Run the rollover once from the command line (e.g. from cron)
+     */
+    public static void main(String[] args) {
+        int chunkSize = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CHUNK_SIZE;
+        try {
+            new RentalHistoryRolloverJob(chunkSize).run();
+        } catch (SQLException e) {
+            System.err.println("Rental history rollover failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
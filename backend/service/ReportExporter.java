@@ -0,0 +1,188 @@
+package backend.service;
+
+import backend.dao.ExportDAO;
+import backend.dao.ExportDAO.ColumnKind;
+import backend.storage.ColumnarFileWriter;
+import backend.storage.ColumnarFileWriter.ColumnType;
+import backend.storage.CsvChannelWriter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Streams bookings or rental history to a CSV file or to a columnar file
+ * (the format of the rental history archive). Rows flow from a server-side
+ * cursor straight into the file writer, so exports run in constant memory.
+ */
+public class ReportExporter {
+
+    /**
+     * Output formats
+     */
+    public enum Format {
+        CSV, COLUMNAR;
+
+        /**
+         * Pick the format from a file name (".col" selects the columnar format)
+         */
+        public static Format forFile(Path file) {
+            return file.getFileName().toString().toLowerCase().endsWith(".col") ? COLUMNAR : CSV;
+        }
+    }
+
+    /**
+     * Result of one export
+     */
+    public static class ExportReport {
+        private final long rows;
+        private final long bytes;
+        private final long elapsedMillis;
+
+        public ExportReport(long rows, long bytes, long elapsedMillis) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis > 0 ? rows * 1000.0 / elapsedMillis : rows;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d rows, %d bytes in %d ms (%.0f rows/s)",
+                    rows, bytes, elapsedMillis, getRowsPerSecond());
+        }
+    }
+
+    private final ExportDAO exportDAO;
+    private final int fetchSize;
+
+    public ReportExporter() {
+        this(ExportDAO.DEFAULT_FETCH_SIZE);
+    }
+
+    public ReportExporter(int fetchSize) {
+        this.exportDAO = new ExportDAO();
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Export a table
+     * @param table table to export
+     * @param format output format
+     * @param target file to write (replaced if it exists)
+     * @return export statistics
+     * @throws SQLException if reading fails
+     * @throws IOException if writing fails
+     */
+    public ExportReport export(ExportDAO.Table table, Format format, Path target) throws SQLException, IOException {
+        long started = System.nanoTime();
+        long rows = format == Format.CSV ? exportCsv(table, target) : exportColumnar(table, target);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new ExportReport(rows, Files.size(target), elapsedMillis);
+    }
+
+    private long exportCsv(ExportDAO.Table table, Path target) throws SQLException, IOException {
+        String[] names = table.getColumnNames();
+        ColumnKind[] kinds = table.getColumnKinds();
+
+        try (CsvChannelWriter writer = new CsvChannelWriter(target)) {
+            for (String name : names) {
+                writer.field(name);
+            }
+            writer.endRow();
+
+            long rows = exportDAO.export(table, fetchSize, row -> {
+                for (int i = 0; i < kinds.length; i++) {
+                    if (row.isNull(i)) {
+                        writer.field((String) null);
+                        continue;
+                    }
+                    switch (kinds[i]) {
+                        case INT: writer.field(row.getNumber(i)); break;
+                        case DATE: writer.field(LocalDate.ofEpochDay(row.getNumber(i)).toString()); break;
+                        case DECIMAL: writer.decimalField(row.getNumber(i)); break;
+                        case TIMESTAMP:
+                            writer.field(LocalDateTime.ofEpochSecond(row.getNumber(i), 0, ZoneOffset.UTC).toString());
+                            break;
+                        default: writer.field(row.getString(i)); break;
+                    }
+                }
+                writer.endRow();
+            });
+            writer.finish();
+            return rows;
+        }
+    }
+
+    private long exportColumnar(ExportDAO.Table table, Path target) throws SQLException, IOException {
+        String[] names = table.getColumnNames();
+        ColumnKind[] kinds = table.getColumnKinds();
+        ColumnType[] types = new ColumnType[kinds.length];
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+                case STRING: types[i] = ColumnType.STRING; break;
+                case INT:
+                case DATE: types[i] = ColumnType.INT; break;
+                default: types[i] = ColumnType.LONG; break;
+            }
+        }
+
+        try (ColumnarFileWriter writer = new ColumnarFileWriter(target, names, types)) {
+            long rows = exportDAO.export(table, fetchSize, row -> {
+                for (int i = 0; i < types.length; i++) {
+                    if (types[i] == ColumnType.STRING) {
+                        writer.writeString(i, row.getString(i));
+                    } else if (row.isNull(i)) {
+                        writer.writeNull(i);
+                    } else {
+                        writer.writeLong(i, row.getNumber(i));
+                    }
+                }
+                writer.endRow();
+            });
+            writer.finish();
+            return rows;
+        }
+    }
+
+    /**
+     * Export from the command line:
+     * ReportExporter bookings|rental_history &lt;file.csv|file.col&gt; [fetchSize]
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: ReportExporter bookings|rental_history <file.csv|file.col> [fetchSize]");
+            System.exit(2);
+        }
+        ExportDAO.Table table = ExportDAO.Table.valueOf(args[0].toUpperCase());
+        Path target = Paths.get(args[1]);
+        int fetchSize = args.length > 2 ? Integer.parseInt(args[2]) : ExportDAO.DEFAULT_FETCH_SIZE;
+        try {
+            ExportReport report = new ReportExporter(fetchSize).export(table, Format.forFile(target), target);
+            System.out.println("Exported " + table.getTableName() + " to " + target + ": " + report);
+        } catch (SQLException | IOException e) {
+            System.err.println("Export failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package backend.storage;
+
+import backend.storage.ColumnarFileWriter.ColumnType;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Memory-mapped reader for files written by {@link ColumnarFileWriter}.
+ *
+ * Layout: a header (magic, version, row count, column count and one
+ * descriptor per column) followed by the column data. Numeric columns are
+ * fixed-width (1, 2, 4 or 8 bytes per row, stored as value - base) and are
+ * read in place from the mapping; string columns are deflated and decoded on
+ * first access.
+ */
+public class ColumnarFileReader implements AutoCloseable {
+    private final FileChannel channel;
+    private final int rowCount;
+    private final String[] names;
+    private final ColumnType[] types;
+    private final int[] widths;
+    private final boolean[] nullable;
+    private final long[] bases;
+    private final long[] nullCodes;
+    private final ByteBuffer[] data;
+    private final String[][] decodedStrings;
+
+    /**
+     * Open and map a columnar file
+     * @param file file to open
+     * @throws IOException if the file cannot be read or is not a columnar file
+     */
+    public ColumnarFileReader(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ByteBuffer fixed = ByteBuffer.allocate(16);
+            readFully(fixed, 0);
+            fixed.flip();
+            if (fixed.getInt() != ColumnarFileWriter.MAGIC) {
+                throw new IOException("Not a columnar file: " + file);
+            }
+            int version = fixed.getInt();
+            if (version != ColumnarFileWriter.VERSION) {
+                throw new IOException("Unsupported columnar file version " + version + ": " + file);
+            }
+            this.rowCount = fixed.getInt();
+            int columnCount = fixed.getInt();
+
+            names = new String[columnCount];
+            types = new ColumnType[columnCount];
+            widths = new int[columnCount];
+            nullable = new boolean[columnCount];
+            bases = new long[columnCount];
+            nullCodes = new long[columnCount];
+            data = new ByteBuffer[columnCount];
+            decodedStrings = new String[columnCount][];
+
+            // Descriptors are small; map the start of the file to parse them
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 16,
+                    Math.min(channel.size() - 16, 64 * 1024));
+            for (int i = 0; i < columnCount; i++) {
+                byte[] name = new byte[header.getShort()];
+                header.get(name);
+                names[i] = new String(name, StandardCharsets.UTF_8);
+                types[i] = ColumnType.values()[header.get()];
+                widths[i] = header.get();
+                nullable[i] = header.get() != 0;
+                bases[i] = header.getLong();
+                nullCodes[i] = header.getLong();
+                long offset = header.getLong();
+                long length = header.getLong();
+                data[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Number of rows in the file
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Index of a column by name
+     * @param name column name
+     * @return column index
+     * @throws IllegalArgumentException if the column does not exist
+     */
+    public int columnIndex(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column: " + name);
+    }
+
+    /**
+     * Read a numeric value
+     */
+    public long getLong(int column, int row) {
+        return bases[column] + raw(column, row);
+    }
+
+    /**
+     * Read a numeric value as an int
+     */
+    public int getInt(int column, int row) {
+        return (int) getLong(column, row);
+    }
+
+    /**
+     * Check whether a numeric value is null
+     */
+    public boolean isNull(int column, int row) {
+        if (types[column] == ColumnType.STRING) {
+            return getString(column, row) == null;
+        }
+        return nullable[column] && raw(column, row) == nullCodes[column];
+    }
+
+    /**
+     * Read a string value (the whole column is decoded on first access)
+     */
+    public String getString(int column, int row) {
+        return strings(column)[row];
+    }
+
+    private long raw(int column, int row) {
+        ByteBuffer buffer = data[column];
+        switch (widths[column]) {
+            case 1: return buffer.get(row) & 0xFFL;
+            case 2: return buffer.getShort(row * 2) & 0xFFFFL;
+            case 4: return buffer.getInt(row * 4) & 0xFFFFFFFFL;
+            default: return buffer.getLong(row * 8);
+        }
+    }
+
+    private synchronized String[] strings(int column) {
+        String[] decoded = decodedStrings[column];
+        if (decoded == null) {
+            ByteBuffer buffer = data[column].duplicate();
+            byte[] compressed = new byte[buffer.remaining()];
+            buffer.get(compressed);
+            decoded = new String[rowCount];
+            try (DataInputStream in = new DataInputStream(
+                    new InflaterInputStream(new ByteArrayInputStream(compressed)))) {
+                for (int row = 0; row < rowCount; row++) {
+                    int length = in.readInt();
+                    if (length >= 0) {
+                        byte[] bytes = new byte[length];
+                        in.readFully(bytes);
+                        decoded[row] = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Corrupt string column " + names[column], e);
+            }
+            decodedStrings[column] = decoded;
+        }
+        return decoded;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of columnar file");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,394 @@
+package backend.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Streaming writer for columnar files (see {@link ColumnarFileReader} for the layout).
+ *
+ * Rows are appended column by column and each column is spilled to its own
+ * temporary file, so memory use does not depend on the number of rows.
+ * {@link #finish()} narrows every numeric column to the smallest width that
+ * holds (value - min) and deflates the string columns, then atomically moves
+ * the finished file into place.
+ */
+public class ColumnarFileWriter implements AutoCloseable {
+    static final int MAGIC = 0x56524331; // "VRC1"
+    static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Column types supported by the format
+     */
+    public enum ColumnType {
+        INT, LONG, STRING
+    }
+
+    private final Path target;
+    private final String[] names;
+    private final ColumnType[] types;
+    private final Column[] columns;
+    private int rowCount;
+    private boolean finished;
+
+    /**
+     * Create a writer
+     * @param target file to create (replaced if it exists)
+     * @param names column names
+     * @param types column types
+     * @throws IOException if the spill files cannot be created
+     */
+    public ColumnarFileWriter(Path target, String[] names, ColumnType[] types) throws IOException {
+        if (names.length != types.length) {
+            throw new IllegalArgumentException("Column names and types differ in length");
+        }
+        this.target = target;
+        this.names = names.clone();
+        this.types = types.clone();
+        this.columns = new Column[names.length];
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        for (int i = 0; i < columns.length; i++) {
+            Path spill = Files.createTempFile(dir, target.getFileName() + "." + i + ".", ".spill");
+            columns[i] = types[i] == ColumnType.STRING ? new StringColumn(spill) : new NumericColumn(spill);
+        }
+    }
+
+    /**
+     * Append an int value to a column of the current row
+     */
+    public void writeInt(int column, int value) throws IOException {
+        ((NumericColumn) columns[column]).write(value);
+    }
+
+    /**
+     * Append a long value to a column of the current row
+     */
+    public void writeLong(int column, long value) throws IOException {
+        ((NumericColumn) columns[column]).write(value);
+    }
+
+    /**
+     * Append a null to a numeric column of the current row
+     */
+    public void writeNull(int column) throws IOException {
+        if (columns[column] instanceof StringColumn) {
+            ((StringColumn) columns[column]).write(null);
+        } else {
+            ((NumericColumn) columns[column]).writeNull();
+        }
+    }
+
+    /**
+     * Append a string value (may be null) to a column of the current row
+     */
+    public void writeString(int column, String value) throws IOException {
+        ((StringColumn) columns[column]).write(value);
+    }
+
+    /**
+     * Complete the current row
+     */
+    public void endRow() {
+        rowCount++;
+    }
+
+    /**
+     * Number of completed rows
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Write the final file and move it into place
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        for (Column column : columns) {
+            column.closeSpill();
+        }
+
+        // Header: magic, version, rows, columns, then one descriptor per column
+        long headerSize = 16;
+        for (String name : names) {
+            headerSize += 2 + name.getBytes(StandardCharsets.UTF_8).length + 1 + 1 + 1 + 8 + 8 + 8 + 8;
+        }
+
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate((int) headerSize);
+            header.putInt(MAGIC).putInt(VERSION).putInt(rowCount).putInt(columns.length);
+
+            long offset = headerSize;
+            for (int i = 0; i < columns.length; i++) {
+                byte[] name = names[i].getBytes(StandardCharsets.UTF_8);
+                header.putShort((short) name.length).put(name);
+                header.put((byte) types[i].ordinal());
+                long length = columns[i].encodedLength(rowCount);
+                columns[i].putDescriptor(header, offset, length);
+                offset += length;
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            for (Column column : columns) {
+                column.copyEncoded(out, buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+        deleteSpills();
+    }
+
+    /**
+     * Discard spill files (and the output if {@link #finish()} was not called)
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            for (Column column : columns) {
+                column.closeSpill();
+                column.release();
+            }
+            Files.deleteIfExists(target.resolveSibling(target.getFileName() + ".tmp"));
+        }
+        deleteSpills();
+    }
+
+    private void deleteSpills() throws IOException {
+        for (Column column : columns) {
+            Files.deleteIfExists(column.spill);
+        }
+    }
+
+    private abstract static class Column {
+        final Path spill;
+
+        Column(Path spill) {
+            this.spill = spill;
+        }
+
+        abstract void closeSpill() throws IOException;
+
+        abstract long encodedLength(int rows);
+
+        abstract void putDescriptor(ByteBuffer header, long offset, long length);
+
+        abstract void copyEncoded(FileChannel out, ByteBuffer buffer) throws IOException;
+
+        void release() throws IOException {
+        }
+    }
+
+    /**
+     * Numeric column, spilled as raw longs and narrowed with frame-of-reference encoding
+     */
+    private static final class NumericColumn extends Column {
+        private static final long NULL_SPILL = Long.MIN_VALUE;
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private boolean hasNulls;
+        private int width;
+
+        NumericColumn(Path spill) throws IOException {
+            super(spill);
+            this.channel = FileChannel.open(spill, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        }
+
+        void write(long value) throws IOException {
+            if (value == NULL_SPILL) {
+                throw new IllegalArgumentException("Long.MIN_VALUE is reserved");
+            }
+            if (value < min) min = value;
+            if (value > max) max = value;
+            put(value);
+        }
+
+        void writeNull() throws IOException {
+            hasNulls = true;
+            put(NULL_SPILL);
+        }
+
+        private void put(long value) throws IOException {
+            if (buffer.remaining() < 8) {
+                flush();
+            }
+            buffer.putLong(value);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        void closeSpill() throws IOException {
+            if (channel.isOpen()) {
+                flush();
+            }
+        }
+
+        private long base() {
+            return min == Long.MAX_VALUE ? 0 : min;
+        }
+
+        // Nulls are encoded as (max - min + 1), the first value past the data range
+        private long nullCode() {
+            return min == Long.MAX_VALUE ? 0 : max - min + 1;
+        }
+
+        @Override
+        long encodedLength(int rows) {
+            long range = hasNulls ? nullCode() : (min == Long.MAX_VALUE ? 0 : max - min);
+            if (range < 0) {
+                width = 8; // range overflowed a signed long
+            } else if (range <= 0xFFL) {
+                width = 1;
+            } else if (range <= 0xFFFFL) {
+                width = 2;
+            } else if (range <= 0xFFFFFFFFL) {
+                width = 4;
+            } else {
+                width = 8;
+            }
+            return (long) width * rows;
+        }
+
+        @Override
+        void putDescriptor(ByteBuffer header, long offset, long length) {
+            header.put((byte) width).put((byte) (hasNulls ? 1 : 0));
+            header.putLong(base()).putLong(nullCode()).putLong(offset).putLong(length);
+        }
+
+        @Override
+        void copyEncoded(FileChannel out, ByteBuffer outBuffer) throws IOException {
+            long base = base();
+            long nullCode = nullCode();
+            ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+            outBuffer.clear();
+            channel.position(0);
+            long remaining = channel.size();
+            while (remaining > 0) {
+                in.clear();
+                if (in.capacity() > remaining) {
+                    in.limit((int) remaining);
+                }
+                while (in.hasRemaining() && channel.read(in) >= 0) {
+                    // fill the buffer
+                }
+                in.flip();
+                remaining -= in.remaining();
+                while (in.remaining() >= 8) {
+                    long raw = in.getLong();
+                    long encoded = raw == NULL_SPILL ? nullCode : raw - base;
+                    if (outBuffer.remaining() < 8) {
+                        drain(out, outBuffer);
+                    }
+                    switch (width) {
+                        case 1: outBuffer.put((byte) encoded); break;
+                        case 2: outBuffer.putShort((short) encoded); break;
+                        case 4: outBuffer.putInt((int) encoded); break;
+                        default: outBuffer.putLong(encoded); break;
+                    }
+                }
+            }
+            drain(out, outBuffer);
+            release();
+        }
+
+        @Override
+        void release() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * String column, deflated as a stream of (length, UTF-8 bytes) entries; null has length -1
+     */
+    private static final class StringColumn extends Column {
+        private final DataOutputStream out;
+        private long rawLength;
+
+        StringColumn(Path spill) throws IOException {
+            super(spill);
+            OutputStream file = Files.newOutputStream(spill);
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new DeflaterOutputStream(file, new Deflater(Deflater.BEST_SPEED), BUFFER_SIZE), BUFFER_SIZE));
+        }
+
+        void write(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                rawLength += 4;
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            rawLength += 4 + bytes.length;
+        }
+
+        @Override
+        void closeSpill() throws IOException {
+            out.close();
+        }
+
+        @Override
+        long encodedLength(int rows) {
+            try {
+                return Files.size(spill);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read spill size", e);
+            }
+        }
+
+        @Override
+        void putDescriptor(ByteBuffer header, long offset, long length) {
+            header.put((byte) 0).put((byte) 0);
+            header.putLong(rawLength).putLong(0).putLong(offset).putLong(length);
+        }
+
+        @Override
+        void copyEncoded(FileChannel out, ByteBuffer buffer) throws IOException {
+            try (FileChannel in = FileChannel.open(spill, StandardOpenOption.READ)) {
+                long position = 0;
+                long size = in.size();
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+        }
+    }
+
+    private static void drain(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,174 @@
+package backend.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming CSV writer (RFC 4180 quoting, UTF-8) on top of a FileChannel.
+ *
+ * Each row is assembled in a reused StringBuilder and encoded into a direct
+ * buffer that is written to the channel whenever it fills up, so memory use
+ * does not depend on the number of rows. Output goes to a temporary file
+ * that {@link #finish()} moves into place.
+ */
+public class CsvChannelWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder line = new StringBuilder(256);
+    private boolean firstField = true;
+    private long bytesWritten;
+    private boolean finished;
+
+    /**
+     * Create a writer
+     * @param target file to create (replaced if it exists)
+     * @throws IOException if the file cannot be created
+     */
+    public CsvChannelWriter(Path target) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Path dir = target.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Append a text field (null is written as an empty field)
+     */
+    public CsvChannelWriter field(String value) {
+        separate();
+        if (value == null) {
+            return this;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            line.append(value);
+            return this;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+        return this;
+    }
+
+    /**
+     * Append a numeric field
+     */
+    public CsvChannelWriter field(long value) {
+        separate();
+        line.append(value);
+        return this;
+    }
+
+    /**
+     * Append a fixed-point decimal field with two fraction digits
+     * @param cents value in hundredths
+     */
+    public CsvChannelWriter decimalField(long cents) {
+        separate();
+        if (cents < 0) {
+            line.append('-');
+        }
+        long abs = Math.abs(cents);
+        line.append(abs / 100).append('.');
+        long fraction = abs % 100;
+        if (fraction < 10) {
+            line.append('0');
+        }
+        line.append(fraction);
+        return this;
+    }
+
+    /**
+     * Complete the current row
+     * @throws IOException if writing fails
+     */
+    public void endRow() throws IOException {
+        line.append('\n');
+        CharBuffer chars = CharBuffer.wrap(line);
+        while (true) {
+            CoderResult result = encoder.encode(chars, buffer, false);
+            if (result.isOverflow()) {
+                drain();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        line.setLength(0);
+        firstField = true;
+    }
+
+    /**
+     * Bytes written so far (including buffered bytes)
+     */
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Flush and move the file into place
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        drain();
+        channel.force(true);
+        channel.close();
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    /**
+     * Close the writer, discarding the output if {@link #finish()} was not called
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void separate() {
+        if (!firstField) {
+            line.append(',');
+        }
+        firstField = false;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,179 @@
+package backend.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent latency histogram with log-linear buckets, in the style of
+ * HdrHistogram: every power-of-two range of values is split into 32 equal
+ * sub-buckets, so a recorded value is known within about 3%, from 1 ns up
+ * to MAX_VALUE (about 73 minutes). Recording is lock-free and does not
+ * allocate.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 41;
+
+    /**
+     * Largest value kept exactly; larger values are counted as this value
+     */
+    public static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one value (negative values count as 0)
+     */
+    public void record(long value) {
+        long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+        counts.incrementAndGet(indexOf(clamped));
+        count.incrementAndGet();
+        total.addAndGet(clamped);
+        if (clamped > max.get()) {
+            max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Sum of all recorded values
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0.0 : total.get() / (double) n;
+    }
+
+    /**
+     * Value below or at which the given share of the recorded values lie
+     * @param percentile between 0 and 100
+     * @return upper bound of the bucket holding that value (at most the maximum), 0 if empty
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Copy of the current counts. Subtracting an earlier snapshot gives the
+     * distribution of the values recorded in between.
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            n += copy[i];
+        }
+        return new Snapshot(copy, n);
+    }
+
+    /**
+     * Immutable copy of the counts of a histogram
+     */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+
+        private Snapshot(long[] counts, long count) {
+            this.counts = counts;
+            this.count = count;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Values recorded since an earlier snapshot of the same histogram
+         */
+        public Snapshot minus(Snapshot earlier) {
+            long[] difference = new long[BUCKETS];
+            long n = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                difference[i] = Math.max(0, counts[i] - earlier.counts[i]);
+                n += difference[i];
+            }
+            return new Snapshot(difference, n);
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return upper bound of the bucket holding that value, 0 if empty
+         */
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.min(highestValueOf(i), MAX_VALUE);
+                }
+            }
+            return MAX_VALUE;
+        }
+    }
+
+    /**
+     * Clear all recorded values
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.set(0);
+        total.set(0);
+        max.set(0);
+    }
+
+    // Values below 2 * SUB_BUCKETS have a bucket each; above, each power of two has SUB_BUCKETS buckets
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return 2 * SUB_BUCKETS + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValueOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int offset = index - 2 * SUB_BUCKETS;
+        int shift = offset / SUB_BUCKETS + 1;
+        long top = offset % SUB_BUCKETS + SUB_BUCKETS;
+        return ((top + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,155 @@
+package backend.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named application metrics: counters, gauges and timers. Components
+ * register their metrics once (counter() and timer() return the existing
+ * metric of a name) and update them on their hot paths, which is lock-free.
+ * Readers such as the admin System Health tab take snapshots.
+ *
+ * Names are dotted, starting with the component: db.*, ui.*, cache.*,
+ * jvm.*. The JVM heap gauges are registered up front.
+ */
+public final class MetricsRegistry {
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    MetricsRegistry() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        gauge("jvm.heap.usedMB", () -> memory.getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0));
+        gauge("jvm.heap.committedMB", () -> memory.getHeapMemoryUsage().getCommitted() / (1024.0 * 1024.0));
+        gauge("jvm.heap.maxMB", () -> Runtime.getRuntime().maxMemory() / (1024.0 * 1024.0));
+    }
+
+    public static MetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Monotonic count of events
+     */
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long n) {
+            count.add(n);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Value read when a snapshot is taken
+     */
+    @FunctionalInterface
+    public interface Gauge {
+        double getValue();
+    }
+
+    /**
+     * Count and latency distribution of an operation, in nanoseconds
+     */
+    public static final class Timer {
+        private final LatencyHistogram histogram;
+
+        Timer(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        public void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        /**
+         * Run an action and record its time, also when it throws
+         */
+        public void time(Runnable action) {
+            long start = System.nanoTime();
+            try {
+                action.run();
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+
+        public long getCount() {
+            return histogram.getCount();
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    /**
+     * Counter of the given name, created on first use
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Timer of the given name, created on first use
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer(new LatencyHistogram()));
+    }
+
+    /**
+     * Timer of the given name that records into an existing histogram
+     * (returns the registered timer if the name is taken)
+     */
+    public Timer timer(String name, LatencyHistogram histogram) {
+        return timers.computeIfAbsent(name, n -> new Timer(histogram));
+    }
+
+    /**
+     * Register a gauge, replacing any gauge of the same name
+     */
+    public void gauge(String name, Gauge gauge) {
+        gauges.put(name, gauge);
+    }
+
+    public SortedMap<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public SortedMap<String, Timer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    public SortedMap<String, Gauge> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    /**
+     * Current value of a gauge, NaN if it is not registered or fails
+     */
+    public double getGaugeValue(String name) {
+        Gauge gauge = gauges.get(name);
+        if (gauge == null) {
+            return Double.NaN;
+        }
+        try {
+            return gauge.getValue();
+        } catch (RuntimeException e) {
+            return Double.NaN;
+        }
+    }
+}
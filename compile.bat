@@ -18,9 +18,11 @@ if not exist "%MYSQL_JAR%" (
 REM Create classes directory if it doesn't exist
 if not exist "classes" mkdir classes
 
-REM Compile all backend Java files
+REM Compile all backend Java files (every package under backend)
 echo Compiling backend classes...
-javac -cp "%MYSQL_JAR%" -d classes backend/db/*.java backend/models/*.java backend/dao/*.java backend/util/*.java
+set BACKEND_SOURCES=
+for /d %%D in (backend\*) do call set BACKEND_SOURCES=%%BACKEND_SOURCES%% %%D\*.java
+javac -cp "%MYSQL_JAR%" -d classes %BACKEND_SOURCES%
 
 REM Compile all frontend Java files
 echo Compiling frontend classes...
@@ -5,6 +5,16 @@ echo "Compiling Vehicle Rental System..."
 # Set the path to MySQL Connector/J JAR file (updated for version 9.4.0)
 MYSQL_JAR="mysql-connector-j-9.4.0.jar"
 
+# Application JAR and AppCDS archive (AppCDS only archives classes loaded from JAR files)
+APP_JAR="vehiclerental.jar"
+CDS_ARCHIVE="vehiclerental.jsa"
+
+# ./compile.sh --cds also builds the class-data-sharing archive for fast startup
+BUILD_CDS=false
+if [ "$1" == "--cds" ]; then
+    BUILD_CDS=true
+fi
+
 # Check if MySQL JAR exists
 if [ ! -f "$MYSQL_JAR" ]; then
     echo "Error: MySQL Connector/J JAR file not found!"
@@ -18,16 +28,36 @@ mkdir -p classes
 
 # Compile all Java files
 echo "Compiling backend classes..."
-javac -cp "$MYSQL_JAR" -d classes backend/db/*.java backend/models/*.java backend/dao/*.java backend/util/*.java
+javac -cp "$MYSQL_JAR" -d classes backend/*/*.java
 
 echo "Compiling frontend classes..."
 javac -cp "classes:$MYSQL_JAR" -d classes frontend/*.java
 
-if [ $? -eq 0 ]; then
-    echo "Compilation successful!"
-    echo ""
-    echo "To run the application, use: ./run.sh"
-else
+if [ $? -ne 0 ]; then
     echo "Compilation failed!"
     exit 1
 fi
+echo "Compilation successful!"
+
+# Package the classes; an archive built from an older JAR no longer matches it
+jar cf "$APP_JAR" -C classes .
+rm -f "$CDS_ARCHIVE"
+
+if [ "$BUILD_CDS" == true ]; then
+    # Dynamic archives need JDK 13 or newer
+    if java -XX:+PrintFlagsFinal -version 2>/dev/null | grep -q ArchiveClassesAtExit; then
+        echo "Building AppCDS archive (training run through login and dashboards)..."
+        if java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -cp "$APP_JAR:$MYSQL_JAR" frontend.StartupTraining train \
+                && [ -f "$CDS_ARCHIVE" ]; then
+            echo "AppCDS archive written to $CDS_ARCHIVE"
+        else
+            rm -f "$CDS_ARCHIVE"
+            echo "Warning: AppCDS archive was not created; the application will start without it."
+        fi
+    else
+        echo "Warning: this JVM cannot create AppCDS archives (JDK 13 or newer is required)."
+    fi
+fi
+
+echo ""
+echo "To run the application, use: ./run.sh"
@@ -9,6 +9,7 @@ public class AdminDashboard extends JPanel {
     private Main mainApp;
     private Admin currentAdmin;
     private JTabbedPane tabbedPane;
+    private LazyTabs tabs;
 
     private JLabel welcomeLabel;
     private JButton logoutButton;
@@ -23,7 +24,8 @@ public class AdminDashboard extends JPanel {
     private BookingPanel bookingPanel;
     private JPanel userManagementPanel;
     private JPanel pricingPanel;
-    private JPanel reportsPanel;
+    private ReportsPanel reportsPanel;
+    private SystemHealthPanel systemHealthPanel;
 
     public AdminDashboard(Main mainApp) {
         this.mainApp = mainApp;
@@ -59,6 +61,7 @@ public class AdminDashboard extends JPanel {
 
         tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Arial", Font.BOLD, 12));
+        tabs = new LazyTabs(tabbedPane);
 
         // Pass DAOs correctly to panels
         vehiclePanel = new VehiclePanel(vehicleDAO, mainApp);
@@ -67,13 +70,16 @@ public class AdminDashboard extends JPanel {
         bookingPanel = new BookingPanel(vehicleDAO, userDAO, mainApp);  // Pass vehicleDAO & userDAO & mainApp
         userManagementPanel = createUserManagementPanel();
         pricingPanel = createPricingPanel();
-        reportsPanel = createReportsPanel();
-
-        tabbedPane.addTab("Vehicles", vehiclePanel);
-        tabbedPane.addTab("Bookings", bookingPanel);
-        tabbedPane.addTab("Users", userManagementPanel);
-        tabbedPane.addTab("Pricing", pricingPanel);
-        tabbedPane.addTab("Reports", reportsPanel);
+        reportsPanel = new ReportsPanel(rentalHistoryDAO, mainApp);
+        systemHealthPanel = new SystemHealthPanel();
+
+        // Each tab loads its data when it is first shown
+        tabs.addTab("Vehicles", vehiclePanel, vehiclePanel::refresh);
+        tabs.addTab("Bookings", bookingPanel, bookingPanel::refresh);
+        tabs.addTab("Users", userManagementPanel);
+        tabs.addTab("Pricing", pricingPanel);
+        tabs.addTab("Reports", reportsPanel, reportsPanel::refresh);
+        tabs.addTab("System Health", systemHealthPanel);  // Samples the metrics while shown
     }
 
     private void setupLayout() {
@@ -108,13 +114,6 @@ public class AdminDashboard extends JPanel {
         return panel;
     }
 
-    private JPanel createReportsPanel() {
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.add(new JLabel("Reports Panel - Under Construction"), BorderLayout.CENTER);
-        panel.setBackground(new Color(240, 248, 255));
-        return panel;
-    }
-
     public void setCurrentAdmin(Admin admin) {
         this.currentAdmin = admin;
         welcomeLabel.setText("Welcome, " + admin.getFirstName() + " " + admin.getLastName());
@@ -125,7 +124,6 @@ public class AdminDashboard extends JPanel {
     }
 
     public void refresh() {
-        if (vehiclePanel != null) vehiclePanel.refresh();
-        if (bookingPanel != null) bookingPanel.refresh();
+        tabs.refreshAll();
     }
 }
@@ -2,6 +2,8 @@ package frontend;
 
 import backend.dao.*;
 import backend.models.*;
+import backend.service.QuoteCache;
+import backend.service.QuoteService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -9,7 +11,9 @@ import java.awt.*;
 import java.awt.event.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 public class BookingDialog extends JDialog {
@@ -17,6 +21,7 @@ public class BookingDialog extends JDialog {
     private BookingDAO bookingDAO;
     private VehicleDAO vehicleDAO;
     private UserDAO userDAO;
+    private QuoteCache quoteCache;
     private Main mainApp;
     private boolean bookingAdded = false;
 
@@ -37,6 +42,7 @@ public class BookingDialog extends JDialog {
         this.bookingDAO = bookingDAO;
         this.vehicleDAO = vehicleDAO;
         this.userDAO = userDAO;
+        this.quoteCache = QuoteCache.getInstance();
         this.mainApp = mainApp;
 
         initializeComponents();
@@ -73,7 +79,7 @@ public class BookingDialog extends JDialog {
         statusCombo = new JComboBox<>(Booking.BookingStatus.values());
         paymentStatusCombo = new JComboBox<>(Booking.PaymentStatus.values());
 
-        String[] vehicleColumns = {"ID", "Make", "Model", "Year", "License Plate"};
+        String[] vehicleColumns = {"ID", "Make", "Model", "Year", "License Plate", "Quote"};
         vehicleTableModel = new DefaultTableModel(vehicleColumns, 0) {
             @Override
             public boolean isCellEditable(int row, int col) { return false; }
@@ -131,10 +137,13 @@ public class BookingDialog extends JDialog {
     private void loadVehiclesIntoTable() {
         vehicleTableModel.setRowCount(0);
         try {
-            List<Vehicle> vehicles = vehicleDAO.getAvailableVehicles();
+            List<VehicleSummary> vehicles = vehicleDAO.getAvailableVehicleSummaries();
+            Map<Integer, Money> quotes = quoteVehicles();
             System.out.println("DEBUG: Loading vehicles - found " + vehicles.size() + " vehicles");
-            for (Vehicle v : vehicles) {
-                Object[] row = {v.getVehicleId(), v.getMake(), v.getModel(), v.getYear(), v.getLicensePlate()};
+            for (VehicleSummary v : vehicles) {
+                Money quote = quotes.get(v.getVehicleId());
+                Object[] row = {v.getVehicleId(), v.getMake(), v.getModel(), v.getYear(), v.getLicensePlate(),
+                        quote != null ? quote.toString() : ""};
                 vehicleTableModel.addRow(row);
                 System.out.println("  - Vehicle: " + v.getMake() + " " + v.getModel() + " (ID: " + v.getVehicleId() + ")");
             }
@@ -148,6 +157,36 @@ public class BookingDialog extends JDialog {
         }
     }
 
+    // Price every vehicle for the entered dates in one pass; empty when the dates are not valid
+    private Map<Integer, Money> quoteVehicles() {
+        Map<Integer, Money> quotes = new HashMap<>();
+        LocalDate startDate = getDateFromPicker(startDatePicker);
+        LocalDate endDate = getDateFromPicker(endDatePicker);
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            return quotes;
+        }
+        // The vehicle of an edited booking is occupied by that booking, so unavailable vehicles are quoted too
+        QuoteService.QuoteOptions options = QuoteService.QuoteOptions.DEFAULT.withUnavailable(true);
+        for (QuoteService.VehicleQuote quote : quoteCache.quoteAll(startDate, endDate, options)) {
+            quotes.put(quote.getVehicle().getVehicleId(), quote.getTotal());
+        }
+        return quotes;
+    }
+
+    // Update the quote column after the dates changed
+    private void refreshQuotes() {
+        try {
+            Map<Integer, Money> quotes = quoteVehicles();
+            for (int i = 0; i < vehicleTableModel.getRowCount(); i++) {
+                Money quote = quotes.get((Integer) vehicleTableModel.getValueAt(i, 0));
+                vehicleTableModel.setValueAt(quote != null ? quote.toString() : "", i, 5);
+            }
+        } catch (Exception e) {
+            System.err.println("ERROR quoting vehicles: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     private void selectVehicleInTable(int vehicleId) {
         System.out.println("DEBUG: Selecting vehicle ID: " + vehicleId);
         for (int i = 0; i < vehicleTableModel.getRowCount(); i++) {
@@ -250,15 +289,16 @@ public class BookingDialog extends JDialog {
                 return;
             }
 
-            long days = java.time.temporal.ChronoUnit.DAYS.between(startDate, endDate);
-            if (days == 0) days = 1; // Minimum 1 day
-
-            BigDecimal dailyRate = selectedVehicle.getDailyRate();
-            BigDecimal totalAmount = dailyRate.multiply(BigDecimal.valueOf(days));
+            // Charge the price quoted in the vehicle table, so the total matches what the customer was shown
+            Money totalAmount = quoteVehicles().get(selectedVehicle.getVehicleId());
+            if (totalAmount == null) {
+                mainApp.showErrorMessage("No quote is available for the selected vehicle!");
+                return;
+            }
             totalAmountField.setText(totalAmount.toString());
 
-            System.out.println("DEBUG: Calculated amount - Days: " + days + 
-                ", Daily Rate: " + dailyRate + ", Total: " + totalAmount);
+            System.out.println("DEBUG: Calculated amount - Days: " + QuoteService.rentalDays(startDate, endDate) +
+                ", Total: " + totalAmount);
 
         } catch (Exception e) {
             System.err.println("ERROR calculating amount: " + e.getMessage());
@@ -304,6 +344,7 @@ public class BookingDialog extends JDialog {
         // Auto-calculate when dates change (fires on Enter key press)
         if (startDatePicker != null) {
             startDatePicker.addActionListener(e -> {
+                refreshQuotes();
                 if (selectedVehicle != null && totalAmountField.getText().trim().isEmpty()) {
                     calculateTotalAmount();
                 }
@@ -312,6 +353,7 @@ public class BookingDialog extends JDialog {
 
         if (endDatePicker != null) {
             endDatePicker.addActionListener(e -> {
+                refreshQuotes();
                 if (selectedVehicle != null && totalAmountField.getText().trim().isEmpty()) {
                     calculateTotalAmount();
                 }
@@ -404,7 +446,7 @@ public class BookingDialog extends JDialog {
             User user = (User ) userCombo.getSelectedItem();
             String pickup = pickupLocationField.getText().trim();
             String dropoff = dropoffLocationField.getText().trim();
-            BigDecimal amount = new BigDecimal(totalAmountField.getText().trim());
+            BigDecimal amount = Money.parse(totalAmountField.getText()).toBigDecimal();
             Booking.BookingStatus status = (Booking.BookingStatus) statusCombo.getSelectedItem();
             Booking.PaymentStatus payment = (Booking.PaymentStatus) paymentStatusCombo.getSelectedItem();
 
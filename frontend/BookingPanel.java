@@ -2,10 +2,12 @@ package frontend;
 
 import backend.dao.*;
 import backend.models.*;
+import backend.service.BookingLifecycleService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -16,10 +18,12 @@ public class BookingPanel extends JPanel {
     private BookingDAO bookingDAO;
     private VehicleDAO vehicleDAO;
     private UserDAO userDAO;
+    private BookingLifecycleService lifecycleService;
 
     private JTable bookingTable;
     private DefaultTableModel bookingTableModel;
     private JButton addButton, editButton, deleteButton, refreshButton, confirmButton, cancelButton;
+    private JButton pickUpButton, returnButton;
     private JComboBox<Booking.BookingStatus> statusFilterCombo;
     private JTextField searchField;
 
@@ -28,11 +32,12 @@ public class BookingPanel extends JPanel {
         this.userDAO = userDAO;
         this.mainApp = mainApp;
         this.bookingDAO = new BookingDAO(vehicleDAO);
+        this.lifecycleService = new BookingLifecycleService(bookingDAO, vehicleDAO, new RentalHistoryDAO());
 
         initializeComponents();
         setupLayout();
         setupEventHandlers();
-        loadBookings();
+        // Data is loaded by refresh() when the dashboard shows this tab
     }
 
     private void initializeComponents() {
@@ -53,6 +58,8 @@ public class BookingPanel extends JPanel {
         refreshButton = createStyledButton("Refresh", new Color(105, 105, 105));
         confirmButton = createStyledButton("Confirm", new Color(34, 139, 34));
         cancelButton = createStyledButton("Cancel", new Color(255, 140, 0));
+        pickUpButton = createStyledButton("Pick Up", new Color(70, 130, 180));
+        returnButton = createStyledButton("Return", new Color(105, 105, 105));
 
         statusFilterCombo = new JComboBox<>(Booking.BookingStatus.values());
         statusFilterCombo.insertItemAt(null, 0);
@@ -94,6 +101,8 @@ public class BookingPanel extends JPanel {
         buttonPanel.add(editButton);
         buttonPanel.add(confirmButton);
         buttonPanel.add(cancelButton);
+        buttonPanel.add(pickUpButton);
+        buttonPanel.add(returnButton);
         buttonPanel.add(deleteButton);
 
         topPanel.add(filterPanel, BorderLayout.WEST);
@@ -134,15 +143,19 @@ public class BookingPanel extends JPanel {
 
         refreshButton.addActionListener(e -> loadBookings());
 
-        confirmButton.addActionListener(e -> changeBookingStatus(true));
+        confirmButton.addActionListener(e -> changeBookingStatus(Booking.BookingStatus.CONFIRMED));
+
+        cancelButton.addActionListener(e -> changeBookingStatus(Booking.BookingStatus.CANCELLED));
+
+        pickUpButton.addActionListener(e -> changeBookingStatus(Booking.BookingStatus.ACTIVE));
 
-        cancelButton.addActionListener(e -> changeBookingStatus(false));
+        returnButton.addActionListener(e -> changeBookingStatus(Booking.BookingStatus.COMPLETED));
 
         statusFilterCombo.addActionListener(e -> loadBookings());
         searchField.addActionListener(e -> loadBookings());
     }
 
-    private void changeBookingStatus(boolean confirm) {
+    private void changeBookingStatus(Booking.BookingStatus target) {
         int row = bookingTable.getSelectedRow();
         if (row < 0) {
             mainApp.showErrorMessage("Select a booking first");
@@ -153,39 +166,37 @@ public class BookingPanel extends JPanel {
         Booking booking = bookingDAO.getBookingById(bookingId);
         if (booking == null) return;
 
-        if (confirm && booking.getStatus() == Booking.BookingStatus.PENDING) {
-            if (mainApp.showConfirmDialog("Confirm this booking?")) {
-                if (bookingDAO.confirmBooking(bookingId)) {
-                    mainApp.showSuccessMessage("Booking confirmed!");
-                    loadBookings();
-                } else mainApp.showErrorMessage("Failed to confirm booking");
-            }
-        } else if (!confirm && (booking.getStatus() == Booking.BookingStatus.PENDING ||
-                                booking.getStatus() == Booking.BookingStatus.CONFIRMED)) {
-            if (mainApp.showConfirmDialog("Cancel this booking?")) {
-                if (bookingDAO.cancelBooking(bookingId)) {
-                    mainApp.showSuccessMessage("Booking cancelled!");
-                    loadBookings();
-                } else mainApp.showErrorMessage("Failed to cancel booking");
-            }
-        } else {
+        if (!booking.getStatus().canTransitionTo(target)) {
             mainApp.showErrorMessage("Action not allowed for this booking status");
+            return;
+        }
+
+        String action, result;
+        switch (target) {
+            case CONFIRMED: action = "Confirm this booking?"; result = "Booking confirmed!"; break;
+            case CANCELLED: action = "Cancel this booking?"; result = "Booking cancelled!"; break;
+            case ACTIVE: action = "Hand over the vehicle for this booking?"; result = "Vehicle picked up!"; break;
+            default: action = "Mark this booking as returned?"; result = "Booking completed!"; break;
+        }
+
+        if (mainApp.showConfirmDialog(action)) {
+            if (lifecycleService.transition(bookingId, target, LocalDate.now())) {
+                mainApp.showSuccessMessage(result);
+                loadBookings();
+            } else mainApp.showErrorMessage("Failed to update booking status");
         }
     }
 
     private void loadBookings() {
         bookingTableModel.setRowCount(0);
         try {
-            List<Booking> bookings = bookingDAO.getAllBookings();
+            List<BookingRow> bookings = bookingDAO.getBookingRows();
             String searchTerm = searchField.getText().trim().toLowerCase();
             Booking.BookingStatus statusFilter = (Booking.BookingStatus) statusFilterCombo.getSelectedItem();
 
-            for (Booking b : bookings) {
-                User u = userDAO.getUserById(b.getUserId());
-                Vehicle v = vehicleDAO.getVehicleById(b.getVehicleId());
-
-                String userName = u != null ? u.getFullName() : "Unknown";
-                String vehicleName = v != null ? v.getFullName() : "Unknown";
+            for (BookingRow b : bookings) {
+                String userName = b.getUserName() != null ? b.getUserName() : "Unknown";
+                String vehicleName = b.getVehicleName() != null ? b.getVehicleName() : "Unknown";
 
                 if (!searchTerm.isEmpty()) {
                     if (!userName.toLowerCase().contains(searchTerm)
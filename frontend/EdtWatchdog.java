@@ -0,0 +1,282 @@
+package frontend;
+
+import backend.util.MetricsRegistry;
+
+import java.awt.AWTEvent;
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Watchdog of the Event Dispatch Thread. It replaces the system event queue
+ * with one that times every event; a daemon thread polls the event being
+ * dispatched and, once it has run longer than the threshold (system
+ * property {@value #THRESHOLD_PROPERTY} in milliseconds, default 200,
+ * negative to disable), samples the stack of the EDT until it finishes.
+ *
+ * Stalls are aggregated by handler, the outermost application frame on the
+ * stack (the listener that ran), with the sampled hot spots below it: the
+ * innermost application frame and the method it was in. The report is
+ * printed at exit when there were stalls and is shown on the System Health
+ * tab. While an event shows a modal dialog, the time the dialog waits for
+ * input or runs other events is not counted; the time before and after is.
+ */
+final class EdtWatchdog {
+    static final String THRESHOLD_PROPERTY = "vehiclerental.edt.stallMillis";
+
+    private static final int MAX_SAMPLES_PER_STALL = 100;
+    private static final int MAX_HANDLERS = 200;
+    private static final String UNKNOWN_HANDLER = "(finished before its stack was sampled)";
+
+    private static EdtWatchdog installed;
+
+    private final long thresholdNanos;
+    private final long pollMillis;
+    private final MetricsRegistry.Timer stallTimer = MetricsRegistry.getInstance().timer("ui.edt.stall");
+
+    // Innermost event being dispatched, null while the EDT is idle
+    private volatile Dispatch current;
+    private final Map<String, HandlerStats> handlers = new HashMap<>();
+    private long stallCount;
+    private long stallNanos;
+
+    EdtWatchdog(long thresholdMillis) {
+        this.thresholdNanos = thresholdMillis * 1_000_000;
+        this.pollMillis = Math.max(10, thresholdMillis / 4);
+    }
+
+    /**
+     * Install the watchdog once, unless disabled; call before the first window is shown
+     */
+    static synchronized void install() {
+        long thresholdMillis = Long.getLong(THRESHOLD_PROPERTY, 200L);
+        if (installed != null || thresholdMillis < 0) {
+            return;
+        }
+        EdtWatchdog watchdog = new EdtWatchdog(thresholdMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(watchdog.new MonitoredQueue());
+
+        Thread poller = new Thread(watchdog::poll, "edt-watchdog");
+        poller.setDaemon(true);
+        poller.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (watchdog.getStallCount() > 0) {
+                System.out.println(watchdog.getReport());
+            }
+        }, "edt-watchdog-report"));
+        installed = watchdog;
+        System.out.println("EDT watchdog reports events over " + thresholdMillis + " ms");
+    }
+
+    /**
+     * @return the installed watchdog, or null if it is disabled
+     */
+    static synchronized EdtWatchdog getInstalled() {
+        return installed;
+    }
+
+    /**
+     * One event being dispatched
+     */
+    private static final class Dispatch {
+        final Dispatch parent;
+        final Thread thread;
+        // Time the event started or last resumed running, and the time it ran before
+        volatile long start;
+        volatile long elapsedBefore;
+        // While its nested event loop (modal dialog) waits for or dispatches events
+        volatile boolean paused;
+        final List<StackTraceElement[]> samples = new ArrayList<>();
+
+        Dispatch(Dispatch parent, Thread thread, long start) {
+            this.parent = parent;
+            this.thread = thread;
+            this.start = start;
+        }
+
+        void pause(long now) {
+            if (!paused) {
+                elapsedBefore += now - start;
+                paused = true;
+            }
+        }
+
+        void resume(long now) {
+            start = now;
+            paused = false;
+        }
+
+        /**
+         * Time the event has run, without the time of its nested event loop
+         */
+        long elapsed(long now) {
+            return paused ? elapsedBefore : elapsedBefore + now - start;
+        }
+    }
+
+    /**
+     * Event queue that tells the watchdog when each event starts and ends
+     */
+    private final class MonitoredQueue extends EventQueue {
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            Dispatch dispatch = current;
+            if (dispatch != null) {
+                // Called during a dispatch only by a nested event loop, which waits for input
+                dispatch.pause(System.nanoTime());
+            }
+            return super.getNextEvent();
+        }
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            Dispatch dispatch = new Dispatch(current, Thread.currentThread(), System.nanoTime());
+            current = dispatch;
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                current = dispatch.parent;
+                finished(dispatch, dispatch.elapsed(end));
+                if (dispatch.parent != null) {
+                    // Runs again until its nested loop waits for the next event or ends
+                    dispatch.parent.resume(end);
+                }
+            }
+        }
+    }
+
+    private void poll() {
+        while (true) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            Dispatch dispatch = current;
+            if (dispatch != null && !dispatch.paused && dispatch.elapsed(System.nanoTime()) > thresholdNanos) {
+                StackTraceElement[] stack = dispatch.thread.getStackTrace();
+                synchronized (dispatch.samples) {
+                    if (dispatch.samples.size() < MAX_SAMPLES_PER_STALL) {
+                        dispatch.samples.add(stack);
+                    }
+                }
+            }
+        }
+    }
+
+    private void finished(Dispatch dispatch, long nanos) {
+        if (nanos <= thresholdNanos) {
+            return;
+        }
+        List<StackTraceElement[]> samples;
+        synchronized (dispatch.samples) {
+            samples = new ArrayList<>(dispatch.samples);
+        }
+        String handler = samples.isEmpty() ? UNKNOWN_HANDLER : handlerOf(samples.get(samples.size() - 1));
+        stallTimer.record(nanos);
+
+        synchronized (this) {
+            stallCount++;
+            stallNanos += nanos;
+            HandlerStats stats = handlers.get(handler);
+            if (stats == null) {
+                if (handlers.size() >= MAX_HANDLERS) {
+                    return;
+                }
+                stats = new HandlerStats(handler);
+                handlers.put(handler, stats);
+            }
+            stats.count++;
+            stats.totalNanos += nanos;
+            stats.maxNanos = Math.max(stats.maxNanos, nanos);
+            for (StackTraceElement[] stack : samples) {
+                stats.hotSpots.merge(hotSpotOf(stack), 1, Integer::sum);
+            }
+        }
+    }
+
+    /**
+     * Outermost application frame: the listener or runnable the event ran
+     */
+    static String handlerOf(StackTraceElement[] stack) {
+        for (int i = stack.length - 1; i >= 0; i--) {
+            if (isApplicationFrame(stack[i])) {
+                return format(stack[i]);
+            }
+        }
+        return stack.length > 0 ? format(stack[0]) : UNKNOWN_HANDLER;
+    }
+
+    /**
+     * Innermost application frame, and the method the EDT was in if that is
+     * in a library (JDBC, Swing, ...)
+     */
+    static String hotSpotOf(StackTraceElement[] stack) {
+        for (int i = 0; i < stack.length; i++) {
+            if (isApplicationFrame(stack[i])) {
+                return i == 0 ? format(stack[i])
+                        : format(stack[i]) + " > " + stack[0].getClassName() + "." + stack[0].getMethodName();
+            }
+        }
+        return stack.length > 0 ? format(stack[0]) : "(empty stack)";
+    }
+
+    // Application code, without the generated classes of lambdas (their names differ between runs)
+    private static boolean isApplicationFrame(StackTraceElement frame) {
+        String className = frame.getClassName();
+        return (className.startsWith("frontend.") || className.startsWith("backend."))
+                && !className.startsWith(EdtWatchdog.class.getName()) && !className.contains("$$Lambda");
+    }
+
+    // Class.method(File.java:line), without the class loader and module of StackTraceElement.toString()
+    private static String format(StackTraceElement frame) {
+        String location = frame.getFileName() == null ? "Unknown Source"
+                : frame.getLineNumber() >= 0 ? frame.getFileName() + ":" + frame.getLineNumber() : frame.getFileName();
+        return frame.getClassName() + "." + frame.getMethodName() + "(" + location + ")";
+    }
+
+    synchronized long getStallCount() {
+        return stallCount;
+    }
+
+    /**
+     * Stalls by handler, most total time first, each with its sampled hot spots
+     */
+    synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("EDT stalls over %d ms: %d, %.1f s in total%n",
+                thresholdNanos / 1_000_000, stallCount, stallNanos / 1e9));
+        if (stallCount == 0) {
+            return report.toString();
+        }
+        report.append(String.format("%7s %10s %10s  %s%n", "count", "total ms", "max ms", "handler / hot spots"));
+        List<HandlerStats> sorted = new ArrayList<>(handlers.values());
+        sorted.sort((a, b) -> Long.compare(b.totalNanos, a.totalNanos));
+        for (HandlerStats stats : sorted) {
+            report.append(String.format("%7d %10.1f %10.1f  %s%n", stats.count, stats.totalNanos / 1e6,
+                    stats.maxNanos / 1e6, stats.handler));
+            List<Map.Entry<String, Integer>> hotSpots = new ArrayList<>(stats.hotSpots.entrySet());
+            hotSpots.sort((a, b) -> b.getValue() - a.getValue());
+            for (Map.Entry<String, Integer> hotSpot : hotSpots) {
+                report.append(String.format("%30d samples  %s%n", hotSpot.getValue(), hotSpot.getKey()));
+            }
+        }
+        return report.toString();
+    }
+
+    private static final class HandlerStats {
+        final String handler;
+        final Map<String, Integer> hotSpots = new HashMap<>();
+        long count;
+        long totalNanos;
+        long maxNanos;
+
+        HandlerStats(String handler) {
+            this.handler = handler;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package frontend;
+
+import backend.util.MetricsRegistry;
+
+import java.awt.Component;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.JTabbedPane;
+
+/**
+ * Loads the data of a dashboard tab only when the tab is shown.
+ * refreshAll() marks every tab stale and reloads the selected one; the
+ * other tabs reload when they are selected. Nothing is loaded before the
+ * first refreshAll(), so building a dashboard runs no queries. Loads are
+ * timed in the {@link MetricsRegistry} as ui.refresh and
+ * ui.refresh.&lt;tab title&gt;.
+ */
+final class LazyTabs {
+    private final JTabbedPane tabbedPane;
+    private final Map<Component, Runnable> loaders = new HashMap<>();
+    private final Set<Component> staleTabs = new HashSet<>();
+    private boolean started = false;
+
+    LazyTabs(JTabbedPane tabbedPane) {
+        this.tabbedPane = tabbedPane;
+        tabbedPane.addChangeListener(e -> loadSelectedTab());
+    }
+
+    /**
+     * Add a tab whose data is loaded by the given action
+     */
+    void addTab(String title, Component tab, Runnable loader) {
+        MetricsRegistry registry = MetricsRegistry.getInstance();
+        MetricsRegistry.Timer all = registry.timer("ui.refresh");
+        MetricsRegistry.Timer timer = registry.timer("ui.refresh." + title.toLowerCase().replace(' ', '_'));
+        loaders.put(tab, () -> {
+            long start = System.nanoTime();
+            try {
+                loader.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                all.record(elapsed);
+                timer.record(elapsed);
+            }
+        });
+        staleTabs.add(tab);
+        tabbedPane.addTab(title, tab);
+    }
+
+    /**
+     * Add a tab without data to load
+     */
+    void addTab(String title, Component tab) {
+        tabbedPane.addTab(title, tab);
+    }
+
+    void refreshAll() {
+        started = true;
+        staleTabs.addAll(loaders.keySet());
+        loadSelectedTab();
+    }
+
+    private void loadSelectedTab() {
+        Component tab = tabbedPane.getSelectedComponent();
+        if (started && tab != null && staleTabs.remove(tab)) {
+            loaders.get(tab).run();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import backend.dao.AdminDAO;
 import backend.dao.UserDAO;
 import backend.models.Admin;
 import backend.models.User;
+import backend.service.PostLoginWarmup;
 import backend.util.ValidationUtils;
 
 import javax.swing.*;
@@ -196,6 +197,7 @@ public class LoginFrame extends JPanel {
                 // User login
                 User user = userDAO.authenticateUser(username, password);
                 if (user != null) {
+                    PostLoginWarmup.start();
                     mainApp.showSuccessMessage("Login successful! Welcome, " + user.getFirstName());
                     mainApp.getUserDashboard().setCurrentUser(user);
                     mainApp.showUserDashboard();
@@ -209,6 +211,7 @@ public class LoginFrame extends JPanel {
                 // Admin login
                 Admin admin = adminDAO.authenticateAdmin(username, password);
                 if (admin != null) {
+                    PostLoginWarmup.start();
                     mainApp.showSuccessMessage("Login successful! Welcome, " + admin.getFirstName());
                     mainApp.getAdminDashboard().setCurrentAdmin(admin);
                     mainApp.showAdminDashboard();
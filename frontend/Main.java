@@ -1,16 +1,20 @@
 package frontend;
 
 import java.awt.*;
+import java.lang.management.ManagementFactory;
 import javax.swing.*;
 
 /**
  * Main application entry point for Vehicle Rental System
  */
 public class Main extends JFrame {
+    // Time from the start of main() until the login screen was first painted (-1 until then)
+    private static volatile long timeToLoginMillis = -1;
+
     private JPanel mainPanel;
     private CardLayout cardLayout;
     
-    // Panels
+    // Panels (the dashboards are built on first use)
     private LoginFrame loginFrame;
     private RegisterFrame registerFrame;
     private AdminDashboard adminDashboard;
@@ -34,14 +38,10 @@ public class Main extends JFrame {
         // Initialize panels
         loginFrame = new LoginFrame(this);
         registerFrame = new RegisterFrame(this);
-        adminDashboard = new AdminDashboard(this);
-        userDashboard = new UserDashboard(this);
         
         // Add panels to main panel
         mainPanel.add(loginFrame, "LOGIN");
         mainPanel.add(registerFrame, "REGISTER");
-        mainPanel.add(adminDashboard, "ADMIN_DASHBOARD");
-        mainPanel.add(userDashboard, "USER_DASHBOARD");
     }
     
     private void setupLayout() {
@@ -76,39 +76,57 @@ public class Main extends JFrame {
      * Show admin dashboard
      */
     public void showAdminDashboard() {
+        AdminDashboard dashboard = getAdminDashboard();
         cardLayout.show(mainPanel, "ADMIN_DASHBOARD");
-        adminDashboard.refresh();
+        dashboard.refresh();
     }
     
     /**
      * Show user dashboard
      */
     public void showUserDashboard() {
+        UserDashboard dashboard = getUserDashboard();
         cardLayout.show(mainPanel, "USER_DASHBOARD");
-        userDashboard.refresh();
+        dashboard.refresh();
     }
     
     /**
-     * Get user dashboard instance
+     * Get user dashboard instance, building it on first use
      */
     public UserDashboard getUserDashboard() {
+        if (userDashboard == null) {
+            userDashboard = new UserDashboard(this);
+            mainPanel.add(userDashboard, "USER_DASHBOARD");
+        }
         return userDashboard;
     }
     
     /**
-     * Get admin dashboard instance
+     * Get admin dashboard instance, building it on first use
      */
     public AdminDashboard getAdminDashboard() {
+        if (adminDashboard == null) {
+            adminDashboard = new AdminDashboard(this);
+            mainPanel.add(adminDashboard, "ADMIN_DASHBOARD");
+        }
         return adminDashboard;
     }
     
+    /**
+     * Time from application start until the login screen was first painted
+     * @return milliseconds, or -1 if the login screen has not been shown yet
+     */
+    public static long getTimeToLoginMillis() {
+        return timeToLoginMillis;
+    }
+    
     /**
      * Logout and return to login
      */
     public void logout() {
         // Clear any user session data
-        adminDashboard.clearSession();
-        userDashboard.clearSession();
+        if (adminDashboard != null) adminDashboard.clearSession();
+        if (userDashboard != null) userDashboard.clearSession();
         
         // Show login panel
         showLoginPanel();
@@ -118,6 +136,8 @@ public class Main extends JFrame {
      * Main method to start the application
      */
     public static void main(String[] args) {
+        long startNanos = System.nanoTime();
+        
         // Set look and feel - using cross-platform for compatibility
         try {
 UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
@@ -126,12 +146,22 @@ UIManager.setLookAndFeel(UIManager.getCrossPlatformLookAndFeelClassName());
             // Continue with default look and feel
         }
         
+        // Report events that block the EDT
+        EdtWatchdog.install();
+        
         // Create and show the main window
         SwingUtilities.invokeLater(new Runnable() {
             public void run() {
                 try {
                     Main main = new Main();
                     main.setVisible(true);
+                    
+                    // Runs after the events queued by showing the window, including its first paint
+                    SwingUtilities.invokeLater(() -> {
+                        timeToLoginMillis = (System.nanoTime() - startNanos) / 1_000_000;
+                        System.out.println("Login screen ready in " + timeToLoginMillis + " ms (" +
+                                ManagementFactory.getRuntimeMXBean().getUptime() + " ms since JVM start)");
+                    });
                 } catch (Exception e) {
                     JOptionPane.showMessageDialog(null, 
                         "Error starting application: " + e.getMessage(), 
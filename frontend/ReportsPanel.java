@@ -0,0 +1,335 @@
+package frontend;
+
+import backend.analytics.FleetOccupancy;
+import backend.analytics.RentalAnalytics;
+import backend.analytics.RentalHistoryColumns;
+import backend.analytics.RevenueRollup;
+import backend.dao.ExportDAO;
+import backend.dao.RentalHistoryDAO;
+import backend.models.RentalHistory;
+import backend.models.Vehicle;
+import backend.service.ReportExporter;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Reports tab: revenue, utilization and rental duration figures computed by
+ * the in-memory analytics engine. Loading and computing run on a background
+ * worker so the dashboard stays responsive.
+ */
+public class ReportsPanel extends JPanel {
+    private static final int MAX_HISTOGRAM_DAYS = 30;
+    private static final int UTILIZATION_DAYS = 30;
+    private static final int TREND_WEEKS = 12;
+
+    private Main mainApp;
+    private RentalHistoryDAO rentalHistoryDAO;
+
+    private JLabel totalRevenueLabel, quarterRevenueLabel, averageDurationLabel, statusLabel;
+    private JButton refreshButton, exportButton;
+    private DefaultTableModel revenueTableModel, utilizationTableModel, durationTableModel, trendTableModel;
+
+    public ReportsPanel(RentalHistoryDAO rentalHistoryDAO, Main mainApp) {
+        this.rentalHistoryDAO = rentalHistoryDAO;
+        this.mainApp = mainApp;
+
+        initializeComponents();
+        setupLayout();
+        refreshButton.addActionListener(e -> loadReports());
+        exportButton.addActionListener(e -> exportData());
+        // Data is loaded by refresh() when the dashboard shows this tab
+    }
+
+    private void initializeComponents() {
+        totalRevenueLabel = createValueLabel();
+        quarterRevenueLabel = createValueLabel();
+        averageDurationLabel = createValueLabel();
+        statusLabel = new JLabel(" ");
+        statusLabel.setFont(new Font("Arial", Font.ITALIC, 11));
+
+        refreshButton = createStyledButton("Refresh", new Color(105, 105, 105));
+        exportButton = createStyledButton("Export...", new Color(70, 130, 180));
+
+        String[] revenueColumns = new String[RentalHistoryColumns.TYPE_COUNT + 3];
+        revenueColumns[0] = "Month";
+        for (Vehicle.VehicleType type : Vehicle.VehicleType.values()) {
+            revenueColumns[type.ordinal() + 1] = capitalize(type.getValue());
+        }
+        revenueColumns[RentalHistoryColumns.UNKNOWN_TYPE + 1] = "Removed";
+        revenueColumns[revenueColumns.length - 1] = "Total";
+        revenueTableModel = createTableModel(revenueColumns);
+        utilizationTableModel = createTableModel(new String[]{"Vehicle Type", "Fleet Size",
+                "Last " + UTILIZATION_DAYS + " Days", "Next " + UTILIZATION_DAYS + " Days"});
+        durationTableModel = createTableModel(new String[]{"Days", "Rentals", "Share"});
+        trendTableModel = createTableModel(new String[]{"Week Of", "Revenue"});
+    }
+
+    private JButton createStyledButton(String text, Color bgColor) {
+        JButton button = new JButton(text);
+        button.setFont(new Font("Arial", Font.BOLD, 12));
+        button.setPreferredSize(new Dimension(120, 30));
+        button.setBackground(bgColor);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        return button;
+    }
+
+    private JLabel createValueLabel() {
+        JLabel label = new JLabel("-");
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+        label.setForeground(new Color(25, 25, 112));
+        return label;
+    }
+
+    private DefaultTableModel createTableModel(String[] columnNames) {
+        return new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+    }
+
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+        setBackground(new Color(240, 248, 255));
+
+        JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 20, 5));
+        summaryPanel.setBackground(new Color(240, 248, 255));
+        summaryPanel.add(new JLabel("Total Revenue:"));
+        summaryPanel.add(totalRevenueLabel);
+        summaryPanel.add(new JLabel("This Quarter:"));
+        summaryPanel.add(quarterRevenueLabel);
+        summaryPanel.add(new JLabel("Average Rental:"));
+        summaryPanel.add(averageDurationLabel);
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(new Color(240, 248, 255));
+        buttonPanel.add(statusLabel);
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
+
+        JPanel topPanel = new JPanel(new BorderLayout());
+        topPanel.setBackground(new Color(240, 248, 255));
+        topPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        topPanel.add(summaryPanel, BorderLayout.WEST);
+        topPanel.add(buttonPanel, BorderLayout.EAST);
+
+        JPanel bottomPanel = new JPanel(new GridLayout(1, 3, 10, 0));
+        bottomPanel.setBackground(new Color(240, 248, 255));
+        bottomPanel.add(createTablePane(utilizationTableModel, "Fleet Utilization"));
+        bottomPanel.add(createTablePane(durationTableModel, "Rental Duration"));
+        bottomPanel.add(createTablePane(trendTableModel, "Weekly Revenue"));
+
+        JPanel centerPanel = new JPanel(new GridLayout(2, 1, 0, 10));
+        centerPanel.setBackground(new Color(240, 248, 255));
+        centerPanel.add(createTablePane(revenueTableModel, "Revenue by Vehicle Type and Month"));
+        centerPanel.add(bottomPanel);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(centerPanel, BorderLayout.CENTER);
+    }
+
+    private JScrollPane createTablePane(DefaultTableModel model, String title) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(22);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder(title));
+        return scrollPane;
+    }
+
+    /**
+     * Snapshot of all figures shown on the tab, computed off the EDT
+     */
+    private static class ReportData {
+        long totalRevenueCents;
+        long quarterRevenueCents;
+        LocalDate trendStart;
+        long[] weeklyRevenue;
+        double averageDurationDays;
+        RentalAnalytics.MonthlyRevenue revenue;
+        double[] pastUtilization;
+        double[] upcomingUtilization;
+        int[] fleetSizes;
+        long[] durationHistogram;
+        int rowCount;
+        long loadMillis;
+        long queryMillis;
+    }
+
+    private void loadReports() {
+        refreshButton.setEnabled(false);
+        statusLabel.setText("Loading...");
+
+        new SwingWorker<ReportData, Void>() {
+            @Override
+            protected ReportData doInBackground() {
+                long started = System.nanoTime();
+                RentalHistoryColumns columns = rentalHistoryDAO.loadColumns();
+                if (columns == null) {
+                    return null;
+                }
+                long loaded = System.nanoTime();
+
+                RentalAnalytics analytics = new RentalAnalytics(columns);
+                LocalDate today = LocalDate.now();
+                ReportData data = new ReportData();
+                data.totalRevenueCents = analytics.getTotalRevenueCents();
+                data.averageDurationDays = analytics.getAverageDurationDays();
+                data.revenue = analytics.getRevenueByVehicleTypeAndMonth();
+                data.durationHistogram = analytics.getDurationHistogram(MAX_HISTOGRAM_DAYS);
+
+                FleetOccupancy occupancy = FleetOccupancy.getInstance();
+                Vehicle.VehicleType[] types = Vehicle.VehicleType.values();
+                data.fleetSizes = new int[types.length];
+                data.pastUtilization = new double[types.length];
+                data.upcomingUtilization = new double[types.length];
+                for (Vehicle.VehicleType type : types) {
+                    data.fleetSizes[type.ordinal()] = occupancy.getFleetSize(type);
+                    data.pastUtilization[type.ordinal()] =
+                            occupancy.getTypeUtilization(type, today.minusDays(UTILIZATION_DAYS), today);
+                    data.upcomingUtilization[type.ordinal()] =
+                            occupancy.getTypeUtilization(type, today, today.plusDays(UTILIZATION_DAYS));
+                }
+                RevenueRollup rollup = RevenueRollup.getInstance();
+                LocalDate quarterStart = today.withMonth((today.getMonthValue() - 1) / 3 * 3 + 1).withDayOfMonth(1);
+                data.quarterRevenueCents = rollup.getRevenueCents(quarterStart, today.plusDays(1), null,
+                        RentalHistory.RentalStatus.COMPLETED);
+                data.trendStart = today.minusWeeks(TREND_WEEKS - 1);
+                data.weeklyRevenue = rollup.getRevenueSeries(RevenueRollup.Granularity.WEEK, data.trendStart,
+                        today.plusDays(1), null, RentalHistory.RentalStatus.COMPLETED);
+                data.rowCount = analytics.getRowCount();
+                data.loadMillis = (loaded - started) / 1_000_000;
+                data.queryMillis = (System.nanoTime() - loaded) / 1_000_000;
+                return data;
+            }
+
+            @Override
+            protected void done() {
+                refreshButton.setEnabled(true);
+                try {
+                    ReportData data = get();
+                    if (data == null) {
+                        statusLabel.setText(" ");
+                        mainApp.showErrorMessage("Failed to load rental history");
+                        return;
+                    }
+                    showReports(data);
+                } catch (InterruptedException | ExecutionException e) {
+                    statusLabel.setText(" ");
+                    mainApp.showErrorMessage("Failed to compute reports: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void showReports(ReportData data) {
+        totalRevenueLabel.setText(formatCents(data.totalRevenueCents));
+        quarterRevenueLabel.setText(formatCents(data.quarterRevenueCents));
+        averageDurationLabel.setText(String.format("%.1f days", data.averageDurationDays));
+
+        revenueTableModel.setRowCount(0);
+        RentalAnalytics.MonthlyRevenue revenue = data.revenue;
+        for (int month = revenue.getMonthCount() - 1; month >= 0; month--) {
+            long total = revenue.getMonthTotalCents(month);
+            if (total == 0) continue;
+            Object[] row = new Object[revenueTableModel.getColumnCount()];
+            row[0] = revenue.getMonth(month).toString();
+            for (int type = 0; type <= RentalHistoryColumns.UNKNOWN_TYPE; type++) {
+                row[type + 1] = formatCents(revenue.getCents(type, month));
+            }
+            row[row.length - 1] = formatCents(total);
+            revenueTableModel.addRow(row);
+        }
+
+        utilizationTableModel.setRowCount(0);
+        for (Vehicle.VehicleType type : Vehicle.VehicleType.values()) {
+            utilizationTableModel.addRow(new Object[]{
+                    capitalize(type.getValue()),
+                    data.fleetSizes[type.ordinal()],
+                    String.format("%.1f%%", data.pastUtilization[type.ordinal()] * 100),
+                    String.format("%.1f%%", data.upcomingUtilization[type.ordinal()] * 100)
+            });
+        }
+
+        durationTableModel.setRowCount(0);
+        long rentals = 0;
+        for (long count : data.durationHistogram) {
+            rentals += count;
+        }
+        for (int days = 0; days < data.durationHistogram.length; days++) {
+            long count = data.durationHistogram[days];
+            if (count == 0) continue;
+            durationTableModel.addRow(new Object[]{
+                    days == MAX_HISTOGRAM_DAYS ? days + "+" : String.valueOf(days),
+                    count,
+                    String.format("%.1f%%", count * 100.0 / rentals)
+            });
+        }
+
+        trendTableModel.setRowCount(0);
+        LocalDate weekStart = data.trendStart.with(DayOfWeek.MONDAY);
+        for (int week = data.weeklyRevenue.length - 1; week >= 0; week--) {
+            trendTableModel.addRow(new Object[]{
+                    weekStart.plusWeeks(week).toString(),
+                    formatCents(data.weeklyRevenue[week])
+            });
+        }
+
+        statusLabel.setText(data.rowCount + " rentals, loaded in " + data.loadMillis
+                + " ms, computed in " + data.queryMillis + " ms");
+    }
+
+    private void exportData() {
+        String[] options = {"Bookings", "Rental History"};
+        int choice = JOptionPane.showOptionDialog(this, "Which data do you want to export?", "Export",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice < 0) return;
+        ExportDAO.Table table = choice == 0 ? ExportDAO.Table.BOOKINGS : ExportDAO.Table.RENTAL_HISTORY;
+
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + options[choice] + " (.csv or .col)");
+        chooser.setSelectedFile(new File(table.getTableName() + "-" + LocalDate.now() + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File target = chooser.getSelectedFile();
+
+        exportButton.setEnabled(false);
+        statusLabel.setText("Exporting " + options[choice].toLowerCase() + "...");
+        new SwingWorker<ReportExporter.ExportReport, Void>() {
+            @Override
+            protected ReportExporter.ExportReport doInBackground() throws Exception {
+                return new ReportExporter().export(table, ReportExporter.Format.forFile(target.toPath()),
+                        target.toPath());
+            }
+
+            @Override
+            protected void done() {
+                exportButton.setEnabled(true);
+                statusLabel.setText(" ");
+                try {
+                    mainApp.showSuccessMessage("Exported " + get() + " to " + target.getName());
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    mainApp.showErrorMessage("Export failed: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private static String formatCents(long cents) {
+        return String.format("$%,.2f", cents / 100.0);
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    public void refresh() {
+        loadReports();
+    }
+}
@@ -0,0 +1,71 @@
+package frontend;
+
+import backend.dao.BookingDAO;
+import backend.dao.UserDAO;
+import backend.dao.VehicleDAO;
+import backend.util.PasswordUtils;
+
+import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
+import javax.swing.SwingUtilities;
+
+/**
+ * Scripted startup used to build the AppCDS archive (./compile.sh --cds)
+ * and to measure startup time (./run.sh --measure-startup).
+ *
+ * It starts the application like Main, waits for the login screen and, in
+ * training mode, goes through what follows a login: password hashing, both
+ * dashboards with their first tab loaded and the booking dialog. Then it
+ * exits, which is when the JVM writes the archive of the loaded classes.
+ * Without a database the DAO calls fail quietly, but their classes and the
+ * driver's are still loaded.
+ *
+ * Usage: java -cp ... frontend.StartupTraining [train|measure]
+ */
+public final class StartupTraining {
+    private static final long LOGIN_TIMEOUT_MILLIS = 60_000;
+
+    private StartupTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean train = args.length == 0 || args[0].equals("train");
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("A display is required to start the application");
+            System.exit(1);
+        }
+        Main.main(args);
+
+        long deadline = System.currentTimeMillis() + LOGIN_TIMEOUT_MILLIS;
+        while (Main.getTimeToLoginMillis() < 0) {
+            if (System.currentTimeMillis() > deadline) {
+                System.err.println("Login screen did not come up within " + LOGIN_TIMEOUT_MILLIS + " ms");
+                System.exit(1);
+            }
+            Thread.sleep(10);
+        }
+
+        if (train) {
+            SwingUtilities.invokeAndWait(StartupTraining::afterLogin);
+            System.out.println("Training run finished");
+        }
+        System.exit(0);
+    }
+
+    private static void afterLogin() {
+        PasswordUtils.verifyPassword("training", PasswordUtils.createCombinedHash("training"));
+        for (Frame frame : Frame.getFrames()) {
+            if (frame instanceof Main) {
+                Main main = (Main) frame;
+                main.showAdminDashboard();
+                main.showUserDashboard();
+
+                VehicleDAO vehicleDAO = new VehicleDAO();
+                BookingDialog dialog = new BookingDialog(main, "Training", null, new BookingDAO(vehicleDAO),
+                        vehicleDAO, new UserDAO(), main);
+                dialog.dispose();
+                main.logout();
+            }
+        }
+    }
+}
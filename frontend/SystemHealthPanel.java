@@ -0,0 +1,266 @@
+package frontend;
+
+import backend.util.LatencyHistogram;
+import backend.util.MetricsRegistry;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.HierarchyEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * System Health tab: live figures from the {@link MetricsRegistry}, updated
+ * once per second while the tab is showing. The registry is sampled on a
+ * background thread; rates and latency percentiles cover the last interval,
+ * and only the finished figures are handed to the EDT.
+ */
+public class SystemHealthPanel extends JPanel {
+    private static final long INTERVAL_MILLIS = 1000;
+
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+    private JLabel throughputLabel, latencyLabel, poolLabel, cacheLabel, refreshLabel, heapLabel;
+    private DefaultTableModel metricsTableModel;
+    private JButton stallReportButton;
+
+    private ScheduledExecutorService sampler;
+
+    // Previous sample, guarded by collect()
+    private long previousNanos;
+    private final Map<String, Long> previousCounts = new HashMap<>();
+    private final Map<String, LatencyHistogram.Snapshot> previousSnapshots = new HashMap<>();
+
+    public SystemHealthPanel() {
+        initializeComponents();
+        setupLayout();
+        // Sample only while the tab is on screen
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+                if (isShowing()) {
+                    startSampling();
+                } else {
+                    stopSampling();
+                }
+            }
+        });
+    }
+
+    private void initializeComponents() {
+        throughputLabel = createValueLabel();
+        latencyLabel = createValueLabel();
+        poolLabel = createValueLabel();
+        cacheLabel = createValueLabel();
+        refreshLabel = createValueLabel();
+        heapLabel = createValueLabel();
+
+        metricsTableModel = new DefaultTableModel(
+                new String[]{"Metric", "Type", "Value", "Rate /s", "p50 ms", "p99 ms"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+
+        stallReportButton = new JButton("EDT Stall Report");
+        stallReportButton.setFont(new Font("Arial", Font.BOLD, 12));
+        stallReportButton.setBackground(new Color(105, 105, 105));
+        stallReportButton.setForeground(Color.WHITE);
+        stallReportButton.setFocusPainted(false);
+        stallReportButton.addActionListener(e -> showStallReport());
+    }
+
+    private JLabel createValueLabel() {
+        JLabel label = new JLabel("-");
+        label.setFont(new Font("Arial", Font.BOLD, 16));
+        label.setForeground(new Color(25, 25, 112));
+        return label;
+    }
+
+    private void setupLayout() {
+        setLayout(new BorderLayout());
+        setBackground(new Color(240, 248, 255));
+
+        JPanel summaryPanel = new JPanel(new GridLayout(2, 6, 20, 2));
+        summaryPanel.setBackground(new Color(240, 248, 255));
+        summaryPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        for (String title : new String[]{"Statements / s", "Statement p50 / p99", "Connection Pool",
+                "Quote Cache Hits", "Tab Refresh p99", "Heap"}) {
+            summaryPanel.add(new JLabel(title));
+        }
+        summaryPanel.add(throughputLabel);
+        summaryPanel.add(latencyLabel);
+        summaryPanel.add(poolLabel);
+        summaryPanel.add(cacheLabel);
+        summaryPanel.add(refreshLabel);
+        summaryPanel.add(heapLabel);
+
+        JTable table = new JTable(metricsTableModel);
+        table.setFont(new Font("Arial", Font.PLAIN, 12));
+        table.setRowHeight(22);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setBorder(BorderFactory.createTitledBorder("All Metrics"));
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.setBackground(new Color(240, 248, 255));
+        buttonPanel.add(stallReportButton);
+
+        add(summaryPanel, BorderLayout.NORTH);
+        add(scrollPane, BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    private void showStallReport() {
+        EdtWatchdog watchdog = EdtWatchdog.getInstalled();
+        String report = watchdog == null ? "The EDT watchdog is disabled (" + EdtWatchdog.THRESHOLD_PROPERTY
+                + " is negative)." : watchdog.getReport();
+        JTextArea text = new JTextArea(report, 20, 100);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        text.setEditable(false);
+        JOptionPane.showMessageDialog(this, new JScrollPane(text), "EDT Stall Report",
+                JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private void startSampling() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "system-health-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sample, 0, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void stopSampling() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    /**
+     * Figures of one sample, computed off the EDT
+     */
+    private static class HealthData {
+        String throughput;
+        String latency;
+        String pool;
+        String cache;
+        String refresh;
+        String heap;
+        List<Object[]> rows = new ArrayList<>();
+    }
+
+    private void sample() {
+        try {
+            HealthData data = collect();
+            SwingUtilities.invokeLater(() -> show(data));
+        } catch (RuntimeException e) {
+            System.err.println("Error sampling metrics: " + e.getMessage());
+        }
+    }
+
+    private synchronized HealthData collect() {
+        long now = System.nanoTime();
+        double seconds = previousNanos == 0 ? 0 : (now - previousNanos) / 1e9;
+        previousNanos = now;
+
+        HealthData data = new HealthData();
+        Map<String, Double> rates = new HashMap<>();
+        Map<String, LatencyHistogram.Snapshot> intervals = new HashMap<>();
+
+        for (Map.Entry<String, MetricsRegistry.Counter> entry : registry.getCounters().entrySet()) {
+            long count = entry.getValue().getCount();
+            Double rate = rate(entry.getKey(), count, seconds);
+            data.rows.add(new Object[]{entry.getKey(), "counter", count, formatRate(rate), "", ""});
+        }
+        for (Map.Entry<String, MetricsRegistry.Timer> entry : registry.getTimers().entrySet()) {
+            String name = entry.getKey();
+            LatencyHistogram.Snapshot snapshot = entry.getValue().getHistogram().snapshot();
+            LatencyHistogram.Snapshot previous = previousSnapshots.put(name, snapshot);
+            LatencyHistogram.Snapshot interval = previous == null ? snapshot : snapshot.minus(previous);
+            intervals.put(name, interval);
+            Double rate = rate(name, snapshot.getCount(), seconds);
+            rates.put(name, rate);
+            data.rows.add(new Object[]{name, "timer", snapshot.getCount(), formatRate(rate),
+                    formatMillis(interval, 50), formatMillis(interval, 99)});
+        }
+        for (String name : registry.getGauges().keySet()) {
+            data.rows.add(new Object[]{name, "gauge", formatGauge(registry.getGaugeValue(name)), "", "", ""});
+        }
+
+        data.throughput = formatRate(rates.get("db.statements"));
+        LatencyHistogram.Snapshot statements = intervals.get("db.statements");
+        data.latency = formatMillis(statements, 50) + " / " + formatMillis(statements, 99) + " ms";
+        double utilization = registry.getGaugeValue("db.pool.utilization");
+        data.pool = Double.isNaN(utilization) ? "-" : String.format("%.0f / %.0f (%.0f%%)",
+                registry.getGaugeValue("db.pool.borrowed"), registry.getGaugeValue("db.pool.max"),
+                utilization * 100);
+        double hitRatio = registry.getGaugeValue("cache.quotes.hitRatio");
+        data.cache = Double.isNaN(hitRatio) ? "-" : String.format("%.1f%%", hitRatio * 100);
+        data.refresh = formatMillis(intervals.get("ui.refresh"), 99) + " ms";
+        data.heap = String.format("%.0f / %.0f MB", registry.getGaugeValue("jvm.heap.usedMB"),
+                registry.getGaugeValue("jvm.heap.maxMB"));
+        return data;
+    }
+
+    // Events per second since the previous sample, null on the first sample
+    private Double rate(String name, long count, double seconds) {
+        Long previous = previousCounts.put(name, count);
+        if (previous == null || seconds <= 0) {
+            return null;
+        }
+        return (count - previous) / seconds;
+    }
+
+    private static String formatRate(Double rate) {
+        return rate == null ? "-" : String.format("%.1f", rate);
+    }
+
+    private static String formatMillis(LatencyHistogram.Snapshot interval, double percentile) {
+        if (interval == null || interval.getCount() == 0) {
+            return "-";
+        }
+        return String.format("%.2f", interval.getValueAtPercentile(percentile) / 1e6);
+    }
+
+    private static String formatGauge(double value) {
+        if (Double.isNaN(value)) {
+            return "-";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? Long.toString((long) value) : String.format("%.3f", value);
+    }
+
+    private void show(HealthData data) {
+        throughputLabel.setText(data.throughput);
+        latencyLabel.setText(data.latency);
+        poolLabel.setText(data.pool);
+        cacheLabel.setText(data.cache);
+        refreshLabel.setText(data.refresh);
+        heapLabel.setText(data.heap);
+
+        // Update cells in place so the selection and scroll position survive
+        if (metricsTableModel.getRowCount() != data.rows.size()) {
+            metricsTableModel.setRowCount(0);
+            for (Object[] row : data.rows) {
+                metricsTableModel.addRow(row);
+            }
+            return;
+        }
+        for (int r = 0; r < data.rows.size(); r++) {
+            Object[] row = data.rows.get(r);
+            for (int c = 0; c < row.length; c++) {
+                if (!row[c].equals(metricsTableModel.getValueAt(r, c))) {
+                    metricsTableModel.setValueAt(row[c], r, c);
+                }
+            }
+        }
+    }
+}
@@ -12,6 +12,7 @@ public class UserDashboard extends JPanel {
     private Main mainApp;
     private User currentUser;
     private JTabbedPane tabbedPane;
+    private LazyTabs tabs;
     private JLabel welcomeLabel;
     private JButton logoutButton;
 
@@ -55,6 +56,7 @@ public class UserDashboard extends JPanel {
 
         tabbedPane = new JTabbedPane();
         tabbedPane.setFont(new Font("Arial", Font.BOLD, 12));
+        tabs = new LazyTabs(tabbedPane);
 
         // Initialize panels with class fields
         vehiclePanel = new VehiclePanel(vehicleDAO, mainApp);
@@ -65,10 +67,11 @@ public class UserDashboard extends JPanel {
         myBookingsPanel = createMyBookingsPanel();
         profilePanel = createProfilePanel();
 
-        tabbedPane.addTab("Browse Vehicles", vehiclePanel);
-        tabbedPane.addTab("Make Booking", bookingPanel);
-        tabbedPane.addTab("My Bookings", myBookingsPanel);
-        tabbedPane.addTab("My Profile", profilePanel);
+        // Each tab loads its data when it is first shown
+        tabs.addTab("Browse Vehicles", vehiclePanel, vehiclePanel::refresh);
+        tabs.addTab("Make Booking", bookingPanel, bookingPanel::refresh);
+        tabs.addTab("My Bookings", myBookingsPanel);
+        tabs.addTab("My Profile", profilePanel);
     }
 
     private void setupLayout() {
@@ -115,7 +118,6 @@ public class UserDashboard extends JPanel {
     }
 
     public void refresh() {
-        if (vehiclePanel != null) vehiclePanel.refresh();
-        if (bookingPanel != null) bookingPanel.refresh();
+        tabs.refreshAll();
     }
 }
@@ -2,6 +2,7 @@ package frontend;
 
 import backend.dao.VehicleDAO;
 import backend.models.Vehicle;
+import backend.models.VehicleSummary;
 import java.awt.*;
 import java.math.BigDecimal;
 import java.util.List;
@@ -30,7 +31,7 @@ public class VehiclePanel extends JPanel {
         initializeComponents();
         setupLayout();
         setupEventHandlers();
-        loadVehicles();
+        // Data is loaded by refresh() when the dashboard shows this tab
     }
 
     private void initializeComponents() {
@@ -170,13 +171,13 @@ public class VehiclePanel extends JPanel {
         vehicleTableModel.setRowCount(0);
 
         try {
-            List<Vehicle> vehicles = vehicleDAO.getAllVehicles();
+            List<VehicleSummary> vehicles = vehicleDAO.getVehicleSummaries();
 
             String searchTerm = searchField.getText().trim().toLowerCase();
             Vehicle.VehicleType typeFilter = (Vehicle.VehicleType) typeFilterCombo.getSelectedItem();
             Vehicle.VehicleStatus statusFilter = (Vehicle.VehicleStatus) statusFilterCombo.getSelectedItem();
 
-            for (Vehicle vehicle : vehicles) {
+            for (VehicleSummary vehicle : vehicles) {
                 if (!searchTerm.isEmpty()) {
                     if (!vehicle.getMake().toLowerCase().contains(searchTerm) &&
                             !vehicle.getModel().toLowerCase().contains(searchTerm) &&
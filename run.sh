@@ -5,6 +5,10 @@ echo "Starting Vehicle Rental System..."
 # Set the path to MySQL Connector/J JAR file (updated for version 9.4.0)
 MYSQL_JAR="mysql-connector-j-9.4.0.jar"
 
+# Built by ./compile.sh (the archive only with --cds)
+APP_JAR="vehiclerental.jar"
+CDS_ARCHIVE="vehiclerental.jsa"
+
 # Check if MySQL JAR exists
 if [ ! -f "$MYSQL_JAR" ]; then
     echo "Error: MySQL Connector/J JAR file not found!"
@@ -20,6 +24,44 @@ if [ ! -d "classes" ]; then
     exit 1
 fi
 
-# Run the application
+# Average time until the login screen is shown, in ms since JVM start, over a number of launches
+measure_startup() {
+    local runs=$1
+    shift
+    local total=0
+    local measured=0
+    for ((i = 1; i <= runs; i++)); do
+        local ms
+        ms=$(java "$@" -cp "$APP_JAR:$MYSQL_JAR" frontend.StartupTraining measure 2>/dev/null |
+            sed -n 's/.*(\([0-9]*\) ms since JVM start).*/\1/p')
+        [ -n "$ms" ] || { echo "Run $i failed, not counted" >&2; continue; }
+        total=$((total + ms))
+        measured=$((measured + 1))
+    done
+    if [ "$measured" -eq 0 ]; then
+        echo "all runs failed"
+        return 1
+    fi
+    echo "$((total / measured)) ms ($measured of $runs runs)"
+}
+
+# ./run.sh --measure-startup [runs] compares startup with and without the AppCDS archive
+if [ "$1" == "--measure-startup" ]; then
+    RUNS=${2:-5}
+    if [ ! -f "$APP_JAR" ] || [ ! -f "$CDS_ARCHIVE" ]; then
+        echo "Error: AppCDS archive not found. Run ./compile.sh --cds first."
+        exit 1
+    fi
+    echo "Measuring time to login screen over $RUNS launches each..."
+    echo "Without AppCDS archive: $(measure_startup "$RUNS")"
+    echo "With AppCDS archive:    $(measure_startup "$RUNS" -XX:SharedArchiveFile="$CDS_ARCHIVE")"
+    exit 0
+fi
+
+# Run the application, from the AppCDS archive if one was built
 echo "Starting application..."
-java -cp "classes:$MYSQL_JAR" frontend.Main
+if [ -f "$APP_JAR" ] && [ -f "$CDS_ARCHIVE" ]; then
+    java -XX:SharedArchiveFile="$CDS_ARCHIVE" -cp "$APP_JAR:$MYSQL_JAR" frontend.Main
+else
+    java -cp "classes:$MYSQL_JAR" frontend.Main
+fi
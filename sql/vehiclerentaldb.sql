@@ -102,6 +102,16 @@ CREATE TABLE rental_history (
     FOREIGN KEY (vehicle_id) REFERENCES vehicles(vehicle_id) ON DELETE CASCADE
 );
 
+-- Batch job checkpoints (resumable jobs such as the rental history rollover)
+CREATE TABLE job_checkpoints (
+    job_name VARCHAR(50) PRIMARY KEY,
+    window_start TIMESTAMP NULL,
+    window_end TIMESTAMP NULL,
+    last_key INT NOT NULL DEFAULT 0,
+    rows_processed BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
 -- Insert default admin
 INSERT INTO admins (username, email, password_hash, first_name, last_name, role) 
 VALUES ('admin', 'admin@vehiclerental.com', '$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy', 'System', 'Administrator', 'super_admin');
@@ -132,3 +142,5 @@ CREATE INDEX idx_bookings_user_id ON bookings(user_id);
 CREATE INDEX idx_bookings_vehicle_id ON bookings(vehicle_id);
 CREATE INDEX idx_bookings_status ON bookings(status);
 CREATE INDEX idx_bookings_dates ON bookings(start_date, end_date);
+CREATE INDEX idx_bookings_status_updated ON bookings(status, updated_at);
+CREATE INDEX idx_rental_history_created_at ON rental_history(created_at);
@@ -0,0 +1,107 @@
+package tools.bench;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measurement loop shared by the benchmarks: a few warm-up rounds, then
+ * the median time and the median bytes allocated per operation over the
+ * measured rounds. Allocation is read from the HotSpot per-thread
+ * allocation counter, so only the benchmark thread's allocations count.
+ */
+final class Bench {
+    static final int WARMUP_ROUNDS = 5;
+
+    /**
+     * Workloads add their results here so the JIT cannot drop the work
+     */
+    static long sink;
+
+    interface Workload {
+        void run(int operations) throws Exception;
+    }
+
+    /**
+     * Median figures of one benchmark
+     */
+    static final class Result {
+        final String label;
+        final double nanosPerOp;
+        // Negative if the JVM does not count allocated bytes
+        final double bytesPerOp;
+
+        Result(String label, double nanosPerOp, double bytesPerOp) {
+            this.label = label;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        /**
+         * Allocation rate while the benchmark runs, in MB per second
+         */
+        double getAllocationMBPerSecond() {
+            return bytesPerOp < 0 || nanosPerOp == 0 ? -1 : bytesPerOp / nanosPerOp * 1e9 / (1024 * 1024);
+        }
+    }
+
+    private Bench() {
+    }
+
+    /**
+     * Run a workload and print its median ns/op, B/op and allocation rate
+     * @param operations operations per round, passed to the workload
+     */
+    static Result measure(String label, int operations, int rounds, Workload workload) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocation = threads instanceof com.sun.management.ThreadMXBean
+                ? (com.sun.management.ThreadMXBean) threads : null;
+        long threadId = Thread.currentThread().getId();
+
+        double[] nanosPerOp = new double[rounds];
+        double[] bytesPerOp = new double[rounds];
+        for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+            long bytesBefore = allocation != null ? allocation.getThreadAllocatedBytes(threadId) : 0;
+            long start = System.nanoTime();
+            try {
+                workload.run(operations);
+            } catch (Exception e) {
+                throw new IllegalStateException(label + " failed", e);
+            }
+            long elapsed = System.nanoTime() - start;
+            long bytes = allocation != null ? allocation.getThreadAllocatedBytes(threadId) - bytesBefore : -1;
+            if (round >= 0) {
+                nanosPerOp[round] = (double) elapsed / operations;
+                bytesPerOp[round] = (double) bytes / operations;
+            }
+        }
+        Arrays.sort(nanosPerOp);
+        Arrays.sort(bytesPerOp);
+        Result result = new Result(label, nanosPerOp[rounds / 2], allocation != null ? bytesPerOp[rounds / 2] : -1);
+        String allocated = result.bytesPerOp >= 0
+                ? String.format("%10.1f B/op %9.1f MB/s", result.bytesPerOp, result.getAllocationMBPerSecond())
+                : "       n/a";
+        System.out.printf("%-48s %11.2f ns/op %s%n", label, result.nanosPerOp, allocated);
+        return result;
+    }
+
+    /**
+     * Write results as CSV (label, ns/op, B/op, MB/s), to compare runs
+     */
+    static void writeCsv(String file, List<Result> results) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8))) {
+            out.println("benchmark,ns_per_op,bytes_per_op,alloc_mb_per_s");
+            for (Result result : results) {
+                out.println(String.format(Locale.ROOT, "\"%s\",%.3f,%.1f,%.1f", result.label.replace("\"", "\"\""),
+                        result.nanosPerOp, result.bytesPerOp, result.getAllocationMBPerSecond()));
+            }
+        }
+    }
+}
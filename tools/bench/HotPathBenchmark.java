@@ -0,0 +1,329 @@
+package tools.bench;
+
+import backend.dao.BookingRowMapper;
+import backend.dao.PricingDAO;
+import backend.dao.PricingRowMapper;
+import backend.dao.RentalHistoryRowMapper;
+import backend.dao.VehicleRowMapper;
+import backend.models.Booking;
+import backend.models.Pricing;
+import backend.models.RentalHistory;
+import backend.models.Vehicle;
+import backend.util.PasswordUtils;
+import backend.util.ValidationUtils;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Suite of the hot paths that run per row, per quote or per form field:
+ * pricing arithmetic, the ResultSet row mappers, enum parsing, password
+ * hashing and the input validators. Each benchmark reports the median time
+ * and bytes allocated per operation and the allocation rate; --csv writes
+ * the figures to a file so that two builds can be compared.
+ *
+ * No database is needed: the mappers read an in-memory ResultSet and
+ * PricingDAO.calculateTotalCost gets its pricing rule from memory, so its
+ * figure is the cost on top of the query.
+ *
+ * Usage: java -cp classes tools.bench.HotPathBenchmark [--rounds n] [--scale f] [--csv file]
+ *        [pricing] [mappers] [enums] [password] [validation]
+ */
+public final class HotPathBenchmark {
+    private static final List<String> GROUPS = Arrays.asList("pricing", "mappers", "enums", "password", "validation");
+
+    private final int rounds;
+    private final double scale;
+    private final List<Bench.Result> results = new ArrayList<>();
+
+    private HotPathBenchmark(int rounds, double scale) {
+        this.rounds = rounds;
+        this.scale = scale;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rounds = 10;
+        double scale = 1.0;
+        String csv = null;
+        Set<String> groups = new LinkedHashSet<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--rounds": rounds = Integer.parseInt(args[++i]); break;
+                case "--scale": scale = Double.parseDouble(args[++i]); break;
+                case "--csv": csv = args[++i]; break;
+                default:
+                    if (!GROUPS.contains(args[i])) {
+                        System.err.println("Unknown benchmark group: " + args[i] + " (groups: " + GROUPS + ")");
+                        System.exit(1);
+                    }
+                    groups.add(args[i]);
+            }
+        }
+        if (groups.isEmpty()) {
+            groups.addAll(GROUPS);
+        }
+
+        HotPathBenchmark benchmark = new HotPathBenchmark(rounds, scale);
+        System.out.println(rounds + " measured rounds, groups " + groups);
+        if (groups.contains("pricing")) benchmark.pricing();
+        if (groups.contains("mappers")) benchmark.mappers();
+        if (groups.contains("enums")) benchmark.enums();
+        if (groups.contains("password")) benchmark.password();
+        if (groups.contains("validation")) benchmark.validation();
+
+        if (csv != null) {
+            Bench.writeCsv(csv, benchmark.results);
+            System.out.println("Results written to " + csv);
+        }
+        if (Bench.sink == 42) {
+            System.out.println();
+        }
+    }
+
+    private void measure(String label, int operations, Bench.Workload workload) {
+        results.add(Bench.measure(label, operations, rounds, workload));
+    }
+
+    private int scaled(int operations) {
+        return Math.max(1, (int) (operations * scale));
+    }
+
+    private void pricing() {
+        Pricing pricing = new Pricing(Vehicle.VehicleType.SUV, new BigDecimal("64.99"), new BigDecimal("1.20"),
+                new BigDecimal("1.50"), new BigDecimal("0.90"), new BigDecimal("15.00"));
+        // Serves the rule from memory, leaving the arithmetic and the conversions
+        PricingDAO pricingDAO = new PricingDAO() {
+            @Override
+            public Pricing getPricingByVehicleType(Vehicle.VehicleType vehicleType) {
+                return pricing;
+            }
+        };
+
+        measure("Pricing.calculateTotalRate", scaled(1_000_000), n -> {
+            for (int i = 0; i < n; i++) {
+                int days = 1 + i % 21;
+                Bench.sink += pricing.calculateTotalRate(days, (i & 1) == 0, (i & 6) == 0,
+                        pricing.isLongTermRental(days)).scale();
+            }
+        });
+        measure("PricingDAO.calculateTotalCost (rule in memory)", scaled(1_000_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += pricingDAO.calculateTotalCost(Vehicle.VehicleType.SUV, 1 + i % 21, (i & 1) == 0,
+                        (i & 6) == 0, (i & 8) == 0).scale();
+            }
+        });
+    }
+
+    private void mappers() {
+        int rows = scaled(100_000);
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0));
+        Booking.BookingStatus[] bookingStatuses = Booking.BookingStatus.values();
+        Booking.PaymentStatus[] paymentStatuses = Booking.PaymentStatus.values();
+        RentalHistory.RentalStatus[] rentalStatuses = RentalHistory.RentalStatus.values();
+        Vehicle.VehicleType[] types = Vehicle.VehicleType.values();
+
+        InMemoryResultSet vehicles = new InMemoryResultSet(RowMapperBenchmark.COLUMNS,
+                RowMapperBenchmark.generateRows(rows));
+        Object[][] bookingRows = new Object[rows][];
+        Object[][] historyRows = new Object[rows][];
+        Object[][] pricingRows = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            Timestamp start = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(i % 365));
+            Timestamp end = Timestamp.valueOf(start.toLocalDateTime().plusDays(1 + i % 14));
+            bookingRows[i] = new Object[]{
+                    i + 1, 1 + i % 500, 1 + i % 200, start, end, "Airport", "Downtown", new BigDecimal("249.90"),
+                    bookingStatuses[i % bookingStatuses.length].getValue(),
+                    paymentStatuses[i % paymentStatuses.length].getValue(), created, created
+            };
+            historyRows[i] = new Object[]{
+                    i + 1, i + 1, 1 + i % 500, 1 + i % 200, start, end, (i & 3) == 0 ? null : end,
+                    new BigDecimal("249.90"), rentalStatuses[i % rentalStatuses.length].getValue(), null, created
+            };
+            pricingRows[i] = new Object[]{
+                    i + 1, types[i % types.length].getValue(), new BigDecimal("64.99"), new BigDecimal("1.20"),
+                    new BigDecimal("1.50"), new BigDecimal("0.90"), new BigDecimal("15.00"), created, created
+            };
+        }
+        InMemoryResultSet bookings = new InMemoryResultSet(new String[]{
+                "booking_id", "user_id", "vehicle_id", "start_date", "end_date", "pickup_location", "dropoff_location",
+                "total_amount", "status", "payment_status", "created_at", "updated_at"}, bookingRows);
+        InMemoryResultSet history = new InMemoryResultSet(new String[]{
+                "history_id", "booking_id", "user_id", "vehicle_id", "start_date", "end_date", "actual_return_date",
+                "total_amount", "status", "notes", "created_at"}, historyRows);
+        InMemoryResultSet pricing = new InMemoryResultSet(new String[]{
+                "pricing_id", "vehicle_type", "base_daily_rate", "weekend_multiplier", "holiday_multiplier",
+                "long_term_discount", "insurance_daily_rate", "created_at", "updated_at"}, pricingRows);
+
+        // One operation is one row; a round maps the whole result set with a new mapper
+        measure("VehicleRowMapper.map (per row)", rows, n -> {
+            ResultSet rs = vehicles.open();
+            VehicleRowMapper mapper = new VehicleRowMapper(rs);
+            while (rs.next()) {
+                Bench.sink += mapper.map(rs).getVehicleId();
+            }
+        });
+        measure("BookingRowMapper.map (per row)", rows, n -> {
+            ResultSet rs = bookings.open();
+            BookingRowMapper mapper = new BookingRowMapper(rs);
+            while (rs.next()) {
+                Bench.sink += mapper.map(rs).getBookingId();
+            }
+        });
+        measure("RentalHistoryRowMapper.map (per row)", rows, n -> {
+            ResultSet rs = history.open();
+            RentalHistoryRowMapper mapper = new RentalHistoryRowMapper(rs);
+            while (rs.next()) {
+                Bench.sink += mapper.map(rs).getHistoryId();
+            }
+        });
+        measure("PricingRowMapper.map (per row)", rows, n -> {
+            ResultSet rs = pricing.open();
+            PricingRowMapper mapper = new PricingRowMapper(rs);
+            while (rs.next()) {
+                Bench.sink += mapper.map(rs).getPricingId();
+            }
+        });
+    }
+
+    private void enums() {
+        String[] typeValues = values(Vehicle.VehicleType.values(), Vehicle.VehicleType::getValue);
+        String[] typeNames = values(Vehicle.VehicleType.values(), Enum::name);
+        String[] fuelValues = values(Vehicle.FuelType.values(), Vehicle.FuelType::getValue);
+
+        measure("VehicleType.fromString (database values)", scaled(1_000_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += Vehicle.VehicleType.fromString(typeValues[i % typeValues.length]).ordinal();
+            }
+        });
+        measure("VehicleType.fromString (upper case)", scaled(1_000_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += Vehicle.VehicleType.fromString(typeNames[i % typeNames.length]).ordinal();
+            }
+        });
+        measure("FuelType.fromString (database values)", scaled(1_000_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += Vehicle.FuelType.fromString(fuelValues[i % fuelValues.length]).ordinal();
+            }
+        });
+    }
+
+    private interface ValueOf<E> {
+        String get(E constant);
+    }
+
+    private static <E extends Enum<E>> String[] values(E[] constants, ValueOf<E> value) {
+        String[] values = new String[constants.length];
+        for (int i = 0; i < constants.length; i++) {
+            values[i] = value.get(constants[i]);
+        }
+        return values;
+    }
+
+    private void password() {
+        String password = "Rental#2024pass";
+        String salt = PasswordUtils.generateSalt();
+        String combined = PasswordUtils.createCombinedHash(password);
+
+        measure("PasswordUtils.hashPassword(password, salt)", scaled(50_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += PasswordUtils.hashPassword(password, salt).length();
+            }
+        });
+        measure("PasswordUtils.hashPassword(password) (new salt)", scaled(50_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += PasswordUtils.hashPassword(password)[0].length();
+            }
+        });
+        measure("PasswordUtils.verifyPassword (combined hash)", scaled(50_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += PasswordUtils.verifyPassword((i & 1) == 0 ? password : "wrong", combined) ? 1 : 0;
+            }
+        });
+        measure("PasswordUtils.validatePassword", scaled(200_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += PasswordUtils.validatePassword((i & 1) == 0 ? password : "weakpass").isValid() ? 1 : 0;
+            }
+        });
+    }
+
+    private void validation() {
+        // Valid and invalid inputs alternate
+        String[] emails = {"jane.doe@example.com", "not-an-email", " john_smith+rentals@mail.co.uk ", "a@b"};
+        String[] phones = {"+1 (555) 123-4567", "12345", "5551234567", "phone"};
+        String[] plates = {"abc123", "TOO-LONG-PLATE", "XYZ9", ""};
+        String[] licenses = {"D1234567890", "short", "AB12CD34EF56", "lic-123"};
+        String[] usernames = {"jane_doe", "x", "renter2024", "bad name!"};
+        String[] names = {"Jane", "J4ne", "Mary-Anne O'Neil", ""};
+        String[] dates = {"2024-06-15", "2024-13-40", "2025-01-31", "15/06/2024"};
+        String[] amounts = {"249.90", "-5", "1000", "abc"};
+        String[] years = {"2019", "1800", "2024", "20x4"};
+
+        measure("ValidationUtils.isValidEmail", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidEmail(emails[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidPhone", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidPhone(phones[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidLicensePlate", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidLicensePlate(plates[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidLicenseNumber", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidLicenseNumber(licenses[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidUsername", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidUsername(usernames[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidName", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidName(names[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidDate", scaled(200_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidDate(dates[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidDateRange", scaled(200_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidDateRange(dates[i & 3], dates[(i + 2) & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidAge", scaled(200_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidAge(i % 3 == 0 ? "1990-04-12" : "2015-08-01", 21) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidAmount", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidAmount(amounts[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.isValidYear", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.isValidYear(years[i & 3]) ? 1 : 0;
+            }
+        });
+        measure("ValidationUtils.sanitizeString", scaled(500_000), n -> {
+            for (int i = 0; i < n; i++) {
+                Bench.sink += ValidationUtils.sanitizeString(names[i & 3] + " <b>").length();
+            }
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package tools.bench;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Read-only ResultSet over rows held in memory; columns can be read by
+ * index or (case-insensitively) by label, like a JDBC driver. Lets the
+ * benchmarks measure the row mappers without a database.
+ */
+final class InMemoryResultSet implements InvocationHandler {
+    private final Object[][] rows;
+    private final Map<String, Integer> positions = new HashMap<>();
+    private final ResultSetMetaData metaData;
+    private int cursor;
+
+    InMemoryResultSet(String[] labels, Object[][] rows) {
+        this.rows = rows;
+        for (int i = 0; i < labels.length; i++) {
+            positions.put(labels[i], i + 1);
+        }
+        metaData = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount": return labels.length;
+                        case "getColumnLabel":
+                        case "getColumnName": return labels[(Integer) args[0] - 1];
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    ResultSet open() {
+        cursor = -1;
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+        switch (method.getName()) {
+            case "next": return ++cursor < rows.length;
+            case "getMetaData": return metaData;
+            case "close": return null;
+            case "getInt":
+                Object number = value(args[0]);
+                return number == null ? 0 : ((Number) number).intValue();
+            case "getString":
+            case "getBigDecimal":
+            case "getTimestamp":
+                return value(args[0]);
+            case "getDate":
+                Object date = value(args[0]);
+                return date == null ? null : new Date(((Timestamp) date).getTime());
+            default: throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private Object value(Object column) throws SQLException {
+        int position;
+        if (column instanceof Integer) {
+            position = (Integer) column;
+        } else {
+            Integer found = positions.get(column);
+            if (found == null) {
+                found = positions.get(((String) column).toLowerCase(Locale.ROOT));
+            }
+            if (found == null) {
+                throw new SQLException("Column '" + column + "' not found");
+            }
+            position = found;
+        }
+        return rows[cursor][position - 1];
+    }
+}
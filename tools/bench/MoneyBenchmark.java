@@ -0,0 +1,78 @@
+package tools.bench;
+
+import backend.models.Money;
+import backend.models.Pricing;
+import backend.models.Vehicle;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Compares quote computation and amount aggregation on BigDecimal (the
+ * previous Pricing arithmetic) with Money and long cents. Reports the median
+ * latency per operation and the bytes allocated per operation (see Bench).
+ *
+ * Usage: java -cp classes tools.bench.MoneyBenchmark [operations] [rounds]
+ */
+public final class MoneyBenchmark {
+    private MoneyBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int operations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        Pricing pricing = new Pricing(Vehicle.VehicleType.SUV, new BigDecimal("64.99"), new BigDecimal("1.20"),
+                new BigDecimal("1.50"), new BigDecimal("0.90"), new BigDecimal("15.00"));
+        BigDecimal[] amounts = new BigDecimal[1024];
+        long[] amountCents = new long[amounts.length];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = BigDecimal.valueOf(1999 + i * 37L, 2);
+            amountCents[i] = amounts[i].unscaledValue().longValue();
+        }
+
+        System.out.println(operations + " operations per round, " + rounds + " measured rounds");
+        Bench.measure("quote, BigDecimal", operations, rounds, n -> {
+            for (int i = 0; i < n; i++) {
+                BigDecimal quote = quoteBigDecimal(pricing, 1 + i % 21, (i & 1) == 0, (i & 6) == 0)
+                        .setScale(2, RoundingMode.HALF_UP);
+                Bench.sink += quote.unscaledValue().longValue();
+            }
+        });
+        Bench.measure("quote, Money", operations, rounds, n -> {
+            for (int i = 0; i < n; i++) {
+                int days = 1 + i % 21;
+                Money quote = pricing.quoteRate(days, (i & 1) == 0, (i & 6) == 0, pricing.isLongTermRental(days));
+                Bench.sink += quote.getCents();
+            }
+        });
+        Bench.measure("aggregate, BigDecimal", operations, rounds, n -> {
+            BigDecimal total = BigDecimal.ZERO;
+            for (int i = 0; i < n; i++) {
+                total = total.add(amounts[i & 1023]);
+            }
+            Bench.sink += total.unscaledValue().longValue();
+        });
+        Bench.measure("aggregate, long cents", operations, rounds, n -> {
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                total = Math.addExact(total, amountCents[i & 1023]);
+            }
+            Bench.sink += total;
+        });
+    }
+
+    // Pricing.calculateTotalRate as it was before Money
+    private static BigDecimal quoteBigDecimal(Pricing pricing, int days, boolean isWeekend, boolean isHoliday) {
+        BigDecimal dailyRate = pricing.getBaseDailyRate();
+        if (isHoliday) {
+            dailyRate = pricing.getBaseDailyRate().multiply(pricing.getHolidayMultiplier());
+        } else if (isWeekend) {
+            dailyRate = pricing.getBaseDailyRate().multiply(pricing.getWeekendMultiplier());
+        }
+        if (pricing.isLongTermRental(days)) {
+            dailyRate = dailyRate.multiply(pricing.getLongTermDiscount());
+        }
+        return dailyRate.multiply(BigDecimal.valueOf(days));
+    }
+}
@@ -0,0 +1,140 @@
+package tools.bench;
+
+import backend.dao.VehicleRowMapper;
+import backend.models.Vehicle;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Measures how many vehicle rows per second are mapped by the previous
+ * name-based mapping (column lookup by name and enum parsing by scanning
+ * values()) and by VehicleRowMapper (column indexes resolved once per result
+ * set and enum lookup maps).
+ *
+ * The rows come from an in-memory ResultSet, so the numbers isolate the
+ * mapping cost; with a real driver the column lookup by name costs more and
+ * network transfer dominates.
+ *
+ * Usage: java -cp classes tools.bench.RowMapperBenchmark [rows] [rounds]
+ */
+public final class RowMapperBenchmark {
+    static final String[] COLUMNS = {
+            "vehicle_id", "make", "model", "year", "color", "license_plate", "vehicle_type", "fuel_type",
+            "transmission", "seating_capacity", "mileage", "status", "daily_rate", "image_path", "description",
+            "created_at", "updated_at"
+    };
+    private static final int WARMUP_ROUNDS = 5;
+
+    private interface Mapping {
+        Vehicle map(ResultSet rs) throws SQLException;
+    }
+
+    private interface MappingFactory {
+        Mapping create(ResultSet rs) throws SQLException;
+    }
+
+    private RowMapperBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        InMemoryResultSet data = new InMemoryResultSet(COLUMNS, generateRows(rows));
+
+        System.out.println("Mapping " + rows + " vehicle rows, " + rounds + " measured rounds");
+        report("by column name, enum scan   ", run(data, rounds, rs -> RowMapperBenchmark::mapByName), rows);
+        report("by column index, enum lookup", run(data, rounds, rs -> new VehicleRowMapper(rs)::map), rows);
+    }
+
+    private static double[] run(InMemoryResultSet data, int rounds, MappingFactory factory) throws SQLException {
+        double[] seconds = new double[rounds];
+        long checksum = 0;
+        for (int round = -WARMUP_ROUNDS; round < rounds; round++) {
+            ResultSet rs = data.open();
+            long start = System.nanoTime();
+            Mapping mapping = factory.create(rs);
+            while (rs.next()) {
+                Vehicle vehicle = mapping.map(rs);
+                checksum += vehicle.getVehicleId() + vehicle.getStatus().ordinal();
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= 0) {
+                seconds[round] = elapsed / 1e9;
+            }
+        }
+        if (checksum == 42) {
+            System.out.println();
+        }
+        return seconds;
+    }
+
+    private static void report(String label, double[] seconds, int rows) {
+        double[] sorted = seconds.clone();
+        Arrays.sort(sorted);
+        double median = sorted[sorted.length / 2];
+        System.out.printf("%s: median %,12.0f rows/s, best %,12.0f rows/s%n", label, rows / median, rows / sorted[0]);
+    }
+
+    // Mapping as VehicleDAO did it before the row mappers
+    private static Vehicle mapByName(ResultSet rs) throws SQLException {
+        Vehicle v = new Vehicle();
+        v.setVehicleId(rs.getInt("vehicle_id"));
+        v.setMake(rs.getString("make"));
+        v.setModel(rs.getString("model"));
+        v.setYear(rs.getInt("year"));
+        v.setColor(rs.getString("color"));
+        v.setLicensePlate(rs.getString("license_plate"));
+        v.setVehicleType(scan(Vehicle.VehicleType.values(), rs.getString("vehicle_type")));
+        v.setFuelType(scan(Vehicle.FuelType.values(), rs.getString("fuel_type")));
+        v.setTransmission(scan(Vehicle.Transmission.values(), rs.getString("transmission")));
+        v.setSeatingCapacity(rs.getInt("seating_capacity"));
+        v.setMileage(rs.getInt("mileage"));
+        v.setStatus(scan(Vehicle.VehicleStatus.values(), rs.getString("status")));
+        v.setDailyRate(rs.getBigDecimal("daily_rate"));
+        v.setImagePath(rs.getString("image_path"));
+        v.setDescription(rs.getString("description"));
+
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        if (createdAt != null) v.setCreatedAt(createdAt.toLocalDateTime());
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        if (updatedAt != null) v.setUpdatedAt(updatedAt.toLocalDateTime());
+        return v;
+    }
+
+    // The previous fromString: a case-insensitive scan over values() (the
+    // database values of the vehicle enums are their lower-case names)
+    private static <E extends Enum<E>> E scan(E[] values, String value) {
+        for (E e : values) {
+            if (e.name().equalsIgnoreCase(value)) {
+                return e;
+            }
+        }
+        throw new IllegalArgumentException("Invalid value: " + value);
+    }
+
+    static Object[][] generateRows(int count) {
+        Vehicle.VehicleType[] types = Vehicle.VehicleType.values();
+        Vehicle.FuelType[] fuels = Vehicle.FuelType.values();
+        Vehicle.Transmission[] transmissions = Vehicle.Transmission.values();
+        Vehicle.VehicleStatus[] statuses = Vehicle.VehicleStatus.values();
+        Timestamp created = Timestamp.valueOf(LocalDateTime.of(2024, 1, 1, 9, 0));
+        String description = "Well maintained vehicle with air conditioning, bluetooth audio and a full service history.";
+
+        Object[][] rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{
+                    i + 1, "Make" + (i % 20), "Model" + (i % 50), 2015 + i % 10, "Silver", "ABC-" + i,
+                    types[i % types.length].getValue(), fuels[i % fuels.length].getValue(),
+                    transmissions[i % transmissions.length].getValue(), 5, 10_000 + i % 90_000,
+                    statuses[i % statuses.length].getValue(), new BigDecimal("49.99"), null, description,
+                    created, created
+            };
+        }
+        return rows;
+    }
+}
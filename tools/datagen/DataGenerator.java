@@ -0,0 +1,595 @@
+package tools.datagen;
+
+import backend.models.Booking;
+import backend.models.RentalHistory;
+import backend.models.Vehicle;
+import backend.storage.CsvChannelWriter;
+import backend.util.PasswordUtils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Seeded generator of a large test database. It writes vehicles, users,
+ * bookings and rental history as CSV files for LOAD DATA, plus load.sql,
+ * which replaces the rows of those four tables with the files. The same
+ * options (seed and --as-of date included) give the same files.
+ *
+ * The data follows the schema and the application's rules:
+ * - IDs are explicit and every booking and history row refers to an
+ *   existing user, vehicle and booking; users exist before they book.
+ * - Bookings of a vehicle that are not cancelled never overlap; booking IDs
+ *   follow the start date, and each booking is created before it starts.
+ * - Statuses follow the --as-of date: bookings that ended are completed or
+ *   cancelled (with a rental history row, including no-shows), running ones
+ *   are active and their vehicle rented, later ones pending or confirmed.
+ * - Amounts are quoted with the pricing rules of the vehicle type.
+ *
+ * Demand is skewed: popular models make up more of the fleet and each of
+ * their vehicles is asked for more, newer vehicles more than older ones,
+ * convertibles mostly from May to September, and bookings peak in summer,
+ * over the holidays and on Fridays and Saturdays. Five percent of the users
+ * are regulars who rent several times as often as the others.
+ *
+ * All users have the password {@value #PASSWORD}.
+ *
+ * Usage: java -cp classes tools.datagen.DataGenerator [--vehicles n] [--users n] [--bookings n]
+ *        [--years n] [--as-of yyyy-mm-dd] [--seed n] [--out dir]
+ */
+public final class DataGenerator {
+    private static final String NULL = "\\N";
+    private static final String PASSWORD = "password123";
+    // Bookings are made up to this many days ahead of the --as-of date
+    private static final int FUTURE_DAYS = 90;
+    private static final int MAX_RENTAL_DAYS = 30;
+    // Vehicles tried for a booking before the demand is lost
+    private static final int VEHICLE_TRIES = 8;
+    // Users joined during the history and the year before it
+    private static final int USER_LEAD_DAYS = 365;
+    private static final int REGULAR_EVERY = 20;
+
+    private static final byte AVAILABLE = 0;
+    private static final byte MAINTENANCE = 1;
+    private static final byte OUT_OF_SERVICE = 2;
+
+    private final int vehicleCount;
+    private final int userCount;
+    private final long bookingTarget;
+    private final long seed;
+    private final LocalDate asOf;
+    private final Path out;
+
+    // Epoch days: first day of the history, the --as-of day, last day bookings start
+    private final long firstDay;
+    private final long asOfDay;
+    private final long lastDay;
+    private final long userFirstDay;
+    // yyyy-MM-dd of each day from userFirstDay to lastDay + MAX_RENTAL_DAYS + 1
+    private final String[] dates;
+
+    // Vehicles by vehicle_id - 1
+    private final byte[] vehicleModels;
+    private final short[] vehicleYears;
+    private final byte[] vehicleStates;
+    private final double[] cumulativeDemand;
+    // First day each vehicle is free again
+    private final long[] freeFrom;
+    private final int[] rentedDays;
+    private final boolean[] rentedNow;
+
+    private long bookingCount;
+    private long historyCount;
+    private long lostDemand;
+
+    private DataGenerator(int vehicleCount, int userCount, long bookingTarget, int years, LocalDate asOf, long seed,
+                          Path out) {
+        this.vehicleCount = vehicleCount;
+        this.userCount = userCount;
+        this.bookingTarget = bookingTarget;
+        this.seed = seed;
+        this.asOf = asOf;
+        this.out = out;
+        this.asOfDay = asOf.toEpochDay();
+        this.firstDay = asOf.minusYears(years).toEpochDay();
+        this.lastDay = asOfDay + FUTURE_DAYS;
+        this.userFirstDay = firstDay - USER_LEAD_DAYS;
+
+        dates = new String[(int) (lastDay + MAX_RENTAL_DAYS + 2 - userFirstDay)];
+        for (int i = 0; i < dates.length; i++) {
+            dates[i] = LocalDate.ofEpochDay(userFirstDay + i).toString();
+        }
+
+        vehicleModels = new byte[vehicleCount];
+        vehicleYears = new short[vehicleCount];
+        vehicleStates = new byte[vehicleCount];
+        cumulativeDemand = new double[vehicleCount];
+        freeFrom = new long[vehicleCount];
+        rentedDays = new int[vehicleCount];
+        rentedNow = new boolean[vehicleCount];
+        planFleet();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int vehicles = 100_000;
+        int users = 1_000_000;
+        long bookings = 10_000_000;
+        int years = 3;
+        LocalDate asOf = LocalDate.now();
+        long seed = 42;
+        Path out = Paths.get("datagen");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--vehicles": vehicles = Integer.parseInt(args[++i]); break;
+                case "--users": users = Integer.parseInt(args[++i]); break;
+                case "--bookings": bookings = Long.parseLong(args[++i]); break;
+                case "--years": years = Integer.parseInt(args[++i]); break;
+                case "--as-of": asOf = LocalDate.parse(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--out": out = Paths.get(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (vehicles < 1 || users < 1 || bookings < 0 || years < 1) {
+            System.err.println("--vehicles, --users and --years must be positive, --bookings not negative");
+            System.exit(1);
+        }
+
+        System.out.println(String.format("Generating %,d vehicles, %,d users and about %,d bookings from %s to %s "
+                + "(seed %d) into %s", vehicles, users, bookings, asOf.minusYears(years), asOf, seed,
+                out.toAbsolutePath()));
+        long start = System.nanoTime();
+        DataGenerator generator = new DataGenerator(vehicles, users, bookings, years, asOf, seed, out);
+        generator.generate();
+        System.out.println(String.format("Done in %.1f s. Load with: mysql --local-infile=1 -u root -p < %s",
+                (System.nanoTime() - start) / 1e9, out.resolve("load.sql")));
+    }
+
+    private void generate() throws Exception {
+        Files.createDirectories(out);
+        // Users do not depend on the other tables; vehicles are written last, with the state the bookings left
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> users = executor.submit(() -> {
+                writeUsers();
+                return null;
+            });
+            Future<?> bookings = executor.submit(() -> {
+                writeBookings();
+                writeVehicles();
+                return null;
+            });
+            users.get();
+            bookings.get();
+        } finally {
+            executor.shutdown();
+        }
+        writeLoadScript();
+    }
+
+    private void planFleet() {
+        Random random = new Random(seed * 31 + 1);
+        FleetCatalog.Model[] models = FleetCatalog.MODELS;
+        double[] modelShares = new double[models.length];
+        double total = 0;
+        for (int m = 0; m < models.length; m++) {
+            total += models[m].popularity;
+            modelShares[m] = total;
+        }
+        int newestYear = asOf.getYear();
+        double demand = 0;
+        for (int v = 0; v < vehicleCount; v++) {
+            int model = Arrays.binarySearch(modelShares, random.nextDouble() * total);
+            model = model < 0 ? -model - 1 : model;
+            int age = Math.min(9, (int) (-Math.log(1 - random.nextDouble()) * 2.5));
+            double state = random.nextDouble();
+
+            vehicleModels[v] = (byte) model;
+            vehicleYears[v] = (short) (newestYear - age);
+            vehicleStates[v] = state < 0.03 ? MAINTENANCE : state < 0.04 ? OUT_OF_SERVICE : AVAILABLE;
+            freeFrom[v] = Long.MIN_VALUE;
+            demand += Math.pow(models[model].popularity, 0.3) * (1 - 0.05 * age);
+            cumulativeDemand[v] = demand;
+        }
+    }
+
+    /**
+     * Booking demand of a day, before scaling to the number of bookings
+     */
+    private double dayWeight(long day) {
+        LocalDate date = LocalDate.ofEpochDay(day);
+        double weight = 1 + 0.35 * Math.cos(2 * Math.PI * (date.getDayOfYear() - 196) / 365.25);
+        if (isHoliday(date)) {
+            weight *= 1.3;
+        }
+        if (date.getDayOfWeek() == DayOfWeek.FRIDAY || date.getDayOfWeek() == DayOfWeek.SATURDAY) {
+            weight *= 1.15;
+        }
+        if (day > asOfDay) {
+            // Fewer bookings have been made yet the further ahead the day is
+            weight *= 1 - (day - asOfDay) / (double) (FUTURE_DAYS + 1);
+        }
+        return weight;
+    }
+
+    private static boolean isHoliday(LocalDate date) {
+        return date.getMonthValue() == 12 && date.getDayOfMonth() >= 18
+                || date.getMonthValue() == 1 && date.getDayOfMonth() <= 3;
+    }
+
+    private void writeUsers() throws IOException {
+        Random random = new Random(seed * 31 + 2);
+        long start = System.nanoTime();
+        Path file = out.resolve("users.csv");
+        byte[] salt = new byte[16];
+        try (CsvChannelWriter writer = new CsvChannelWriter(file)) {
+            for (int id = 1; id <= userCount; id++) {
+                String first = FleetCatalog.FIRST_NAMES[random.nextInt(FleetCatalog.FIRST_NAMES.length)];
+                String last = FleetCatalog.LAST_NAMES[random.nextInt(FleetCatalog.LAST_NAMES.length)];
+                String username = asciiLetters(first) + "." + asciiLetters(last) + id;
+                random.nextBytes(salt);
+                String saltText = Base64.getEncoder().encodeToString(salt);
+                long joined = userJoinSecond(id);
+                LocalDate birth = LocalDate.ofEpochDay(joined / 86_400).minusYears(21 + random.nextInt(55))
+                        .minusDays(random.nextInt(365));
+                String created = timestamp(joined / 86_400, (int) (joined % 86_400));
+
+                writer.field(id)
+                        .field(username)
+                        .field(username + "@example.com")
+                        .field(PasswordUtils.hashPassword(PASSWORD, saltText) + ":" + saltText)
+                        .field(first)
+                        .field(last)
+                        .field(String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10_000)))
+                        .field((1 + random.nextInt(9999)) + " "
+                                + FleetCatalog.STREETS[random.nextInt(FleetCatalog.STREETS.length)] + ", "
+                                + FleetCatalog.CITIES[random.nextInt(FleetCatalog.CITIES.length)])
+                        .field(String.format("DL%09d", random.nextInt(1_000_000_000)))
+                        .field(birth.toString())
+                        .field(created)
+                        .field(created);
+                writer.endRow();
+            }
+            writer.finish();
+            report("users", userCount, writer.getBytesWritten(), start);
+        }
+    }
+
+    // Lower-case ASCII letters of a name, for user names and e-mail addresses
+    private static String asciiLetters(String name) {
+        StringBuilder letters = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = Character.toLowerCase(name.charAt(i));
+            if (c >= 'a' && c <= 'z') {
+                letters.append(c);
+            }
+        }
+        return letters.toString();
+    }
+
+    /**
+     * Users join at an even pace, in user_id order
+     * @return epoch second the user joined
+     */
+    private long userJoinSecond(int userId) {
+        return userFirstDay * 86_400 + (userId - 1) * ((asOfDay - userFirstDay) * 86_400) / userCount;
+    }
+
+    /**
+     * A user who had joined by the given day; regulars are picked more often
+     */
+    private int pickUser(long day, Random random) {
+        long joined = (day - userFirstDay) * userCount / (asOfDay - userFirstDay) + 1;
+        int eligible = (int) Math.max(1, Math.min(userCount, joined));
+        if (eligible >= REGULAR_EVERY && random.nextDouble() < 0.3) {
+            return REGULAR_EVERY * (1 + random.nextInt(eligible / REGULAR_EVERY));
+        }
+        return 1 + random.nextInt(eligible);
+    }
+
+    /**
+     * A vehicle free from startDay, or -1 if none was found in a few tries
+     */
+    private int pickVehicle(long startDay, long endDay, boolean summer, Random random) {
+        double total = cumulativeDemand[vehicleCount - 1];
+        for (int attempt = 0; attempt < VEHICLE_TRIES; attempt++) {
+            int v = Arrays.binarySearch(cumulativeDemand, random.nextDouble() * total);
+            v = v < 0 ? -v - 1 : v;
+            if (!summer && FleetCatalog.MODELS[vehicleModels[v]].type == Vehicle.VehicleType.CONVERTIBLE
+                    && random.nextDouble() < 0.7) {
+                continue;
+            }
+            // Vehicles out of use now were last rented two weeks before
+            if (vehicleStates[v] != AVAILABLE && endDay > asOfDay - 14) {
+                continue;
+            }
+            if (freeFrom[v] <= startDay) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    private void writeBookings() throws IOException {
+        Random random = new Random(seed * 31 + 3);
+        long start = System.nanoTime();
+        double[] weights = new double[(int) (lastDay - firstDay + 1)];
+        double totalWeight = 0;
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = dayWeight(firstDay + i);
+            totalWeight += weights[i];
+        }
+        double perWeight = bookingTarget / totalWeight;
+
+        try (CsvChannelWriter bookings = new CsvChannelWriter(out.resolve("bookings.csv"));
+             CsvChannelWriter history = new CsvChannelWriter(out.resolve("rental_history.csv"))) {
+            for (long day = firstDay; day <= lastDay; day++) {
+                LocalDate date = LocalDate.ofEpochDay(day);
+                boolean summer = date.getMonthValue() >= 5 && date.getMonthValue() <= 9;
+                boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+                boolean holiday = isHoliday(date);
+                double expected = weights[(int) (day - firstDay)] * perWeight;
+                long count = (long) expected + (random.nextDouble() < expected - (long) expected ? 1 : 0);
+                for (long i = 0; i < count; i++) {
+                    int days = Math.min(MAX_RENTAL_DAYS, 1 + (int) (-Math.log(1 - random.nextDouble()) * 3.5));
+                    int vehicle = pickVehicle(day, day + days, summer, random);
+                    if (vehicle < 0) {
+                        lostDemand++;
+                        continue;
+                    }
+                    writeBooking(bookings, history, random, vehicle, day, days, weekend, holiday);
+                }
+            }
+            bookings.finish();
+            history.finish();
+            report("bookings", bookingCount, bookings.getBytesWritten(), start);
+            report("rental_history", historyCount, history.getBytesWritten(), start);
+            System.out.println(String.format("  %,d booking requests found no free vehicle", lostDemand));
+        }
+    }
+
+    private void writeBooking(CsvChannelWriter bookings, CsvChannelWriter history, Random random, int vehicle,
+                              long startDay, int days, boolean weekend, boolean holiday) throws IOException {
+        long endDay = startDay + days;
+        int userId = pickUser(startDay, random);
+        long joined = userJoinSecond(userId);
+        long createdDay = Math.max(joined / 86_400,
+                startDay - Math.min(120, (int) (-Math.log(1 - random.nextDouble()) * 10)));
+        createdDay = Math.min(createdDay, asOfDay);
+        int createdSecond = 8 * 3600 + random.nextInt(12 * 3600);
+        if (createdDay == joined / 86_400) {
+            // Booked on the day of joining: after the account was created
+            createdSecond = (int) Math.min(86_399, Math.max(createdSecond, joined % 86_400 + 60));
+        }
+
+        FleetCatalog.Model model = FleetCatalog.MODELS[vehicleModels[vehicle]];
+        long amountCents = model.pricing.quoteRate(days, weekend, holiday, true).getCents();
+        if (random.nextInt(100) < 40) {
+            amountCents += model.pricing.quoteInsurance(days).getCents();
+        }
+
+        Booking.BookingStatus status;
+        Booking.PaymentStatus payment;
+        RentalHistory.RentalStatus outcome = null;
+        long updatedDay = createdDay;
+        double roll = random.nextDouble();
+        if (endDay <= asOfDay) {
+            if (roll < 0.06) {
+                status = Booking.BookingStatus.CANCELLED;
+                payment = roll < 0.036 ? Booking.PaymentStatus.REFUNDED : Booking.PaymentStatus.PENDING;
+                outcome = RentalHistory.RentalStatus.CANCELLED;
+                updatedDay = createdDay + (long) ((startDay - createdDay) * random.nextDouble());
+            } else if (roll < 0.08) {
+                // No-show: charged, and the vehicle stood unused
+                status = Booking.BookingStatus.CANCELLED;
+                payment = Booking.PaymentStatus.PAID;
+                outcome = RentalHistory.RentalStatus.NO_SHOW;
+                updatedDay = startDay + 1;
+            } else {
+                status = Booking.BookingStatus.COMPLETED;
+                payment = Booking.PaymentStatus.PAID;
+                outcome = RentalHistory.RentalStatus.COMPLETED;
+                updatedDay = endDay;
+            }
+        } else if (startDay <= asOfDay) {
+            if (roll < 0.03) {
+                status = Booking.BookingStatus.CANCELLED;
+                payment = Booking.PaymentStatus.REFUNDED;
+            } else {
+                status = Booking.BookingStatus.ACTIVE;
+                payment = Booking.PaymentStatus.PAID;
+                updatedDay = startDay;
+            }
+        } else if (roll < 0.05) {
+            status = Booking.BookingStatus.CANCELLED;
+            payment = Booking.PaymentStatus.PENDING;
+        } else if (roll < 0.30) {
+            status = Booking.BookingStatus.PENDING;
+            payment = Booking.PaymentStatus.PENDING;
+        } else {
+            status = Booking.BookingStatus.CONFIRMED;
+            payment = roll < 0.58 ? Booking.PaymentStatus.PAID : Booking.PaymentStatus.PENDING;
+        }
+
+        boolean late = outcome == RentalHistory.RentalStatus.COMPLETED && random.nextInt(100) < 8;
+        if (status != Booking.BookingStatus.CANCELLED) {
+            // Until returned; a late return keeps the vehicle a day longer
+            freeFrom[vehicle] = late ? endDay + 1 : endDay;
+            if (status == Booking.BookingStatus.COMPLETED) {
+                rentedDays[vehicle] += late ? days + 1 : days;
+            } else if (status == Booking.BookingStatus.ACTIVE) {
+                rentedDays[vehicle] += (int) (asOfDay - startDay);
+                rentedNow[vehicle] = true;
+            }
+        }
+
+        long bookingId = ++bookingCount;
+        String pickup = FleetCatalog.LOCATIONS[random.nextInt(FleetCatalog.LOCATIONS.length)];
+        String dropoff = random.nextInt(100) < 85 ? pickup
+                : FleetCatalog.LOCATIONS[random.nextInt(FleetCatalog.LOCATIONS.length)];
+        String created = timestamp(createdDay, createdSecond);
+        String updated = updatedDay == createdDay ? created : timestamp(updatedDay, 9 * 3600 + random.nextInt(9 * 3600));
+        bookings.field(bookingId)
+                .field(userId)
+                .field(vehicle + 1)
+                .field(date(startDay))
+                .field(date(endDay))
+                .field(pickup)
+                .field(dropoff)
+                .decimalField(amountCents)
+                .field(status.name().toLowerCase())
+                .field(payment.name().toLowerCase())
+                .field(created)
+                .field(updated);
+        bookings.endRow();
+
+        if (outcome != null) {
+            String returned = outcome != RentalHistory.RentalStatus.COMPLETED ? NULL : date(late ? endDay + 1 : endDay);
+            String notes = late ? "Returned late"
+                    : outcome == RentalHistory.RentalStatus.COMPLETED && random.nextInt(100) < 3
+                    ? FleetCatalog.RETURN_NOTES[random.nextInt(FleetCatalog.RETURN_NOTES.length)] : NULL;
+            history.field(++historyCount)
+                    .field(bookingId)
+                    .field(userId)
+                    .field(vehicle + 1)
+                    .field(date(startDay))
+                    .field(date(endDay))
+                    .field(returned)
+                    .decimalField(amountCents)
+                    .field(outcome.name().toLowerCase())
+                    .field(notes)
+                    .field(updated);
+            history.endRow();
+        }
+    }
+
+    private void writeVehicles() throws IOException {
+        Random random = new Random(seed * 31 + 4);
+        long start = System.nanoTime();
+        try (CsvChannelWriter writer = new CsvChannelWriter(out.resolve("vehicles.csv"))) {
+            for (int v = 0; v < vehicleCount; v++) {
+                FleetCatalog.Model model = FleetCatalog.MODELS[vehicleModels[v]];
+                int age = asOf.getYear() - vehicleYears[v];
+                String state = vehicleStates[v] == MAINTENANCE ? Vehicle.VehicleStatus.MAINTENANCE.getValue()
+                        : vehicleStates[v] == OUT_OF_SERVICE ? Vehicle.VehicleStatus.OUT_OF_SERVICE.getValue()
+                        : rentedNow[v] ? Vehicle.VehicleStatus.RENTED.getValue()
+                        : Vehicle.VehicleStatus.AVAILABLE.getValue();
+                // Vehicles joined the fleet during the year before the history
+                String created = timestamp(firstDay - 1 - random.nextInt(USER_LEAD_DAYS), 7 * 3600);
+
+                writer.field(v + 1)
+                        .field(model.make)
+                        .field(model.model)
+                        .field(vehicleYears[v])
+                        .field(FleetCatalog.COLORS[random.nextInt(FleetCatalog.COLORS.length)])
+                        .field(licensePlate(v + 1))
+                        .field(model.type.getValue())
+                        .field(model.fuels[random.nextInt(model.fuels.length)].getValue())
+                        .field(random.nextInt(100) < model.automaticPercent
+                                ? Vehicle.Transmission.AUTOMATIC.getValue() : Vehicle.Transmission.MANUAL.getValue())
+                        .field(model.seats)
+                        .field(age * 9000L + random.nextInt(5000) + rentedDays[v] * 180L)
+                        .field(state)
+                        .decimalField(model.dailyRateCents)
+                        .field(NULL)
+                        .field(model.description)
+                        .field(created)
+                        .field(created);
+                writer.endRow();
+            }
+            writer.finish();
+            report("vehicles", vehicleCount, writer.getBytesWritten(), start);
+        }
+    }
+
+    /**
+     * Unique plate of a vehicle: three letters and four digits
+     */
+    static String licensePlate(int vehicleId) {
+        int n = vehicleId - 1;
+        int letters = n / 10_000;
+        char[] plate = new char[7];
+        for (int i = 2; i >= 0; i--) {
+            plate[i] = (char) ('A' + letters % 26);
+            letters /= 26;
+        }
+        int digits = n % 10_000;
+        for (int i = 6; i >= 3; i--) {
+            plate[i] = (char) ('0' + digits % 10);
+            digits /= 10;
+        }
+        return new String(plate);
+    }
+
+    private String date(long epochDay) {
+        return dates[(int) (epochDay - userFirstDay)];
+    }
+
+    private String timestamp(long epochDay, int secondOfDay) {
+        int hour = secondOfDay / 3600;
+        int minute = secondOfDay / 60 % 60;
+        int second = secondOfDay % 60;
+        return new StringBuilder(19).append(date(epochDay)).append(' ')
+                .append((char) ('0' + hour / 10)).append((char) ('0' + hour % 10)).append(':')
+                .append((char) ('0' + minute / 10)).append((char) ('0' + minute % 10)).append(':')
+                .append((char) ('0' + second / 10)).append((char) ('0' + second % 10))
+                .toString();
+    }
+
+    private static void report(String table, long rows, long bytes, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.println(String.format("  %-15s %,14d rows %,10.1f MB %8.1f s", table, rows,
+                bytes / (1024.0 * 1024.0), seconds));
+    }
+
+    private void writeLoadScript() throws IOException {
+        try (PrintWriter script = new PrintWriter(Files.newBufferedWriter(out.resolve("load.sql"),
+                StandardCharsets.UTF_8))) {
+            script.println(String.format("-- Generated by tools.datagen.DataGenerator: %d vehicles, %d users, "
+                    + "%d bookings, %d rental history rows (seed %d, as of %s)", vehicleCount, userCount,
+                    bookingCount, historyCount, seed, asOf));
+            script.println("-- Replaces all users, vehicles, bookings and rental history.");
+            script.println("-- Run with: mysql --local-infile=1 -u root -p < load.sql");
+            script.println("USE vehiclerentaldb;");
+            script.println("SET FOREIGN_KEY_CHECKS = 0;");
+            script.println("SET UNIQUE_CHECKS = 0;");
+            script.println("TRUNCATE TABLE rental_history;");
+            script.println("TRUNCATE TABLE bookings;");
+            script.println("TRUNCATE TABLE vehicles;");
+            script.println("TRUNCATE TABLE users;");
+            loadData(script, "users.csv", "users", "user_id, username, email, password_hash, first_name, "
+                    + "last_name, phone, address, license_number, date_of_birth, created_at, updated_at");
+            loadData(script, "vehicles.csv", "vehicles", "vehicle_id, make, model, year, color, license_plate, "
+                    + "vehicle_type, fuel_type, transmission, seating_capacity, mileage, status, daily_rate, "
+                    + "image_path, description, created_at, updated_at");
+            loadData(script, "bookings.csv", "bookings", "booking_id, user_id, vehicle_id, start_date, end_date, "
+                    + "pickup_location, dropoff_location, total_amount, status, payment_status, created_at, "
+                    + "updated_at");
+            loadData(script, "rental_history.csv", "rental_history", "history_id, booking_id, user_id, vehicle_id, "
+                    + "start_date, end_date, actual_return_date, total_amount, status, notes, created_at");
+            script.println("SET UNIQUE_CHECKS = 1;");
+            script.println("SET FOREIGN_KEY_CHECKS = 1;");
+            script.println("ANALYZE TABLE users, vehicles, bookings, rental_history;");
+        }
+    }
+
+    private void loadData(PrintWriter script, String file, String table, String columns) {
+        String path = out.resolve(file).toAbsolutePath().toString().replace('\\', '/').replace("'", "\\'");
+        script.println("LOAD DATA LOCAL INFILE '" + path + "' INTO TABLE " + table + " CHARACTER SET utf8mb4");
+        script.println("    FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' LINES TERMINATED BY '\\n'");
+        script.println("    (" + columns + ");");
+    }
+}
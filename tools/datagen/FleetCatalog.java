@@ -0,0 +1,130 @@
+package tools.datagen;
+
+import backend.models.Pricing;
+import backend.models.Vehicle;
+
+import java.math.BigDecimal;
+
+/**
+ * Models, colours and person names the generator draws from. Models are
+ * listed most popular first; popularity sets both a model's share of the
+ * fleet and how often each of its vehicles is asked for.
+ */
+final class FleetCatalog {
+
+    /**
+     * One make and model of the fleet
+     */
+    static final class Model {
+        final String make;
+        final String model;
+        final Vehicle.VehicleType type;
+        final int seats;
+        final long dailyRateCents;
+        final Vehicle.FuelType[] fuels;
+        // Share of vehicles with an automatic transmission, in percent
+        final int automaticPercent;
+        final String description;
+        final double popularity;
+        // Rates of the model, with the multipliers of its type in the seeded pricing table
+        final Pricing pricing;
+
+        Model(String make, String model, Vehicle.VehicleType type, int seats, long dailyRateCents,
+              Vehicle.FuelType[] fuels, int automaticPercent, String description, double popularity) {
+            this.make = make;
+            this.model = model;
+            this.type = type;
+            this.seats = seats;
+            this.dailyRateCents = dailyRateCents;
+            this.fuels = fuels;
+            this.automaticPercent = automaticPercent;
+            this.description = description;
+            this.popularity = popularity;
+            this.pricing = new Pricing(type, BigDecimal.valueOf(dailyRateCents, 2),
+                    new BigDecimal(type == Vehicle.VehicleType.CONVERTIBLE ? "1.3" : "1.2"),
+                    new BigDecimal(type == Vehicle.VehicleType.CONVERTIBLE ? "1.6" : "1.5"),
+                    new BigDecimal("0.9"), insuranceRate(type));
+        }
+    }
+
+    private static final Vehicle.FuelType[] GAS = {Vehicle.FuelType.GASOLINE};
+    private static final Vehicle.FuelType[] GAS_HYBRID = {Vehicle.FuelType.GASOLINE, Vehicle.FuelType.HYBRID};
+    private static final Vehicle.FuelType[] GAS_DIESEL = {Vehicle.FuelType.GASOLINE, Vehicle.FuelType.DIESEL};
+    private static final Vehicle.FuelType[] ELECTRIC = {Vehicle.FuelType.ELECTRIC};
+
+    static final Model[] MODELS;
+
+    static {
+        Object[][] rows = {
+                {"Toyota", "Camry", Vehicle.VehicleType.SEDAN, 5, 4500, GAS_HYBRID, 100, "Comfortable sedan perfect for city driving"},
+                {"Toyota", "Corolla", Vehicle.VehicleType.SEDAN, 5, 4000, GAS_HYBRID, 95, "Reliable compact sedan with low running costs"},
+                {"Honda", "CR-V", Vehicle.VehicleType.SUV, 5, 5500, GAS_HYBRID, 100, "Spacious SUV ideal for family trips"},
+                {"Honda", "Civic", Vehicle.VehicleType.SEDAN, 5, 4200, GAS, 85, "Sporty compact sedan"},
+                {"Ford", "Focus", Vehicle.VehicleType.HATCHBACK, 5, 3500, GAS_DIESEL, 60, "Economical hatchback with great fuel efficiency"},
+                {"Nissan", "Rogue", Vehicle.VehicleType.SUV, 5, 5200, GAS, 100, "Compact SUV with all-wheel drive"},
+                {"Volkswagen", "Golf", Vehicle.VehicleType.HATCHBACK, 5, 3800, GAS_DIESEL, 55, "Practical hatchback for city and highway"},
+                {"Hyundai", "Elantra", Vehicle.VehicleType.SEDAN, 5, 3900, GAS_HYBRID, 90, "Well-equipped sedan at an economy price"},
+                {"Ford", "F-150", Vehicle.VehicleType.TRUCK, 5, 7000, GAS_DIESEL, 100, "Full-size pickup for moving and hauling"},
+                {"Chevrolet", "Suburban", Vehicle.VehicleType.SUV, 8, 8500, GAS, 100, "Large SUV perfect for group travel"},
+                {"Tesla", "Model 3", Vehicle.VehicleType.SEDAN, 5, 8000, ELECTRIC, 100, "Electric sedan with long range"},
+                {"Kia", "Sportage", Vehicle.VehicleType.SUV, 5, 5000, GAS_HYBRID, 95, "Versatile compact SUV"},
+                {"Chrysler", "Pacifica", Vehicle.VehicleType.VAN, 7, 6000, GAS_HYBRID, 100, "Minivan with room for seven"},
+                {"BMW", "3 Series", Vehicle.VehicleType.SEDAN, 5, 7500, GAS_DIESEL, 100, "Luxury sedan with premium features"},
+                {"Mazda", "MX-5", Vehicle.VehicleType.CONVERTIBLE, 2, 6500, GAS, 40, "Two-seat roadster for sunny days"},
+                {"Ram", "1500", Vehicle.VehicleType.TRUCK, 5, 7200, GAS_DIESEL, 100, "Pickup with a comfortable cabin"},
+                {"Ford", "Transit", Vehicle.VehicleType.VAN, 12, 9000, GAS_DIESEL, 90, "Passenger van for large groups"},
+                {"Volkswagen", "ID.4", Vehicle.VehicleType.SUV, 5, 6800, ELECTRIC, 100, "Electric SUV with fast charging"},
+                {"Ford", "Mustang", Vehicle.VehicleType.CONVERTIBLE, 4, 9500, GAS, 80, "Iconic convertible muscle car"},
+                {"Mercedes-Benz", "E-Class", Vehicle.VehicleType.SEDAN, 5, 11000, GAS_DIESEL, 100, "Executive sedan"},
+                {"BMW", "4 Series", Vehicle.VehicleType.CONVERTIBLE, 4, 12000, GAS, 100, "Premium convertible coupe"},
+                {"Mercedes-Benz", "Sprinter", Vehicle.VehicleType.VAN, 3, 9500, GAS_DIESEL, 70, "Cargo van for moving day"},
+        };
+        MODELS = new Model[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            Object[] row = rows[i];
+            MODELS[i] = new Model((String) row[0], (String) row[1], (Vehicle.VehicleType) row[2], (Integer) row[3],
+                    (Integer) row[4], (Vehicle.FuelType[]) row[5], (Integer) row[6], (String) row[7],
+                    1 / Math.pow(i + 1, 0.6));
+        }
+    }
+
+    static final String[] COLORS = {"White", "Black", "Silver", "Gray", "Blue", "Red", "Green", "Beige", "Brown",
+            "Orange"};
+
+    static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Charles", "Karen", "Daniel", "Lisa", "Matthew", "Nancy", "Anthony", "Sandra", "Mark", "Ashley",
+            "Priya", "Wei", "Carlos", "Fatima", "Hiroshi", "Aisha", "Mateo", "Olga", "Kwame", "Ingrid", "Ravi", "Lucia"};
+
+    static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas",
+            "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris", "Clark", "Lewis",
+            "Patel", "Chen", "Nguyen", "Kim", "Singh", "Okafor", "Novak", "Rossi", "Silva", "Müller", "O'Brien"};
+
+    static final String[] STREETS = {"Main St", "Oak Ave", "Maple Dr", "Cedar Ln", "Park Rd", "Pine St",
+            "Elm St", "Lake View Rd", "Hillcrest Ave", "River Rd", "Sunset Blvd", "Washington St"};
+
+    static final String[] CITIES = {"Springfield", "Riverside", "Franklin", "Greenville", "Fairview", "Madison",
+            "Georgetown", "Clinton", "Salem", "Arlington", "Ashland", "Dover"};
+
+    static final String[] LOCATIONS = {"Downtown Office", "Airport Terminal 1", "Airport Terminal 2",
+            "Central Station", "Harbor Branch", "North Mall", "University Campus", "Westside Branch"};
+
+    static final String[] RETURN_NOTES = {"Returned with low fuel", "Minor scratch on rear bumper",
+            "Interior cleaning required", "Customer requested receipt by email", "Tire pressure warning reported"};
+
+    private FleetCatalog() {
+    }
+
+    // Insurance rates of the seeded pricing table
+    private static BigDecimal insuranceRate(Vehicle.VehicleType type) {
+        switch (type) {
+            case SUV: return new BigDecimal("18.00");
+            case HATCHBACK: return new BigDecimal("12.00");
+            case CONVERTIBLE: return new BigDecimal("20.00");
+            case TRUCK: return new BigDecimal("22.00");
+            case VAN: return new BigDecimal("19.00");
+            default: return new BigDecimal("15.00");
+        }
+    }
+}
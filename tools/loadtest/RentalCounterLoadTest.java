@@ -0,0 +1,455 @@
+package tools.loadtest;
+
+import backend.analytics.FleetOccupancy;
+import backend.dao.BookingDAO;
+import backend.dao.UserDAO;
+import backend.dao.VehicleDAO;
+import backend.db.DBConnection;
+import backend.db.JdbcMetrics;
+import backend.models.Booking;
+import backend.models.User;
+import backend.models.VehicleSummary;
+import backend.service.QuoteService;
+import backend.util.LatencyHistogram;
+import backend.util.MetricsRegistry;
+import backend.util.PasswordUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load generator of a rental counter: N simulated clerks, each on
+ * its own thread, run a weighted mix of logins, vehicle searches,
+ * availability checks, quotes, bookings and cancellations against the
+ * database through the application's DAOs and services, with an
+ * exponentially distributed think time between operations. After the
+ * warm-up it reports, per operation, the throughput, the latency
+ * percentiles and the conflict and error rates.
+ *
+ * A booking quotes the period, picks one of the cheapest available vehicles
+ * (so that clerks compete for the same cars) and inserts it as confirmed.
+ * It is a conflict when no vehicle is free, and a double booking when the
+ * vehicle was already booked by another clerk for overlapping days. A
+ * cancellation picks a booking made by the test; losing the race to another
+ * clerk cancelling it is a conflict. Errors are operations that failed,
+ * plus the SQL errors counted by the JDBC instrumentation.
+ *
+ * Each clerk logs in as its own customer account, loadtest_clerk_N, which
+ * is created when missing. Bookings the test made and did not cancel are
+ * cancelled at the end unless --keep-bookings is given. The connection
+ * pool is sized to the number of clerks unless
+ * {@value DBConnection#POOL_SIZE_PROPERTY} is set.
+ *
+ * Usage: java -cp classes:mysql-connector-j-9.4.0.jar tools.loadtest.RentalCounterLoadTest
+ *        [--clerks n] [--duration s] [--warmup s] [--think-ms ms] [--seed n] [--keep-bookings]
+ *        [--mix login=5,search=25,availability=25,quote=25,book=15,cancel=5]
+ */
+public final class RentalCounterLoadTest {
+    private static final String USERNAME_PREFIX = "loadtest_clerk_";
+    private static final String PASSWORD = "LoadTest#2024";
+    private static final int MAX_LEAD_DAYS = 60;
+    private static final int MAX_RENTAL_DAYS = 14;
+    // Bookings pick among this many of the cheapest available vehicles
+    private static final int CHEAPEST_CHOICES = 5;
+
+    enum Operation { LOGIN, SEARCH, AVAILABILITY, QUOTE, BOOK, CANCEL }
+
+    enum Outcome { OK, CONFLICT, ERROR }
+
+    /**
+     * Latency and outcomes of one operation, recorded during the measured period only
+     */
+    private static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder conflicts = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Booking made by the test; days are epoch days, [startDay, endDay)
+     */
+    private static final class TestBooking {
+        final int bookingId;
+        final int vehicleId;
+        final long startDay;
+        final long endDay;
+
+        TestBooking(int bookingId, int vehicleId, long startDay, long endDay) {
+            this.bookingId = bookingId;
+            this.vehicleId = vehicleId;
+            this.startDay = startDay;
+            this.endDay = endDay;
+        }
+    }
+
+    private final int clerks;
+    private final long thinkMillis;
+    private final long seed;
+    private final Operation[] mix;
+
+    private final UserDAO userDAO = new UserDAO();
+    private final VehicleDAO vehicleDAO = new VehicleDAO();
+    private final BookingDAO bookingDAO = new BookingDAO(vehicleDAO);
+    private final QuoteService quoteService = new QuoteService();
+    private final FleetOccupancy occupancy = FleetOccupancy.getInstance();
+
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LatencyHistogram allLatency = new LatencyHistogram();
+    private final List<String> searchTerms = new ArrayList<>();
+    private final int[] userIds;
+
+    // Bookings of the test not cancelled yet; the pool is guarded by itself
+    private final List<TestBooking> bookingPool = new ArrayList<>();
+    private final Map<Integer, List<TestBooking>> bookingsByVehicle = new ConcurrentHashMap<>();
+    private final LongAdder doubleBookings = new LongAdder();
+
+    private volatile boolean running = true;
+    // Operations that start and end in [measureFrom, measureUntil] are recorded
+    private volatile long measureFrom = Long.MAX_VALUE;
+    private volatile long measureUntil = Long.MAX_VALUE;
+
+    private RentalCounterLoadTest(int clerks, long thinkMillis, long seed, Map<Operation, Integer> weights) {
+        this.clerks = clerks;
+        this.thinkMillis = thinkMillis;
+        this.seed = seed;
+        this.userIds = new int[clerks];
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            for (int i = 0; i < weight.getValue(); i++) {
+                slots.add(weight.getKey());
+            }
+        }
+        this.mix = slots.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clerks = 8;
+        int durationSeconds = 60;
+        int warmupSeconds = 10;
+        long thinkMillis = 200;
+        long seed = 42;
+        boolean keepBookings = false;
+        Map<Operation, Integer> weights = parseMix("login=5,search=25,availability=25,quote=25,book=15,cancel=5");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--clerks": clerks = Integer.parseInt(args[++i]); break;
+                case "--duration": durationSeconds = Integer.parseInt(args[++i]); break;
+                case "--warmup": warmupSeconds = Integer.parseInt(args[++i]); break;
+                case "--think-ms": thinkMillis = Long.parseLong(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--keep-bookings": keepBookings = true; break;
+                case "--mix": weights = parseMix(args[++i]); break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.exit(1);
+            }
+        }
+        if (clerks < 1 || durationSeconds < 1 || warmupSeconds < 0 || thinkMillis < 0) {
+            System.err.println("--clerks and --duration must be positive, --warmup and --think-ms not negative");
+            System.exit(1);
+        }
+        // Before DBConnection is loaded: one connection per clerk, so the pool is not the bottleneck
+        if (System.getProperty(DBConnection.POOL_SIZE_PROPERTY) == null) {
+            System.setProperty(DBConnection.POOL_SIZE_PROPERTY, Integer.toString(clerks));
+        }
+
+        RentalCounterLoadTest test = new RentalCounterLoadTest(clerks, thinkMillis, seed, weights);
+        if (!test.setUp()) {
+            System.exit(1);
+        }
+        test.run(warmupSeconds, durationSeconds);
+        if (!keepBookings) {
+            test.cancelRemainingBookings();
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Parse weights such as "search=3,book=1"; operations left out get weight 0
+     */
+    static Map<Operation, Integer> parseMix(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight: " + part);
+            }
+            Operation operation;
+            try {
+                operation = Operation.valueOf(pair[0].trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown operation " + pair[0].trim() + " (operations: "
+                        + Arrays.toString(Operation.values()).toLowerCase() + ")");
+            }
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The mix has no operation: " + spec);
+        }
+        return weights;
+    }
+
+    private boolean setUp() {
+        if (!DBConnection.testConnection()) {
+            System.err.println("The load test needs the database at " + DBConnection.getConnectionURL());
+            return false;
+        }
+        List<VehicleSummary> fleet = vehicleDAO.getVehicleSummaries();
+        if (fleet.isEmpty()) {
+            System.err.println("The fleet is empty; load the sample data first");
+            return false;
+        }
+        for (VehicleSummary vehicle : fleet) {
+            if (!searchTerms.contains(vehicle.getMake())) {
+                searchTerms.add(vehicle.getMake());
+            }
+            if (!searchTerms.contains(vehicle.getModel())) {
+                searchTerms.add(vehicle.getModel());
+            }
+        }
+
+        String passwordHash = PasswordUtils.createCombinedHash(PASSWORD);
+        for (int i = 0; i < clerks; i++) {
+            String username = USERNAME_PREFIX + i;
+            User user = userDAO.getUserByUsername(username);
+            if (user == null) {
+                user = new User(username, username + "@loadtest.invalid", passwordHash, "Load", "Test " + i,
+                        null, null, null, LocalDate.of(1990, 1, 1));
+                if (!userDAO.createUser(user)) {
+                    System.err.println("Could not create the test user " + username);
+                    return false;
+                }
+            }
+            userIds[i] = user.getUserId();
+        }
+        // Build the occupancy aggregates before the clock starts
+        occupancy.getOccupiedVehicleIds(LocalDate.now(), LocalDate.now().plusDays(1));
+        System.out.println("Fleet of " + fleet.size() + " vehicles, " + clerks + " clerks, connection pool of "
+                + System.getProperty(DBConnection.POOL_SIZE_PROPERTY));
+        return true;
+    }
+
+    private void run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+        long jdbcErrorsBefore = MetricsRegistry.getInstance().counter("db.errors").getCount();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clerks; i++) {
+            int clerk = i;
+            Thread thread = new Thread(() -> clerk(clerk), "clerk-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+
+        System.out.println("Warming up for " + warmupSeconds + " s, then measuring for " + durationSeconds + " s");
+        Thread.sleep(warmupSeconds * 1000L);
+        long jdbcErrorsAtStart = MetricsRegistry.getInstance().counter("db.errors").getCount();
+        long start = System.nanoTime();
+        measureUntil = start + durationSeconds * 1_000_000_000L;
+        measureFrom = start;
+        Thread.sleep(durationSeconds * 1000L);
+        long jdbcErrors = MetricsRegistry.getInstance().counter("db.errors").getCount() - jdbcErrorsAtStart;
+        running = false;
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        report(durationSeconds, jdbcErrors);
+        long setUpErrors = jdbcErrorsAtStart - jdbcErrorsBefore;
+        if (setUpErrors > 0) {
+            System.out.println("SQL errors during the warm-up: " + setUpErrors);
+        }
+    }
+
+    private void clerk(int clerk) {
+        Random random = new Random(seed + clerk);
+        String username = USERNAME_PREFIX + clerk;
+        while (running) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            long start = System.nanoTime();
+            Outcome outcome;
+            try {
+                outcome = perform(operation, clerk, username, random);
+            } catch (RuntimeException e) {
+                System.err.println("Error in " + operation + ": " + e);
+                outcome = Outcome.ERROR;
+            }
+            long end = System.nanoTime();
+            if (outcome != null && start >= measureFrom && end <= measureUntil) {
+                OperationStats operationStats = stats.get(operation);
+                operationStats.latency.record(end - start);
+                allLatency.record(end - start);
+                if (outcome == Outcome.CONFLICT) {
+                    operationStats.conflicts.increment();
+                } else if (outcome == Outcome.ERROR) {
+                    operationStats.errors.increment();
+                }
+            }
+            if (thinkMillis > 0) {
+                long think = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis);
+                try {
+                    Thread.sleep(think);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the outcome, null if there was nothing to do (no booking to cancel)
+     */
+    private Outcome perform(Operation operation, int clerk, String username, Random random) {
+        LocalDate start = LocalDate.now().plusDays(random.nextInt(MAX_LEAD_DAYS));
+        LocalDate end = start.plusDays(1 + random.nextInt(MAX_RENTAL_DAYS));
+        switch (operation) {
+            case LOGIN:
+                return userDAO.authenticateUser(username, PASSWORD) != null ? Outcome.OK : Outcome.ERROR;
+            case SEARCH:
+                vehicleDAO.searchVehicles(searchTerms.get(random.nextInt(searchTerms.size())));
+                return Outcome.OK;
+            case AVAILABILITY: {
+                List<VehicleSummary> available = vehicleDAO.getAvailableVehicleSummaries();
+                Set<Integer> occupied = occupancy.getOccupiedVehicleIds(start, end);
+                return available.stream().anyMatch(v -> !occupied.contains(v.getVehicleId()))
+                        ? Outcome.OK : Outcome.CONFLICT;
+            }
+            case QUOTE:
+                quoteService.quoteAll(start, end, QuoteService.QuoteOptions.DEFAULT);
+                return Outcome.OK;
+            case BOOK:
+                return book(clerk, start, end, random);
+            case CANCEL:
+                return cancel(random);
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private Outcome book(int clerk, LocalDate start, LocalDate end, Random random) {
+        // Available quotes come first, cheapest first
+        List<QuoteService.VehicleQuote> quotes = quoteService.quoteAll(start, end, QuoteService.QuoteOptions.DEFAULT);
+        if (quotes.isEmpty()) {
+            return Outcome.CONFLICT;
+        }
+        QuoteService.VehicleQuote quote = quotes.get(random.nextInt(Math.min(CHEAPEST_CHOICES, quotes.size())));
+        int vehicleId = quote.getVehicle().getVehicleId();
+        Booking booking = new Booking(userIds[clerk], vehicleId, start, end, "Counter", "Counter",
+                quote.getTotal().toBigDecimal(), Booking.BookingStatus.CONFIRMED, Booking.PaymentStatus.PENDING);
+        if (!bookingDAO.addBooking(booking)) {
+            return Outcome.ERROR;
+        }
+
+        TestBooking made = new TestBooking(booking.getBookingId(), vehicleId, start.toEpochDay(), end.toEpochDay());
+        boolean doubleBooked = false;
+        List<TestBooking> onVehicle = bookingsByVehicle.computeIfAbsent(vehicleId, id -> new ArrayList<>());
+        synchronized (onVehicle) {
+            for (TestBooking other : onVehicle) {
+                if (other.startDay < made.endDay && made.startDay < other.endDay) {
+                    doubleBooked = true;
+                    break;
+                }
+            }
+            onVehicle.add(made);
+        }
+        synchronized (bookingPool) {
+            bookingPool.add(made);
+        }
+        if (doubleBooked) {
+            doubleBookings.increment();
+            return Outcome.CONFLICT;
+        }
+        return Outcome.OK;
+    }
+
+    private Outcome cancel(Random random) {
+        TestBooking booking;
+        synchronized (bookingPool) {
+            if (bookingPool.isEmpty()) {
+                return null;
+            }
+            // Left in the pool until cancelled, so two clerks may race for it
+            booking = bookingPool.get(random.nextInt(bookingPool.size()));
+        }
+        boolean cancelled = bookingDAO.cancelBooking(booking.bookingId);
+        forget(booking);
+        return cancelled ? Outcome.OK : Outcome.CONFLICT;
+    }
+
+    private void forget(TestBooking booking) {
+        synchronized (bookingPool) {
+            bookingPool.remove(booking);
+        }
+        List<TestBooking> onVehicle = bookingsByVehicle.get(booking.vehicleId);
+        synchronized (onVehicle) {
+            onVehicle.remove(booking);
+        }
+    }
+
+    private void cancelRemainingBookings() {
+        List<TestBooking> remaining;
+        synchronized (bookingPool) {
+            remaining = new ArrayList<>(bookingPool);
+        }
+        int cancelled = 0;
+        for (TestBooking booking : remaining) {
+            if (bookingDAO.cancelBooking(booking.bookingId)) {
+                cancelled++;
+            }
+            forget(booking);
+        }
+        System.out.println("Cancelled " + cancelled + " bookings left by the test (--keep-bookings keeps them)");
+    }
+
+    private void report(int durationSeconds, long jdbcErrors) {
+        System.out.println();
+        System.out.printf("%-13s %9s %9s %10s %8s %9s %9s %9s %9s%n", "operation", "count", "ops/s",
+                "conflict %", "error %", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        long totalCount = 0;
+        long totalConflicts = 0;
+        long totalErrors = 0;
+        for (Operation operation : Operation.values()) {
+            OperationStats operationStats = stats.get(operation);
+            LatencyHistogram latency = operationStats.latency;
+            long conflicts = operationStats.conflicts.sum();
+            long errors = operationStats.errors.sum();
+            printRow(operation.name().toLowerCase(), latency, conflicts, errors, durationSeconds);
+            totalCount += latency.getCount();
+            totalConflicts += conflicts;
+            totalErrors += errors;
+        }
+        printRow("all", allLatency, totalConflicts, totalErrors, durationSeconds);
+
+        System.out.println();
+        System.out.println("Double bookings: " + doubleBookings.sum()
+                + " (a vehicle booked by two clerks for overlapping days)");
+        System.out.println("SQL errors: " + jdbcErrors + ", over " + totalCount + " operations");
+        System.out.printf("Connection acquire p99: %.2f ms%n", JdbcMetrics.getInstance().getConnectionAcquireP99Millis());
+    }
+
+    private static void printRow(String label, LatencyHistogram latency, long conflicts, long errors,
+                                 int durationSeconds) {
+        long count = latency.getCount();
+        if (count == 0) {
+            System.out.printf("%-13s %9d%n", label, 0);
+            return;
+        }
+        System.out.printf("%-13s %9d %9.1f %10.2f %8.2f %9.2f %9.2f %9.2f %9.2f%n", label, count,
+                count / (double) durationSeconds, 100.0 * conflicts / count, 100.0 * errors / count,
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(95) / 1e6,
+                latency.getValueAtPercentile(99) / 1e6, latency.getMax() / 1e6);
+    }
+}